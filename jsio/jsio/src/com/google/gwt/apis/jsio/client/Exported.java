@@ -13,9 +13,9 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.client;
+package com.google.gwt.apis.jsio.client;
 
-import com.google.gwt.maps.jsio.client.impl.MetaDataName;
+import com.google.gwt.apis.jsio.client.impl.MetaDataName;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
@@ -13,7 +13,7 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.client;
+package com.google.gwt.apis.jsio.client;
 
 import java.util.List;
 
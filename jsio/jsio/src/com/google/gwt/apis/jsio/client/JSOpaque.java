@@ -13,7 +13,7 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.client;
+package com.google.gwt.apis.jsio.client;
 
 /**
  * Allows by-name references to JavaScript values. This is intended for use with
@@ -50,7 +50,7 @@ public class JSOpaque {
   @Override
   public native boolean equals(Object o) /*-{
     // We use eval so that JSOpaques don't have to be generated classes
-    var result = eval(this.@com.google.gwt.maps.jsio.client.JSOpaque::reference);
+    var result = eval(this.@com.google.gwt.apis.jsio.client.JSOpaque::reference);
     
     // Object versus everything else
     if (typeof(result) == 'object' && typeof(o) == 'object') {
@@ -72,8 +72,8 @@ public class JSOpaque {
    *         identity with the value represented by <code>o</code>.
    */
   public final native boolean identityEquals(JSOpaque o) /*-{
-    return eval(this.@com.google.gwt.maps.jsio.client.JSOpaque::reference) ===
-    eval(o.@com.google.gwt.maps.jsio.client.JSOpaque::reference);
+    return eval(this.@com.google.gwt.apis.jsio.client.JSOpaque::reference) ===
+    eval(o.@com.google.gwt.apis.jsio.client.JSOpaque::reference);
     }-*/;
 
   /**
@@ -83,11 +83,11 @@ public class JSOpaque {
    *         identity with <code>o</code>
    */
   public final native boolean identityEquals(Object o) /*-{
-    return eval(this.@com.google.gwt.maps.jsio.client.JSOpaque::reference) === o;
+    return eval(this.@com.google.gwt.apis.jsio.client.JSOpaque::reference) === o;
     }-*/;
 
   @Override
   public native String toString() /*-{
-    return String(eval(this.@com.google.gwt.maps.jsio.client.JSOpaque::reference));
+    return String(eval(this.@com.google.gwt.apis.jsio.client.JSOpaque::reference));
     }-*/;
 }
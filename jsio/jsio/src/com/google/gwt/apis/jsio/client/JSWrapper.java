@@ -13,10 +13,10 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.client;
+package com.google.gwt.apis.jsio.client;
 
 import com.google.gwt.core.client.JavaScriptObject;
-import com.google.gwt.maps.jsio.client.impl.Extractor;
+import com.google.gwt.apis.jsio.client.impl.Extractor;
 
 /**
  * Automatically generates Java/JavaScript interface linkages.
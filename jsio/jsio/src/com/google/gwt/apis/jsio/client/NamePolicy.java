@@ -13,9 +13,9 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.client;
+package com.google.gwt.apis.jsio.client;
 
-import com.google.gwt.maps.jsio.client.impl.MetaDataName;
+import com.google.gwt.apis.jsio.client.impl.MetaDataName;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
@@ -25,7 +25,7 @@ import java.lang.annotation.Target;
  * The policy to use when mangling bean property names to JSON object property
  * names. The value of this annotation can be one of the predefined policy
  * names, or the qualified source name of a type that implement
- * {@link com.google.gwt.maps.jsio.rebind.NamePolicy}.
+ * {@link com.google.gwt.apis.jsio.rebind.NamePolicy}.
  */
 @Documented
 @MetaDataName("gwt.namePolicy")
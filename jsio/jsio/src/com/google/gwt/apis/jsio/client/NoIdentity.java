@@ -13,9 +13,9 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.client;
+package com.google.gwt.apis.jsio.client;
 
-import com.google.gwt.maps.jsio.client.impl.MetaDataName;
+import com.google.gwt.apis.jsio.client.impl.MetaDataName;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
@@ -24,7 +24,7 @@ import java.lang.annotation.Target;
 /**
  * This object disables maintaining a 1:1 identity mapping between a JSWrapper
  * and the backing JSO. The
- * {@value com.google.gwt.maps.jsio.rebind.JSWrapperGenerator#BACKREF} field will not
+ * {@value com.google.gwt.apis.jsio.rebind.JSWrapperGenerator#BACKREF} field will not
  * be added to the JSO. Additionally, {@link JSWrapper#setJavaScriptObject} will
  * no longer throw {@link MultipleWrapperException}.
  */
@@ -13,10 +13,10 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.client.impl;
+package com.google.gwt.apis.jsio.client.impl;
 
 import com.google.gwt.core.client.JavaScriptObject;
-import com.google.gwt.maps.jsio.client.JSONWrapperException;
+import com.google.gwt.apis.jsio.client.JSONWrapperException;
 
 import java.util.AbstractList;
 
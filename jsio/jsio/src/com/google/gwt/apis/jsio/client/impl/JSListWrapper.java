@@ -0,0 +1,306 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.apis.jsio.client.impl;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.JSList;
+import com.google.gwt.apis.jsio.client.JSWrapper;
+
+import java.util.Collection;
+
+/**
+ * This an implementation of List that operates directly on JS arrays of objects
+ * that can be made into JavaScriptObjects.
+ * 
+ * By default every call to {@link #get(int)} runs the {@link Extractor} and
+ * returns a new wrapper. When {@link #setCachingWrappers(boolean) caching} is
+ * enabled, wrappers are remembered in a sparse side table that is kept aligned
+ * with the backing array, so that repeated iteration returns the same
+ * instances. A cached wrapper is only reused while it still wraps the element
+ * at its index, which keeps the cache correct if the array is modified from
+ * JavaScript.
+ * 
+ * @param <T> the type of object stored in the list
+ */
+public final class JSListWrapper<T> extends AbstractJSListWrapper<T> implements
+    JSList<T>, JSWrapper<JSListWrapper<T>> {
+
+  /**
+   * This is used with nested JSLists.
+   */
+  private static class WrappingExtractor<T> implements
+      Extractor<JSListWrapper<T>> {
+    // package protected to avoid style warning, only read from JSNI
+    @SuppressWarnings("unused")
+    private final Extractor<T> subExtractor;
+
+    public WrappingExtractor(Extractor<T> subExtractor) {
+      this.subExtractor = subExtractor;
+    }
+
+    public native JSListWrapper<T> fromJS(JavaScriptObject obj) /*-{
+      var toReturn = @com.google.gwt.apis.jsio.client.impl.JSListWrapper::create(Lcom/google/gwt/apis/jsio/client/impl/Extractor;)(
+      this.@com.google.gwt.apis.jsio.client.impl.JSListWrapper.WrappingExtractor::subExtractor);
+      toReturn.@com.google.gwt.apis.jsio.client.JSWrapper::setJavaScriptObject(Lcom/google/gwt/core/client/JavaScriptObject;)(obj);
+      return toReturn;
+    }-*/;
+
+    public native JavaScriptObject toJS(JSListWrapper<T> o) /*-{
+      return this.@com.google.gwt.apis.jsio.client.JSWrapper::getJavaScriptObject()();
+    }-*/;
+  }
+
+  /**
+   * Used by JSNI code to construct new JSListWrappers.
+   */
+  public static <T> JSListWrapper<T> create(Extractor<T> e) {
+    return new JSListWrapper<T>(e);
+  }
+
+  public static <T> WrappingExtractor<T> createExtractor(final Extractor<T> e) {
+    return new WrappingExtractor<T>(e);
+  }
+
+  private static native Object cacheGet(JavaScriptObject cache, int index) /*-{
+    return cache[index] || null;
+  }-*/;
+
+  private static native void cacheInsert(JavaScriptObject cache, int index,
+      Object value) /*-{
+    if (index < cache.length) {
+      cache.splice(index, 0, value);
+    } else {
+      cache[index] = value;
+    }
+  }-*/;
+
+  private static native void cacheRemove(JavaScriptObject cache, int index,
+      int count) /*-{
+    if (index < cache.length) {
+      cache.splice(index, count);
+    }
+  }-*/;
+
+  private static native void cacheSet(JavaScriptObject cache, int index,
+      Object value) /*-{
+    cache[index] = value;
+  }-*/;
+
+  private static native Object getNative(JavaScriptObject array, int index) /*-{
+    return Object(array[index]);
+  }-*/;
+
+  private static native boolean isSame(JavaScriptObject a,
+      JavaScriptObject b) /*-{
+    return a === b;
+  }-*/;
+
+  private static native void push(JavaScriptObject array, Object value) /*-{
+    array.push(value);
+  }-*/;
+
+  private final Extractor<T> extractor;
+
+  /**
+   * Wrappers previously returned by {@link #get(int)}, indexed like
+   * {@link #arr}, or <code>null</code> if caching is disabled.
+   */
+  private JavaScriptObject wrappers;
+
+  public JSListWrapper(Extractor<T> extractor) {
+    this.extractor = extractor;
+    arr = JavaScriptObject.createArray();
+  }
+
+  @Override
+  public void add(int index, T object) {
+    if (index < 0 || index > size()) {
+      throw new IndexOutOfBoundsException();
+    }
+    splice(arr, index, 0, extractor.toJS(object));
+    if (wrappers != null) {
+      cacheInsert(wrappers, index, object);
+    }
+  }
+
+  /**
+   * Appends all elements of a collection with one array push per element
+   * instead of a splice at the end of the array.
+   */
+  @Override
+  public boolean addAll(Collection<? extends T> c) {
+    int index = size();
+    for (T object : c) {
+      push(arr, extractor.toJS(object));
+      if (wrappers != null) {
+        cacheSet(wrappers, index, object);
+      }
+      ++index;
+    }
+    return !c.isEmpty();
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+    if (wrappers != null) {
+      wrappers = JavaScriptObject.createArray();
+    }
+  }
+
+  @Override
+  public T get(int index) {
+    if (index < 0 || index > size()) {
+      throw new IndexOutOfBoundsException();
+    }
+    return extract(index);
+  }
+
+  public WrappingExtractor<T> getExtractor() {
+    return new WrappingExtractor<T>(extractor);
+  }
+
+  /**
+   * Returns <code>true</code> if wrappers returned by {@link #get(int)} are
+   * cached.
+   * 
+   * @return <code>true</code> if wrappers are cached.
+   */
+  public boolean isCachingWrappers() {
+    return wrappers != null;
+  }
+
+  @Override
+  public T remove(int index) {
+    if (index < 0 || index > size()) {
+      throw new IndexOutOfBoundsException();
+    }
+
+    Object toReturn = splice(arr, index, 1);
+    if (wrappers != null) {
+      cacheRemove(wrappers, index, 1);
+    }
+    if (toReturn instanceof JavaScriptObject) {
+      return extractor.fromJS((JavaScriptObject) toReturn);
+    } else {
+      return (T) toReturn;
+    }
+  }
+
+  @Override
+  public T set(int index, T o) {
+    if (index < 0 || index > size()) {
+      throw new IndexOutOfBoundsException();
+    }
+
+    Object toReturn = splice(arr, index, 1, o);
+    if (wrappers != null) {
+      cacheSet(wrappers, index, null);
+    }
+    if (toReturn instanceof JavaScriptObject) {
+      return extractor.fromJS((JavaScriptObject) toReturn);
+    } else {
+      return (T) toReturn;
+    }
+  }
+
+  /**
+   * Enables or disables caching of the wrappers returned by {@link #get(int)}.
+   * Disabling the cache discards it.
+   * 
+   * @param cache <code>true</code> to cache wrappers.
+   */
+  public void setCachingWrappers(boolean cache) {
+    if (!cache) {
+      wrappers = null;
+    } else if (wrappers == null) {
+      wrappers = JavaScriptObject.createArray();
+    }
+  }
+
+  /**
+   * Convenience setter for generated subclasses to be able to initialize
+   * newly-created instances without another parsing cycle. This is
+   * intentionally not exposed via JSWrapper to prevent the backing JSONObject
+   * from changing out from under the wrapper.
+   */
+  public JSListWrapper<T> setJavaScriptObject(JavaScriptObject obj) {
+    arr = obj;
+    if (wrappers != null) {
+      wrappers = JavaScriptObject.createArray();
+    }
+    return this;
+  }
+
+  /**
+   * Copies the whole list reading its length once rather than once per
+   * element.
+   */
+  @Override
+  public Object[] toArray() {
+    Object[] array = new Object[size()];
+    for (int i = 0; i < array.length; ++i) {
+      array[i] = extract(i);
+    }
+    return array;
+  }
+
+  /**
+   * Copies the whole list reading its length once rather than once per
+   * element.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public <E> E[] toArray(E[] array) {
+    int size = size();
+    if (array.length < size) {
+      return super.toArray(array);
+    }
+    for (int i = 0; i < size; ++i) {
+      array[i] = (E) extract(i);
+    }
+    if (array.length > size) {
+      array[size] = null;
+    }
+    return array;
+  }
+
+  @Override
+  protected void removeRange(int fromIndex, int toIndex) {
+    super.removeRange(fromIndex, toIndex);
+    if (wrappers != null) {
+      cacheRemove(wrappers, fromIndex, toIndex - fromIndex);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private T extract(int index) {
+    Object toReturn = getNative(arr, index);
+    if (!(toReturn instanceof JavaScriptObject)) {
+      return (T) toReturn;
+    }
+    JavaScriptObject jso = (JavaScriptObject) toReturn;
+    if (wrappers == null) {
+      return extractor.fromJS(jso);
+    }
+    T cached = (T) cacheGet(wrappers, index);
+    if (cached == null || !isSame(extractor.toJS(cached), jso)) {
+      cached = extractor.fromJS(jso);
+      cacheSet(wrappers, index, cached);
+    }
+    return cached;
+  }
+}
@@ -13,11 +13,11 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.client.impl;
+package com.google.gwt.apis.jsio.client.impl;
 
 import com.google.gwt.core.client.JavaScriptObject;
-import com.google.gwt.maps.jsio.client.JSOpaque;
-import com.google.gwt.maps.jsio.client.MultipleWrapperException;
+import com.google.gwt.apis.jsio.client.JSOpaque;
+import com.google.gwt.apis.jsio.client.MultipleWrapperException;
 
 /**
  * Internal utility functions to encapsulate often-used idioms.
@@ -25,7 +25,7 @@ import com.google.gwt.maps.jsio.client.MultipleWrapperException;
 public class JSONWrapperUtil {
   public static final Extractor<Boolean> BOOLEAN_EXTRACTOR = new Extractor<Boolean>() {
     public native Boolean fromJS(JavaScriptObject obj) /*-{
-     return @com.google.gwt.maps.jsio.client.impl.JSONWrapperUtil::createWrapper(Z)(Boolean(obj));
+     return @com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil::createWrapper(Z)(Boolean(obj));
      }-*/;
 
     public native JavaScriptObject toJS(Boolean o) /*-{
@@ -35,7 +35,7 @@ public class JSONWrapperUtil {
 
   public static final Extractor<Byte> BYTE_EXTRACTOR = new Extractor<Byte>() {
     public native Byte fromJS(JavaScriptObject obj) /*-{
-     return @com.google.gwt.maps.jsio.client.impl.JSONWrapperUtil::createWrapper(B)(Number(obj));
+     return @com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil::createWrapper(B)(Number(obj));
      }-*/;
 
     public native JavaScriptObject toJS(Byte o) /*-{
@@ -45,7 +45,7 @@ public class JSONWrapperUtil {
 
   public static final Extractor<Character> CHARACTER_EXTRACTOR = new Extractor<Character>() {
     public native Character fromJS(JavaScriptObject obj) /*-{
-     return @com.google.gwt.maps.jsio.client.impl.JSONWrapperUtil::createWrapper(C)(Number(obj));
+     return @com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil::createWrapper(C)(Number(obj));
      }-*/;
 
     public native JavaScriptObject toJS(Character o) /*-{
@@ -55,7 +55,7 @@ public class JSONWrapperUtil {
 
   public static final Extractor<Double> DOUBLE_EXTRACTOR = new Extractor<Double>() {
     public native Double fromJS(JavaScriptObject obj) /*-{
-     return @com.google.gwt.maps.jsio.client.impl.JSONWrapperUtil::createWrapper(D)(Number(obj));
+     return @com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil::createWrapper(D)(Number(obj));
      }-*/;
 
     public native JavaScriptObject toJS(Double o) /*-{
@@ -65,7 +65,7 @@ public class JSONWrapperUtil {
 
   public static final Extractor<Float> FLOAT_EXTRACTOR = new Extractor<Float>() {
     public native Float fromJS(JavaScriptObject obj) /*-{
-     return @com.google.gwt.maps.jsio.client.impl.JSONWrapperUtil::createWrapper(F)(Number(obj));
+     return @com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil::createWrapper(F)(Number(obj));
      }-*/;
 
     public native JavaScriptObject toJS(Float o) /*-{
@@ -75,7 +75,7 @@ public class JSONWrapperUtil {
 
   public static final Extractor<Integer> INTEGER_EXTRACTOR = new Extractor<Integer>() {
     public native Integer fromJS(JavaScriptObject obj) /*-{
-     return @com.google.gwt.maps.jsio.client.impl.JSONWrapperUtil::createWrapper(I)(Number(obj));
+     return @com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil::createWrapper(I)(Number(obj));
      }-*/;
 
     public native JavaScriptObject toJS(Integer o) /*-{
@@ -104,13 +104,13 @@ public class JSONWrapperUtil {
      }-*/;
 
     public native JavaScriptObject toJS(JSOpaque o) /*-{
-     return eval(o.@com.google.gwt.maps.jsio.client.JSOpaque::reference);
+     return eval(o.@com.google.gwt.apis.jsio.client.JSOpaque::reference);
      }-*/;
   };
 
   public static final Extractor<Short> SHORT_EXTRACTOR = new Extractor<Short>() {
     public native Short fromJS(JavaScriptObject obj) /*-{
-     return @com.google.gwt.maps.jsio.client.impl.JSONWrapperUtil::createWrapper(S)(Number(obj));
+     return @com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil::createWrapper(S)(Number(obj));
      }-*/;
 
     public native JavaScriptObject toJS(Short o) /*-{
@@ -13,11 +13,11 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.client.impl;
+package com.google.gwt.apis.jsio.client.impl;
 
 import com.google.gwt.core.client.JavaScriptObject;
-import com.google.gwt.maps.jsio.client.JSList;
-import com.google.gwt.maps.jsio.client.JSWrapper;
+import com.google.gwt.apis.jsio.client.JSList;
+import com.google.gwt.apis.jsio.client.JSWrapper;
 
 /**
  * This an implementation of List that operates directly on JS arrays of
@@ -13,7 +13,7 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.client.impl;
+package com.google.gwt.apis.jsio.client.impl;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
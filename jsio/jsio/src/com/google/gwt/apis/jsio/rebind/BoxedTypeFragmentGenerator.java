@@ -13,14 +13,14 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.search.jsio.rebind;
+package com.google.gwt.apis.jsio.rebind;
 
-import com.google.gwt.search.jsio.client.impl.JSONWrapperUtil;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.UnableToCompleteException;
 import com.google.gwt.core.ext.typeinfo.JClassType;
 import com.google.gwt.core.ext.typeinfo.JType;
 import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil;
 import com.google.gwt.user.rebind.SourceWriter;
 
 /**
@@ -76,7 +76,7 @@ class BoxedTypeFragmentGenerator extends FragmentGenerator {
     sw.print(context.parameterName);
     sw.print(" == undefined) ? null : ");
     sw.print("@" + JSONWrapperUtil.class.getName() + "::createWrapper");
-//    sw.print("@com.google.gwt.jsio.client.impl.JSONWrapperUtil::createWrapper");
+//    sw.print("@com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil::createWrapper");
 
     // Just plow through the Boxed types
     if (isAssignable(typeOracle, returnType, Boolean.class)) {
@@ -133,7 +133,7 @@ class BoxedTypeFragmentGenerator extends FragmentGenerator {
   @Override
   void writeExtractorJSNIReference(FragmentGeneratorContext context) {
     SourceWriter sw = context.sw;
-//    sw.print("@com.google.gwt.jsio.client.impl.JSONWrapperUtil::");
+//    sw.print("@com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil::");
     sw.print("@" + JSONWrapperUtil.class.getName() + "::");
     sw.print(context.returnType.getSimpleSourceName().toUpperCase());
     sw.print("_EXTRACTOR");
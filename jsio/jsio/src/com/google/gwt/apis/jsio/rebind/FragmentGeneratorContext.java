@@ -13,7 +13,7 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.rebind;
+package com.google.gwt.apis.jsio.rebind;
 
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.typeinfo.JClassType;
@@ -34,6 +34,12 @@ class FragmentGeneratorContext {
    */
   Set<JClassType> creatorFixups;
 
+  /**
+   * Indicates that property accessors should read and write the backing JSO
+   * directly, without default values having been written into it.
+   */
+  boolean directAccess;
+
   /**
    * The name of the field within the backing object to use.
    */
@@ -122,6 +128,7 @@ class FragmentGeneratorContext {
     creatorFixups = copyFrom.creatorFixups;
     readOnly = copyFrom.readOnly;
     maintainIdentity = copyFrom.maintainIdentity;
+    directAccess = copyFrom.directAccess;
     tasks = copyFrom.tasks;
   }
 }
\ No newline at end of file
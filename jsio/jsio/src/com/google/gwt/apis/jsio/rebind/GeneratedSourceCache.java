@@ -0,0 +1,388 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.apis.jsio.rebind;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.typeinfo.HasAnnotations;
+import com.google.gwt.core.ext.typeinfo.JClassType;
+import com.google.gwt.core.ext.typeinfo.JField;
+import com.google.gwt.core.ext.typeinfo.JMethod;
+import com.google.gwt.core.ext.typeinfo.JParameter;
+import com.google.gwt.core.ext.typeinfo.JParameterizedType;
+import com.google.gwt.core.ext.typeinfo.JType;
+import com.google.gwt.apis.jsio.client.BeanProperties;
+import com.google.gwt.apis.jsio.client.Binding;
+import com.google.gwt.apis.jsio.client.Constructor;
+import com.google.gwt.apis.jsio.client.DirectAccess;
+import com.google.gwt.apis.jsio.client.Exported;
+import com.google.gwt.apis.jsio.client.FieldName;
+import com.google.gwt.apis.jsio.client.Global;
+import com.google.gwt.apis.jsio.client.Imported;
+import com.google.gwt.apis.jsio.client.NamePolicy;
+import com.google.gwt.apis.jsio.client.NoIdentity;
+import com.google.gwt.apis.jsio.client.ReadOnly;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers the source written by {@link JSWrapperGenerator} for each type so
+ * that it can be reused when the type has not changed, for example across Dev
+ * Mode refreshes. Entries are kept in memory for the life of the JVM and,
+ * when the <code>JSWrapper.cacheDir</code> system property names a
+ * directory, on disk so that they survive between compiles.
+ * 
+ * An entry is only reused if the fingerprint of the type matches. The
+ * fingerprint covers everything the generator reads: the type's supertypes,
+ * fields, methods, JSIO annotations and metadata, and the same information
+ * for the types its methods accept and return, two levels deep.
+ */
+class GeneratedSourceCache {
+
+  /**
+   * A generated source and the fingerprint of the type it was generated for.
+   */
+  private static class Entry {
+    final String fingerprint;
+    final String source;
+
+    Entry(String fingerprint, String source) {
+      this.fingerprint = fingerprint;
+      this.source = source;
+    }
+  }
+
+  /**
+   * The system property naming the directory used to persist entries.
+   */
+  static final String CACHE_DIR_PROPERTY = "JSWrapper.cacheDir";
+
+  /**
+   * The annotations the generator looks for. Their values are part of the
+   * fingerprint.
+   */
+  private static final Class<?>[] ANNOTATIONS = {
+      BeanProperties.class, Binding.class, Constructor.class,
+      DirectAccess.class, Exported.class, FieldName.class, Global.class,
+      Imported.class, NamePolicy.class, NoIdentity.class, ReadOnly.class};
+
+  /**
+   * Bump this when the generator's output changes so that persisted entries
+   * written by an older generator are not reused.
+   */
+  private static final int FORMAT_VERSION = 2;
+
+  /**
+   * How many levels of referenced types are described in a fingerprint.
+   */
+  private static final int REFERENCE_DEPTH = 2;
+
+  private static final String HEADER = "// JSWrapper fingerprint ";
+
+  /**
+   * Computes the fingerprint of a type for a generator.
+   * 
+   * @param generator the generator that will write the type.
+   * @param type the type to fingerprint.
+   * @return a hex encoded digest.
+   */
+  static String fingerprint(JSWrapperGenerator generator, JClassType type) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(FORMAT_VERSION).append(' ').append(
+        generator.getClass().getName()).append('\n');
+    describe(sb, type, REFERENCE_DEPTH, new HashSet<JType>());
+    return digest(sb.toString());
+  }
+
+  private static void describe(StringBuilder sb, JType type, int depth,
+      Set<JType> visited) {
+    sb.append("type ").append(type.getParameterizedQualifiedSourceName());
+    JClassType asClass = type.isClassOrInterface();
+    if (asClass == null || !visited.add(type) || isJre(asClass)) {
+      sb.append('\n');
+      return;
+    }
+    sb.append(asClass.isInterface() != null ? " interface" : " class");
+    if (asClass.isAbstract()) {
+      sb.append(" abstract");
+    }
+    sb.append('\n');
+    describeTags(sb, asClass, asClass);
+
+    List<String> supertypes = new ArrayList<String>();
+    for (JClassType supertype : asClass.getFlattenedSupertypeHierarchy()) {
+      supertypes.add(supertype.getParameterizedQualifiedSourceName());
+    }
+    Collections.sort(supertypes);
+    sb.append("supertypes ").append(supertypes).append('\n');
+
+    List<JType> referenced = new ArrayList<JType>();
+    for (JClassType c = asClass; c != null; c = c.getSuperclass()) {
+      if (isJre(c)) {
+        break;
+      }
+      for (JField field : c.getFields()) {
+        sb.append("field ").append(c.getQualifiedSourceName());
+        sb.append('.').append(field.getName()).append(' ');
+        sb.append(field.getType().getParameterizedQualifiedSourceName());
+        if (field.isStatic()) {
+          sb.append(" static");
+        }
+        sb.append('\n');
+      }
+    }
+    List<String> methods = new ArrayList<String>();
+    for (JClassType c : asClass.getFlattenedSupertypeHierarchy()) {
+      if (isJre(c)) {
+        continue;
+      }
+      for (JMethod method : c.getMethods()) {
+        StringBuilder m = new StringBuilder();
+        m.append("method ").append(c.getQualifiedSourceName()).append(' ');
+        m.append(method.getReadableDeclaration()).append('\n');
+        describeTags(m, method, method);
+        for (JParameter param : method.getParameters()) {
+          describeTags(m, param, param);
+          referenced.add(param.getType());
+        }
+        referenced.add(method.getReturnType());
+        methods.add(m.toString());
+      }
+    }
+    // The flattened hierarchy is unordered; sort for a stable digest.
+    Collections.sort(methods);
+    for (String m : methods) {
+      sb.append(m);
+    }
+
+    if (depth > 0) {
+      for (JType ref : referenced) {
+        describeReferenced(sb, ref, depth - 1, visited);
+      }
+    }
+  }
+
+  private static void describeReferenced(StringBuilder sb, JType type,
+      int depth, Set<JType> visited) {
+    if (type.isArray() != null) {
+      describeReferenced(sb, type.isArray().getComponentType(), depth, visited);
+      return;
+    }
+    JParameterizedType asParam = type.isParameterized();
+    if (asParam != null) {
+      for (JClassType arg : asParam.getTypeArgs()) {
+        describeReferenced(sb, arg, depth, visited);
+      }
+      type = asParam.getBaseType();
+    }
+    if (type.isClassOrInterface() != null) {
+      describe(sb, type, depth, visited);
+    }
+  }
+
+  /*
+   * HasMetaData is deprecated; it is named in full so that the suppression
+   * covers it, which it would not for an import.
+   */
+  @SuppressWarnings("deprecation")
+  private static void describeTags(StringBuilder sb, HasAnnotations annotated,
+      com.google.gwt.core.ext.typeinfo.HasMetaData meta) {
+    for (Class<?> annotation : ANNOTATIONS) {
+      Annotation value = annotated.getAnnotation(
+          annotation.asSubclass(Annotation.class));
+      if (value != null) {
+        sb.append(value).append('\n');
+      }
+    }
+    for (String tag : meta.getMetaDataTags()) {
+      sb.append("meta ").append(tag);
+      for (String[] values : meta.getMetaData(tag)) {
+        for (String value : values) {
+          sb.append(' ').append(value);
+        }
+      }
+      sb.append('\n');
+    }
+  }
+
+  private static String digest(String description) {
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-1");
+      byte[] bytes = md.digest(description.getBytes("UTF-8"));
+      StringBuilder hex = new StringBuilder();
+      for (byte b : bytes) {
+        hex.append(Character.forDigit((b >> 4) & 0xf, 16));
+        hex.append(Character.forDigit(b & 0xf, 16));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static boolean isJre(JClassType type) {
+    return type.getQualifiedSourceName().startsWith("java.");
+  }
+
+  private final File cacheDir;
+  private final Map<String, Entry> entries = new HashMap<String, Entry>();
+  private int generatedCount;
+  private int reusedCount;
+
+  /**
+   * Creates a cache.
+   * 
+   * @param cacheDir the directory to persist entries in, or <code>null</code>
+   *          to keep them in memory only.
+   */
+  GeneratedSourceCache(File cacheDir) {
+    this.cacheDir = cacheDir;
+  }
+
+  /**
+   * Removes all entries from memory and resets the counts. Persisted entries
+   * are kept.
+   */
+  synchronized void clear() {
+    entries.clear();
+    generatedCount = 0;
+    reusedCount = 0;
+  }
+
+  /**
+   * Returns the previously generated source for a type, or <code>null</code>
+   * if there is none for the given fingerprint. A hit counts as a reuse.
+   * 
+   * @param logger a logger
+   * @param typeName the name of the generated class.
+   * @param fingerprint the fingerprint of the source type.
+   * @return the generated source or <code>null</code>.
+   */
+  synchronized String get(TreeLogger logger, String typeName,
+      String fingerprint) {
+    Entry entry = entries.get(typeName);
+    if (entry == null && cacheDir != null) {
+      entry = load(logger, typeName);
+      if (entry != null) {
+        entries.put(typeName, entry);
+      }
+    }
+    if (entry == null || !entry.fingerprint.equals(fingerprint)) {
+      return null;
+    }
+    ++reusedCount;
+    return entry.source;
+  }
+
+  /**
+   * Returns the number of types generated from scratch.
+   */
+  synchronized int getGeneratedCount() {
+    return generatedCount;
+  }
+
+  /**
+   * Returns the number of types whose generated source was reused.
+   */
+  synchronized int getReusedCount() {
+    return reusedCount;
+  }
+
+  /**
+   * Records newly generated source for a type.
+   * 
+   * @param logger a logger
+   * @param typeName the name of the generated class.
+   * @param fingerprint the fingerprint of the source type.
+   * @param source the generated source.
+   */
+  synchronized void put(TreeLogger logger, String typeName,
+      String fingerprint, String source) {
+    ++generatedCount;
+    Entry entry = new Entry(fingerprint, source);
+    entries.put(typeName, entry);
+    if (cacheDir != null) {
+      store(logger, typeName, entry);
+    }
+  }
+
+  private File getFile(String typeName) {
+    return new File(cacheDir, typeName + ".java");
+  }
+
+  private Entry load(TreeLogger logger, String typeName) {
+    File file = getFile(typeName);
+    if (!file.isFile()) {
+      return null;
+    }
+    try {
+      BufferedReader in = new BufferedReader(new FileReader(file));
+      try {
+        String header = in.readLine();
+        if (header == null || !header.startsWith(HEADER)) {
+          return null;
+        }
+        StringBuilder source = new StringBuilder();
+        char[] buffer = new char[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          source.append(buffer, 0, read);
+        }
+        return new Entry(header.substring(HEADER.length()), source.toString());
+      } finally {
+        in.close();
+      }
+    } catch (IOException e) {
+      logger.log(TreeLogger.DEBUG, "Unable to read cached source for "
+          + typeName, e);
+      return null;
+    }
+  }
+
+  private void store(TreeLogger logger, String typeName, Entry entry) {
+    try {
+      cacheDir.mkdirs();
+      Writer out = new FileWriter(getFile(typeName));
+      try {
+        out.write(HEADER);
+        out.write(entry.fingerprint);
+        out.write('\n');
+        out.write(entry.source);
+      } finally {
+        out.close();
+      }
+    } catch (IOException e) {
+      logger.log(TreeLogger.DEBUG, "Unable to write cached source for "
+          + typeName, e);
+    }
+  }
+}
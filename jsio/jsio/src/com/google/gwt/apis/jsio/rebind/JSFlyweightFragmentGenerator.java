@@ -13,14 +13,14 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.rebind;
+package com.google.gwt.apis.jsio.rebind;
 
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.UnableToCompleteException;
 import com.google.gwt.core.ext.typeinfo.JClassType;
 import com.google.gwt.core.ext.typeinfo.JType;
 import com.google.gwt.core.ext.typeinfo.TypeOracle;
-import com.google.gwt.maps.jsio.client.JSFlyweightWrapper;
+import com.google.gwt.apis.jsio.client.JSFlyweightWrapper;
 
 /**
  * This doesn't include support for arrays, but merely provides an error
@@ -13,7 +13,7 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.rebind;
+package com.google.gwt.apis.jsio.rebind;
 
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.core.ext.TreeLogger;
@@ -26,10 +26,10 @@ import com.google.gwt.core.ext.typeinfo.JParameterizedType;
 import com.google.gwt.core.ext.typeinfo.JPrimitiveType;
 import com.google.gwt.core.ext.typeinfo.JType;
 import com.google.gwt.core.ext.typeinfo.TypeOracle;
-import com.google.gwt.maps.jsio.client.Binding;
-import com.google.gwt.maps.jsio.client.Constructor;
-import com.google.gwt.maps.jsio.client.Global;
-import com.google.gwt.maps.jsio.client.impl.JSONWrapperUtil;
+import com.google.gwt.apis.jsio.client.Binding;
+import com.google.gwt.apis.jsio.client.Constructor;
+import com.google.gwt.apis.jsio.client.Global;
+import com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil;
 import com.google.gwt.user.rebind.SourceWriter;
 
 import java.util.Map;
@@ -198,7 +198,7 @@ public class JSFlyweightWrapperGenerator extends JSWrapperGenerator {
       sw.print(BACKREF);
       sw.println(") {");
       sw.indent();
-//      sw.println("@com.google.gwt.jsio.client.impl.JSONWrapperUtil::throwMultipleWrapperException()();");
+//      sw.println("@com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil::throwMultipleWrapperException()();");
       sw.println("@" + JSONWrapperUtil.class.getName() + "::throwMultipleWrapperException()();");
       sw.outdent();
       sw.println("}");
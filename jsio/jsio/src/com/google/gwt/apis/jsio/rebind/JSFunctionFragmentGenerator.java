@@ -13,7 +13,7 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.rebind;
+package com.google.gwt.apis.jsio.rebind;
 
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.UnableToCompleteException;
@@ -22,8 +22,8 @@ import com.google.gwt.core.ext.typeinfo.JMethod;
 import com.google.gwt.core.ext.typeinfo.JParameter;
 import com.google.gwt.core.ext.typeinfo.JType;
 import com.google.gwt.core.ext.typeinfo.TypeOracle;
-import com.google.gwt.maps.jsio.client.Exported;
-import com.google.gwt.maps.jsio.client.JSFunction;
+import com.google.gwt.apis.jsio.client.Exported;
+import com.google.gwt.apis.jsio.client.JSFunction;
 import com.google.gwt.user.rebind.SourceWriter;
 
 /**
@@ -234,10 +234,10 @@ class JSFunctionFragmentGenerator extends FragmentGenerator {
 
     sw.print("(");
     sw.print(context.parameterName);
-//  sw.print(".@com.google.gwt.jsio.client.JSFunction::exportedFunction || (");
+//  sw.print(".@com.google.gwt.apis.jsio.client.JSFunction::exportedFunction || (");
     sw.print(".@" + JSFunction.class.getName() + "::exportedFunction || (");
     sw.print(context.parameterName);
-//    sw.print(".@com.google.gwt.jsio.client.JSFunction::exportedFunction = ");
+//    sw.print(".@com.google.gwt.apis.jsio.client.JSFunction::exportedFunction = ");
     sw.print(".@" + JSFunction.class.getName() + "::exportedFunction = ");
     writeFunctionForMethod(context, findExportedMethod(logger, functionClass));
     sw.print("))");
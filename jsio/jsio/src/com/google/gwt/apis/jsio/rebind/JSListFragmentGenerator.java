@@ -13,18 +13,18 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.rebind;
+package com.google.gwt.apis.jsio.rebind;
 
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.UnableToCompleteException;
 import com.google.gwt.core.ext.typeinfo.JParameterizedType;
 import com.google.gwt.core.ext.typeinfo.JType;
 import com.google.gwt.core.ext.typeinfo.TypeOracle;
-import com.google.gwt.maps.jsio.client.JSList;
-import com.google.gwt.maps.jsio.client.JSWrapper;
-import com.google.gwt.maps.jsio.client.impl.Extractor;
-import com.google.gwt.maps.jsio.client.impl.JSListWrapper;
-import com.google.gwt.maps.jsio.client.impl.JSStringListWrapper;
+import com.google.gwt.apis.jsio.client.JSList;
+import com.google.gwt.apis.jsio.client.JSWrapper;
+import com.google.gwt.apis.jsio.client.impl.Extractor;
+import com.google.gwt.apis.jsio.client.impl.JSListWrapper;
+import com.google.gwt.apis.jsio.client.impl.JSStringListWrapper;
 import com.google.gwt.user.rebind.SourceWriter;
 
 /**
@@ -61,7 +61,7 @@ class JSListFragmentGenerator extends JSWrapperFragmentGenerator {
     sw.print(")");
     // Can't use fixed names when we have moved the jsio package.
     // e.g.
-    // .@com.google.gwt.jsio.client.JSWrapper::setJavaScriptObject(Lcom/google/gwt/core/client/JavaScriptObject;)(
+    // .@com.google.gwt.apis.jsio.client.JSWrapper::setJavaScriptObject(Lcom/google/gwt/core/client/JavaScriptObject;)(
     sw.print(".@"
         + JSWrapper.class.getName()
         + "::setJavaScriptObject(Lcom/google/gwt/core/client/JavaScriptObject;)(");
@@ -106,7 +106,7 @@ class JSListFragmentGenerator extends JSWrapperFragmentGenerator {
     } else {
       // Can't use fixed names when we have moved the jsio package.
       // e.g.
-      // @com.google.gwt.jsio.client.impl.JSListWrapper::createExtractor(Lcom/google/gwt/jsio/client/impl/Extractor;)(
+      // @com.google.gwt.apis.jsio.client.impl.JSListWrapper::createExtractor(Lcom/google/gwt/apis/jsio/client/impl/Extractor;)(
       sw.print("@" + JSListWrapper.class.getName() + "::createExtractor(L"
           + Extractor.class.getName().replace('.', '/') + ";)(");
     }
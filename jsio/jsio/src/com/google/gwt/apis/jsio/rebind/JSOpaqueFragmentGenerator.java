@@ -13,15 +13,15 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.search.jsio.rebind;
+package com.google.gwt.apis.jsio.rebind;
 
-import com.google.gwt.search.jsio.client.JSOpaque;
-import com.google.gwt.search.jsio.client.impl.JSONWrapperUtil;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.UnableToCompleteException;
 import com.google.gwt.core.ext.typeinfo.JClassType;
 import com.google.gwt.core.ext.typeinfo.JType;
 import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.apis.jsio.client.JSOpaque;
+import com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil;
 import com.google.gwt.user.rebind.SourceWriter;
 
 /**
@@ -53,7 +53,7 @@ class JSOpaqueFragmentGenerator extends FragmentGenerator {
     SourceWriter sw = context.sw;
     sw.print("eval(");
     sw.print(context.parameterName);
-//    sw.print(".@com.google.gwt.jsio.client.JSOpaque::reference)");
+//    sw.print(".@com.google.gwt.apis.jsio.client.JSOpaque::reference)");
     sw.print(".@" + JSOpaque.class.getName() + "::reference)");
   }
 
@@ -61,7 +61,7 @@ class JSOpaqueFragmentGenerator extends FragmentGenerator {
   void writeExtractorJSNIReference(FragmentGeneratorContext context)
       throws UnableToCompleteException {
     SourceWriter sw = context.sw;
-//    sw.print("@com.google.gwt.jsio.client.impl.JSONWrapperUtil::JSOPAQUE_EXTRACTOR");
+//    sw.print("@com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil::JSOPAQUE_EXTRACTOR");
     sw.print("@" + JSONWrapperUtil.class.getName() + "::JSOPAQUE_EXTRACTOR");
   }
 
@@ -13,14 +13,15 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.rebind;
+package com.google.gwt.apis.jsio.rebind;
 
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.UnableToCompleteException;
 import com.google.gwt.core.ext.typeinfo.JClassType;
 import com.google.gwt.core.ext.typeinfo.JType;
 import com.google.gwt.core.ext.typeinfo.TypeOracle;
-import com.google.gwt.maps.jsio.client.JSWrapper;
+import com.google.gwt.apis.jsio.client.DirectAccess;
+import com.google.gwt.apis.jsio.client.JSWrapper;
 import com.google.gwt.user.rebind.SourceWriter;
 
 /**
@@ -38,7 +39,7 @@ class JSWrapperFragmentGenerator extends FragmentGenerator {
     sw.print("__create__");
     sw.print(returnType.getQualifiedSourceName().replaceAll("\\.", "_"));
     sw.print("()()");
-//    sw.print(".@com.google.gwt.jsio.client.JSWrapper::setJavaScriptObject(Lcom/google/gwt/core/client/JavaScriptObject;)(");
+//    sw.print(".@com.google.gwt.apis.jsio.client.JSWrapper::setJavaScriptObject(Lcom/google/gwt/core/client/JavaScriptObject;)(");
     sw.print(".@" + JSWrapper.class.getName() + "::setJavaScriptObject(Lcom/google/gwt/core/client/JavaScriptObject;)(");
     sw.print(context.parameterName);
     sw.print(")");
@@ -49,7 +50,7 @@ class JSWrapperFragmentGenerator extends FragmentGenerator {
   protected void writeJSNIValue(FragmentGeneratorContext context)
       throws UnableToCompleteException {
     SourceWriter sw = context.sw;
-//    sw.print(".@com.google.gwt.jsio.client.JSWrapper::getJavaScriptObject()()");
+//    sw.print(".@com.google.gwt.apis.jsio.client.JSWrapper::getJavaScriptObject()()");
     sw.print(".@" + JSWrapper.class.getName() + "::getJavaScriptObject()()");
   }
 
@@ -75,6 +76,15 @@ class JSWrapperFragmentGenerator extends FragmentGenerator {
 
     sw.print(context.parameterName);
     sw.print(" == null ? null : ");
+
+    // Direct-access wrappers never set a back-reference to look for
+    JClassType asClass = context.returnType.isClassOrInterface();
+    if (JSWrapperGenerator.hasTag(context.parentLogger, asClass,
+        DirectAccess.class) != null) {
+      writeJSNIObjectCreator(context);
+      return;
+    }
+
     sw.print("(");
     sw.print(context.parameterName);
     sw.print(".");
@@ -107,7 +117,7 @@ class JSWrapperFragmentGenerator extends FragmentGenerator {
     sw.print("::");
     sw.print("__create__");
     sw.print(elementType.getQualifiedSourceName().replaceAll("\\.", "_"));
-//    sw.print("()().@com.google.gwt.jsio.client.JSWrapper::getExtractor()()");
+//    sw.print("()().@com.google.gwt.apis.jsio.client.JSWrapper::getExtractor()()");
     sw.print("()().@" + JSWrapper.class.getName() + "::getExtractor()()");
     
     context.creatorFixups.add(elementType);
@@ -13,7 +13,7 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.rebind;
+package com.google.gwt.apis.jsio.rebind;
 
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
@@ -30,17 +30,20 @@ import com.google.gwt.core.ext.typeinfo.JParameterizedType;
 import com.google.gwt.core.ext.typeinfo.JPrimitiveType;
 import com.google.gwt.core.ext.typeinfo.JType;
 import com.google.gwt.core.ext.typeinfo.TypeOracle;
-import com.google.gwt.maps.jsio.client.Constructor;
-import com.google.gwt.maps.jsio.client.Global;
-import com.google.gwt.maps.jsio.client.JSWrapper;
-import com.google.gwt.maps.jsio.client.NoIdentity;
-import com.google.gwt.maps.jsio.client.ReadOnly;
-import com.google.gwt.maps.jsio.client.impl.JSONWrapperUtil;
-import com.google.gwt.maps.jsio.client.impl.MetaDataName;
+import com.google.gwt.apis.jsio.client.Constructor;
+import com.google.gwt.apis.jsio.client.DirectAccess;
+import com.google.gwt.apis.jsio.client.Global;
+import com.google.gwt.apis.jsio.client.JSWrapper;
+import com.google.gwt.apis.jsio.client.NoIdentity;
+import com.google.gwt.apis.jsio.client.ReadOnly;
+import com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil;
+import com.google.gwt.apis.jsio.client.impl.MetaDataName;
 import com.google.gwt.user.rebind.ClassSourceFileComposerFactory;
 import com.google.gwt.user.rebind.SourceWriter;
 
+import java.io.File;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
@@ -75,6 +78,14 @@ public class JSWrapperGenerator extends Generator {
    */
   protected static final String OBJ = "jsoPeer";
 
+  /**
+   * Generated sources kept for reuse while their types are unchanged.
+   */
+  static final GeneratedSourceCache SOURCE_CACHE = new GeneratedSourceCache(
+      System.getProperty(GeneratedSourceCache.CACHE_DIR_PROPERTY) == null
+          ? null : new File(
+              System.getProperty(GeneratedSourceCache.CACHE_DIR_PROPERTY)));
+
   /**
    * Allows the metadata warning to be turned off to prevent log spam.
    */
@@ -285,8 +296,8 @@ public class JSWrapperGenerator extends Generator {
     f.addImport(GWT.class.getName());
     f.addImport(JavaScriptObject.class.getName());
     // This is a cheat, but doesn't require excessive maintenance
-    f.addImport("com.google.gwt.maps.jsio.client.*");
-    f.addImport("com.google.gwt.maps.jsio.client.impl.*");
+    f.addImport("com.google.gwt.apis.jsio.client.*");
+    f.addImport("com.google.gwt.apis.jsio.client.impl.*");
 
     // Either extend an abstract base class or implement the interface
     if (sourceType.isClass() != null) {
@@ -308,45 +319,26 @@ public class JSWrapperGenerator extends Generator {
 
     // If an implementation already exists, we don't need to do any work
     if (out != null) {
-      // We really use a SourceWriter since it's convenient
-      final SourceWriter sw = f.createSourceWriter(context, out);
-
-      final Map<String, Task> propertyAccessors = TaskFactory.extractMethods(
-          logger, typeOracle, sourceType, getPolicy());
-
-      // Create the base context to be used during generation
-      FragmentGeneratorContext fragmentContext = new FragmentGeneratorContext();
-      fragmentContext.parentLogger = logger;
-      fragmentContext.fragmentGeneratorOracle = FRAGMENT_ORACLE;
-      fragmentContext.typeOracle = typeOracle;
-      fragmentContext.sw = sw;
-      fragmentContext.objRef = "this.@" + f.getCreatedClassName() + "::" + OBJ;
-      fragmentContext.simpleTypeName = generatedSimpleSourceName;
-      fragmentContext.qualifiedTypeName = f.getCreatedClassName();
-      fragmentContext.returnType = sourceType;
-      fragmentContext.creatorFixups = new HashSet<JClassType>();
-      fragmentContext.readOnly = hasTag(logger, sourceType, ReadOnly.class) != null;
-      fragmentContext.maintainIdentity = !(fragmentContext.readOnly || hasTag(
-          logger, sourceType, NoIdentity.class) != null);
-      fragmentContext.tasks = propertyAccessors.values();
-
-      // Perform sanity checks on the extracted information
-      validateType(propertyAccessors, fragmentContext);
-
-      // Write all code that's not implementing methods
-      writeBoilerplate(logger, fragmentContext);
-
-      // Write the JSO initializer if required
-      if (!fragmentContext.readOnly) {
-        writeEmptyFieldInitializerMethod(logger, propertyAccessors,
-            fragmentContext);
+      String fingerprint = GeneratedSourceCache.fingerprint(this, sourceType);
+      String source = SOURCE_CACHE.get(logger, f.getCreatedClassName(),
+          fingerprint);
+      if (source != null) {
+        logger.log(TreeLogger.DEBUG, "Reusing unchanged "
+            + f.getCreatedClassName() + " (" + SOURCE_CACHE.getReusedCount()
+            + " reused, " + SOURCE_CACHE.getGeneratedCount() + " generated)",
+            null);
+      } else {
+        source = generateSource(logger, typeOracle, sourceType,
+            generatedSimpleSourceName, f);
+        SOURCE_CACHE.put(logger, f.getCreatedClassName(), fingerprint, source);
+        logger.log(TreeLogger.DEBUG, "Generated " + f.getCreatedClassName()
+            + " (" + SOURCE_CACHE.getReusedCount() + " reused, "
+            + SOURCE_CACHE.getGeneratedCount() + " generated)", null);
       }
 
-      writeMethods(fragmentContext, propertyAccessors);
-      writeFixups(logger, typeOracle, sw, fragmentContext.creatorFixups);
-
       // Write the generated code to disk
-      sw.commit(logger);
+      out.print(source);
+      context.commit(logger, out);
     }
 
     // Return the name of the concrete class
@@ -539,7 +531,7 @@ public class JSWrapperGenerator extends Generator {
       sw.print(BACKREF);
       sw.println(") {");
       sw.indent();
-//      sw.println("@com.google.gwt.jsio.client.impl.JSONWrapperUtil::throwMultipleWrapperException()();");
+//      sw.println("@com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil::throwMultipleWrapperException()();");
       sw.println("@" + JSONWrapperUtil.class.getName() + "::throwMultipleWrapperException()();");
       sw.outdent();
       sw.println("}");
@@ -557,7 +549,7 @@ public class JSWrapperGenerator extends Generator {
       sw.println(" = this;");
     }
 
-    if (!context.readOnly) {
+    if (needsFieldInitializer(logger, context)) {
       // Initialize any other fields if the JSWrapper is read-write
       sw.print("this.@");
       sw.print(context.qualifiedTypeName);
@@ -698,7 +690,7 @@ public class JSWrapperGenerator extends Generator {
     subContext.returnType = returnType;
     subContext.parameterName = "jsReturn";
 
-//    sw.println("return this.@com.google.gwt.jsio.client.JSWrapper::setJavaScriptObject(Lcom/google/gwt/core/client/JavaScriptObject;)(jsReturn);");
+//    sw.println("return this.@com.google.gwt.apis.jsio.client.JSWrapper::setJavaScriptObject(Lcom/google/gwt/core/client/JavaScriptObject;)(jsReturn);");
     sw.println("return this.@" + JSWrapper.class.getName() + "::setJavaScriptObject(Lcom/google/gwt/core/client/JavaScriptObject;)(jsReturn);");
     sw.outdent();
     sw.println("}-*/;");
@@ -739,6 +731,12 @@ public class JSWrapperGenerator extends Generator {
     TreeLogger logger = context.parentLogger.branch(TreeLogger.DEBUG,
         "Writing field initializers", null);
 
+    if (context.directAccess) {
+      // Getters substitute the default values themselves
+      logger.log(TreeLogger.DEBUG, "Skipped for direct access", null);
+      return;
+    }
+
     for (Task task : context.tasks) {
       final String fieldName = task.getFieldName(logger);
 
@@ -834,7 +832,28 @@ public class JSWrapperGenerator extends Generator {
     sw.indent();
 
     sw.print("return ");
-    fragmentGenerator.fromJS(context);
+    JPrimitiveType primitiveType = returnType.isPrimitive();
+    if (context.directAccess && primitiveType != null
+        && fragmentGenerator.isIdentity()
+        && !JPrimitiveType.BOOLEAN.equals(primitiveType)) {
+      // No default value was written into the backing object
+      sw.print("(");
+      sw.print(context.parameterName);
+      if (JPrimitiveType.INT.equals(primitiveType)
+          || JPrimitiveType.SHORT.equals(primitiveType)
+          || JPrimitiveType.BYTE.equals(primitiveType)) {
+        sw.print(" | 0");
+      } else {
+        // Only a missing value is replaced; 0 and NaN are legitimate values
+        sw.print(" == null ? ");
+        sw.print(fragmentGenerator.defaultValue(typeOracle, returnType));
+        sw.print(" : ");
+        sw.print(context.parameterName);
+      }
+      sw.print(")");
+    } else {
+      fragmentGenerator.fromJS(context);
+    }
     sw.println(";");
 
     sw.outdent();
@@ -1070,4 +1089,74 @@ public class JSWrapperGenerator extends Generator {
       writeConstructor(context, task.constructor);
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Returns <code>true</code> if the generated class needs an
+   * __initializeEmptyFields method. Direct-access wrappers only need it to
+   * bind exported methods.
+   */
+  private boolean needsFieldInitializer(TreeLogger logger,
+      FragmentGeneratorContext context) throws UnableToCompleteException {
+    if (context.readOnly) {
+      return false;
+    } else if (!context.directAccess) {
+      return true;
+    }
+    return !TaskFactory.extractMethods(logger, context.typeOracle,
+        context.returnType.isClassOrInterface(),
+        TaskFactory.EXPORTER_POLICY).isEmpty();
+  }
+
+  /**
+   * Writes the implementation of a type into a string.
+   */
+  private String generateSource(TreeLogger logger, TypeOracle typeOracle,
+      JClassType sourceType, String generatedSimpleSourceName,
+      ClassSourceFileComposerFactory f) throws UnableToCompleteException {
+    StringWriter buffer = new StringWriter();
+
+    // We really use a SourceWriter since it's convenient
+    final SourceWriter sw = f.createSourceWriter(new PrintWriter(buffer));
+
+    final Map<String, Task> propertyAccessors = TaskFactory.extractMethods(
+        logger, typeOracle, sourceType, getPolicy());
+
+    // Create the base context to be used during generation
+    FragmentGeneratorContext fragmentContext = new FragmentGeneratorContext();
+    fragmentContext.parentLogger = logger;
+    fragmentContext.fragmentGeneratorOracle = FRAGMENT_ORACLE;
+    fragmentContext.typeOracle = typeOracle;
+    fragmentContext.sw = sw;
+    fragmentContext.objRef = "this.@" + f.getCreatedClassName() + "::" + OBJ;
+    fragmentContext.simpleTypeName = generatedSimpleSourceName;
+    fragmentContext.qualifiedTypeName = f.getCreatedClassName();
+    fragmentContext.returnType = sourceType;
+    fragmentContext.creatorFixups = new HashSet<JClassType>();
+    fragmentContext.readOnly = hasTag(logger, sourceType, ReadOnly.class) != null;
+    fragmentContext.directAccess = hasTag(logger, sourceType,
+        DirectAccess.class) != null;
+    fragmentContext.maintainIdentity = !(fragmentContext.readOnly
+        || fragmentContext.directAccess || hasTag(logger, sourceType,
+        NoIdentity.class) != null);
+    fragmentContext.tasks = propertyAccessors.values();
+
+    // Perform sanity checks on the extracted information
+    validateType(propertyAccessors, fragmentContext);
+
+    // Write all code that's not implementing methods
+    writeBoilerplate(logger, fragmentContext);
+
+    // Write the JSO initializer if required
+    if (needsFieldInitializer(logger, fragmentContext)) {
+      writeEmptyFieldInitializerMethod(logger, propertyAccessors,
+          fragmentContext);
+    }
+
+    writeMethods(fragmentContext, propertyAccessors);
+    writeFixups(logger, typeOracle, sw, fragmentContext.creatorFixups);
+
+    // Closes the buffer; there is no context to commit to
+    sw.commit(logger);
+    return buffer.toString();
+  }
+}
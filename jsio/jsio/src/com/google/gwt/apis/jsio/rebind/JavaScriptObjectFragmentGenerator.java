@@ -13,7 +13,7 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.rebind;
+package com.google.gwt.apis.jsio.rebind;
 
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.core.ext.TreeLogger;
@@ -21,7 +21,7 @@ import com.google.gwt.core.ext.UnableToCompleteException;
 import com.google.gwt.core.ext.typeinfo.JClassType;
 import com.google.gwt.core.ext.typeinfo.JType;
 import com.google.gwt.core.ext.typeinfo.TypeOracle;
-import com.google.gwt.maps.jsio.client.impl.JSONWrapperUtil;
+import com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil;
 import com.google.gwt.user.rebind.SourceWriter;
 
 /**
@@ -71,7 +71,7 @@ class JavaScriptObjectFragmentGenerator extends FragmentGenerator {
   @Override
   void writeExtractorJSNIReference(FragmentGeneratorContext context) {
     SourceWriter sw = context.sw;
-//    sw.print("@com.google.gwt.jsio.client.impl.JSONWrapperUtil::JSO_EXTRACTOR");
+//    sw.print("@com.google.gwt.apis.jsio.client.impl.JSONWrapperUtil::JSO_EXTRACTOR");
     sw.print("@" + JSONWrapperUtil.class.getName() + "::JSO_EXTRACTOR");
   }
 }
@@ -13,7 +13,7 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.rebind;
+package com.google.gwt.apis.jsio.rebind;
 
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.core.ext.TreeLogger;
@@ -22,9 +22,9 @@ import com.google.gwt.core.ext.typeinfo.JClassType;
 import com.google.gwt.core.ext.typeinfo.JMethod;
 import com.google.gwt.core.ext.typeinfo.JParameter;
 import com.google.gwt.core.ext.typeinfo.JPrimitiveType;
-import com.google.gwt.maps.jsio.client.FieldName;
-import com.google.gwt.maps.jsio.client.Global;
-import com.google.gwt.maps.jsio.client.JSWrapper;
+import com.google.gwt.apis.jsio.client.FieldName;
+import com.google.gwt.apis.jsio.client.Global;
+import com.google.gwt.apis.jsio.client.JSWrapper;
 
 import java.lang.reflect.Field;
 
@@ -220,8 +220,8 @@ class Task {
       // If no gwt.fieldName is specified, see if there's a naming policy
       // defined on the enclosing class.
       JClassType enclosing = m.getEnclosingType();
-      com.google.gwt.maps.jsio.client.NamePolicy namePolicyAnnotation = JSWrapperGenerator.hasTag(
-          logger, enclosing, com.google.gwt.maps.jsio.client.NamePolicy.class);
+      com.google.gwt.apis.jsio.client.NamePolicy namePolicyAnnotation = JSWrapperGenerator.hasTag(
+          logger, enclosing, com.google.gwt.apis.jsio.client.NamePolicy.class);
       NamePolicy policy;
 
       // If there is no namePolicy or it's not of the desired form, default
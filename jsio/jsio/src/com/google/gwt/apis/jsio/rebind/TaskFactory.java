@@ -13,7 +13,7 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.maps.jsio.rebind;
+package com.google.gwt.apis.jsio.rebind;
 
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.core.ext.TreeLogger;
@@ -24,13 +24,13 @@ import com.google.gwt.core.ext.typeinfo.JParameter;
 import com.google.gwt.core.ext.typeinfo.JPrimitiveType;
 import com.google.gwt.core.ext.typeinfo.JType;
 import com.google.gwt.core.ext.typeinfo.TypeOracle;
-import com.google.gwt.maps.jsio.client.BeanProperties;
-import com.google.gwt.maps.jsio.client.Binding;
-import com.google.gwt.maps.jsio.client.Constructor;
-import com.google.gwt.maps.jsio.client.Exported;
-import com.google.gwt.maps.jsio.client.Global;
-import com.google.gwt.maps.jsio.client.Imported;
-import com.google.gwt.maps.jsio.client.JSWrapper;
+import com.google.gwt.apis.jsio.client.BeanProperties;
+import com.google.gwt.apis.jsio.client.Binding;
+import com.google.gwt.apis.jsio.client.Constructor;
+import com.google.gwt.apis.jsio.client.Exported;
+import com.google.gwt.apis.jsio.client.Global;
+import com.google.gwt.apis.jsio.client.Imported;
+import com.google.gwt.apis.jsio.client.JSWrapper;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -48,7 +48,7 @@ public class TaskFactory {
   public static interface Policy {
     /**
      * Specifies the base interface type so that it will be ignored by
-     * {@link TaskFactory#extractMethods(TreeLogger, TypeOracle, JClassType, com.google.gwt.maps.jsio.rebind.TaskFactory.Policy)}.
+     * {@link TaskFactory#extractMethods(TreeLogger, TypeOracle, JClassType, com.google.gwt.apis.jsio.rebind.TaskFactory.Policy)}.
      */
     Collection<JMethod> getOperableMethods(TypeOracle oracle, JClassType clazz);
 
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2010 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.apis.jsio.client;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.junit.client.GWTTestCase;
+
+/**
+ * Compares the property accessors generated for {@link DirectAccess} types
+ * against the default accessors, for both {@link JSWrapper} and
+ * {@link JSFlyweightWrapper} types. Run it manually.
+ */
+public class DirectAccessBenchmark extends GWTTestCase {
+
+  /**
+   * A wrapper with the default accessors.
+   */
+  @BeanProperties
+  interface Bean extends JSWrapper<Bean> {
+    int getCount();
+
+    String getName();
+
+    double getX();
+
+    boolean isVisible();
+
+    void setCount(int count);
+
+    void setName(String name);
+
+    void setX(double x);
+
+    void setVisible(boolean visible);
+  }
+
+  /**
+   * A flyweight with the default accessors.
+   */
+  @BeanProperties
+  interface BeanFlyweight extends JSFlyweightWrapper {
+    BeanFlyweight impl = GWT.create(BeanFlyweight.class);
+
+    @Constructor("Object")
+    JavaScriptObject construct();
+
+    int getCount(JavaScriptObject jso);
+
+    double getX(JavaScriptObject jso);
+
+    void setCount(JavaScriptObject jso, int count);
+
+    void setX(JavaScriptObject jso, double x);
+  }
+
+  /**
+   * The same wrapper as {@link Bean} with direct accessors.
+   */
+  @BeanProperties
+  @DirectAccess
+  interface DirectBean extends JSWrapper<DirectBean> {
+    int getCount();
+
+    String getName();
+
+    double getX();
+
+    boolean isVisible();
+
+    void setCount(int count);
+
+    void setName(String name);
+
+    void setX(double x);
+
+    void setVisible(boolean visible);
+  }
+
+  /**
+   * The same flyweight as {@link BeanFlyweight} with direct accessors.
+   */
+  @BeanProperties
+  @DirectAccess
+  interface DirectBeanFlyweight extends JSFlyweightWrapper {
+    DirectBeanFlyweight impl = GWT.create(DirectBeanFlyweight.class);
+
+    @Constructor("Object")
+    JavaScriptObject construct();
+
+    int getCount(JavaScriptObject jso);
+
+    double getX(JavaScriptObject jso);
+
+    void setCount(JavaScriptObject jso, int count);
+
+    void setX(JavaScriptObject jso, double x);
+  }
+
+  private static final int PASSES = 5;
+  private static final int[] SIZES = {1000, 10000, 100000};
+
+  private static native JavaScriptObject createObjects(int size) /*-{
+    var objects = [];
+    for (var i = 0; i < size; ++i) {
+      objects.push({x: i, count: i, name: 'n' + i, visible: true});
+    }
+    return objects;
+  }-*/;
+
+  private static native JavaScriptObject get(JavaScriptObject array,
+      int index) /*-{
+    return array[index];
+  }-*/;
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.apis.jsio.JSIOTest";
+  }
+
+  public void testDefaults() {
+    DirectBean bean = GWT.create(DirectBean.class);
+    bean.setJavaScriptObject(JavaScriptObject.createObject());
+    assertEquals(0, bean.getCount());
+    assertEquals(0.0, bean.getX());
+    assertFalse(bean.isVisible());
+    assertNull(bean.getName());
+
+    JavaScriptObject jso = DirectBeanFlyweight.impl.construct();
+    assertEquals(0, DirectBeanFlyweight.impl.getCount(jso));
+    DirectBeanFlyweight.impl.setCount(jso, 3);
+    assertEquals(3, DirectBeanFlyweight.impl.getCount(jso));
+  }
+
+  public void testFlyweightAccess() {
+    for (int size : SIZES) {
+      JavaScriptObject jso = BeanFlyweight.impl.construct();
+      double start = Duration.currentTimeMillis();
+      for (int pass = 0; pass < PASSES; ++pass) {
+        for (int i = 0; i < size; ++i) {
+          BeanFlyweight.impl.setX(jso, BeanFlyweight.impl.getX(jso) + 1);
+          BeanFlyweight.impl.setCount(jso,
+              BeanFlyweight.impl.getCount(jso) + 1);
+        }
+      }
+      double defaultMillis = Duration.currentTimeMillis() - start;
+
+      JavaScriptObject direct = DirectBeanFlyweight.impl.construct();
+      start = Duration.currentTimeMillis();
+      for (int pass = 0; pass < PASSES; ++pass) {
+        for (int i = 0; i < size; ++i) {
+          DirectBeanFlyweight.impl.setX(direct,
+              DirectBeanFlyweight.impl.getX(direct) + 1);
+          DirectBeanFlyweight.impl.setCount(direct,
+              DirectBeanFlyweight.impl.getCount(direct) + 1);
+        }
+      }
+      double directMillis = Duration.currentTimeMillis() - start;
+
+      assertEquals(BeanFlyweight.impl.getCount(jso),
+          DirectBeanFlyweight.impl.getCount(direct));
+      report("Flyweight access", size, defaultMillis, directMillis);
+    }
+  }
+
+  public void testWrapAndRead() {
+    for (int size : SIZES) {
+      JavaScriptObject objects = createObjects(size);
+      double start = Duration.currentTimeMillis();
+      double sum = 0;
+      for (int pass = 0; pass < PASSES; ++pass) {
+        Bean bean = GWT.create(Bean.class);
+        for (int i = 0; i < size; ++i) {
+          bean.setJavaScriptObject(get(objects, i));
+          sum += bean.getX() + bean.getCount();
+          if (bean.isVisible() && bean.getName() != null) {
+            ++sum;
+          }
+        }
+        // Release the last object so the next pass can wrap it again
+        bean.setJavaScriptObject(null);
+      }
+      double defaultMillis = Duration.currentTimeMillis() - start;
+
+      objects = createObjects(size);
+      start = Duration.currentTimeMillis();
+      double directSum = 0;
+      for (int pass = 0; pass < PASSES; ++pass) {
+        DirectBean bean = GWT.create(DirectBean.class);
+        for (int i = 0; i < size; ++i) {
+          bean.setJavaScriptObject(get(objects, i));
+          directSum += bean.getX() + bean.getCount();
+          if (bean.isVisible() && bean.getName() != null) {
+            ++directSum;
+          }
+        }
+      }
+      double directMillis = Duration.currentTimeMillis() - start;
+
+      assertEquals(sum, directSum);
+      report("Wrap and read", size, defaultMillis, directMillis);
+    }
+  }
+
+  public void testWrapperAccess() {
+    for (int size : SIZES) {
+      Bean bean = GWT.create(Bean.class);
+      double start = Duration.currentTimeMillis();
+      for (int pass = 0; pass < PASSES; ++pass) {
+        for (int i = 0; i < size; ++i) {
+          bean.setX(bean.getX() + 1);
+          bean.setCount(bean.getCount() + 1);
+        }
+      }
+      double defaultMillis = Duration.currentTimeMillis() - start;
+
+      DirectBean direct = GWT.create(DirectBean.class);
+      start = Duration.currentTimeMillis();
+      for (int pass = 0; pass < PASSES; ++pass) {
+        for (int i = 0; i < size; ++i) {
+          direct.setX(direct.getX() + 1);
+          direct.setCount(direct.getCount() + 1);
+        }
+      }
+      double directMillis = Duration.currentTimeMillis() - start;
+
+      assertEquals(bean.getCount(), direct.getCount());
+      report("Wrapper access", size, defaultMillis, directMillis);
+    }
+  }
+
+  private void report(String name, int size, double defaultMillis,
+      double directMillis) {
+    System.out.println(name + " " + size + " x " + PASSES + ": default "
+        + defaultMillis + "ms, direct " + directMillis + "ms");
+  }
+}
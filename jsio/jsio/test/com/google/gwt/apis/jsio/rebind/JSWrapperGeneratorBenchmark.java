@@ -0,0 +1,159 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.apis.jsio.rebind;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.linker.ArtifactSet;
+import com.google.gwt.dev.cfg.ModuleDef;
+import com.google.gwt.dev.cfg.ModuleDefLoader;
+import com.google.gwt.dev.javac.CompilationState;
+import com.google.gwt.dev.javac.StandardGeneratorContext;
+import com.google.gwt.dev.util.log.PrintWriterTreeLogger;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Measures {@link JSWrapperGenerator} over a synthetic corpus of JSWrapper and
+ * JSFlyweightWrapper interfaces, first with an empty source cache and then
+ * again with every type unchanged, as happens on a Dev Mode refresh. Runs on
+ * the JVM with gwt-dev on the classpath. This is not part of the
+ * MapsTestSuite - run it manually.
+ */
+public class JSWrapperGeneratorBenchmark extends TestCase {
+
+  private static final int[] SIZES = {100, 500};
+
+  private static void deleteAll(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        deleteAll(child);
+      }
+    }
+    file.delete();
+  }
+
+  private static void write(File file, String contents) throws IOException {
+    file.getParentFile().mkdirs();
+    PrintWriter out = new PrintWriter(new FileWriter(file));
+    out.print(contents);
+    out.close();
+  }
+
+  public void testGenerate() throws Exception {
+    File root = File.createTempFile("jsiobench", "");
+    root.delete();
+    try {
+      for (int size : SIZES) {
+        runBenchmark(root, size);
+      }
+    } finally {
+      deleteAll(root);
+    }
+  }
+
+  private long generateAll(TreeLogger logger, CompilationState state,
+      ModuleDef module, File root, String pkg, int size)
+      throws UnableToCompleteException {
+    // A fresh context has not seen any generated types, like a new compile.
+    StandardGeneratorContext context = new StandardGeneratorContext(state,
+        module, new File(root, "gen"), new File(root, "res"),
+        new ArtifactSet());
+    JSWrapperGenerator wrappers = new JSWrapperGenerator();
+    JSFlyweightWrapperGenerator flyweights = new JSFlyweightWrapperGenerator();
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < size; ++i) {
+      wrappers.generate(logger, context, pkg + ".Bean" + i);
+      flyweights.generate(logger, context, pkg + ".Flyweight" + i);
+    }
+    return System.currentTimeMillis() - start;
+  }
+
+  private void runBenchmark(File root, int size) throws Exception {
+    // Each size gets its own module; loaded modules are cached by name.
+    String base = "jsiobench" + size;
+    String pkg = base + ".client";
+    write(new File(root, base + "/Bench.gwt.xml"), "<module>"
+        + "<inherits name='com.google.gwt.apis.jsio.JSIO'/></module>");
+    for (int i = 0; i < size; ++i) {
+      write(new File(root, base + "/client/Bean" + i + ".java"), "package "
+          + pkg + ";\n"
+          + "import com.google.gwt.apis.jsio.client.*;\n"
+          + "public interface Bean" + i + " extends JSWrapper<Bean" + i
+          + "> {\n"
+          + "  int getCount();\n"
+          + "  void setCount(int count);\n"
+          + "  String getName();\n"
+          + "  void setName(String name);\n"
+          + "  double getValue();\n"
+          + "  void setValue(double value);\n"
+          + "  JSList<String> getTags();\n"
+          + "  Bean" + (i + 1) % size + " getNext();\n"
+          + "  void setNext(Bean" + (i + 1) % size + " next);\n"
+          + "}\n");
+      write(new File(root, base + "/client/Flyweight" + i + ".java"),
+          "package " + pkg + ";\n"
+          + "import com.google.gwt.core.client.JavaScriptObject;\n"
+          + "import com.google.gwt.apis.jsio.client.*;\n"
+          + "public interface Flyweight" + i + " extends JSFlyweightWrapper {\n"
+          + "  @Constructor(\"Object\")\n"
+          + "  JavaScriptObject construct();\n"
+          + "  int getCount(JavaScriptObject jso);\n"
+          + "  void setCount(JavaScriptObject jso, int count);\n"
+          + "  @FieldName(\"label\")\n"
+          + "  String getName(JavaScriptObject jso);\n"
+          + "  @FieldName(\"label\")\n"
+          + "  void setName(JavaScriptObject jso, String name);\n"
+          + "  double getValue(JavaScriptObject jso);\n"
+          + "  void setValue(JavaScriptObject jso, double value);\n"
+          + "}\n");
+    }
+
+    ClassLoader previous = Thread.currentThread().getContextClassLoader();
+    Thread.currentThread().setContextClassLoader(new URLClassLoader(
+        new URL[] {root.toURI().toURL()}, previous));
+    try {
+      PrintWriterTreeLogger logger = new PrintWriterTreeLogger();
+      logger.setMaxDetail(TreeLogger.WARN);
+      ModuleDef module = ModuleDefLoader.loadFromClassPath(logger, base
+          + ".Bench", true);
+      CompilationState state = module.getCompilationState(logger);
+
+      JSWrapperGenerator.SOURCE_CACHE.clear();
+      long coldMillis = generateAll(logger, state, module, root, pkg,
+          size);
+      int generated = JSWrapperGenerator.SOURCE_CACHE.getGeneratedCount();
+      long warmMillis = generateAll(logger, state, module, root, pkg,
+          size);
+      int reused = JSWrapperGenerator.SOURCE_CACHE.getReusedCount();
+
+      assertEquals(size * 2, generated);
+      assertEquals(size * 2, reused);
+      System.out.println("JSWrapperGenerator " + size * 2 + " types: cold "
+          + coldMillis + "ms, unchanged " + warmMillis + "ms");
+    } finally {
+      Thread.currentThread().setContextClassLoader(previous);
+    }
+  }
+}
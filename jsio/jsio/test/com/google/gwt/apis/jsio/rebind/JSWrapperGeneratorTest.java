@@ -0,0 +1,189 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.apis.jsio.rebind;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.linker.ArtifactSet;
+import com.google.gwt.core.ext.typeinfo.JClassType;
+import com.google.gwt.dev.cfg.ModuleDef;
+import com.google.gwt.dev.cfg.ModuleDefLoader;
+import com.google.gwt.dev.javac.CompilationState;
+import com.google.gwt.dev.javac.StandardGeneratorContext;
+import com.google.gwt.dev.util.log.PrintWriterTreeLogger;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Tests the source written by {@link JSWrapperGenerator} and its reuse. Runs on
+ * the JVM with gwt-dev on the classpath.
+ */
+public class JSWrapperGeneratorTest extends TestCase {
+
+  private static final String PKG = "jsiotest.client";
+  private static final String TYPE = PKG + ".Bean";
+  private static final String PROPERTIES = "  char getC();\n"
+      + "  void setC(char c);\n  double getD();\n  void setD(double d);\n"
+      + "  int getI();\n  void setI(int i);\n";
+
+  private static void deleteAll(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        deleteAll(child);
+      }
+    }
+    file.delete();
+  }
+
+  private static void write(File file, String contents) throws IOException {
+    file.getParentFile().mkdirs();
+    PrintWriter out = new PrintWriter(new FileWriter(file));
+    out.print(contents);
+    out.close();
+  }
+
+  private PrintWriterTreeLogger logger;
+  private File root;
+
+  @Override
+  public void setUp() throws IOException {
+    root = File.createTempFile("jsiotest", "");
+    root.delete();
+    root.mkdirs();
+    logger = new PrintWriterTreeLogger();
+    logger.setMaxDetail(TreeLogger.WARN);
+    JSWrapperGenerator.SOURCE_CACHE.clear();
+  }
+
+  @Override
+  public void tearDown() {
+    JSWrapperGenerator.SOURCE_CACHE.clear();
+    deleteAll(root);
+  }
+
+  public void testChangedTypeIsRegenerated() throws Exception {
+    ClassLoader previous = Thread.currentThread().getContextClassLoader();
+    Thread.currentThread().setContextClassLoader(new URLClassLoader(
+        new URL[] {root.toURI().toURL()}, previous));
+    try {
+      GeneratedSourceCache cache = JSWrapperGenerator.SOURCE_CACHE;
+
+      writeBean("  int getCount();\n");
+      ModuleDef before = loadModule("Before");
+      String created = generate(before);
+      generate(before);
+      assertEquals(1, cache.getGeneratedCount());
+      assertEquals(1, cache.getReusedCount());
+      String oldFingerprint = fingerprint(before);
+
+      // A second module sees the edited type, as after a Dev Mode refresh.
+      writeBean("  int getCount();\n  String getName();\n");
+      ModuleDef after = loadModule("After");
+      String newFingerprint = fingerprint(after);
+      assertFalse(oldFingerprint.equals(newFingerprint));
+
+      generate(after);
+      assertEquals(2, cache.getGeneratedCount());
+      assertEquals(1, cache.getReusedCount());
+      assertNull(cache.get(logger, created, oldFingerprint));
+      String source = cache.get(logger, created, newFingerprint);
+      assertNotNull(source);
+      assertTrue(source.contains("getName"));
+    } finally {
+      Thread.currentThread().setContextClassLoader(previous);
+    }
+  }
+
+  public void testDirectAccessGetters() throws Exception {
+    writeBean("@BeanProperties\n@DirectAccess\n", PROPERTIES);
+    String source = generateSource("DirectAccess");
+    // A stored '\0', 0.0 or NaN must not be replaced by the default.
+    assertTrue(source, source.contains("== null ? 32 : "));
+    assertTrue(source, source.contains("== null ? 0 : "));
+    assertTrue(source, source.contains(" | 0)"));
+    assertFalse(source, source.contains(" || "));
+  }
+
+  public void testDirectAccessProperty() throws Exception {
+    write(new File(root, "jsiotest/client/Item.java"), "package " + PKG
+        + ";\nimport com.google.gwt.apis.jsio.client.*;\n@DirectAccess\n"
+        + "public interface Item extends JSWrapper<Item> {\n}\n");
+    writeBean("@BeanProperties\n", "  Item getItem();\n"
+        + "  void setItem(Item item);\n");
+    String source = generateSource("DirectAccessProperty");
+    // Direct-access wrappers never carry a back-reference to look for.
+    assertFalse(source, source.contains("item."
+        + JSWrapperGenerator.BACKREF));
+  }
+
+  private String fingerprint(ModuleDef module) throws Exception {
+    JClassType type = getState(module).getTypeOracle().findType(TYPE);
+    return GeneratedSourceCache.fingerprint(new JSWrapperGenerator(), type);
+  }
+
+  private String generate(ModuleDef module) throws Exception {
+    // A fresh context has not seen any generated types, like a new compile.
+    StandardGeneratorContext context = new StandardGeneratorContext(
+        getState(module), module, new File(root, "gen"), new File(root,
+            "res"), new ArtifactSet());
+    return new JSWrapperGenerator().generate(logger, context, TYPE);
+  }
+
+  /**
+   * Generates the bean in a new module and returns the generated source.
+   */
+  private String generateSource(String moduleName) throws Exception {
+    ClassLoader previous = Thread.currentThread().getContextClassLoader();
+    Thread.currentThread().setContextClassLoader(new URLClassLoader(
+        new URL[] {root.toURI().toURL()}, previous));
+    try {
+      ModuleDef module = loadModule(moduleName);
+      String created = generate(module);
+      return JSWrapperGenerator.SOURCE_CACHE.get(logger, created,
+          fingerprint(module));
+    } finally {
+      Thread.currentThread().setContextClassLoader(previous);
+    }
+  }
+
+  private CompilationState getState(ModuleDef module) throws Exception {
+    return module.getCompilationState(logger);
+  }
+
+  private ModuleDef loadModule(String name) throws Exception {
+    write(new File(root, "jsiotest/" + name + ".gwt.xml"), "<module>"
+        + "<inherits name='com.google.gwt.apis.jsio.JSIO'/></module>");
+    return ModuleDefLoader.loadFromClassPath(logger, "jsiotest." + name, true);
+  }
+
+  private void writeBean(String methods) throws IOException {
+    writeBean("", methods);
+  }
+
+  private void writeBean(String tags, String methods) throws IOException {
+    write(new File(root, "jsiotest/client/Bean.java"), "package " + PKG + ";\n"
+        + "import com.google.gwt.apis.jsio.client.*;\n" + tags
+        + "public interface Bean extends JSWrapper<Bean> {\n" + methods
+        + "}\n");
+  }
+}
@@ -0,0 +1,402 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client;
+
+import com.google.gwt.maps.client.event.MapMoveEndHandler;
+import com.google.gwt.maps.client.geom.LatLngBounds;
+import com.google.gwt.maps.client.geom.Point;
+import com.google.gwt.maps.client.geom.Projection;
+import com.google.gwt.user.client.Command;
+import com.google.gwt.user.client.DeferredCommand;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A tile layer that remembers the tile URLs computed by another layer and
+ * warms the browser cache with the tiles the user is likely to look at next.
+ * 
+ * URLs returned by the wrapped layer are kept per (x, y, zoom) in a bounded
+ * least recently used cache, so panning back or toggling the zoom level does
+ * not call the wrapped layer again. Once a map is {@link #attach(MapWidget)
+ * attached}, each time it stops moving the layer requests the ring of tiles
+ * just outside the viewport and the tiles covering the viewport at the next
+ * zoom level, so that they are already downloaded when they come into view.
+ * 
+ * Hit, miss and prefetch counts are kept to help size the cache and the ring.
+ */
+public class CachingTileLayer extends TileLayer {
+
+  /**
+   * A cached tile URL.
+   */
+  private static class Entry {
+    boolean prefetched;
+    final String url;
+
+    Entry(String url) {
+      this.url = url;
+    }
+  }
+
+  /**
+   * The default maximum number of tile URLs kept.
+   */
+  public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+  /**
+   * The default number of tiles prefetched on each side of the viewport.
+   */
+  public static final int DEFAULT_PREFETCH_RING = 1;
+
+  private static String tileKey(int x, int y, int zoom) {
+    return zoom + ":" + x + ":" + y;
+  }
+
+  private static native void nativePrefetch(String url) /*-{
+    var img = new Image();
+    img.src = url;
+  }-*/;
+
+  private final TileLayer delegate;
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(
+      16, 0.75f, true);
+  private int evictionCount;
+  private int hitCount;
+  private final int maxEntries;
+  private int missCount;
+  private int prefetchCount;
+  private int prefetchHitCount;
+  private boolean prefetchNextZoom = true;
+  private boolean prefetchPending;
+  private int prefetchRing = DEFAULT_PREFETCH_RING;
+
+  /**
+   * Creates a caching layer in front of another tile layer, keeping up to
+   * {@link #DEFAULT_MAX_ENTRIES} URLs.
+   * 
+   * @param delegate the layer that computes tile URLs.
+   * @param copyrights copyrights to use for copyright handling
+   * @param minResolution minimum zoom level to use for this tile layer
+   * @param maxResolution maximum zoom level to use for this tile layer
+   */
+  public CachingTileLayer(TileLayer delegate, CopyrightCollection copyrights,
+      int minResolution, int maxResolution) {
+    this(delegate, copyrights, minResolution, maxResolution,
+        DEFAULT_MAX_ENTRIES);
+  }
+
+  /**
+   * Creates a caching layer in front of another tile layer.
+   * 
+   * @param delegate the layer that computes tile URLs.
+   * @param copyrights copyrights to use for copyright handling
+   * @param minResolution minimum zoom level to use for this tile layer
+   * @param maxResolution maximum zoom level to use for this tile layer
+   * @param maxEntries the maximum number of tile URLs kept.
+   */
+  public CachingTileLayer(TileLayer delegate, CopyrightCollection copyrights,
+      int minResolution, int maxResolution, int maxEntries) {
+    super(copyrights, minResolution, maxResolution);
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+    this.delegate = delegate;
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * Prefetches tiles around the view of a map every time it stops moving.
+   * The map should display this layer.
+   * 
+   * @param map the map to follow.
+   */
+  public void attach(final MapWidget map) {
+    map.addMapMoveEndHandler(new MapMoveEndHandler() {
+      public void onMoveEnd(MapMoveEndEvent event) {
+        schedulePrefetch(map);
+      }
+    });
+    schedulePrefetch(map);
+  }
+
+  /**
+   * Removes all cached URLs.
+   */
+  public void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of URLs evicted to make room for newer ones.
+   * 
+   * @return the number of URLs evicted.
+   */
+  public int getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * Returns the number of tile requests answered from the cache.
+   * 
+   * @return the number of cache hits.
+   */
+  public int getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Returns the fraction of tile requests answered from the cache.
+   * 
+   * @return the hit rate between 0 and 1, or 0 if no tile was requested.
+   */
+  public double getHitRate() {
+    int total = hitCount + missCount;
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  /**
+   * Returns the maximum number of tile URLs kept.
+   * 
+   * @return the maximum number of tile URLs kept.
+   */
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  /**
+   * Returns the number of tile requests that had to call the wrapped layer.
+   * 
+   * @return the number of cache misses.
+   */
+  public int getMissCount() {
+    return missCount;
+  }
+
+  @Override
+  public double getOpacity() {
+    return delegate.getOpacity();
+  }
+
+  /**
+   * Returns the number of tiles requested ahead of time.
+   * 
+   * @return the number of prefetched tiles.
+   */
+  public int getPrefetchCount() {
+    return prefetchCount;
+  }
+
+  /**
+   * Returns the number of prefetched tiles the map later asked for.
+   * 
+   * @return the number of prefetched tiles that were used.
+   */
+  public int getPrefetchHitCount() {
+    return prefetchHitCount;
+  }
+
+  /**
+   * Returns the number of tiles prefetched on each side of the viewport.
+   * 
+   * @return the width of the prefetched ring in tiles.
+   */
+  public int getPrefetchRing() {
+    return prefetchRing;
+  }
+
+  @Override
+  public String getTileURL(Point tile, int zoomLevel) {
+    String key = tileKey(tile.getX(), tile.getY(), zoomLevel);
+    Entry entry = entries.get(key);
+    if (entry != null) {
+      ++hitCount;
+      if (entry.prefetched) {
+        entry.prefetched = false;
+        ++prefetchHitCount;
+      }
+      return entry.url;
+    }
+    ++missCount;
+    entry = new Entry(delegate.getTileURL(tile, zoomLevel));
+    put(key, entry);
+    return entry.url;
+  }
+
+  /**
+   * Returns <code>true</code> if the tiles covering the view at the next zoom
+   * level are prefetched.
+   * 
+   * @return <code>true</code> if the next zoom level is prefetched.
+   */
+  public boolean isPrefetchNextZoom() {
+    return prefetchNextZoom;
+  }
+
+  @Override
+  public boolean isPng() {
+    return delegate.isPng();
+  }
+
+  /**
+   * Prefetches the ring of tiles around the current view of a map and, if
+   * enabled, the tiles covering the view at the next zoom level. Tiles whose
+   * URL is already cached are assumed to be loaded and are skipped. At most
+   * half of the cache is used for prefetched tiles in one pass so that they
+   * do not evict the tiles on screen.
+   * 
+   * @param map the map whose view to prefetch around.
+   */
+  public void prefetch(MapWidget map) {
+    prefetchPending = false;
+    MapType mapType = map.getCurrentMapType();
+    Projection projection = mapType.getProjection();
+    int tileSize = mapType.getTileSize();
+    int zoom = map.getZoomLevel();
+    LatLngBounds bounds = map.getBounds();
+    Point sw = projection.fromLatLngToPixel(bounds.getSouthWest(), zoom);
+    Point ne = projection.fromLatLngToPixel(bounds.getNorthEast(), zoom);
+    int x0 = floorDiv(sw.getX(), tileSize);
+    int x1 = floorDiv(ne.getX(), tileSize);
+    int y0 = floorDiv(ne.getY(), tileSize);
+    int y1 = floorDiv(sw.getY(), tileSize);
+    int tilesPerAxis = (int) Math.round(projection.getWrapWidth(zoom)
+        / tileSize);
+    if (x1 < x0) {
+      // The view crosses the 180th meridian.
+      x1 += tilesPerAxis;
+    }
+
+    int budget = maxEntries / 2;
+    budget = prefetchRange(x0 - prefetchRing, y0 - prefetchRing, x1
+        + prefetchRing, y1 + prefetchRing, zoom, tilesPerAxis, budget);
+    if (prefetchNextZoom && zoom < getMaxResolution()) {
+      prefetchRange(x0 * 2, y0 * 2, x1 * 2 + 1, y1 * 2 + 1, zoom + 1,
+          tilesPerAxis * 2, budget);
+    }
+  }
+
+  /**
+   * Clears the hit, miss, eviction and prefetch counts.
+   */
+  public void resetStats() {
+    evictionCount = 0;
+    hitCount = 0;
+    missCount = 0;
+    prefetchCount = 0;
+    prefetchHitCount = 0;
+  }
+
+  /**
+   * Sets whether the tiles covering the view at the next zoom level are
+   * prefetched.
+   * 
+   * @param prefetch <code>true</code> to prefetch the next zoom level.
+   */
+  public void setPrefetchNextZoom(boolean prefetch) {
+    prefetchNextZoom = prefetch;
+  }
+
+  /**
+   * Sets the number of tiles prefetched on each side of the viewport. Zero
+   * disables prefetching around the viewport.
+   * 
+   * @param tiles the width of the prefetched ring in tiles.
+   */
+  public void setPrefetchRing(int tiles) {
+    prefetchRing = Math.max(0, tiles);
+  }
+
+  /**
+   * Returns the number of cached tile URLs.
+   * 
+   * @return the number of cached tile URLs.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Asks the browser to download a tile ahead of time. The default
+   * implementation loads the URL into an off-screen image.
+   * 
+   * @param url the URL of the tile.
+   */
+  protected void prefetchTile(String url) {
+    nativePrefetch(url);
+  }
+
+  private int floorDiv(int value, int divisor) {
+    return (int) Math.floor((double) value / divisor);
+  }
+
+  /**
+   * Prefetches the uncached tiles in a range of tile indices, wrapping x
+   * around the world and skipping rows outside of it.
+   * 
+   * @return the remaining budget.
+   */
+  private int prefetchRange(int x0, int y0, int x1, int y1, int zoom,
+      int tilesPerAxis, int budget) {
+    int width = Math.min(x1 - x0 + 1, tilesPerAxis);
+    for (int y = Math.max(0, y0); y <= Math.min(tilesPerAxis - 1, y1); ++y) {
+      for (int i = 0; i < width; ++i) {
+        if (budget <= 0) {
+          return 0;
+        }
+        int x = (x0 + i) % tilesPerAxis;
+        if (x < 0) {
+          x += tilesPerAxis;
+        }
+        String key = tileKey(x, y, zoom);
+        if (entries.containsKey(key)) {
+          continue;
+        }
+        Entry entry = new Entry(delegate.getTileURL(Point.newInstance(x, y),
+            zoom));
+        entry.prefetched = true;
+        put(key, entry);
+        ++prefetchCount;
+        --budget;
+        prefetchTile(entry.url);
+      }
+    }
+    return budget;
+  }
+
+  private void put(String key, Entry entry) {
+    entries.put(key, entry);
+    if (entries.size() > maxEntries) {
+      Iterator<Entry> it = entries.values().iterator();
+      it.next();
+      it.remove();
+      ++evictionCount;
+    }
+  }
+
+  private void schedulePrefetch(final MapWidget map) {
+    if (!prefetchPending) {
+      prefetchPending = true;
+      DeferredCommand.addCommand(new Command() {
+        public void execute() {
+          if (prefetchPending) {
+            prefetch(map);
+          }
+        }
+      });
+    }
+  }
+}
@@ -16,6 +16,7 @@
 package com.google.gwt.maps.client;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.JSList;
 import com.google.gwt.maps.client.event.NewCopyrightHandler;
 import com.google.gwt.maps.client.event.NewCopyrightHandler.NewCopyrightEvent;
 import com.google.gwt.maps.client.geom.LatLngBounds;
@@ -24,7 +25,6 @@ import com.google.gwt.maps.client.impl.HandlerCollection;
 import com.google.gwt.maps.client.impl.JsUtil;
 import com.google.gwt.maps.client.impl.MapEvent;
 import com.google.gwt.maps.client.impl.EventImpl.CopyrightCallback;
-import com.google.gwt.maps.jsio.client.JSList;
 
 /**
  * Manages copyright messages displayed on maps of custom map type. If you don't
@@ -16,11 +16,11 @@
 package com.google.gwt.maps.client;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.JSWrapper;
+import com.google.gwt.apis.jsio.client.impl.Extractor;
 import com.google.gwt.maps.client.impl.InfoWindowImpl;
 import com.google.gwt.maps.client.impl.InfoWindowOptionsImpl;
 import com.google.gwt.maps.client.impl.JsUtil;
-import com.google.gwt.maps.jsio.client.JSWrapper;
-import com.google.gwt.maps.jsio.client.impl.Extractor;
 import com.google.gwt.user.client.DOM;
 import com.google.gwt.user.client.Element;
 import com.google.gwt.user.client.ui.Widget;
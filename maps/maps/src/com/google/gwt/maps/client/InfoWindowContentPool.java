@@ -0,0 +1,462 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client;
+
+import com.google.gwt.maps.client.InfoWindowContent.InfoWindowTab;
+import com.google.gwt.maps.client.event.MapInfoWindowCloseHandler;
+import com.google.gwt.maps.client.geom.LatLng;
+import com.google.gwt.maps.client.overlay.Marker;
+import com.google.gwt.user.client.Timer;
+import com.google.gwt.user.client.ui.SimplePanel;
+import com.google.gwt.user.client.ui.Widget;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opens the info window of a map with widgets taken from a pool instead of
+ * building new widgets for every marker that is clicked.
+ * 
+ * Widgets are created by a {@link Renderer}, one per kind of content, and are
+ * bound to the data of the clicked marker each time they are shown. When the
+ * info window closes, its widgets go back to an idle list kept per renderer
+ * so that the next window showing the same kind of content only has to rebind
+ * them. The idle lists are bounded; widgets released to a full list are
+ * dropped.
+ * 
+ * Tabbed windows are opened with placeholders, and a tab's widget is only
+ * acquired and bound when the tab is first selected. Tabs the user never
+ * looks at cost nothing beyond an empty panel.
+ * 
+ * Hit and miss counts are kept to help size the pool.
+ */
+public class InfoWindowContentPool {
+
+  /**
+   * Creates the widgets for one kind of info window content and binds them to
+   * the data they display.
+   * 
+   * @param <T> the type of data displayed
+   * @param <W> the type of widget created
+   */
+  public interface Renderer<T, W extends Widget> {
+
+    /**
+     * Binds a widget to the data it displays. Pooled widgets are bound again
+     * each time they are reused, so this method must overwrite everything the
+     * previous binding set.
+     * 
+     * @param widget a widget created by {@link #createWidget()}.
+     * @param data the data to display.
+     */
+    void bind(W widget, T data);
+
+    /**
+     * Creates a new, unbound widget.
+     * 
+     * @return a new widget.
+     */
+    W createWidget();
+  }
+
+  /**
+   * A tab whose content is rendered the first time it is selected.
+   */
+  public static final class Tab {
+    private final Object data;
+    private final String label;
+    private final Renderer<Object, Widget> renderer;
+
+    /**
+     * Creates a tab.
+     * 
+     * @param <T> the type of data displayed
+     * @param <W> the type of widget created
+     * @param label the label of the tab.
+     * @param renderer the renderer of the tab content.
+     * @param data the data to display in the tab.
+     */
+    @SuppressWarnings("unchecked")
+    public <T, W extends Widget> Tab(String label, Renderer<T, W> renderer,
+        T data) {
+      this.label = label;
+      this.renderer = (Renderer<Object, Widget>) renderer;
+      this.data = data;
+    }
+  }
+
+  /**
+   * A widget shown in the open info window, or a tab not rendered yet.
+   */
+  private static class Shown {
+    final SimplePanel placeholder;
+    final Renderer<Object, Widget> renderer;
+    final Tab tab;
+    Widget widget;
+
+    Shown(Renderer<Object, Widget> renderer, Widget widget) {
+      this.placeholder = null;
+      this.renderer = renderer;
+      this.tab = null;
+      this.widget = widget;
+    }
+
+    Shown(Tab tab) {
+      this.placeholder = new SimplePanel();
+      this.renderer = tab.renderer;
+      this.tab = tab;
+    }
+  }
+
+  /**
+   * The default maximum number of idle widgets kept per renderer.
+   */
+  public static final int DEFAULT_MAX_IDLE = 4;
+
+  /**
+   * How often the selected tab of an open tabbed window is checked. The Maps
+   * API does not fire an event when the user switches tabs.
+   */
+  private static final int TAB_POLL_MILLIS = 200;
+
+  private final MapInfoWindowCloseHandler closeHandler =
+      new MapInfoWindowCloseHandler() {
+        public void onInfoWindowClose(MapInfoWindowCloseEvent event) {
+          releaseShown();
+        }
+      };
+  private int discardCount;
+  private int hitCount;
+  private final Map<Renderer<?, ?>, List<Widget>> idle = new HashMap<Renderer<?, ?>, List<Widget>>();
+  private final MapWidget map;
+  private final int maxIdle;
+  private int missCount;
+  private List<Shown> shown;
+  private int skippedTabCount;
+  private final Timer tabTimer = new Timer() {
+    @Override
+    public void run() {
+      renderSelectedTab();
+    }
+  };
+
+  /**
+   * Creates a pool for the info window of a map, keeping up to
+   * {@link #DEFAULT_MAX_IDLE} idle widgets per renderer.
+   * 
+   * @param map the map whose info window to open.
+   */
+  public InfoWindowContentPool(MapWidget map) {
+    this(map, DEFAULT_MAX_IDLE);
+  }
+
+  /**
+   * Creates a pool for the info window of a map.
+   * 
+   * @param map the map whose info window to open.
+   * @param maxIdle the maximum number of idle widgets kept per renderer.
+   */
+  public InfoWindowContentPool(MapWidget map, int maxIdle) {
+    if (maxIdle < 0) {
+      throw new IllegalArgumentException("maxIdle must not be negative");
+    }
+    this.map = map;
+    this.maxIdle = maxIdle;
+    map.addInfoWindowCloseHandler(closeHandler);
+  }
+
+  /**
+   * Takes an idle widget of a renderer, or creates one if none is idle, and
+   * binds it to some data. Widgets acquired directly must be given back with
+   * {@link #release(Renderer, Widget)} when they are no longer displayed.
+   * 
+   * @param <T> the type of data displayed
+   * @param <W> the type of widget created
+   * @param renderer the renderer of the content.
+   * @param data the data to display.
+   * @return a widget bound to the data.
+   */
+  @SuppressWarnings("unchecked")
+  public <T, W extends Widget> W acquire(Renderer<T, W> renderer, T data) {
+    List<Widget> widgets = idle.get(renderer);
+    W widget;
+    if (widgets != null && !widgets.isEmpty()) {
+      ++hitCount;
+      widget = (W) widgets.remove(widgets.size() - 1);
+    } else {
+      ++missCount;
+      widget = renderer.createWidget();
+    }
+    renderer.bind(widget, data);
+    return widget;
+  }
+
+  /**
+   * Drops all idle widgets.
+   */
+  public void clear() {
+    idle.clear();
+  }
+
+  /**
+   * Stops using the pool. Closes the info window if it shows pooled widgets,
+   * stops watching the map and drops all idle widgets. The pool must not be
+   * used afterwards.
+   */
+  public void dispose() {
+    closeShown();
+    tabTimer.cancel();
+    map.removeInfoWindowCloseHandler(closeHandler);
+    clear();
+  }
+
+  /**
+   * Returns the number of released widgets dropped because the idle list of
+   * their renderer was full.
+   * 
+   * @return the number of widgets dropped.
+   */
+  public int getDiscardCount() {
+    return discardCount;
+  }
+
+  /**
+   * Returns the number of widgets taken from the pool.
+   * 
+   * @return the number of pool hits.
+   */
+  public int getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Returns the fraction of acquired widgets taken from the pool.
+   * 
+   * @return the hit rate between 0 and 1, or 0 if no widget was acquired.
+   */
+  public double getHitRate() {
+    int total = hitCount + missCount;
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  /**
+   * Returns the number of idle widgets of a renderer.
+   * 
+   * @param renderer the renderer of the widgets.
+   * @return the number of idle widgets.
+   */
+  public int getIdleCount(Renderer<?, ?> renderer) {
+    List<Widget> widgets = idle.get(renderer);
+    return widgets == null ? 0 : widgets.size();
+  }
+
+  /**
+   * Returns the maximum number of idle widgets kept per renderer.
+   * 
+   * @return the maximum number of idle widgets kept per renderer.
+   */
+  public int getMaxIdle() {
+    return maxIdle;
+  }
+
+  /**
+   * Returns the number of widgets that had to be created.
+   * 
+   * @return the number of pool misses.
+   */
+  public int getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Returns the number of tabs closed without ever being selected, and so
+   * never rendered.
+   * 
+   * @return the number of tabs never rendered.
+   */
+  public int getSkippedTabCount() {
+    return skippedTabCount;
+  }
+
+  /**
+   * Opens the info window at a point with a pooled widget.
+   * 
+   * @param <T> the type of data displayed
+   * @param <W> the type of widget created
+   * @param point the point to open the info window at.
+   * @param renderer the renderer of the content.
+   * @param data the data to display.
+   */
+  public <T, W extends Widget> void open(LatLng point,
+      Renderer<T, W> renderer, T data) {
+    open(null, point, renderer, data);
+  }
+
+  /**
+   * Opens the info window at a point with tabs rendered when first selected.
+   * 
+   * @param point the point to open the info window at.
+   * @param tabs the tabs to display.
+   * @param selectedTab the index of the tab initially selected.
+   */
+  public void open(LatLng point, Tab[] tabs, int selectedTab) {
+    open(null, point, tabs, selectedTab);
+  }
+
+  /**
+   * Opens the info window over a marker with a pooled widget.
+   * 
+   * @param <T> the type of data displayed
+   * @param <W> the type of widget created
+   * @param marker the marker to open the info window over.
+   * @param renderer the renderer of the content.
+   * @param data the data to display.
+   */
+  public <T, W extends Widget> void open(Marker marker,
+      Renderer<T, W> renderer, T data) {
+    open(marker, null, renderer, data);
+  }
+
+  /**
+   * Opens the info window over a marker with tabs rendered when first
+   * selected.
+   * 
+   * @param marker the marker to open the info window over.
+   * @param tabs the tabs to display.
+   * @param selectedTab the index of the tab initially selected.
+   */
+  public void open(Marker marker, Tab[] tabs, int selectedTab) {
+    open(marker, null, tabs, selectedTab);
+  }
+
+  /**
+   * Gives a widget back to the pool. The widget is dropped if the idle list
+   * of its renderer is full.
+   * 
+   * @param <W> the type of widget created
+   * @param renderer the renderer that created the widget.
+   * @param widget the widget to release.
+   */
+  public <W extends Widget> void release(Renderer<?, W> renderer, W widget) {
+    List<Widget> widgets = idle.get(renderer);
+    if (widgets == null) {
+      widgets = new ArrayList<Widget>();
+      idle.put(renderer, widgets);
+    }
+    if (widgets.size() < maxIdle) {
+      widgets.add(widget);
+    } else {
+      ++discardCount;
+    }
+  }
+
+  /**
+   * Clears the hit, miss, discard and skipped tab counts.
+   */
+  public void resetStats() {
+    discardCount = 0;
+    hitCount = 0;
+    missCount = 0;
+    skippedTabCount = 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T, W extends Widget> void open(Marker marker, LatLng point,
+      Renderer<T, W> renderer, T data) {
+    closeShown();
+    W widget = acquire(renderer, data);
+    List<Shown> next = new ArrayList<Shown>(1);
+    next.add(new Shown((Renderer<Object, Widget>) renderer, widget));
+    openInfoWindow(marker, point, new InfoWindowContent(widget), next);
+  }
+
+  private void open(Marker marker, LatLng point, Tab[] tabs, int selectedTab) {
+    closeShown();
+    List<Shown> next = new ArrayList<Shown>(tabs.length);
+    InfoWindowTab[] windowTabs = new InfoWindowTab[tabs.length];
+    for (int i = 0; i < tabs.length; ++i) {
+      Shown tab = new Shown(tabs[i]);
+      next.add(tab);
+      windowTabs[i] = new InfoWindowTab(tabs[i].label, tab.placeholder);
+    }
+    // Render the first tab shown before the window measures its content
+    renderTab(next.get(selectedTab));
+    openInfoWindow(marker, point, new InfoWindowContent(windowTabs,
+        selectedTab), next);
+    tabTimer.scheduleRepeating(TAB_POLL_MILLIS);
+  }
+
+  /**
+   * Closes the info window if it shows pooled widgets. Closing the window
+   * fires the close event, which releases them.
+   */
+  private void closeShown() {
+    if (shown != null) {
+      map.closeInfoWindow();
+      releaseShown();
+    }
+  }
+
+  private void openInfoWindow(Marker marker, LatLng point,
+      InfoWindowContent content, List<Shown> next) {
+    InfoWindow info = map.getInfoWindow();
+    if (marker != null) {
+      info.open(marker, content);
+    } else {
+      info.open(point, content);
+    }
+    shown = next;
+  }
+
+  private void releaseShown() {
+    tabTimer.cancel();
+    if (shown == null) {
+      return;
+    }
+    List<Shown> released = shown;
+    shown = null;
+    for (Shown s : released) {
+      if (s.widget == null) {
+        ++skippedTabCount;
+        continue;
+      }
+      if (s.placeholder != null) {
+        s.placeholder.clear();
+      }
+      release(s.renderer, s.widget);
+    }
+  }
+
+  private void renderSelectedTab() {
+    if (shown == null) {
+      tabTimer.cancel();
+      return;
+    }
+    int index = map.getInfoWindow().getSelectedTab();
+    if (index >= 0 && index < shown.size()) {
+      renderTab(shown.get(index));
+    }
+  }
+
+  private void renderTab(Shown tab) {
+    if (tab.widget == null) {
+      tab.widget = acquire(tab.renderer, tab.tab.data);
+      tab.placeholder.setWidget(tab.widget);
+    }
+  }
+}
@@ -15,8 +15,8 @@
  */
 package com.google.gwt.maps.client;
 
+import com.google.gwt.apis.jsio.client.JSOpaque;
 import com.google.gwt.maps.client.impl.MapImpl;
-import com.google.gwt.maps.jsio.client.JSOpaque;
 import com.google.gwt.user.client.ui.AbsolutePanel;
 
 /**
@@ -15,7 +15,7 @@
  */
 package com.google.gwt.maps.client;
 
-import com.google.gwt.maps.jsio.client.JSOpaque;
+import com.google.gwt.apis.jsio.client.JSOpaque;
 
 /**
  * Identifies a layer of the map used as a parameter to
@@ -16,6 +16,8 @@
 package com.google.gwt.maps.client;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.JSList;
+import com.google.gwt.apis.jsio.client.impl.Extractor;
 import com.google.gwt.maps.client.event.MapTypeNewCopyrightHandler;
 import com.google.gwt.maps.client.event.MapTypeNewCopyrightHandler.MapTypeNewCopyrightEvent;
 import com.google.gwt.maps.client.geom.LatLng;
@@ -27,8 +29,6 @@ import com.google.gwt.maps.client.impl.JsUtil;
 import com.google.gwt.maps.client.impl.MapEvent;
 import com.google.gwt.maps.client.impl.MapTypeImpl;
 import com.google.gwt.maps.client.impl.EventImpl.CopyrightCallback;
-import com.google.gwt.maps.jsio.client.JSList;
-import com.google.gwt.maps.jsio.client.impl.Extractor;
 
 import java.util.ArrayList;
 import java.util.Collections;
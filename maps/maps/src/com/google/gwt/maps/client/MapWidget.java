@@ -19,15 +19,18 @@ package com.google.gwt.maps.client;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptException;
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
 import com.google.gwt.core.client.GWT.UncaughtExceptionHandler;
 import com.google.gwt.event.logical.shared.CloseEvent;
 import com.google.gwt.event.logical.shared.CloseHandler;
+import com.google.gwt.apis.jsio.client.JSList;
 import com.google.gwt.maps.client.control.Control;
 import com.google.gwt.maps.client.control.ControlAnchor;
 import com.google.gwt.maps.client.control.ControlPosition;
 import com.google.gwt.maps.client.event.EarthInstanceHandler;
 import com.google.gwt.maps.client.event.MapAddMapTypeHandler;
 import com.google.gwt.maps.client.event.MapAddOverlayHandler;
+import com.google.gwt.maps.client.event.MapAddOverlaysHandler;
 import com.google.gwt.maps.client.event.MapClearOverlaysHandler;
 import com.google.gwt.maps.client.event.MapClickHandler;
 import com.google.gwt.maps.client.event.MapDoubleClickHandler;
@@ -45,12 +48,14 @@ import com.google.gwt.maps.client.event.MapMoveHandler;
 import com.google.gwt.maps.client.event.MapMoveStartHandler;
 import com.google.gwt.maps.client.event.MapRemoveMapTypeHandler;
 import com.google.gwt.maps.client.event.MapRemoveOverlayHandler;
+import com.google.gwt.maps.client.event.MapRemoveOverlaysHandler;
 import com.google.gwt.maps.client.event.MapRightClickHandler;
 import com.google.gwt.maps.client.event.MapTypeChangedHandler;
 import com.google.gwt.maps.client.event.MapZoomEndHandler;
 import com.google.gwt.maps.client.event.EarthInstanceHandler.EarthInstanceEvent;
 import com.google.gwt.maps.client.event.MapAddMapTypeHandler.MapAddMapTypeEvent;
 import com.google.gwt.maps.client.event.MapAddOverlayHandler.MapAddOverlayEvent;
+import com.google.gwt.maps.client.event.MapAddOverlaysHandler.MapAddOverlaysEvent;
 import com.google.gwt.maps.client.event.MapClearOverlaysHandler.MapClearOverlaysEvent;
 import com.google.gwt.maps.client.event.MapClickHandler.MapClickEvent;
 import com.google.gwt.maps.client.event.MapDoubleClickHandler.MapDoubleClickEvent;
@@ -68,6 +73,7 @@ import com.google.gwt.maps.client.event.MapMoveHandler.MapMoveEvent;
 import com.google.gwt.maps.client.event.MapMoveStartHandler.MapMoveStartEvent;
 import com.google.gwt.maps.client.event.MapRemoveMapTypeHandler.MapRemoveMapTypeEvent;
 import com.google.gwt.maps.client.event.MapRemoveOverlayHandler.MapRemoveOverlayEvent;
+import com.google.gwt.maps.client.event.MapRemoveOverlaysHandler.MapRemoveOverlaysEvent;
 import com.google.gwt.maps.client.event.MapRightClickHandler.MapRightClickEvent;
 import com.google.gwt.maps.client.event.MapTypeChangedHandler.MapTypeChangedEvent;
 import com.google.gwt.maps.client.event.MapZoomEndHandler.MapZoomEndEvent;
@@ -87,7 +93,6 @@ import com.google.gwt.maps.client.impl.EventImpl.OverlayLatLngCallback;
 import com.google.gwt.maps.client.impl.EventImpl.PointElementOverlayCallback;
 import com.google.gwt.maps.client.impl.EventImpl.VoidCallback;
 import com.google.gwt.maps.client.overlay.Overlay;
-import com.google.gwt.maps.jsio.client.JSList;
 import com.google.gwt.user.client.Command;
 import com.google.gwt.user.client.DeferredCommand;
 import com.google.gwt.user.client.Element;
@@ -97,7 +102,11 @@ import com.google.gwt.user.client.ui.FlowPanel;
 import com.google.gwt.user.client.ui.RequiresResize;
 import com.google.gwt.user.client.ui.Widget;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -128,6 +137,21 @@ public final class MapWidget extends Composite implements RequiresResize {
     }
   }
 
+  /**
+   * Interval for {@link #setCoalescedEventInterval(int)} and
+   * {@link com.google.gwt.maps.client.overlay.Marker#setDragEventInterval(int)}
+   * that delivers every event as it fires. Its value is -1.
+   */
+  public static final int DISPATCH_IMMEDIATE = HandlerCollection.DISPATCH_IMMEDIATE;
+
+  /**
+   * Interval for {@link #setCoalescedEventInterval(int)} and
+   * {@link com.google.gwt.maps.client.overlay.Marker#setDragEventInterval(int)}
+   * that delivers coalesced events at most once per animation frame. Its value
+   * is 0.
+   */
+  public static final int DISPATCH_PER_FRAME = HandlerCollection.DISPATCH_PER_FRAME;
+
   static {
     Window.addCloseHandler(new CloseHandler<Window>() {
       public void onClose(CloseEvent<Window> event) {
@@ -184,10 +208,39 @@ public final class MapWidget extends Composite implements RequiresResize {
     };
   }-*/;
 
+  private static native void nativeAddOverlays(JavaScriptObject jsoPeer,
+      JavaScriptObject overlayPeers) /*-{
+    for (var i = 0, n = overlayPeers.length; i < n; ++i) {
+      jsoPeer.addOverlay(overlayPeers[i]);
+    }
+  }-*/;
+
+  private static native void nativeRemoveOverlays(JavaScriptObject jsoPeer,
+      JavaScriptObject overlayPeers) /*-{
+    for (var i = 0, n = overlayPeers.length; i < n; ++i) {
+      jsoPeer.removeOverlay(overlayPeers[i]);
+    }
+  }-*/;
+
   private static native void nativeUnload() /*-{
     $wnd.GUnload && $wnd.GUnload();
   }-*/;
 
+  /**
+   * Copies the peers of the given overlays into a new JavaScript array. The
+   * array is filled from Java so that the whole batch crosses into JavaScript
+   * in a single native call.
+   */
+  private static JsArray<JavaScriptObject> toOverlayPeerArray(
+      Collection<? extends Overlay> overlays) {
+    JsArray<JavaScriptObject> array = JavaScriptObject.createArray().cast();
+    int index = 0;
+    for (Overlay overlay : overlays) {
+      array.set(index++, overlay.getPeer());
+    }
+    return array;
+  }
+
   private InfoWindow infoWindow;
   private HandlerCollection<MapInfoWindowBeforeCloseHandler> infoWindowBeforeCloseHandlers;
   private HandlerCollection<MapInfoWindowCloseHandler> infoWindowCloseHandlers;
@@ -196,9 +249,13 @@ public final class MapWidget extends Composite implements RequiresResize {
   private final JavaScriptObject jsoPeer;
   private HandlerCollection<MapAddMapTypeHandler> mapAddMapTypeHandlers;
   private HandlerCollection<MapAddOverlayHandler> mapAddOverlayHandlers;
+  private List<MapAddOverlaysHandler> mapAddOverlaysHandlers;
   private HandlerCollection<MapClearOverlaysHandler> mapClearOverlaysHandlers;
   private HandlerCollection<MapClickHandler> mapClickHandlers;
   private final MapPanel mapContainer = new MapPanel();
+  private int coalescedEventInterval = HandlerCollection.DISPATCH_IMMEDIATE;
+  /* Nesting depth of addOverlays()/removeOverlays() calls in progress. */
+  private int overlayBatchDepth;
   private HandlerCollection<MapDoubleClickHandler> mapDoubleClickHandlers;
   private HandlerCollection<MapDragEndHandler> mapDragEndHandlers;
   private HandlerCollection<MapDragHandler> mapDragHandlers;
@@ -211,6 +268,7 @@ public final class MapWidget extends Composite implements RequiresResize {
   private HandlerCollection<MapMoveStartHandler> mapMoveStartHandlers;
   private HandlerCollection<MapRemoveMapTypeHandler> mapRemoveMapTypeHandlers;
   private HandlerCollection<MapRemoveOverlayHandler> mapRemoveOverlayHandlers;
+  private List<MapRemoveOverlaysHandler> mapRemoveOverlaysHandlers;
   private HandlerCollection<MapRightClickHandler> mapRightClickHandlers;
   private HandlerCollection<MapTypeChangedHandler> mapTypeChangedHandlers;
   private HandlerCollection<MapZoomEndHandler> mapZoomEndHandlers;
@@ -397,7 +455,10 @@ public final class MapWidget extends Composite implements RequiresResize {
   /**
    * This event is fired when a single overlay is added to the map by the method
    * addOverlay(). The new overlay is passed as an argument overlay to the event
-   * handler.
+   * handler. It is not fired for overlays added with
+   * {@link MapWidget#addOverlays(Collection)}; use
+   * {@link MapWidget#addMapAddOverlaysHandler(MapAddOverlaysHandler)} to be
+   * notified of those.
    * 
    * @param handler the handler to call when this event fires.
    */
@@ -407,12 +468,29 @@ public final class MapWidget extends Composite implements RequiresResize {
     mapAddOverlayHandlers.addHandler(handler, new OverlayCallback() {
       @Override
       public void callback(Overlay overlay) {
-        MapAddOverlayEvent e = new MapAddOverlayEvent(MapWidget.this, overlay);
-        handler.onAddOverlay(e);
+        if (overlayBatchDepth == 0) {
+          MapAddOverlayEvent e = new MapAddOverlayEvent(MapWidget.this,
+              overlay);
+          handler.onAddOverlay(e);
+        }
       }
     });
   }
 
+  /**
+   * This event is fired once when several overlays are added to the map by the
+   * method {@link MapWidget#addOverlays(Collection)}. All of the overlays are
+   * passed to the event handler together.
+   * 
+   * @param handler the handler to call when this event fires.
+   */
+  public void addMapAddOverlaysHandler(MapAddOverlaysHandler handler) {
+    if (mapAddOverlaysHandlers == null) {
+      mapAddOverlaysHandlers = new ArrayList<MapAddOverlaysHandler>();
+    }
+    mapAddOverlaysHandlers.add(handler);
+  }
+
   /**
    * This event is fired when all overlays are removed at once by the method
    * {@link MapWidget#clearOverlays()}.
@@ -649,7 +727,10 @@ public final class MapWidget extends Composite implements RequiresResize {
   /**
    * This handler is fired when a single overlay is removed by the method
    * {@link MapWidget#removeOverlay(Overlay)}. The overlay that was removed is
-   * passed as an argument overlay to the event handler.
+   * passed as an argument overlay to the event handler. It is not fired for
+   * overlays removed with {@link MapWidget#removeOverlays(Collection)}; use
+   * {@link MapWidget#addMapRemoveOverlaysHandler(MapRemoveOverlaysHandler)} to
+   * be notified of those.
    * 
    * @param handler the handler to call when this event fires.
    */
@@ -659,13 +740,29 @@ public final class MapWidget extends Composite implements RequiresResize {
     mapRemoveOverlayHandlers.addHandler(handler, new OverlayCallback() {
       @Override
       public void callback(Overlay overlay) {
-        MapRemoveOverlayEvent e = new MapRemoveOverlayEvent(MapWidget.this,
-            overlay);
-        handler.onRemoveOverlay(e);
+        if (overlayBatchDepth == 0) {
+          MapRemoveOverlayEvent e = new MapRemoveOverlayEvent(MapWidget.this,
+              overlay);
+          handler.onRemoveOverlay(e);
+        }
       }
     });
   }
 
+  /**
+   * This event is fired once when several overlays are removed from the map by
+   * the method {@link MapWidget#removeOverlays(Collection)}. All of the
+   * overlays passed to that method are passed to the event handler together.
+   * 
+   * @param handler the handler to call when this event fires.
+   */
+  public void addMapRemoveOverlaysHandler(MapRemoveOverlaysHandler handler) {
+    if (mapRemoveOverlaysHandlers == null) {
+      mapRemoveOverlaysHandlers = new ArrayList<MapRemoveOverlaysHandler>();
+    }
+    mapRemoveOverlaysHandlers.add(handler);
+  }
+
   /**
    * Add a click handler for mouse right click events.
    * 
@@ -750,6 +847,36 @@ public final class MapWidget extends Composite implements RequiresResize {
     MapImpl.impl.addOverlay(jsoPeer, overlay);
   }
 
+  /**
+   * Adds several overlays to the map with a single call into the Maps API.
+   * Rather than firing {@link MapAddOverlayHandler} once per overlay, a single
+   * {@link MapAddOverlaysEvent} holding all of the overlays is fired to any
+   * registered {@link MapAddOverlaysHandler}.
+   * 
+   * @param overlays the overlays to add to the map
+   */
+  public void addOverlays(Collection<? extends Overlay> overlays) {
+    if (overlays.isEmpty()) {
+      return;
+    }
+    JavaScriptObject overlayPeers = toOverlayPeerArray(overlays);
+    ++overlayBatchDepth;
+    try {
+      nativeAddOverlays(jsoPeer, overlayPeers);
+    } finally {
+      --overlayBatchDepth;
+    }
+
+    if (mapAddOverlaysHandlers != null && !mapAddOverlaysHandlers.isEmpty()) {
+      MapAddOverlaysEvent e = new MapAddOverlaysEvent(this,
+          Collections.unmodifiableList(new ArrayList<Overlay>(overlays)));
+      for (MapAddOverlaysHandler handler : new ArrayList<MapAddOverlaysHandler>(
+          mapAddOverlaysHandlers)) {
+        handler.onAddOverlays(e);
+      }
+    }
+  }
+
   /**
    * Notifies the map of a change of the size of its container.
    */
@@ -867,6 +994,34 @@ public final class MapWidget extends Composite implements RequiresResize {
     return MapImpl.impl.getCenter(jsoPeer);
   }
 
+  /**
+   * Returns the number of coalesced drag, move and mouse move events delivered
+   * to handlers since {@link #setCoalescedEventInterval(int)} was first used.
+   * 
+   * @return the number of coalesced events delivered
+   */
+  public int getCoalescedEventsDelivered() {
+    int count = 0;
+    for (HandlerCollection<?> handlers : getCoalescableHandlers()) {
+      count += handlers.getDeliveredCount();
+    }
+    return count;
+  }
+
+  /**
+   * Returns the number of drag, move and mouse move events that were replaced
+   * by a later event before they were delivered to handlers.
+   * 
+   * @return the number of coalesced events dropped
+   */
+  public int getCoalescedEventsDropped() {
+    int count = 0;
+    for (HandlerCollection<?> handlers : getCoalescableHandlers()) {
+      count += handlers.getDroppedCount();
+    }
+    return count;
+  }
+
   /**
    * Returns the currently selected map type.
    * 
@@ -1164,6 +1319,18 @@ public final class MapWidget extends Composite implements RequiresResize {
     }
   }
 
+  /**
+   * Removes a single handler of this map previously added with
+   * {@link MapWidget#addMapAddOverlaysHandler(MapAddOverlaysHandler)}.
+   * 
+   * @param handler the handler to remove
+   */
+  public void removeMapAddOverlaysHandler(MapAddOverlaysHandler handler) {
+    if (mapAddOverlaysHandlers != null) {
+      mapAddOverlaysHandlers.remove(handler);
+    }
+  }
+
   /**
    * Removes a single handler of this map previously added with
    * {@link MapWidget#addMapClearOverlaysHandler(MapClearOverlaysHandler)}.
@@ -1332,6 +1499,18 @@ public final class MapWidget extends Composite implements RequiresResize {
     }
   }
 
+  /**
+   * Removes a single handler of this map previously added with
+   * {@link MapWidget#addMapRemoveOverlaysHandler(MapRemoveOverlaysHandler)}.
+   * 
+   * @param handler the handler to remove
+   */
+  public void removeMapRemoveOverlaysHandler(MapRemoveOverlaysHandler handler) {
+    if (mapRemoveOverlaysHandlers != null) {
+      mapRemoveOverlaysHandlers.remove(handler);
+    }
+  }
+
   /**
    * Removes a single handler of this map previously added with
    * {@link MapWidget#addMapRightClickHandler(MapRightClickHandler)}.
@@ -1391,6 +1570,37 @@ public final class MapWidget extends Composite implements RequiresResize {
     MapImpl.impl.removeOverlay(jsoPeer, overlay);
   }
 
+  /**
+   * Removes several overlays from the map with a single call into the Maps
+   * API. Rather than firing {@link MapRemoveOverlayHandler} once per overlay, a
+   * single {@link MapRemoveOverlaysEvent} holding all of the given overlays is
+   * fired to any registered {@link MapRemoveOverlaysHandler}.
+   * 
+   * @param overlays the overlays to remove from the map
+   */
+  public void removeOverlays(Collection<? extends Overlay> overlays) {
+    if (overlays.isEmpty()) {
+      return;
+    }
+    JavaScriptObject overlayPeers = toOverlayPeerArray(overlays);
+    ++overlayBatchDepth;
+    try {
+      nativeRemoveOverlays(jsoPeer, overlayPeers);
+    } finally {
+      --overlayBatchDepth;
+    }
+
+    if (mapRemoveOverlaysHandlers != null
+        && !mapRemoveOverlaysHandlers.isEmpty()) {
+      MapRemoveOverlaysEvent e = new MapRemoveOverlaysEvent(this,
+          Collections.unmodifiableList(new ArrayList<Overlay>(overlays)));
+      for (MapRemoveOverlaysHandler handler : new ArrayList<MapRemoveOverlaysHandler>(
+          mapRemoveOverlaysHandlers)) {
+        handler.onRemoveOverlays(e);
+      }
+    }
+  }
+
   /**
    * Restores the map view that was saved by {@link MapWidget#savePosition()}.
    */
@@ -1447,6 +1657,26 @@ public final class MapWidget extends Composite implements RequiresResize {
     MapImpl.impl.setCenter(jsoPeer, center, zoomLevel, type);
   }
 
+  /**
+   * Sets how {@link MapDragHandler}, {@link MapMoveHandler} and
+   * {@link MapMouseMoveHandler} events are delivered. By default
+   * ({@link #DISPATCH_IMMEDIATE}) every event is delivered as it fires.
+   * Otherwise the events are coalesced so that each handler is called at most
+   * once per animation frame ({@link #DISPATCH_PER_FRAME}) or once per the
+   * given number of milliseconds, with the arguments of the latest event. This
+   * keeps slow handlers from falling behind while the map is dragged. Events
+   * are only coalesced while handlers are registered for them.
+   * 
+   * @param intervalMillis the coalescing interval in milliseconds, or one of
+   *          {@link #DISPATCH_IMMEDIATE} or {@link #DISPATCH_PER_FRAME}
+   */
+  public void setCoalescedEventInterval(int intervalMillis) {
+    coalescedEventInterval = intervalMillis;
+    for (HandlerCollection<?> handlers : getCoalescableHandlers()) {
+      handlers.setCoalesceInterval(intervalMillis);
+    }
+  }
+
   /**
    * Enables or disables continuous zooming on supported browsers. Continuous
    * zooming is disabled by default.
@@ -1911,6 +2141,25 @@ public final class MapWidget extends Composite implements RequiresResize {
     mapZoomEndHandlers.trigger(event.getOldZoomLevel(), event.getNewZoomLevel());
   }
 
+  /**
+   * Returns the handler collections that
+   * {@link #setCoalescedEventInterval(int)} applies to, omitting any that have
+   * not been created.
+   */
+  private List<HandlerCollection<?>> getCoalescableHandlers() {
+    List<HandlerCollection<?>> result = new ArrayList<HandlerCollection<?>>();
+    if (mapDragHandlers != null) {
+      result.add(mapDragHandlers);
+    }
+    if (mapMouseMoveHandlers != null) {
+      result.add(mapMouseMoveHandlers);
+    }
+    if (mapMoveHandlers != null) {
+      result.add(mapMoveHandlers);
+    }
+    return result;
+  }
+
   /**
    * Lazy init the HandlerCollection.
    */
@@ -2008,6 +2257,7 @@ public final class MapWidget extends Composite implements RequiresResize {
     if (mapDragHandlers == null) {
       mapDragHandlers = new HandlerCollection<MapDragHandler>(jsoPeer,
           MapEvent.DRAG);
+      mapDragHandlers.setCoalesceInterval(coalescedEventInterval);
     }
   }
 
@@ -2028,6 +2278,7 @@ public final class MapWidget extends Composite implements RequiresResize {
     if (mapMouseMoveHandlers == null) {
       mapMouseMoveHandlers = new HandlerCollection<MapMouseMoveHandler>(
           jsoPeer, MapEvent.MOUSEMOVE);
+      mapMouseMoveHandlers.setCoalesceInterval(coalescedEventInterval);
     }
   }
 
@@ -2068,6 +2319,7 @@ public final class MapWidget extends Composite implements RequiresResize {
     if (mapMoveHandlers == null) {
       mapMoveHandlers = new HandlerCollection<MapMoveHandler>(jsoPeer,
           MapEvent.MOVE);
+      mapMoveHandlers.setCoalesceInterval(coalescedEventInterval);
     }
   }
 
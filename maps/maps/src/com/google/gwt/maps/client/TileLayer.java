@@ -16,6 +16,9 @@
 package com.google.gwt.maps.client;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.Exported;
+import com.google.gwt.apis.jsio.client.FieldName;
+import com.google.gwt.apis.jsio.client.impl.Extractor;
 import com.google.gwt.maps.client.event.TileLayerNewCopyrightHandler;
 import com.google.gwt.maps.client.event.TileLayerNewCopyrightHandler.TileLayerNewCopyrightEvent;
 import com.google.gwt.maps.client.geom.Point;
@@ -23,9 +26,6 @@ import com.google.gwt.maps.client.impl.HandlerCollection;
 import com.google.gwt.maps.client.impl.MapEvent;
 import com.google.gwt.maps.client.impl.TileLayerImpl;
 import com.google.gwt.maps.client.impl.EventImpl.CopyrightCallback;
-import com.google.gwt.maps.jsio.client.Exported;
-import com.google.gwt.maps.jsio.client.FieldName;
-import com.google.gwt.maps.jsio.client.impl.Extractor;
 
 /**
  * Implement this class in order to provide custom map tile layers, either
@@ -16,10 +16,10 @@
 package com.google.gwt.maps.client.control;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.Exported;
+import com.google.gwt.apis.jsio.client.FieldName;
 import com.google.gwt.maps.client.MapWidget;
 import com.google.gwt.maps.client.impl.ControlImpl;
-import com.google.gwt.maps.jsio.client.Exported;
-import com.google.gwt.maps.jsio.client.FieldName;
 import com.google.gwt.user.client.Element;
 import com.google.gwt.user.client.ui.Widget;
 
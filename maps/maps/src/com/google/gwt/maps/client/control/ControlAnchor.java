@@ -15,7 +15,7 @@
  */
 package com.google.gwt.maps.client.control;
 
-import com.google.gwt.maps.jsio.client.JSOpaque;
+import com.google.gwt.apis.jsio.client.JSOpaque;
 
 /**
  * Wraps the class GControlAnchor which is used by {@link ControlPosition} to determine
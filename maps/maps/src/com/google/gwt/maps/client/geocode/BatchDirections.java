@@ -0,0 +1,211 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geocode;
+
+import java.util.LinkedList;
+
+/**
+ * Computes travel distances and times between many origins and destinations.
+ * Each origin/destination pair is a separate directions query sent to a
+ * {@link DirectionsService}; at most
+ * {@link #setMaxConcurrentRequests(int) a fixed number} of queries are
+ * outstanding at any time. The default service is a {@link DirectionsCache},
+ * so pairs that were asked for recently are answered without a request.
+ * 
+ * Pairs whose origin and destination are the same waypoint are filled with
+ * zero without a query. Failed pairs are recorded in the matrix with their
+ * status code and are not retried.
+ */
+public class BatchDirections {
+
+  /**
+   * A single origin/destination pair waiting in the queue.
+   */
+  private static class Job {
+    final DistanceMatrixCallback callback;
+    final int column;
+    final DistanceMatrix matrix;
+    final DirectionQueryOptions options;
+    final int row;
+    final Waypoint[] waypoints;
+
+    Job(DistanceMatrix matrix, DistanceMatrixCallback callback,
+        DirectionQueryOptions options, int row, int column, Waypoint origin,
+        Waypoint destination) {
+      this.matrix = matrix;
+      this.callback = callback;
+      this.options = options;
+      this.row = row;
+      this.column = column;
+      this.waypoints = new Waypoint[] {origin, destination};
+    }
+  }
+
+  /**
+   * The default number of queries that may be outstanding at once.
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
+  private int inFlight;
+  private int maxConcurrent = DEFAULT_MAX_CONCURRENT_REQUESTS;
+  private boolean pumping;
+  private final LinkedList<Job> queue = new LinkedList<Job>();
+  private int requestCount;
+  private final DirectionsService service;
+
+  /**
+   * Creates a batch that sends queries through a new {@link DirectionsCache}.
+   */
+  public BatchDirections() {
+    this(new DirectionsCache());
+  }
+
+  /**
+   * Creates a batch that sends queries to the given service.
+   * 
+   * @param service the service used to compute each pair.
+   */
+  public BatchDirections(DirectionsService service) {
+    this.service = service;
+  }
+
+  /**
+   * Removes all pairs that have not been sent yet from the queue. Their
+   * matrices never complete. Queries already sent are still recorded.
+   */
+  public void cancel() {
+    queue.clear();
+  }
+
+  /**
+   * Queues a query for every origin/destination pair. The returned matrix is
+   * filled in as the queries complete, and the callback is called once it is
+   * complete.
+   * 
+   * @param origins the starting points, one per row.
+   * @param destinations the end points, one per column.
+   * @param options optional parameters to use with each query.
+   * @param callback receives the matrix once it is complete.
+   * @return the matrix being computed.
+   */
+  public DistanceMatrix computeMatrix(Waypoint[] origins,
+      Waypoint[] destinations, DirectionQueryOptions options,
+      DistanceMatrixCallback callback) {
+    DistanceMatrix matrix = new DistanceMatrix(origins.length,
+        destinations.length);
+    for (int row = 0; row < origins.length; ++row) {
+      String origin = origins[row].toString();
+      for (int column = 0; column < destinations.length; ++column) {
+        if (origin.equals(destinations[column].toString())) {
+          matrix.setResult(row, column, 0, 0);
+        } else {
+          queue.add(new Job(matrix, callback, options, row, column,
+              origins[row], destinations[column]));
+        }
+      }
+    }
+    if (matrix.isComplete()) {
+      callback.onComplete(matrix);
+    } else {
+      pump();
+    }
+    return matrix;
+  }
+
+  /**
+   * Returns the number of queries currently outstanding.
+   * 
+   * @return the number of queries currently outstanding.
+   */
+  public int getInFlightCount() {
+    return inFlight;
+  }
+
+  /**
+   * Returns the number of pairs waiting to be sent.
+   * 
+   * @return the number of pairs waiting to be sent.
+   */
+  public int getQueuedCount() {
+    return queue.size();
+  }
+
+  /**
+   * Returns the number of queries sent to the service.
+   * 
+   * @return the number of queries sent to the service.
+   */
+  public int getRequestCount() {
+    return requestCount;
+  }
+
+  /**
+   * Sets the number of queries that may be outstanding at once.
+   * 
+   * @param max the maximum number of outstanding queries.
+   */
+  public void setMaxConcurrentRequests(int max) {
+    maxConcurrent = Math.max(1, max);
+    pump();
+  }
+
+  private void complete(Job job) {
+    --inFlight;
+    if (job.matrix.isComplete()) {
+      job.callback.onComplete(job.matrix);
+    }
+    pump();
+  }
+
+  /**
+   * Sends as many queued queries as the concurrency limit allows.
+   */
+  private void pump() {
+    if (pumping) {
+      // A synchronous reply arrived while sending; the loop below picks up
+      // the capacity it freed.
+      return;
+    }
+    pumping = true;
+    try {
+      while (!queue.isEmpty() && inFlight < maxConcurrent) {
+        send(queue.removeFirst());
+      }
+    } finally {
+      pumping = false;
+    }
+  }
+
+  private void send(final Job job) {
+    ++inFlight;
+    ++requestCount;
+    service.loadFromWaypoints(job.waypoints, job.options,
+        new DirectionsCallback() {
+          public void onFailure(int statusCode) {
+            job.matrix.setFailed(job.row, job.column, statusCode);
+            complete(job);
+          }
+
+          public void onSuccess(DirectionResults result) {
+            Distance distance = result.getDistance();
+            Duration duration = result.getDuration();
+            job.matrix.setResult(job.row, job.column, distance.inMeters(),
+                duration.inSeconds());
+            complete(job);
+          }
+        });
+  }
+}
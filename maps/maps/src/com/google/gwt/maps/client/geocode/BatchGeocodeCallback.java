@@ -0,0 +1,52 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geocode;
+
+import com.google.gwt.core.client.JsArray;
+
+/**
+ * Receives the results of a {@link BatchGeocoder} run as each address
+ * completes.
+ */
+public interface BatchGeocodeCallback {
+
+  /**
+   * Called once after every address has either succeeded or failed.
+   * 
+   * @param succeeded the number of addresses that were resolved.
+   * @param failed the number of addresses that could not be resolved.
+   */
+  void onComplete(int succeeded, int failed);
+
+  /**
+   * Called when an address could not be resolved. Quota errors are retried
+   * and only reported here once the retries are used up.
+   * 
+   * @param index the position of the address in the submitted list.
+   * @param address the address.
+   * @param statusCode a value defined in {@link StatusCodes}
+   */
+  void onFailure(int index, String address, int statusCode);
+
+  /**
+   * Called when an address was resolved.
+   * 
+   * @param index the position of the address in the submitted list.
+   * @param address the address.
+   * @param locations an array of Placemarks that match the address.
+   */
+  void onSuccess(int index, String address, JsArray<Placemark> locations);
+}
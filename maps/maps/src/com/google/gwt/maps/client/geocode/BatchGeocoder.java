@@ -0,0 +1,367 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geocode;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.user.client.Timer;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Geocodes lists of addresses without flooding the geocoding service.
+ * Requests are taken from a queue and sent to a {@link GeocodeService},
+ * normally a {@link Geocoder}, subject to two limits:
+ * <ul>
+ * <li>at most {@link #setMaxConcurrentRequests(int) a fixed number} of
+ * requests are outstanding at any time, and</li>
+ * <li>requests are started no faster than a token bucket allows: tokens are
+ * added at a {@link #setRate(double, int) steady rate} up to a burst size and
+ * each request consumes one.</li>
+ * </ul>
+ * 
+ * When the service answers {@link StatusCodes#TOO_MANY_QUERIES} the address is
+ * put back at the head of the queue and the whole queue pauses for a backoff
+ * interval that doubles with every consecutive quota error. An address that
+ * keeps failing this way is reported as failed after
+ * {@link #setMaxRetries(int) a number of retries}.
+ * 
+ * Results are reported through a {@link BatchGeocodeCallback} as each address
+ * completes, not in the order the addresses were submitted.
+ */
+public class BatchGeocoder {
+
+  /**
+   * The results of one call to {@link BatchGeocoder#geocode}.
+   */
+  private static class Batch {
+    final BatchGeocodeCallback callback;
+    int failed;
+    int remaining;
+    int succeeded;
+
+    Batch(BatchGeocodeCallback callback, int size) {
+      this.callback = callback;
+      this.remaining = size;
+    }
+  }
+
+  /**
+   * A single address waiting in the queue.
+   */
+  private static class Job {
+    final String address;
+    final Batch batch;
+    final int index;
+    int retries;
+
+    Job(Batch batch, int index, String address) {
+      this.batch = batch;
+      this.index = index;
+      this.address = address;
+    }
+  }
+
+  /**
+   * The default delay before the first retry after a quota error, in
+   * milliseconds.
+   */
+  public static final int DEFAULT_INITIAL_BACKOFF = 1000;
+
+  /**
+   * The default number of requests that may be outstanding at once.
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
+  /**
+   * The default longest delay between retries, in milliseconds.
+   */
+  public static final int DEFAULT_MAX_BACKOFF = 60000;
+
+  /**
+   * The default number of times an address is retried after a quota error.
+   */
+  public static final int DEFAULT_MAX_RETRIES = 5;
+
+  /**
+   * The default number of requests started per second.
+   */
+  public static final double DEFAULT_RATE = 5;
+
+  private long backoffUntil;
+  private int burst = (int) DEFAULT_RATE;
+  private int consecutiveQuotaErrors;
+  private int inFlight;
+  private int initialBackoff = DEFAULT_INITIAL_BACKOFF;
+  private long lastRefill = (long) Duration.currentTimeMillis();
+  private int maxBackoff = DEFAULT_MAX_BACKOFF;
+  private int maxConcurrent = DEFAULT_MAX_CONCURRENT_REQUESTS;
+  private int maxRetries = DEFAULT_MAX_RETRIES;
+  private boolean pumping;
+  private final LinkedList<Job> queue = new LinkedList<Job>();
+  private double rate = DEFAULT_RATE;
+  private int requestCount;
+  private int retryCount;
+  private final GeocodeService service;
+  private Timer timer;
+  private double tokens = burst;
+
+  /**
+   * Creates a batch geocoder that sends requests to a new {@link Geocoder}.
+   */
+  public BatchGeocoder() {
+    this(new Geocoder());
+  }
+
+  /**
+   * Creates a batch geocoder that sends requests to the given service.
+   * 
+   * @param service the service used to resolve each address.
+   */
+  public BatchGeocoder(GeocodeService service) {
+    this.service = service;
+  }
+
+  /**
+   * Removes all addresses that have not been sent yet from the queue. Their
+   * batches never complete. Requests already sent are still reported.
+   */
+  public void cancel() {
+    queue.clear();
+    if (timer != null) {
+      timer.cancel();
+    }
+  }
+
+  /**
+   * Adds a list of addresses to the queue. The callback receives one
+   * {@link BatchGeocodeCallback#onSuccess onSuccess} or
+   * {@link BatchGeocodeCallback#onFailure onFailure} call per address,
+   * followed by {@link BatchGeocodeCallback#onComplete onComplete}.
+   * 
+   * @param addresses the addresses to geocode.
+   * @param callback receives the results.
+   */
+  public void geocode(List<String> addresses, BatchGeocodeCallback callback) {
+    Batch batch = new Batch(callback, addresses.size());
+    if (addresses.isEmpty()) {
+      callback.onComplete(0, 0);
+      return;
+    }
+    int index = 0;
+    for (String address : addresses) {
+      queue.add(new Job(batch, index++, address));
+    }
+    pump();
+  }
+
+  /**
+   * Returns the number of requests currently outstanding.
+   * 
+   * @return the number of requests currently outstanding.
+   */
+  public int getInFlightCount() {
+    return inFlight;
+  }
+
+  /**
+   * Returns the number of addresses waiting to be sent.
+   * 
+   * @return the number of addresses waiting to be sent.
+   */
+  public int getQueuedCount() {
+    return queue.size();
+  }
+
+  /**
+   * Returns the number of requests sent to the service, including retries.
+   * 
+   * @return the number of requests sent to the service.
+   */
+  public int getRequestCount() {
+    return requestCount;
+  }
+
+  /**
+   * Returns the number of requests that were retried after a quota error.
+   * 
+   * @return the number of retried requests.
+   */
+  public int getRetryCount() {
+    return retryCount;
+  }
+
+  /**
+   * Sets the delays used after quota errors. The first retry waits
+   * <code>initial</code> milliseconds and each further consecutive quota error
+   * doubles the wait, up to <code>max</code>.
+   * 
+   * @param initial the delay before the first retry, in milliseconds.
+   * @param max the longest delay between retries, in milliseconds.
+   */
+  public void setBackoff(int initial, int max) {
+    initialBackoff = Math.max(0, initial);
+    maxBackoff = Math.max(initialBackoff, max);
+  }
+
+  /**
+   * Sets the number of requests that may be outstanding at once.
+   * 
+   * @param max the maximum number of outstanding requests.
+   */
+  public void setMaxConcurrentRequests(int max) {
+    maxConcurrent = Math.max(1, max);
+    pump();
+  }
+
+  /**
+   * Sets the number of times an address is retried after a quota error
+   * before it is reported as failed.
+   * 
+   * @param retries the maximum number of retries per address.
+   */
+  public void setMaxRetries(int retries) {
+    maxRetries = Math.max(0, retries);
+  }
+
+  /**
+   * Sets the token bucket parameters. Up to <code>burst</code> requests may
+   * be started back to back; after that requests are started at
+   * <code>requestsPerSecond</code>.
+   * 
+   * @param requestsPerSecond the sustained request rate.
+   * @param burst the largest number of requests started at once.
+   */
+  public void setRate(double requestsPerSecond, int burst) {
+    if (requestsPerSecond <= 0) {
+      throw new IllegalArgumentException("requestsPerSecond must be positive");
+    }
+    refill(now());
+    rate = requestsPerSecond;
+    this.burst = Math.max(1, burst);
+    tokens = Math.min(tokens, this.burst);
+    pump();
+  }
+
+  private void complete(Job job, JsArray<Placemark> locations, int statusCode) {
+    Batch batch = job.batch;
+    if (statusCode == StatusCodes.SUCCESS) {
+      ++batch.succeeded;
+      batch.callback.onSuccess(job.index, job.address, locations);
+    } else {
+      ++batch.failed;
+      batch.callback.onFailure(job.index, job.address, statusCode);
+    }
+    if (--batch.remaining == 0) {
+      batch.callback.onComplete(batch.succeeded, batch.failed);
+    }
+  }
+
+  private void onReply(Job job, JsArray<Placemark> locations, int statusCode) {
+    --inFlight;
+    if (statusCode == StatusCodes.TOO_MANY_QUERIES) {
+      if (job.retries < maxRetries) {
+        ++job.retries;
+        ++retryCount;
+        long delay = initialBackoff;
+        for (int i = 0; i < consecutiveQuotaErrors && delay < maxBackoff; ++i) {
+          delay *= 2;
+        }
+        ++consecutiveQuotaErrors;
+        backoffUntil = Math.max(backoffUntil,
+            now() + Math.min(delay, maxBackoff));
+        queue.addFirst(job);
+        pump();
+        return;
+      }
+    } else {
+      consecutiveQuotaErrors = 0;
+    }
+    complete(job, locations, statusCode);
+    pump();
+  }
+
+  private long now() {
+    return (long) Duration.currentTimeMillis();
+  }
+
+  /**
+   * Sends as many queued requests as the limits allow and, if requests remain
+   * queued, schedules another attempt for when the next one may be sent.
+   */
+  private void pump() {
+    if (pumping) {
+      // A synchronous reply arrived while sending; the loop below picks up
+      // any capacity it freed.
+      return;
+    }
+    pumping = true;
+    try {
+      while (!queue.isEmpty() && inFlight < maxConcurrent) {
+        long now = now();
+        refill(now);
+        if (now < backoffUntil || tokens < 1) {
+          break;
+        }
+        tokens -= 1;
+        send(queue.removeFirst());
+      }
+    } finally {
+      pumping = false;
+    }
+
+    if (!queue.isEmpty() && inFlight < maxConcurrent) {
+      long now = now();
+      long wait = Math.max(backoffUntil - now,
+          (long) Math.ceil((1 - tokens) * 1000 / rate));
+      schedule((int) Math.max(1, wait));
+    }
+  }
+
+  private void refill(long now) {
+    if (now > lastRefill) {
+      tokens = Math.min(burst, tokens + (now - lastRefill) * rate / 1000);
+      lastRefill = now;
+    }
+  }
+
+  private void schedule(int delayMillis) {
+    if (timer == null) {
+      timer = new Timer() {
+        @Override
+        public void run() {
+          pump();
+        }
+      };
+    }
+    timer.schedule(delayMillis);
+  }
+
+  private void send(final Job job) {
+    ++inFlight;
+    ++requestCount;
+    service.getLocations(job.address, new LocationCallback() {
+      public void onFailure(int statusCode) {
+        onReply(job, null, statusCode);
+      }
+
+      public void onSuccess(JsArray<Placemark> locations) {
+        onReply(job, locations, StatusCodes.SUCCESS);
+      }
+    });
+  }
+}
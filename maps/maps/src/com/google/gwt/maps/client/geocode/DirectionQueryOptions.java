@@ -30,8 +30,18 @@ public final class DirectionQueryOptions {
 
   final Widget panel;
 
+  private boolean avoidHighways;
+
   private final JavaScriptObject jsoPeer;
 
+  private String locale;
+
+  private boolean retrievePolyline;
+
+  private boolean retrieveSteps;
+
+  private TravelMode travelMode;
+
   /**
    * Constant values used for setting the mode of travel for retrieving
    * directions.
@@ -84,6 +94,20 @@ public final class DirectionQueryOptions {
     this.jsoPeer = DirectionQueryOptionsImpl.impl.construct();
   }
 
+  /**
+   * Returns a string identifying the options that change the result of a
+   * query, for use as part of a cache key. The map, the panel and the viewport
+   * setting only change how a result is displayed and are left out.
+   * 
+   * @return a key describing the options.
+   */
+  String getCacheKey() {
+    return (avoidHighways ? "h" : "") + (retrievePolyline ? "p" : "")
+        + (retrieveSteps ? "s" : "") + ":"
+        + (travelMode == null ? "" : travelMode.name()) + ":"
+        + (locale == null ? "" : locale);
+  }
+
   /**
    * If <code>true</code> directions will attempt to exclude highways when
    * computing directions. Note that directions may still include highways if
@@ -91,6 +115,7 @@ public final class DirectionQueryOptions {
    * 
    */
   public void setAvoidHighways(boolean avoid) {
+    avoidHighways = avoid;
     DirectionQueryOptionsImpl.impl.setAvoidHighways(jsoPeer, avoid);
   }
 
@@ -101,6 +126,7 @@ public final class DirectionQueryOptions {
    * @param locale the locale to use for directions results.
    */
   public void setLocale(String locale) {
+    this.locale = locale;
     DirectionQueryOptionsImpl.impl.setLocale(jsoPeer, locale);
   }
 
@@ -127,6 +153,7 @@ public final class DirectionQueryOptions {
    *          even when a map is not attached to the Directions object.
    */
   public void setRetrievePolyline(boolean retrievePolyline) {
+    this.retrievePolyline = retrievePolyline;
     DirectionQueryOptionsImpl.impl.setRetrievePolyline(jsoPeer,
         retrievePolyline);
   }
@@ -141,6 +168,7 @@ public final class DirectionQueryOptions {
    *          when a panel is not attached to the Directions object.
    */
   public void setRetrieveSteps(boolean retrieveSteps) {
+    this.retrieveSteps = retrieveSteps;
     DirectionQueryOptionsImpl.impl.setRetrieveSteps(jsoPeer, retrieveSteps);
   }
 
@@ -152,6 +180,7 @@ public final class DirectionQueryOptions {
    * @param mode the mode of travel.
    */
   public void setTravelMode(TravelMode mode) {
+    travelMode = mode;
     DirectionQueryOptionsImpl.impl.setTravelMode(jsoPeer, mode.value());
   }
 }
\ No newline at end of file
@@ -16,13 +16,13 @@
 package com.google.gwt.maps.client.geocode;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.JSList;
 import com.google.gwt.maps.client.impl.DirectionsImpl;
 import com.google.gwt.maps.client.impl.EventImpl;
 import com.google.gwt.maps.client.impl.JsUtil;
 import com.google.gwt.maps.client.impl.MapEvent;
 import com.google.gwt.maps.client.impl.DirectionsImpl.Status;
 import com.google.gwt.maps.client.impl.EventImpl.VoidCallback;
-import com.google.gwt.maps.jsio.client.JSList;
 
 // TODO(samgross): note "load", "error", and "addoverlay" semi-documented events
 
@@ -32,6 +32,28 @@ import com.google.gwt.maps.jsio.client.JSList;
  */
 public final class Directions {
 
+  private static final DirectionsService SERVICE = new DirectionsService() {
+    public void load(String query, DirectionQueryOptions options,
+        DirectionsCallback callback) {
+      Directions.load(query, options, callback);
+    }
+
+    public void loadFromWaypoints(Waypoint[] waypoints,
+        DirectionQueryOptions options, DirectionsCallback callback) {
+      Directions.loadFromWaypoints(waypoints, options, callback);
+    }
+  };
+
+  /**
+   * Returns a {@link DirectionsService} that sends queries to Google's
+   * servers through this class.
+   * 
+   * @return the directions service.
+   */
+  public static DirectionsService getService() {
+    return SERVICE;
+  }
+
   /**
    * Load a new Directions query.
    * 
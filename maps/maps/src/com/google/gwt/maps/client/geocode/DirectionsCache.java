@@ -0,0 +1,336 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geocode;
+
+import com.google.gwt.core.client.Duration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link DirectionsService} that remembers the results of another service.
+ * Results are stored under the canonical form of the query or waypoints
+ * together with the {@link DirectionQueryOptions} that change the result, kept
+ * for a limited time, and evicted least recently used first when the cache is
+ * full. Queries for a key already being loaded wait for that request instead
+ * of sending another one. Failures are not cached.
+ * 
+ * Queries whose options have a map or a panel bypass the cache, because a
+ * stored result cannot be drawn again. Cached {@link DirectionResults} are
+ * shared by every caller that asks for the same directions, so callers should
+ * not {@link DirectionResults#clear() clear} them.
+ * 
+ * Hit, miss, expiry and eviction counts are kept to help size the cache.
+ */
+public class DirectionsCache implements DirectionsService {
+
+  /**
+   * A cached result and the time at which it expires.
+   */
+  private static class Entry {
+    final double expires;
+    final DirectionResults result;
+
+    Entry(DirectionResults result, double expires) {
+      this.result = result;
+      this.expires = expires;
+    }
+  }
+
+  /**
+   * The maximum number of entries used by the default constructor.
+   */
+  public static final int DEFAULT_MAX_ENTRIES = 500;
+
+  /**
+   * The time to live used by the default constructor, in milliseconds.
+   */
+  public static final double DEFAULT_TTL_MILLIS = 10 * 60 * 1000;
+
+  private static boolean isCoordinate(char c) {
+    return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.';
+  }
+
+  private static double round(double degrees) {
+    return Math.round(degrees * 1e6) / 1e6;
+  }
+
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(
+      16, 0.75f, true);
+  private int evictionCount;
+  private int expiredCount;
+  private int hitCount;
+  private final int maxEntries;
+  private int missCount;
+  private final Map<String, List<DirectionsCallback>> pending = new HashMap<String, List<DirectionsCallback>>();
+  private final DirectionsService service;
+  private final double ttlMillis;
+
+  /**
+   * Creates a cache in front of {@link Directions#getService()} holding up to
+   * {@link #DEFAULT_MAX_ENTRIES} results for {@link #DEFAULT_TTL_MILLIS}.
+   */
+  public DirectionsCache() {
+    this(Directions.getService(), DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS);
+  }
+
+  /**
+   * Creates a cache.
+   * 
+   * @param service the service that loads the directions not in the cache.
+   * @param maxEntries the maximum number of results kept.
+   * @param ttlMillis the time in milliseconds a result stays valid, or 0 to
+   *          keep results until they are evicted.
+   */
+  public DirectionsCache(DirectionsService service, int maxEntries,
+      double ttlMillis) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+    this.service = service;
+    this.maxEntries = maxEntries;
+    this.ttlMillis = ttlMillis;
+  }
+
+  /**
+   * Removes all cached results. Requests in progress are not affected.
+   */
+  public void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of entries evicted to make room for newer ones.
+   * 
+   * @return the number of entries evicted.
+   */
+  public int getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * Returns the number of entries dropped because they outlived the time to
+   * live.
+   * 
+   * @return the number of entries expired.
+   */
+  public int getExpiredCount() {
+    return expiredCount;
+  }
+
+  /**
+   * Returns the number of queries answered from the cache or by joining a
+   * request already in progress.
+   * 
+   * @return the number of cache hits.
+   */
+  public int getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Returns the fraction of queries answered without a new request.
+   * 
+   * @return the hit rate between 0 and 1, or 0 if no query was made.
+   */
+  public double getHitRate() {
+    int total = hitCount + missCount;
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  /**
+   * Returns the maximum number of results kept.
+   * 
+   * @return the maximum number of results kept.
+   */
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  /**
+   * Returns the number of queries sent to the underlying service.
+   * 
+   * @return the number of cache misses.
+   */
+  public int getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Returns the time to live of an entry.
+   * 
+   * @return the time to live in milliseconds, or 0 if entries do not expire.
+   */
+  public double getTtlMillis() {
+    return ttlMillis;
+  }
+
+  public void load(String query, DirectionQueryOptions options,
+      DirectionsCallback callback) {
+    if (!isCacheable(options)) {
+      service.load(query, options, callback);
+      return;
+    }
+    String key = getOptionsKey(options) + "|q:" + toCanonical(query);
+    if (lookup(key, callback)) {
+      return;
+    }
+    service.load(query, options, createCallback(key, callback));
+  }
+
+  public void loadFromWaypoints(Waypoint[] waypoints,
+      DirectionQueryOptions options, DirectionsCallback callback) {
+    if (!isCacheable(options)) {
+      service.loadFromWaypoints(waypoints, options, callback);
+      return;
+    }
+    StringBuilder key = new StringBuilder(getOptionsKey(options));
+    for (Waypoint waypoint : waypoints) {
+      key.append("|").append(toCanonical(waypoint.toString()));
+    }
+    String cacheKey = key.toString();
+    if (lookup(cacheKey, callback)) {
+      return;
+    }
+    service.loadFromWaypoints(waypoints, options, createCallback(cacheKey,
+        callback));
+  }
+
+  /**
+   * Resets the hit, miss, expiry and eviction counts to zero.
+   */
+  public void resetStats() {
+    evictionCount = 0;
+    expiredCount = 0;
+    hitCount = 0;
+    missCount = 0;
+  }
+
+  /**
+   * Returns the number of cached results.
+   * 
+   * @return the number of cached results.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the canonical form of a query or waypoint. Text is converted to
+   * lower case with runs of white space replaced by one space, and
+   * <code>lat,lng</code> waypoints are rounded to six decimals so that points
+   * a few centimeters apart share an entry. This method may be overridden to
+   * normalize addresses further.
+   * 
+   * @param waypoint the query or waypoint to convert.
+   * @return the waypoint in canonical form.
+   */
+  protected String toCanonical(String waypoint) {
+    String canonical = waypoint.trim().toLowerCase().replaceAll("\\s+", " ");
+    int comma = canonical.indexOf(',');
+    if (comma > 0 && canonical.indexOf(',', comma + 1) < 0
+        && isCoordinate(canonical.charAt(0))) {
+      try {
+        double lat = Double.parseDouble(canonical.substring(0, comma).trim());
+        double lng = Double.parseDouble(canonical.substring(comma + 1).trim());
+        return round(lat) + "," + round(lng);
+      } catch (NumberFormatException e) {
+        // Not a coordinate pair; keep the text.
+      }
+    }
+    return canonical;
+  }
+
+  /**
+   * Creates the callback of a new request. Callers asking for the same key
+   * before it completes are added to the list of waiting callbacks.
+   */
+  private DirectionsCallback createCallback(final String key,
+      DirectionsCallback callback) {
+    List<DirectionsCallback> waiting = new ArrayList<DirectionsCallback>();
+    waiting.add(callback);
+    pending.put(key, waiting);
+    return new DirectionsCallback() {
+      public void onFailure(int statusCode) {
+        for (DirectionsCallback waiting : pending.remove(key)) {
+          waiting.onFailure(statusCode);
+        }
+      }
+
+      public void onSuccess(DirectionResults result) {
+        double expires = ttlMillis > 0 ? Duration.currentTimeMillis()
+            + ttlMillis : 0;
+        entries.put(key, new Entry(result, expires));
+        evict();
+        for (DirectionsCallback waiting : pending.remove(key)) {
+          waiting.onSuccess(result);
+        }
+      }
+    };
+  }
+
+  /**
+   * Removes the least recently used entries until the cache fits.
+   */
+  private void evict() {
+    Iterator<String> it = entries.keySet().iterator();
+    while (entries.size() > maxEntries && it.hasNext()) {
+      it.next();
+      it.remove();
+      ++evictionCount;
+    }
+  }
+
+  private String getOptionsKey(DirectionQueryOptions options) {
+    return options == null ? "" : options.getCacheKey();
+  }
+
+  private boolean isCacheable(DirectionQueryOptions options) {
+    return options == null || (options.map == null && options.panel == null);
+  }
+
+  /**
+   * Answers a query from the cache or adds it to a request in progress.
+   * 
+   * @return <code>false</code> if the caller must start a new request.
+   */
+  private boolean lookup(String key, DirectionsCallback callback) {
+    Entry entry = entries.get(key);
+    if (entry != null && entry.expires > 0
+        && entry.expires <= Duration.currentTimeMillis()) {
+      entries.remove(key);
+      ++expiredCount;
+      entry = null;
+    }
+    if (entry != null) {
+      ++hitCount;
+      callback.onSuccess(entry.result);
+      return true;
+    }
+    List<DirectionsCallback> waiting = pending.get(key);
+    if (waiting != null) {
+      ++hitCount;
+      waiting.add(callback);
+      return true;
+    }
+    ++missCount;
+    return false;
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geocode;
+
+/**
+ * A service that computes directions. {@link Directions#getService()} returns
+ * the implementation that talks to Google's servers; other implementations
+ * may be substituted, for example {@link DirectionsCache} to answer repeated
+ * queries from memory.
+ */
+public interface DirectionsService {
+
+  /**
+   * Loads a directions query. Exactly one method of the callback is called,
+   * either before this method returns or later.
+   * 
+   * @param query a string containing any valid directions query, e.g. "from:
+   *          Seattle to: San Francisco".
+   * @param options optional parameters to use with the query.
+   * @param callback methods to call when the query returns.
+   */
+  void load(String query, DirectionQueryOptions options,
+      DirectionsCallback callback);
+
+  /**
+   * Loads a directions query through a list of waypoints. Exactly one method
+   * of the callback is called, either before this method returns or later.
+   * 
+   * @param waypoints an array of waypoints.
+   * @param options optional parameters to use with the query.
+   * @param callback methods to call when the query returns.
+   */
+  void loadFromWaypoints(Waypoint[] waypoints, DirectionQueryOptions options,
+      DirectionsCallback callback);
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geocode;
+
+/**
+ * Travel distances and times between a list of origins and a list of
+ * destinations, computed by {@link BatchDirections}. Values are stored in
+ * primitive arrays, one cell per origin/destination pair, so a large matrix
+ * holds no references to the directions results it was built from.
+ */
+public class DistanceMatrix {
+
+  private final int columns;
+  private int completed;
+  private int failed;
+  private final double[] meters;
+  private final int rows;
+  private final int[] seconds;
+  private final int[] statusCodes;
+
+  DistanceMatrix(int rows, int columns) {
+    this.rows = rows;
+    this.columns = columns;
+    int size = rows * columns;
+    meters = new double[size];
+    seconds = new int[size];
+    statusCodes = new int[size];
+    for (int i = 0; i < size; ++i) {
+      meters[i] = Double.NaN;
+      seconds[i] = -1;
+    }
+  }
+
+  /**
+   * Returns the number of destinations.
+   * 
+   * @return the number of columns of the matrix.
+   */
+  public int getColumnCount() {
+    return columns;
+  }
+
+  /**
+   * Returns the number of pairs computed so far, successfully or not.
+   * 
+   * @return the number of pairs computed.
+   */
+  public int getCompletedCount() {
+    return completed;
+  }
+
+  /**
+   * Returns the number of pairs for which no directions were found.
+   * 
+   * @return the number of failed pairs.
+   */
+  public int getFailedCount() {
+    return failed;
+  }
+
+  /**
+   * Returns the travel distance from an origin to a destination.
+   * 
+   * @param origin the index of the origin.
+   * @param destination the index of the destination.
+   * @return the distance in meters, or <code>NaN</code> if it is not known.
+   */
+  public double getMeters(int origin, int destination) {
+    return meters[index(origin, destination)];
+  }
+
+  /**
+   * Returns the number of origins.
+   * 
+   * @return the number of rows of the matrix.
+   */
+  public int getRowCount() {
+    return rows;
+  }
+
+  /**
+   * Returns the travel time from an origin to a destination.
+   * 
+   * @param origin the index of the origin.
+   * @param destination the index of the destination.
+   * @return the time in seconds, or -1 if it is not known.
+   */
+  public int getSeconds(int origin, int destination) {
+    return seconds[index(origin, destination)];
+  }
+
+  /**
+   * Returns the status of the directions query for a pair.
+   * 
+   * @param origin the index of the origin.
+   * @param destination the index of the destination.
+   * @return a value defined in {@link StatusCodes}, or 0 if the pair has not
+   *         been computed yet.
+   */
+  public int getStatusCode(int origin, int destination) {
+    return statusCodes[index(origin, destination)];
+  }
+
+  /**
+   * Returns <code>true</code> once every pair has been computed.
+   * 
+   * @return <code>true</code> if the matrix is complete.
+   */
+  public boolean isComplete() {
+    return completed == meters.length;
+  }
+
+  void setFailed(int origin, int destination, int statusCode) {
+    statusCodes[index(origin, destination)] = statusCode;
+    ++failed;
+    ++completed;
+  }
+
+  void setResult(int origin, int destination, double distance, int time) {
+    int i = index(origin, destination);
+    meters[i] = distance;
+    seconds[i] = time;
+    statusCodes[i] = StatusCodes.SUCCESS;
+    ++completed;
+  }
+
+  private int index(int origin, int destination) {
+    if (origin < 0 || origin >= rows || destination < 0
+        || destination >= columns) {
+      throw new IndexOutOfBoundsException("(" + origin + ", " + destination
+          + ") outside a " + rows + "x" + columns + " matrix");
+    }
+    return origin * columns + destination;
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2007 Google Inc.
+ * Copyright 2010 Google Inc.
  * 
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not
  * use this file except in compliance with the License. You may obtain a copy of
@@ -13,20 +13,18 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.search.jsio.client;
+package com.google.gwt.maps.client.geocode;
 
 /**
- * A generic Exception base class for JSWrapper operations.
+ * Receives a {@link DistanceMatrix} computed by {@link BatchDirections}.
  */
-public class JSONWrapperException extends Exception {
-  public JSONWrapperException() {
-  }
+public interface DistanceMatrixCallback {
 
-  public JSONWrapperException(String msg) {
-    super(msg);
-  }
-
-  public JSONWrapperException(String msg, Throwable cause) {
-    super(msg, cause);
-  }
+  /**
+   * Called once after every origin/destination pair has either succeeded or
+   * failed.
+   * 
+   * @param matrix the distances and times between each pair.
+   */
+  void onComplete(DistanceMatrix matrix);
 }
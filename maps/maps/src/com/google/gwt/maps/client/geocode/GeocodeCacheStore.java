@@ -0,0 +1,67 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geocode;
+
+import java.util.List;
+
+/**
+ * Persistent storage for the entries of a {@link LruGeocodeCache}, so that a
+ * warm cache survives a page reload. Keys are canonical addresses and values
+ * are opaque strings produced by the cache.
+ * 
+ * {@link WebStorageGeocodeCacheStore} keeps entries in the browser's
+ * <code>localStorage</code>. Other backends, such as a Gears
+ * <code>Database</code> table, can be plugged in by implementing this
+ * interface.
+ */
+public interface GeocodeCacheStore {
+
+  /**
+   * Removes all entries from the store.
+   */
+  void clear();
+
+  /**
+   * Returns the value stored under the given key.
+   * 
+   * @param key the canonical address.
+   * @return the stored value, or <code>null</code> if there is none.
+   */
+  String get(String key);
+
+  /**
+   * Returns the keys of all the entries in the store. A cache reads them when
+   * it is created so that it can keep the store bounded.
+   * 
+   * @return the canonical addresses stored.
+   */
+  List<String> keys();
+
+  /**
+   * Stores a value under the given key, replacing any previous value.
+   * 
+   * @param key the canonical address.
+   * @param value the value to store.
+   */
+  void put(String key, String value);
+
+  /**
+   * Removes the value stored under the given key, if any.
+   * 
+   * @param key the canonical address.
+   */
+  void remove(String key);
+}
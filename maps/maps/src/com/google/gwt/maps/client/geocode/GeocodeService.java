@@ -0,0 +1,34 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geocode;
+
+/**
+ * A service that resolves an address to a list of placemarks.
+ * {@link Geocoder} is the implementation that talks to Google's servers;
+ * other implementations may be substituted, for example to drive a
+ * {@link BatchGeocoder} from a local table of addresses.
+ */
+public interface GeocodeService {
+
+  /**
+   * Looks up an address. Exactly one method of the callback is called, either
+   * before this method returns or later.
+   * 
+   * @param address the address to search for.
+   * @param callback methods to call when the query returns.
+   */
+  void getLocations(String address, LocationCallback callback);
+}
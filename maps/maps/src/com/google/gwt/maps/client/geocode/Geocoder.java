@@ -25,13 +25,36 @@ import com.google.gwt.maps.client.impl.GeocoderImpl;
 import com.google.gwt.maps.client.impl.GeocoderImpl.LocationsCallback;
 import com.google.gwt.maps.client.impl.GeocoderImpl.Response;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * A class for Geocoding Addresses through Google's Geocoding service over the
  * Internet.
+ * 
+ * Address lookups made while an earlier lookup of the same address is still
+ * in flight do not issue a second request; all callbacks receive the reply of
+ * the first one. Addresses are compared in the canonical form given by the
+ * cache's {@link GeocodeCache#toCanonical(String)}.
  */
-public final class Geocoder {
+public final class Geocoder implements GeocodeService {
+
+  /**
+   * Converts an address to the same canonical form used by
+   * <code>GGeocodeCache</code>: lower case, commas replaced by spaces and runs
+   * of spaces collapsed.
+   */
+  private static String toCanonical(String address) {
+    return address.toLowerCase().replace(',', ' ').replaceAll("\\s+", " ")
+        .trim();
+  }
 
+  private final GeocodeCache cache;
   private final JavaScriptObject jsoPeer;
+  private final Map<String, List<LatLngCallback>> pendingLatLngs = new HashMap<String, List<LatLngCallback>>();
+  private final Map<String, List<LocationCallback>> pendingLocations = new HashMap<String, List<LocationCallback>>();
 
   /**
    * Creates a new instance of a geocoder that talks directly to Google servers.
@@ -39,6 +62,7 @@ public final class Geocoder {
    */
   public Geocoder() {
     jsoPeer = GeocoderImpl.impl.construct();
+    cache = null;
   }
 
   /**
@@ -52,6 +76,7 @@ public final class Geocoder {
    */
   public Geocoder(GeocodeCache cache) {
     jsoPeer = GeocoderImpl.impl.construct(cache);
+    this.cache = cache;
   }
 
   /**
@@ -86,14 +111,34 @@ public final class Geocoder {
    */
   // TODO(samgross): better naming: not get* since async? find*?
   // TODO(samgross): rename one of the callback types?
-  public void getLatLng(String address, final LatLngCallback callback) {
-    GeocoderImpl.impl.getLatLng(jsoPeer, address,
-        new com.google.gwt.maps.client.impl.EventImpl.LatLngCallback() {
-          @Override
-          public void callback(LatLng latlng) {
-            fireLatLng(callback, latlng != null, latlng);
-          }
-        });
+  public void getLatLng(String address, LatLngCallback callback) {
+    final String key = getRequestKey(address);
+    List<LatLngCallback> waiting = pendingLatLngs.get(key);
+    if (waiting != null) {
+      waiting.add(callback);
+      return;
+    }
+    waiting = new ArrayList<LatLngCallback>();
+    waiting.add(callback);
+    pendingLatLngs.put(key, waiting);
+
+    try {
+      GeocoderImpl.impl.getLatLng(jsoPeer, address,
+          new com.google.gwt.maps.client.impl.EventImpl.LatLngCallback() {
+            @Override
+            public void callback(LatLng latlng) {
+              for (LatLngCallback cb : pendingLatLngs.remove(key)) {
+                fireLatLng(cb, latlng != null, latlng);
+              }
+            }
+          });
+    } catch (RuntimeException e) {
+      // The request was never sent, so later lookups must not wait for it.
+      if (pendingLatLngs.get(key) == waiting) {
+        pendingLatLngs.remove(key);
+      }
+      throw e;
+    }
   }
 
   /**
@@ -107,19 +152,41 @@ public final class Geocoder {
    * @param address the address to search for.
    * @param callback methods to call when the query returns.
    */
-  public void getLocations(String address, final LocationCallback callback) {
-    GeocoderImpl.impl.getLocations(jsoPeer, address, new LocationsCallback() {
-      @Override
-      public void callback(Response response) {
-        int statusCode = response.getStatus().getCode();
-        if (statusCode == StatusCodes.SUCCESS) {
-          JsArray<Placemark> placemarks = response.getPlacemarks();
-          fireLocationCb(callback, true, statusCode, placemarks);
-        } else {
-          fireLocationCb(callback, false, statusCode, null);
-        }
+  public void getLocations(String address, LocationCallback callback) {
+    final String key = getRequestKey(address);
+    List<LocationCallback> waiting = pendingLocations.get(key);
+    if (waiting != null) {
+      waiting.add(callback);
+      return;
+    }
+    waiting = new ArrayList<LocationCallback>();
+    waiting.add(callback);
+    pendingLocations.put(key, waiting);
+
+    try {
+      GeocoderImpl.impl.getLocations(jsoPeer, address,
+          new LocationsCallback() {
+            @Override
+            public void callback(Response response) {
+              List<LocationCallback> callbacks = pendingLocations.remove(key);
+              int statusCode = response.getStatus().getCode();
+              JsArray<Placemark> placemarks = null;
+              if (statusCode == StatusCodes.SUCCESS) {
+                placemarks = response.getPlacemarks();
+              }
+              for (LocationCallback cb : callbacks) {
+                fireLocationCb(cb, statusCode == StatusCodes.SUCCESS,
+                    statusCode, placemarks);
+              }
+            }
+          });
+    } catch (RuntimeException e) {
+      // The request was never sent, so later lookups must not wait for it.
+      if (pendingLocations.get(key) == waiting) {
+        pendingLocations.remove(key);
       }
-    });
+      throw e;
+    }
   }
 
   /**
@@ -255,4 +322,12 @@ public final class Geocoder {
       cb.onFailure(statusCode);
     }
   }
+
+  /**
+   * Returns the key under which in-flight requests for an address are
+   * tracked.
+   */
+  private String getRequestKey(String address) {
+    return cache != null ? cache.toCanonical(address) : toCanonical(address);
+  }
 }
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geocode;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.JavaScriptObject;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * A geocode cache kept in Java with a bounded size and an optional time to
+ * live. Replies are stored under the address returned by
+ * {@link #toCanonical(String)}, so different spellings of the same address
+ * share an entry. When the cache is full the least recently used entry is
+ * evicted.
+ * 
+ * A {@link GeocodeCacheStore} can be supplied to persist entries, for example
+ * with {@link WebStorageGeocodeCacheStore}. Entries missing from memory are
+ * then looked up in the store, so a warm cache survives a page reload. The
+ * keys already in the store are read when the cache is created, and the store
+ * is trimmed to the same maximum number of entries as the memory, so it stays
+ * bounded across sessions. Entries written by earlier sessions are evicted
+ * first, in the order the store lists them.
+ * 
+ * Hit, miss, expiry and eviction counts are kept to help size the cache.
+ */
+public class LruGeocodeCache extends CustomGeocodeCache {
+
+  /**
+   * A cached reply and the time at which it expires.
+   */
+  private static class Entry {
+    final double expires;
+    final JavaScriptObject reply;
+
+    Entry(JavaScriptObject reply, double expires) {
+      this.reply = reply;
+      this.expires = expires;
+    }
+  }
+
+  /**
+   * The maximum number of entries used by the default constructor.
+   */
+  public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+  private static native double nativeGetExpires(JavaScriptObject record) /*-{
+    return record.t;
+  }-*/;
+
+  private static native JavaScriptObject nativeGetReply(
+      JavaScriptObject record) /*-{
+    return record.r;
+  }-*/;
+
+  private static native JavaScriptObject nativeParse(String json) /*-{
+    try {
+      return $wnd.JSON.parse(json);
+    } catch (e) {
+      return null;
+    }
+  }-*/;
+
+  private static native String nativeStringify(JavaScriptObject reply,
+      double expires) /*-{
+    try {
+      return $wnd.JSON.stringify({t: expires, r: reply});
+    } catch (e) {
+      return null;
+    }
+  }-*/;
+
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(
+      16, 0.75f, true);
+  private int evictionCount;
+  private int expiredCount;
+  private int hitCount;
+  private final int maxEntries;
+  private int missCount;
+  private final GeocodeCacheStore store;
+  /* The keys in the store, least recently used first, or null without one. */
+  private final LinkedHashSet<String> storedKeys;
+  private final double ttlMillis;
+
+  /**
+   * Creates a cache holding up to {@link #DEFAULT_MAX_ENTRIES} replies that
+   * never expire and are not persisted.
+   */
+  public LruGeocodeCache() {
+    this(DEFAULT_MAX_ENTRIES, 0, null);
+  }
+
+  /**
+   * Creates a cache that is not persisted.
+   * 
+   * @param maxEntries the maximum number of replies kept in memory.
+   * @param ttlMillis the time in milliseconds a reply stays valid, or 0 to keep
+   *          replies until they are evicted.
+   */
+  public LruGeocodeCache(int maxEntries, double ttlMillis) {
+    this(maxEntries, ttlMillis, null);
+  }
+
+  /**
+   * Creates a cache.
+   * 
+   * @param maxEntries the maximum number of replies kept in memory and in the
+   *          store.
+   * @param ttlMillis the time in milliseconds a reply stays valid, or 0 to keep
+   *          replies until they are evicted.
+   * @param store the store used to persist replies, or <code>null</code>.
+   */
+  public LruGeocodeCache(int maxEntries, double ttlMillis,
+      GeocodeCacheStore store) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+    this.maxEntries = maxEntries;
+    this.ttlMillis = ttlMillis;
+    this.store = store;
+    if (store == null) {
+      storedKeys = null;
+    } else {
+      storedKeys = new LinkedHashSet<String>(store.keys());
+      evict();
+    }
+  }
+
+  @Override
+  public JavaScriptObject get(String address) {
+    String key = toCanonical(address);
+    Entry entry = entries.get(key);
+    if (entry == null && store != null) {
+      entry = load(key);
+      if (entry != null) {
+        entries.put(key, entry);
+        touchStored(key);
+        evict();
+      }
+    }
+    if (entry != null && isExpired(entry)) {
+      entries.remove(key);
+      if (store != null) {
+        store.remove(key);
+        storedKeys.remove(key);
+      }
+      ++expiredCount;
+      entry = null;
+    }
+
+    if (entry == null) {
+      ++missCount;
+      return null;
+    }
+    ++hitCount;
+    if (store != null) {
+      touchStored(key);
+    }
+    return entry.reply;
+  }
+
+  /**
+   * Returns the number of entries evicted to make room for newer ones.
+   * 
+   * @return the number of entries evicted.
+   */
+  public int getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * Returns the number of entries dropped because they outlived the time to
+   * live.
+   * 
+   * @return the number of entries expired.
+   */
+  public int getExpiredCount() {
+    return expiredCount;
+  }
+
+  /**
+   * Returns the number of lookups answered from the cache.
+   * 
+   * @return the number of cache hits.
+   */
+  public int getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Returns the maximum number of entries kept in memory.
+   * 
+   * @return the maximum number of entries kept in memory.
+   */
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  /**
+   * Returns the number of lookups that found no valid entry.
+   * 
+   * @return the number of cache misses.
+   */
+  public int getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Returns the time to live of an entry.
+   * 
+   * @return the time to live in milliseconds, or 0 if entries do not expire.
+   */
+  public double getTtlMillis() {
+    return ttlMillis;
+  }
+
+  @Override
+  public void put(String address, JavaScriptObject reply) {
+    if (!isCacheable(reply)) {
+      return;
+    }
+    String key = toCanonical(address);
+    double expires = ttlMillis > 0 ? Duration.currentTimeMillis() + ttlMillis
+        : 0;
+    entries.put(key, new Entry(reply, expires));
+    if (store != null) {
+      String record = nativeStringify(reply, expires);
+      if (record != null) {
+        store.put(key, record);
+        touchStored(key);
+      }
+    }
+    evict();
+  }
+
+  @Override
+  public void reset() {
+    entries.clear();
+    if (store != null) {
+      store.clear();
+      storedKeys.clear();
+    }
+  }
+
+  /**
+   * Resets the hit, miss, expiry and eviction counts to zero.
+   */
+  public void resetStats() {
+    evictionCount = 0;
+    expiredCount = 0;
+    hitCount = 0;
+    missCount = 0;
+  }
+
+  /**
+   * Returns the number of entries in memory.
+   * 
+   * @return the number of entries in memory.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Removes the least recently used entries until the cache fits, in memory
+   * and in the store. Evicted entries are removed from both.
+   */
+  private void evict() {
+    Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+    while (entries.size() > maxEntries && it.hasNext()) {
+      String key = it.next().getKey();
+      it.remove();
+      if (store != null) {
+        store.remove(key);
+        storedKeys.remove(key);
+      }
+      ++evictionCount;
+    }
+    if (store == null) {
+      return;
+    }
+    // The store also holds entries that were never loaded into memory.
+    Iterator<String> stored = storedKeys.iterator();
+    while (storedKeys.size() > maxEntries && stored.hasNext()) {
+      String key = stored.next();
+      stored.remove();
+      store.remove(key);
+      entries.remove(key);
+      ++evictionCount;
+    }
+  }
+
+  private boolean isExpired(Entry entry) {
+    return entry.expires > 0 && entry.expires <= Duration.currentTimeMillis();
+  }
+
+  private Entry load(String key) {
+    String record = store.get(key);
+    if (record == null) {
+      return null;
+    }
+    JavaScriptObject parsed = nativeParse(record);
+    if (parsed == null) {
+      store.remove(key);
+      return null;
+    }
+    return new Entry(nativeGetReply(parsed), nativeGetExpires(parsed));
+  }
+
+  /**
+   * Marks a key of the store as the most recently used one.
+   */
+  private void touchStored(String key) {
+    storedKeys.remove(key);
+    storedKeys.add(key);
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geocode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link GeocodeCacheStore} backed by the HTML5 <code>localStorage</code>
+ * object. All keys are prefixed so that several caches, and other users of
+ * the storage area, can share it. Storage errors such as an exceeded quota are
+ * ignored; the entry is then simply not persisted.
+ */
+public class WebStorageGeocodeCacheStore implements GeocodeCacheStore {
+
+  /**
+   * The key prefix used by the default constructor.
+   */
+  public static final String DEFAULT_PREFIX = "gwt-maps-geocode:";
+
+  /**
+   * Returns <code>true</code> if the browser provides
+   * <code>localStorage</code> and a native JSON implementation.
+   * 
+   * @return <code>true</code> if this store can be used.
+   */
+  public static native boolean isSupported() /*-{
+    try {
+      return !!($wnd.localStorage && $wnd.JSON);
+    } catch (e) {
+      // Accessing localStorage throws when it is disabled.
+      return false;
+    }
+  }-*/;
+
+  private static native void nativeClear(String prefix) /*-{
+    var storage = $wnd.localStorage;
+    for (var i = storage.length - 1; i >= 0; --i) {
+      var key = storage.key(i);
+      if (key != null && key.indexOf(prefix) == 0) {
+        storage.removeItem(key);
+      }
+    }
+  }-*/;
+
+  private static native String nativeGet(String key) /*-{
+    return $wnd.localStorage.getItem(key);
+  }-*/;
+
+  private static native String nativeKey(int index) /*-{
+    return $wnd.localStorage.key(index);
+  }-*/;
+
+  private static native int nativeLength() /*-{
+    return $wnd.localStorage.length;
+  }-*/;
+
+  private static native void nativePut(String key, String value) /*-{
+    try {
+      $wnd.localStorage.setItem(key, value);
+    } catch (e) {
+      // Most likely QUOTA_EXCEEDED_ERR.
+    }
+  }-*/;
+
+  private static native void nativeRemove(String key) /*-{
+    $wnd.localStorage.removeItem(key);
+  }-*/;
+
+  private final String prefix;
+
+  /**
+   * Creates a store that uses {@link #DEFAULT_PREFIX}.
+   */
+  public WebStorageGeocodeCacheStore() {
+    this(DEFAULT_PREFIX);
+  }
+
+  /**
+   * Creates a store whose keys in <code>localStorage</code> start with the
+   * given prefix.
+   * 
+   * @param prefix the prefix for all keys written by this store.
+   */
+  public WebStorageGeocodeCacheStore(String prefix) {
+    this.prefix = prefix;
+  }
+
+  public void clear() {
+    nativeClear(prefix);
+  }
+
+  public String get(String key) {
+    return nativeGet(prefix + key);
+  }
+
+  public List<String> keys() {
+    List<String> keys = new ArrayList<String>();
+    for (int i = 0, n = nativeLength(); i < n; ++i) {
+      String key = nativeKey(i);
+      if (key != null && key.startsWith(prefix)) {
+        keys.add(key.substring(prefix.length()));
+      }
+    }
+    return keys;
+  }
+
+  public void put(String key, String value) {
+    nativePut(prefix + key, value);
+  }
+
+  public void remove(String key) {
+    nativeRemove(prefix + key);
+  }
+}
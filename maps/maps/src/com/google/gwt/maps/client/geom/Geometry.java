@@ -0,0 +1,176 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geom;
+
+/**
+ * Geometric computations over coordinates packed into primitive arrays. Paths
+ * and rings are stored as interleaved <code>{lat0, lng0, lat1, lng1, ...}</code>
+ * arrays of degrees. These methods are implemented in Java and do not call
+ * into the Maps API.
+ */
+public class Geometry {
+
+  /**
+   * The radius of the Earth in meters used by the Maps API.
+   */
+  public static final double EARTH_RADIUS = 6378137;
+
+  /**
+   * Tests whether a point lies inside a polygon ring using the even-odd rule.
+   * The ring is implicitly closed; the first vertex need not be repeated at
+   * the end.
+   *
+   * @param latLngs the vertices of the ring as interleaved lat/lng pairs.
+   * @param lat the latitude of the point in degrees.
+   * @param lng the longitude of the point in degrees.
+   * @return <code>true</code> if the point is inside the ring.
+   */
+  public static boolean containsLatLng(double[] latLngs, double lat, double lng) {
+    return containsLatLng(latLngs, 0, latLngs.length, lat, lng);
+  }
+
+  /**
+   * Tests whether a point lies inside a polygon ring stored in a range of a
+   * larger array.
+   *
+   * @param latLngs interleaved lat/lng pairs.
+   * @param from the array index of the first vertex of the ring.
+   * @param to the array index just past the last vertex of the ring.
+   * @param lat the latitude of the point in degrees.
+   * @param lng the longitude of the point in degrees.
+   * @return <code>true</code> if the point is inside the ring.
+   * @see #containsLatLng(double[], double, double)
+   */
+  public static boolean containsLatLng(double[] latLngs, int from, int to,
+      double lat, double lng) {
+    boolean inside = false;
+    for (int i = from, j = to - 2; i + 1 < to; j = i, i += 2) {
+      double latI = latLngs[i];
+      double lngI = latLngs[i + 1];
+      double latJ = latLngs[j];
+      double lngJ = latLngs[j + 1];
+      if ((latI > lat) != (latJ > lat)
+          && lng < (lngJ - lngI) * (lat - latI) / (latJ - latI) + lngI) {
+        inside = !inside;
+      }
+    }
+    return inside;
+  }
+
+  /**
+   * Computes the bounding box of a path.
+   *
+   * @param latLngs the vertices of the path as interleaved lat/lng pairs.
+   * @return the bounds as a <code>{south, west, north, east}</code> array, or
+   *         <code>null</code> if the path is empty.
+   */
+  public static double[] getBounds(double[] latLngs) {
+    if (latLngs.length < 2) {
+      return null;
+    }
+    double[] bounds = new double[] {
+        Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+        Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    for (int i = 0; i + 1 < latLngs.length; i += 2) {
+      bounds[0] = Math.min(bounds[0], latLngs[i]);
+      bounds[1] = Math.min(bounds[1], latLngs[i + 1]);
+      bounds[2] = Math.max(bounds[2], latLngs[i]);
+      bounds[3] = Math.max(bounds[3], latLngs[i + 1]);
+    }
+    return bounds;
+  }
+
+  /**
+   * Computes the area enclosed by a polygon ring on the sphere, the same value
+   * returned by <code>Polygon.getArea()</code>. The ring is implicitly closed.
+   *
+   * @param latLngs the vertices of the ring as interleaved lat/lng pairs.
+   * @return the area in square meters.
+   */
+  public static double getArea(double[] latLngs) {
+    return getArea(latLngs, 0, latLngs.length);
+  }
+
+  /**
+   * Computes the area enclosed by a polygon ring stored in a range of a larger
+   * array.
+   *
+   * @param latLngs interleaved lat/lng pairs.
+   * @param from the array index of the first vertex of the ring.
+   * @param to the array index just past the last vertex of the ring.
+   * @return the area in square meters.
+   * @see #getArea(double[])
+   */
+  public static double getArea(double[] latLngs, int from, int to) {
+    if (to - from < 6) {
+      return 0;
+    }
+    // Sum the signed areas of the triangles each edge forms with the pole.
+    double sum = 0;
+    double prevTan = Math.tan((Math.PI / 2 - Math.toRadians(latLngs[to - 2]))
+        / 2);
+    double prevLng = Math.toRadians(latLngs[to - 1]);
+    for (int i = from; i + 1 < to; i += 2) {
+      double tan = Math.tan((Math.PI / 2 - Math.toRadians(latLngs[i])) / 2);
+      double lng = Math.toRadians(latLngs[i + 1]);
+      double deltaLng = lng - prevLng;
+      double t = tan * prevTan;
+      sum += 2 * Math.atan2(t * Math.sin(deltaLng), 1 + t * Math.cos(deltaLng));
+      prevTan = tan;
+      prevLng = lng;
+    }
+    return Math.abs(sum) * EARTH_RADIUS * EARTH_RADIUS;
+  }
+
+  /**
+   * Computes the length of a path along great circles, the same value
+   * returned by <code>Polyline.getLength()</code>.
+   *
+   * @param latLngs the vertices of the path as interleaved lat/lng pairs.
+   * @return the length in meters.
+   */
+  public static double getLength(double[] latLngs) {
+    return getLength(latLngs, 0, latLngs.length);
+  }
+
+  /**
+   * Computes the length of a path stored in a range of a larger array.
+   *
+   * @param latLngs interleaved lat/lng pairs.
+   * @param from the array index of the first vertex of the path.
+   * @param to the array index just past the last vertex of the path.
+   * @return the length in meters.
+   * @see #getLength(double[])
+   */
+  public static double getLength(double[] latLngs, int from, int to) {
+    double length = 0;
+    for (int i = from + 2; i + 1 < to; i += 2) {
+      double lat1 = Math.toRadians(latLngs[i - 2]);
+      double lat2 = Math.toRadians(latLngs[i]);
+      double sinLat = Math.sin((lat2 - lat1) / 2);
+      double sinLng = Math.sin(Math.toRadians(latLngs[i + 1]
+          - latLngs[i - 1]) / 2);
+      double a = sinLat * sinLat + Math.cos(lat1) * Math.cos(lat2) * sinLng
+          * sinLng;
+      length += 2 * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+    return length * EARTH_RADIUS;
+  }
+
+  private Geometry() {
+    // Utility class; don't instantiate.
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2008 Google Inc.
+ * Copyright 2010 Google Inc.
  * 
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not
  * use this file except in compliance with the License. You may obtain a copy of
@@ -13,15 +13,19 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.search.jsio.client;
-
-import java.util.List;
+package com.google.gwt.maps.client.geom;
 
 /**
- * This is a tag interface for use with JSWrapper when the underlying data
- * type is a JavaScript array-like object.
- * 
- * @param <T> the element type
+ * Receives the result of a computation run by {@link GeometryService}.
+ *
+ * @param <T> the type of the result
  */
-public interface JSList<T> extends List<T> {
+public interface GeometryCallback<T> {
+
+  /**
+   * Called when the computation completes.
+   *
+   * @param result the result of the computation.
+   */
+  void onSuccess(T result);
 }
@@ -0,0 +1,566 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geom;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptException;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.maps.client.impl.JsUtil;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs bulk geometric computations over thousands of paths or polygons off
+ * the UI thread. Coordinates are shipped to a pool of Web Workers as packed
+ * arrays (see {@link PackedPaths}) and the results are delivered
+ * asynchronously to a {@link GeometryCallback}.
+ *
+ * When workers are not available, for example in hosted mode, in browsers
+ * without Web Worker support or after a worker fails, the same computations
+ * run synchronously in Java using {@link Geometry} and the callback is invoked
+ * before the method returns. Small jobs also run synchronously because the
+ * cost of copying them to a worker outweighs the computation; see
+ * {@link #setMinWorkerVertices(int)}.
+ */
+public class GeometryService {
+
+  /**
+   * A computation waiting for a worker to reply.
+   */
+  private static class Job {
+    final GeometryCallback<?> callback;
+    final int op;
+    final PackedPaths paths;
+    final double[] points;
+
+    Job(int op, PackedPaths paths, double[] points,
+        GeometryCallback<?> callback) {
+      this.op = op;
+      this.paths = paths;
+      this.points = points;
+      this.callback = callback;
+    }
+  }
+
+  /**
+   * The default minimum number of vertices for a job to be sent to a worker.
+   */
+  public static final int DEFAULT_MIN_WORKER_VERTICES = 10000;
+
+  /**
+   * The default number of workers in the pool.
+   */
+  public static final int DEFAULT_WORKER_COUNT = 2;
+
+  private static final int OP_AREAS = 0;
+  private static final int OP_LENGTHS = 1;
+  private static final int OP_BOUNDS = 2;
+  private static final int OP_BOUNDS_UNION = 3;
+  private static final int OP_LOCATE = 4;
+
+  /**
+   * Runs a computation in Java. The worker kernel in
+   * {@link #getKernelSource()} must return the same results.
+   */
+  static Object compute(int op, PackedPaths paths, double[] points) {
+    double[] latLngs = paths.getLatLngs();
+    int n = paths.getPathCount();
+    switch (op) {
+      case OP_AREAS:
+      case OP_LENGTHS: {
+        double[] result = new double[n];
+        for (int i = 0; i < n; ++i) {
+          int from = paths.getOffset(i);
+          int to = paths.getOffset(i + 1);
+          result[i] = op == OP_AREAS ? Geometry.getArea(latLngs, from, to)
+              : Geometry.getLength(latLngs, from, to);
+        }
+        return result;
+      }
+      case OP_BOUNDS:
+        return computeBounds(paths);
+      case OP_BOUNDS_UNION: {
+        double[] result = new double[] {
+            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = paths.getOffset(0); i + 1 < paths.getOffset(n); i += 2) {
+          result[0] = Math.min(result[0], latLngs[i]);
+          result[1] = Math.min(result[1], latLngs[i + 1]);
+          result[2] = Math.max(result[2], latLngs[i]);
+          result[3] = Math.max(result[3], latLngs[i + 1]);
+        }
+        return result;
+      }
+      case OP_LOCATE: {
+        double[] bounds = computeBounds(paths);
+        int[] result = new int[points.length / 2];
+        for (int k = 0; k < result.length; ++k) {
+          double lat = points[k * 2];
+          double lng = points[k * 2 + 1];
+          result[k] = -1;
+          for (int i = 0; i < n; ++i) {
+            int b = i * 4;
+            if (lat >= bounds[b] && lng >= bounds[b + 1]
+                && lat <= bounds[b + 2] && lng <= bounds[b + 3]
+                && Geometry.containsLatLng(latLngs, paths.getOffset(i),
+                    paths.getOffset(i + 1), lat, lng)) {
+              result[k] = i;
+              break;
+            }
+          }
+        }
+        return result;
+      }
+      default:
+        throw new IllegalArgumentException("Unknown operation " + op);
+    }
+  }
+
+  private static double[] computeBounds(PackedPaths paths) {
+    double[] latLngs = paths.getLatLngs();
+    double[] result = new double[paths.getPathCount() * 4];
+    for (int i = 0; i < paths.getPathCount(); ++i) {
+      int b = i * 4;
+      result[b] = result[b + 1] = Double.POSITIVE_INFINITY;
+      result[b + 2] = result[b + 3] = Double.NEGATIVE_INFINITY;
+      for (int j = paths.getOffset(i); j + 1 < paths.getOffset(i + 1);
+          j += 2) {
+        result[b] = Math.min(result[b], latLngs[j]);
+        result[b + 1] = Math.min(result[b + 1], latLngs[j + 1]);
+        result[b + 2] = Math.max(result[b + 2], latLngs[j]);
+        result[b + 3] = Math.max(result[b + 3], latLngs[j + 1]);
+      }
+    }
+    return result;
+  }
+
+  private static native JavaScriptObject createWorker(
+      GeometryService service, String url) /*-{
+    var worker = new $wnd.Worker(url);
+    worker.onmessage = $entry(function(event) {
+      service.@com.google.gwt.maps.client.geom.GeometryService::onWorkerMessage(ILcom/google/gwt/core/client/JavaScriptObject;)(event.data.id, event.data.result);
+    });
+    worker.onerror = $entry(function(event) {
+      if (event.preventDefault) {
+        event.preventDefault();
+      }
+      service.@com.google.gwt.maps.client.geom.GeometryService::onWorkerError()();
+    });
+    return worker;
+  }-*/;
+
+  private static native String createWorkerUrl(String source) /*-{
+    var blob = new $wnd.Blob([source], {type: 'text/javascript'});
+    return ($wnd.URL || $wnd.webkitURL).createObjectURL(blob);
+  }-*/;
+
+  /**
+   * Returns the script run by each worker. The kernel is written out here in
+   * JavaScript because a worker cannot run compiled GWT code; it mirrors
+   * {@link #compute(int, PackedPaths, double[])} and {@link Geometry}.
+   */
+  private static native String getKernelSource() /*-{
+    return '(' + function(scope) {
+      var R = 6378137;
+      var RAD = Math.PI / 180;
+
+      function area(c, from, to) {
+        if (to - from < 6) {
+          return 0;
+        }
+        var sum = 0;
+        var prevTan = Math.tan((Math.PI / 2 - c[to - 2] * RAD) / 2);
+        var prevLng = c[to - 1] * RAD;
+        for (var i = from; i + 1 < to; i += 2) {
+          var tan = Math.tan((Math.PI / 2 - c[i] * RAD) / 2);
+          var lng = c[i + 1] * RAD;
+          var deltaLng = lng - prevLng;
+          var t = tan * prevTan;
+          sum += 2 * Math.atan2(t * Math.sin(deltaLng),
+              1 + t * Math.cos(deltaLng));
+          prevTan = tan;
+          prevLng = lng;
+        }
+        return Math.abs(sum) * R * R;
+      }
+
+      function length(c, from, to) {
+        var total = 0;
+        for (var i = from + 2; i + 1 < to; i += 2) {
+          var lat1 = c[i - 2] * RAD;
+          var lat2 = c[i] * RAD;
+          var sinLat = Math.sin((lat2 - lat1) / 2);
+          var sinLng = Math.sin((c[i + 1] - c[i - 1]) * RAD / 2);
+          var a = sinLat * sinLat
+              + Math.cos(lat1) * Math.cos(lat2) * sinLng * sinLng;
+          total += 2 * Math.asin(Math.min(1, Math.sqrt(a)));
+        }
+        return total * R;
+      }
+
+      function contains(c, from, to, lat, lng) {
+        var inside = false;
+        for (var i = from, j = to - 2; i + 1 < to; j = i, i += 2) {
+          if ((c[i] > lat) != (c[j] > lat) && lng < (c[j + 1] - c[i + 1])
+              * (lat - c[i]) / (c[j] - c[i]) + c[i + 1]) {
+            inside = !inside;
+          }
+        }
+        return inside;
+      }
+
+      function bounds(c, o, n) {
+        var result = [];
+        for (var i = 0; i < n; ++i) {
+          var s = Infinity, w = Infinity, north = -Infinity, e = -Infinity;
+          for (var j = o[i]; j + 1 < o[i + 1]; j += 2) {
+            s = Math.min(s, c[j]);
+            w = Math.min(w, c[j + 1]);
+            north = Math.max(north, c[j]);
+            e = Math.max(e, c[j + 1]);
+          }
+          result.push(s, w, north, e);
+        }
+        return result;
+      }
+
+      scope.onmessage = function(event) {
+        var job = event.data;
+        var c = job.latLngs;
+        var o = job.offsets;
+        var n = o.length - 1;
+        var result = [];
+        var i;
+        switch (job.op) {
+          case 0:
+            for (i = 0; i < n; ++i) {
+              result.push(area(c, o[i], o[i + 1]));
+            }
+            break;
+          case 1:
+            for (i = 0; i < n; ++i) {
+              result.push(length(c, o[i], o[i + 1]));
+            }
+            break;
+          case 2:
+            result = bounds(c, o, n);
+            break;
+          case 3:
+            result = bounds(c, [o[0], o[n]], 1);
+            break;
+          case 4:
+            var b = bounds(c, o, n);
+            var p = job.points;
+            for (var k = 0; k + 1 < p.length; k += 2) {
+              var found = -1;
+              for (i = 0; i < n; ++i) {
+                if (p[k] >= b[i * 4] && p[k + 1] >= b[i * 4 + 1]
+                    && p[k] <= b[i * 4 + 2] && p[k + 1] <= b[i * 4 + 3]
+                    && contains(c, o[i], o[i + 1], p[k], p[k + 1])) {
+                  found = i;
+                  break;
+                }
+              }
+              result.push(found);
+            }
+            break;
+        }
+        scope.postMessage({id: job.id, result: result});
+      };
+    } + ')(self);';
+  }-*/;
+
+  private static native int getLength(JavaScriptObject array) /*-{
+    return array.length;
+  }-*/;
+
+  private static native void postJob(JavaScriptObject worker, int id, int op,
+      JavaScriptObject latLngs, JavaScriptObject offsets,
+      JavaScriptObject points) /*-{
+    worker.postMessage({id: id, op: op, latLngs: latLngs, offsets: offsets,
+        points: points});
+  }-*/;
+
+  private static native void revokeWorkerUrl(String url) /*-{
+    ($wnd.URL || $wnd.webkitURL).revokeObjectURL(url);
+  }-*/;
+
+  private static native boolean supportsWorkers() /*-{
+    return !!($wnd.Worker && $wnd.Blob && ($wnd.URL || $wnd.webkitURL));
+  }-*/;
+
+  private static native void terminate(JavaScriptObject worker) /*-{
+    worker.terminate();
+  }-*/;
+
+  private int minWorkerVertices = DEFAULT_MIN_WORKER_VERTICES;
+  private int nextJobId;
+  private int nextWorker;
+  private final Map<Integer, Job> pendingJobs = new LinkedHashMap<Integer, Job>();
+  private int syncJobCount;
+  private int workerJobCount;
+  private final int workerCount;
+  private JavaScriptObject[] workers;
+  private String workerUrl;
+  private boolean workersFailed;
+
+  /**
+   * Creates a service with {@link #DEFAULT_WORKER_COUNT} workers.
+   */
+  public GeometryService() {
+    this(DEFAULT_WORKER_COUNT);
+  }
+
+  /**
+   * Creates a service. Workers are started the first time a job is large
+   * enough to be sent to one.
+   *
+   * @param workerCount the number of workers in the pool.
+   */
+  public GeometryService(int workerCount) {
+    if (workerCount < 1) {
+      throw new IllegalArgumentException("workerCount must be positive");
+    }
+    this.workerCount = workerCount;
+  }
+
+  /**
+   * Computes the area of each polygon ring.
+   *
+   * @param rings the polygon rings.
+   * @param callback receives the area of each ring in square meters.
+   * @see Geometry#getArea(double[])
+   */
+  public void computeAreas(PackedPaths rings,
+      GeometryCallback<double[]> callback) {
+    submit(OP_AREAS, rings, null, callback);
+  }
+
+  /**
+   * Computes the bounding box of each path.
+   *
+   * @param paths the paths.
+   * @param callback receives <code>{south, west, north, east}</code> for each
+   *          path, four values per path. An empty path has infinite bounds
+   *          with <code>south &gt; north</code>.
+   * @see Geometry#getBounds(double[])
+   */
+  public void computeBounds(PackedPaths paths,
+      GeometryCallback<double[]> callback) {
+    submit(OP_BOUNDS, paths, null, callback);
+  }
+
+  /**
+   * Computes the bounding box of all paths together.
+   *
+   * @param paths the paths.
+   * @param callback receives the union as a
+   *          <code>{south, west, north, east}</code> array.
+   */
+  public void computeBoundsUnion(PackedPaths paths,
+      GeometryCallback<double[]> callback) {
+    submit(OP_BOUNDS_UNION, paths, null, callback);
+  }
+
+  /**
+   * Computes the length of each path.
+   *
+   * @param paths the paths.
+   * @param callback receives the length of each path in meters.
+   * @see Geometry#getLength(double[])
+   */
+  public void computeLengths(PackedPaths paths,
+      GeometryCallback<double[]> callback) {
+    submit(OP_LENGTHS, paths, null, callback);
+  }
+
+  /**
+   * Returns the number of jobs waiting for a worker to reply.
+   *
+   * @return the number of pending jobs.
+   */
+  public int getPendingJobCount() {
+    return pendingJobs.size();
+  }
+
+  /**
+   * Returns the number of jobs computed synchronously on the UI thread.
+   *
+   * @return the number of synchronous jobs.
+   */
+  public int getSyncJobCount() {
+    return syncJobCount;
+  }
+
+  /**
+   * Returns the number of jobs sent to a worker.
+   *
+   * @return the number of worker jobs.
+   */
+  public int getWorkerJobCount() {
+    return workerJobCount;
+  }
+
+  /**
+   * Returns whether large jobs are sent to workers. This is
+   * <code>false</code> in hosted mode, in browsers without Web Worker support
+   * and after a worker has failed.
+   *
+   * @return <code>true</code> if workers are available.
+   */
+  public boolean isWorkerAvailable() {
+    return GWT.isScript() && !workersFailed && supportsWorkers();
+  }
+
+  /**
+   * Finds the first polygon ring containing each of a set of points.
+   *
+   * @param rings the polygon rings.
+   * @param points the points as interleaved lat/lng pairs.
+   * @param callback receives, for each point, the index of the first ring
+   *          that contains it, or -1 if no ring does.
+   * @see Geometry#containsLatLng(double[], double, double)
+   */
+  public void locatePoints(PackedPaths rings, double[] points,
+      GeometryCallback<int[]> callback) {
+    submit(OP_LOCATE, rings, points, callback);
+  }
+
+  /**
+   * Resets the job counters.
+   */
+  public void resetStats() {
+    syncJobCount = 0;
+    workerJobCount = 0;
+  }
+
+  /**
+   * Sets the minimum size of a job sent to a worker. Smaller jobs are
+   * computed synchronously. Use {@link Integer#MAX_VALUE} to always compute
+   * synchronously.
+   *
+   * @param minWorkerVertices the minimum number of vertices, counting both
+   *          path vertices and points to locate.
+   */
+  public void setMinWorkerVertices(int minWorkerVertices) {
+    this.minWorkerVertices = minWorkerVertices;
+  }
+
+  /**
+   * Terminates the workers. Pending jobs are completed synchronously, and the
+   * workers are started again by the next job large enough to need them.
+   */
+  public void shutdown() {
+    stopWorkers();
+    runPendingJobs();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void deliver(Job job, Object result) {
+    ((GeometryCallback<Object>) job.callback).onSuccess(result);
+  }
+
+  private void onWorkerError() {
+    // Fall back to Java for good; a kernel that failed once will fail again
+    workersFailed = true;
+    stopWorkers();
+    runPendingJobs();
+  }
+
+  private void onWorkerMessage(int id, JavaScriptObject result) {
+    Job job = pendingJobs.remove(id);
+    if (job == null) {
+      return;
+    }
+    if (job.op == OP_LOCATE) {
+      int[] values = new int[getLength(result)];
+      JsUtil.toArray(result, values);
+      deliver(job, values);
+    } else {
+      double[] values = new double[getLength(result)];
+      JsUtil.toArray(result, values);
+      deliver(job, values);
+    }
+  }
+
+  private void runPendingJobs() {
+    List<Job> jobs = new ArrayList<Job>(pendingJobs.values());
+    pendingJobs.clear();
+    for (Job job : jobs) {
+      ++syncJobCount;
+      deliver(job, compute(job.op, job.paths, job.points));
+    }
+  }
+
+  private boolean startWorkers() {
+    if (workers != null) {
+      return true;
+    }
+    if (!isWorkerAvailable()) {
+      return false;
+    }
+    workerUrl = createWorkerUrl(getKernelSource());
+    workers = new JavaScriptObject[workerCount];
+    try {
+      for (int i = 0; i < workerCount; ++i) {
+        workers[i] = createWorker(this, workerUrl);
+      }
+      return true;
+    } catch (JavaScriptException e) {
+      // For example a content security policy that forbids blob: workers
+      workersFailed = true;
+      stopWorkers();
+      return false;
+    }
+  }
+
+  private void stopWorkers() {
+    if (workers != null) {
+      for (JavaScriptObject worker : workers) {
+        if (worker != null) {
+          terminate(worker);
+        }
+      }
+      workers = null;
+    }
+    if (workerUrl != null) {
+      revokeWorkerUrl(workerUrl);
+      workerUrl = null;
+    }
+  }
+
+  private void submit(int op, PackedPaths paths, double[] points,
+      GeometryCallback<?> callback) {
+    Job job = new Job(op, paths, points, callback);
+    int size = paths.getVertexCount()
+        + (points == null ? 0 : points.length / 2);
+    if (size < minWorkerVertices || !startWorkers()) {
+      ++syncJobCount;
+      deliver(job, compute(op, paths, points));
+      return;
+    }
+    int id = nextJobId++;
+    pendingJobs.put(id, job);
+    ++workerJobCount;
+    postJob(workers[nextWorker++ % workers.length], id, op,
+        JsUtil.toJsArray(paths.getLatLngs()),
+        JsUtil.toJsArray(paths.getOffsets()),
+        points == null ? null : JsUtil.toJsArray(points));
+  }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geom;
+
+/**
+ * The spherical Mercator math of {@link MercatorProjection}, implemented in
+ * Java. Conversions run without calling into the Maps API and, in their bulk
+ * form, without allocating a {@link LatLng} or {@link Point} per coordinate,
+ * which makes this class suitable for the inner loop of
+ * {@link com.google.gwt.maps.client.overlay.Overlay#redraw(boolean)}
+ * implementations that place many shapes.
+ * 
+ * The scale factors for every zoom level are computed once in the
+ * constructor. Coordinates are exchanged through <code>double[]</code>
+ * buffers holding interleaved pairs: <code>{lat0, lng0, lat1, lng1, ...}</code>
+ * for geographic coordinates and <code>{x0, y0, x1, y1, ...}</code> for
+ * pixels. Pixel coordinates are world coordinates at the given zoom level and
+ * are not rounded, unlike those returned by the Maps API. To convert them to
+ * the coordinates of the map's overlay panes, subtract the world pixel of the
+ * pane origin, which can be found once per redraw by converting
+ * <code>map.convertDivPixelToLatLng(Point.newInstance(0, 0))</code>.
+ */
+public final class MercatorTransform {
+
+  /**
+   * The width and height of a map tile in pixels used by the predefined map
+   * types.
+   */
+  public static final int DEFAULT_TILE_SIZE = 256;
+
+  /**
+   * The largest absolute value of the sine of the latitude that is projected;
+   * the same limit the Maps API uses to avoid infinite y coordinates at the
+   * poles.
+   */
+  private static final double MAX_SIN_LATITUDE = 0.9999;
+
+  private static final double DEGREES_PER_RADIAN = 180 / Math.PI;
+  private static final double RADIANS_PER_DEGREE = Math.PI / 180;
+
+  private final double[] origin;
+  private final double[] pixelsPerLonDegree;
+  private final double[] pixelsPerLonRadian;
+  private final double[] worldSize;
+
+  /**
+   * Constructs a transform for the given number of zoom levels using 256
+   * pixel tiles, matching <code>new MercatorProjection(numZoomLevels)</code>.
+   * 
+   * @param numZoomLevels the number of zoom levels to support.
+   */
+  public MercatorTransform(int numZoomLevels) {
+    this(numZoomLevels, DEFAULT_TILE_SIZE);
+  }
+
+  /**
+   * Constructs a transform for the given number of zoom levels.
+   * 
+   * @param numZoomLevels the number of zoom levels to support.
+   * @param tileSize the width of the world in pixels at zoom level 0.
+   */
+  public MercatorTransform(int numZoomLevels, int tileSize) {
+    if (numZoomLevels <= 0) {
+      throw new IllegalArgumentException("numZoomLevels must be positive");
+    }
+    origin = new double[numZoomLevels];
+    pixelsPerLonDegree = new double[numZoomLevels];
+    pixelsPerLonRadian = new double[numZoomLevels];
+    worldSize = new double[numZoomLevels];
+    double size = tileSize;
+    for (int zoom = 0; zoom < numZoomLevels; ++zoom) {
+      worldSize[zoom] = size;
+      origin[zoom] = size / 2;
+      pixelsPerLonDegree[zoom] = size / 360;
+      pixelsPerLonRadian[zoom] = size / (2 * Math.PI);
+      size *= 2;
+    }
+  }
+
+  /**
+   * Converts geographic coordinates to pixel coordinates.
+   * 
+   * @param latLngs interleaved latitude and longitude pairs in degrees.
+   * @param pixels receives the interleaved x and y pixel coordinates; may be
+   *          the same array as <code>latLngs</code>.
+   * @param zoomLevel the zoom level.
+   */
+  public void fromLatLngToPixel(double[] latLngs, double[] pixels,
+      int zoomLevel) {
+    fromLatLngToPixel(latLngs, 0, pixels, 0, latLngs.length / 2, zoomLevel);
+  }
+
+  /**
+   * Converts a range of geographic coordinates to pixel coordinates.
+   * 
+   * @param latLngs interleaved latitude and longitude pairs in degrees.
+   * @param srcOffset the index in <code>latLngs</code> of the first latitude.
+   * @param pixels receives the interleaved x and y pixel coordinates; may be
+   *          the same array as <code>latLngs</code>.
+   * @param dstOffset the index in <code>pixels</code> of the first x value.
+   * @param count the number of coordinate pairs to convert.
+   * @param zoomLevel the zoom level.
+   */
+  public void fromLatLngToPixel(double[] latLngs, int srcOffset,
+      double[] pixels, int dstOffset, int count, int zoomLevel) {
+    checkZoomLevel(zoomLevel);
+    double o = origin[zoomLevel];
+    double perDegree = pixelsPerLonDegree[zoomLevel];
+    double perRadian = pixelsPerLonRadian[zoomLevel];
+    for (int i = 0; i < count; ++i) {
+      int src = srcOffset + i * 2;
+      int dst = dstOffset + i * 2;
+      double lat = latLngs[src];
+      double lng = latLngs[src + 1];
+      pixels[dst] = o + lng * perDegree;
+      pixels[dst + 1] = o - projectLatitude(lat) * perRadian;
+    }
+  }
+
+  /**
+   * Converts pixel coordinates to geographic coordinates.
+   * 
+   * @param pixels interleaved x and y pixel coordinates.
+   * @param latLngs receives the interleaved latitude and longitude pairs in
+   *          degrees; may be the same array as <code>pixels</code>.
+   * @param zoomLevel the zoom level.
+   * @param unbound if <code>false</code>, longitudes are wrapped into the
+   *          range [-180, 180).
+   */
+  public void fromPixelToLatLng(double[] pixels, double[] latLngs,
+      int zoomLevel, boolean unbound) {
+    fromPixelToLatLng(pixels, 0, latLngs, 0, pixels.length / 2, zoomLevel,
+        unbound);
+  }
+
+  /**
+   * Converts a range of pixel coordinates to geographic coordinates.
+   * 
+   * @param pixels interleaved x and y pixel coordinates.
+   * @param srcOffset the index in <code>pixels</code> of the first x value.
+   * @param latLngs receives the interleaved latitude and longitude pairs in
+   *          degrees; may be the same array as <code>pixels</code>.
+   * @param dstOffset the index in <code>latLngs</code> of the first latitude.
+   * @param count the number of coordinate pairs to convert.
+   * @param zoomLevel the zoom level.
+   * @param unbound if <code>false</code>, longitudes are wrapped into the
+   *          range [-180, 180).
+   */
+  public void fromPixelToLatLng(double[] pixels, int srcOffset,
+      double[] latLngs, int dstOffset, int count, int zoomLevel,
+      boolean unbound) {
+    checkZoomLevel(zoomLevel);
+    double o = origin[zoomLevel];
+    double perDegree = pixelsPerLonDegree[zoomLevel];
+    double perRadian = pixelsPerLonRadian[zoomLevel];
+    for (int i = 0; i < count; ++i) {
+      int src = srcOffset + i * 2;
+      int dst = dstOffset + i * 2;
+      double x = pixels[src];
+      double y = pixels[src + 1];
+      double lng = (x - o) / perDegree;
+      latLngs[dst] = unprojectLatitude((o - y) / perRadian);
+      latLngs[dst + 1] = unbound ? lng : wrapLongitude(lng);
+    }
+  }
+
+  /**
+   * Returns the latitude of a vertical pixel coordinate.
+   * 
+   * @param y the vertical pixel coordinate.
+   * @param zoomLevel the zoom level.
+   * @return the latitude in degrees.
+   */
+  public double getLatitude(double y, int zoomLevel) {
+    checkZoomLevel(zoomLevel);
+    return unprojectLatitude((origin[zoomLevel] - y)
+        / pixelsPerLonRadian[zoomLevel]);
+  }
+
+  /**
+   * Returns the longitude of a horizontal pixel coordinate, wrapped into the
+   * range [-180, 180).
+   * 
+   * @param x the horizontal pixel coordinate.
+   * @param zoomLevel the zoom level.
+   * @return the longitude in degrees.
+   */
+  public double getLongitude(double x, int zoomLevel) {
+    checkZoomLevel(zoomLevel);
+    return wrapLongitude((x - origin[zoomLevel])
+        / pixelsPerLonDegree[zoomLevel]);
+  }
+
+  /**
+   * Returns the number of zoom levels supported.
+   * 
+   * @return the number of zoom levels supported.
+   */
+  public int getNumZoomLevels() {
+    return worldSize.length;
+  }
+
+  /**
+   * Returns the horizontal pixel coordinate of a longitude.
+   * 
+   * @param lng the longitude in degrees.
+   * @param zoomLevel the zoom level.
+   * @return the horizontal pixel coordinate.
+   */
+  public double getPixelX(double lng, int zoomLevel) {
+    checkZoomLevel(zoomLevel);
+    return origin[zoomLevel] + lng * pixelsPerLonDegree[zoomLevel];
+  }
+
+  /**
+   * Returns the vertical pixel coordinate of a latitude.
+   * 
+   * @param lat the latitude in degrees.
+   * @param zoomLevel the zoom level.
+   * @return the vertical pixel coordinate.
+   */
+  public double getPixelY(double lat, int zoomLevel) {
+    checkZoomLevel(zoomLevel);
+    return origin[zoomLevel] - projectLatitude(lat)
+        * pixelsPerLonRadian[zoomLevel];
+  }
+
+  /**
+   * Returns the width of the map of the entire Earth in pixels at the given
+   * zoom level.
+   * 
+   * @param zoomLevel the zoom level.
+   * @return the width of the world in pixels.
+   * @see MercatorProjection#getWrapWidth(int)
+   */
+  public double getWrapWidth(int zoomLevel) {
+    checkZoomLevel(zoomLevel);
+    return worldSize[zoomLevel];
+  }
+
+  private void checkZoomLevel(int zoomLevel) {
+    if (zoomLevel < 0 || zoomLevel >= worldSize.length) {
+      throw new IllegalArgumentException("zoomLevel " + zoomLevel
+          + " out of range [0, " + worldSize.length + ")");
+    }
+  }
+
+  /**
+   * Returns the Mercator y value of a latitude in radians of longitude,
+   * positive towards the north.
+   */
+  private double projectLatitude(double lat) {
+    double sin = Math.sin(lat * RADIANS_PER_DEGREE);
+    sin = Math.max(-MAX_SIN_LATITUDE, Math.min(MAX_SIN_LATITUDE, sin));
+    return 0.5 * Math.log((1 + sin) / (1 - sin));
+  }
+
+  private double unprojectLatitude(double y) {
+    return (2 * Math.atan(Math.exp(y)) - Math.PI / 2) * DEGREES_PER_RADIAN;
+  }
+
+  private double wrapLongitude(double lng) {
+    if (lng >= -180 && lng < 180) {
+      return lng;
+    }
+    double wrapped = (lng + 180) % 360;
+    return (wrapped < 0 ? wrapped + 360 : wrapped) - 180;
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geom;
+
+import java.util.List;
+
+/**
+ * A set of paths or polygon rings packed into a single primitive array, the
+ * form in which {@link GeometryService} ships coordinates to a worker. The
+ * vertices of every path are stored back to back as interleaved
+ * <code>{lat, lng}</code> pairs of degrees; path <code>i</code> occupies the
+ * array indexes from <code>getOffset(i)</code> up to
+ * <code>getOffset(i + 1)</code>.
+ */
+public class PackedPaths {
+
+  /**
+   * Packs a list of paths into a single array.
+   *
+   * @param paths the paths, each as interleaved lat/lng pairs.
+   * @return the packed paths.
+   */
+  public static PackedPaths pack(List<double[]> paths) {
+    int[] offsets = new int[paths.size() + 1];
+    for (int i = 0; i < paths.size(); ++i) {
+      offsets[i + 1] = offsets[i] + (paths.get(i).length & ~1);
+    }
+    double[] latLngs = new double[offsets[paths.size()]];
+    for (int i = 0; i < paths.size(); ++i) {
+      System.arraycopy(paths.get(i), 0, latLngs, offsets[i],
+          offsets[i + 1] - offsets[i]);
+    }
+    return new PackedPaths(latLngs, offsets);
+  }
+
+  private final double[] latLngs;
+  private final int[] offsets;
+
+  /**
+   * Wraps arrays that are already packed. The arrays are not copied.
+   *
+   * @param latLngs the vertices of all paths as interleaved lat/lng pairs.
+   * @param offsets the array index at which each path starts, followed by
+   *          <code>latLngs.length</code>.
+   */
+  public PackedPaths(double[] latLngs, int[] offsets) {
+    if (offsets.length == 0 || offsets[offsets.length - 1] > latLngs.length) {
+      throw new IllegalArgumentException("Offsets do not match coordinates");
+    }
+    this.latLngs = latLngs;
+    this.offsets = offsets;
+  }
+
+  /**
+   * Returns the packed vertices of all paths.
+   *
+   * @return interleaved lat/lng pairs; the array is not copied.
+   */
+  public double[] getLatLngs() {
+    return latLngs;
+  }
+
+  /**
+   * Returns the array index at which a path starts.
+   *
+   * @param index the index of the path, or {@link #getPathCount()} for the
+   *          end of the last path.
+   * @return an index into {@link #getLatLngs()}.
+   */
+  public int getOffset(int index) {
+    return offsets[index];
+  }
+
+  /**
+   * Returns the path start indexes.
+   *
+   * @return the offsets; the array is not copied.
+   */
+  public int[] getOffsets() {
+    return offsets;
+  }
+
+  /**
+   * Returns the number of packed paths.
+   *
+   * @return the number of paths.
+   */
+  public int getPathCount() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * Returns the total number of vertices in all paths.
+   *
+   * @return the number of vertices.
+   */
+  public int getVertexCount() {
+    return (offsets[offsets.length - 1] - offsets[0]) / 2;
+  }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geom;
+
+/**
+ * A static spatial index over a large set of points, packed into primitive
+ * arrays so that it can hold a million points without allocating an object
+ * per point. Points are stored in normalized Mercator coordinates, where the
+ * whole world spans <code>[0, 1]</code> horizontally and vertically with
+ * <code>y</code> growing southwards; multiplying by the width of the world in
+ * pixels at a zoom level gives world pixel coordinates.
+ *
+ * The index is a uniform grid over the bounding box of the points, built once
+ * with a counting sort. Queries do not wrap across the 180th meridian; callers
+ * that need to should query again with shifted coordinates.
+ */
+public class PointIndex {
+
+  /**
+   * Receives the points found by a query.
+   */
+  public interface Visitor {
+    /**
+     * Called once for each point found.
+     *
+     * @param index the index of the point in the array passed to the
+     *          constructor, counting pairs.
+     * @param x the normalized horizontal coordinate of the point.
+     * @param y the normalized vertical coordinate of the point.
+     */
+    void visit(int index, double x, double y);
+  }
+
+  private static final int MAX_CELLS_PER_SIDE = 1024;
+  private static final int TARGET_POINTS_PER_CELL = 8;
+
+  private static final MercatorTransform UNIT = new MercatorTransform(1, 1);
+
+  private static int clamp(int cells) {
+    return Math.max(1, Math.min(MAX_CELLS_PER_SIDE, cells));
+  }
+
+  /**
+   * Returns the normalized horizontal coordinate of a longitude.
+   *
+   * @param lng the longitude in degrees.
+   * @return the coordinate between 0 and 1.
+   */
+  public static double toX(double lng) {
+    return UNIT.getPixelX(lng, 0);
+  }
+
+  /**
+   * Returns the normalized vertical coordinate of a latitude.
+   *
+   * @param lat the latitude in degrees.
+   * @return the coordinate between 0 and 1.
+   */
+  public static double toY(double lat) {
+    return UNIT.getPixelY(lat, 0);
+  }
+
+  private final int[] cellStarts;
+  private final double cellHeight;
+  private final double cellWidth;
+  private final int cols;
+  private final int[] ids;
+  private final double minX;
+  private final double minY;
+  private final int rows;
+  private final double[] xs;
+  private final double[] ys;
+
+  /**
+   * Builds an index over a set of points.
+   *
+   * @param latLngs the points as interleaved lat/lng pairs in degrees.
+   */
+  public PointIndex(double[] latLngs) {
+    int n = latLngs.length / 2;
+    double[] x = new double[n];
+    double[] y = new double[n];
+    double left = Double.POSITIVE_INFINITY;
+    double top = Double.POSITIVE_INFINITY;
+    double right = Double.NEGATIVE_INFINITY;
+    double bottom = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < n; ++i) {
+      x[i] = toX(latLngs[i * 2 + 1]);
+      y[i] = toY(latLngs[i * 2]);
+      left = Math.min(left, x[i]);
+      top = Math.min(top, y[i]);
+      right = Math.max(right, x[i]);
+      bottom = Math.max(bottom, y[i]);
+    }
+    if (n == 0) {
+      left = top = right = bottom = 0;
+    }
+
+    // Size the grid to the aspect ratio of the bounding box
+    double width = Math.max(right - left, 1e-12);
+    double height = Math.max(bottom - top, 1e-12);
+    double cells = Math.max(1.0, (double) n / TARGET_POINTS_PER_CELL);
+    cols = clamp((int) Math.round(Math.sqrt(cells * width / height)));
+    rows = clamp((int) Math.ceil(cells / cols));
+    minX = left;
+    minY = top;
+    cellWidth = width / cols;
+    cellHeight = height / rows;
+
+    // Counting sort of the points by cell
+    int[] cellOf = new int[n];
+    cellStarts = new int[cols * rows + 1];
+    for (int i = 0; i < n; ++i) {
+      cellOf[i] = getRow(y[i]) * cols + getCol(x[i]);
+      ++cellStarts[cellOf[i] + 1];
+    }
+    for (int c = 0; c < cols * rows; ++c) {
+      cellStarts[c + 1] += cellStarts[c];
+    }
+    int[] next = new int[cols * rows];
+    System.arraycopy(cellStarts, 0, next, 0, next.length);
+    ids = new int[n];
+    xs = new double[n];
+    ys = new double[n];
+    for (int i = 0; i < n; ++i) {
+      int slot = next[cellOf[i]]++;
+      ids[slot] = i;
+      xs[slot] = x[i];
+      ys[slot] = y[i];
+    }
+  }
+
+  /**
+   * Finds the point nearest to a location within a maximum distance.
+   *
+   * @param x the normalized horizontal coordinate of the location.
+   * @param y the normalized vertical coordinate of the location.
+   * @param maxDistance the maximum distance in normalized units.
+   * @return the index of the nearest point, or -1 if there is none within
+   *         <code>maxDistance</code>.
+   */
+  public int nearest(double x, double y, double maxDistance) {
+    double best = maxDistance * maxDistance;
+    int found = -1;
+    int col0 = getCol(x - maxDistance);
+    int col1 = getCol(x + maxDistance);
+    int row1 = getRow(y + maxDistance);
+    for (int row = getRow(y - maxDistance); row <= row1; ++row) {
+      for (int col = col0; col <= col1; ++col) {
+        int cell = row * cols + col;
+        for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; ++i) {
+          double dx = xs[i] - x;
+          double dy = ys[i] - y;
+          double distance = dx * dx + dy * dy;
+          if (distance <= best) {
+            best = distance;
+            found = ids[i];
+          }
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Visits every point inside a rectangle.
+   *
+   * @param left the smallest normalized horizontal coordinate.
+   * @param top the smallest normalized vertical coordinate.
+   * @param right the largest normalized horizontal coordinate.
+   * @param bottom the largest normalized vertical coordinate.
+   * @param visitor receives each point inside the rectangle.
+   * @return the number of points visited.
+   */
+  public int search(double left, double top, double right, double bottom,
+      Visitor visitor) {
+    if (ids.length == 0 || right < minX || bottom < minY
+        || left > minX + cellWidth * cols || top > minY + cellHeight * rows) {
+      return 0;
+    }
+    int count = 0;
+    int col0 = getCol(left);
+    int col1 = getCol(right);
+    int row1 = getRow(bottom);
+    for (int row = getRow(top); row <= row1; ++row) {
+      // Cells of a row are contiguous, so scan them as one range
+      int end = cellStarts[row * cols + col1 + 1];
+      for (int i = cellStarts[row * cols + col0]; i < end; ++i) {
+        double x = xs[i];
+        double y = ys[i];
+        if (x >= left && x <= right && y >= top && y <= bottom) {
+          visitor.visit(ids[i], x, y);
+          ++count;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the number of points in the index.
+   *
+   * @return the number of points.
+   */
+  public int size() {
+    return ids.length;
+  }
+
+  private int getCol(double x) {
+    return Math.max(0, Math.min(cols - 1, (int) Math.floor((x - minX)
+        / cellWidth)));
+  }
+
+  private int getRow(double y) {
+    return Math.max(0, Math.min(rows - 1, (int) Math.floor((y - minY)
+        / cellHeight)));
+  }
+}
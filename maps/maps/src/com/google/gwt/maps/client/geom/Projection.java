@@ -16,8 +16,8 @@
 package com.google.gwt.maps.client.geom;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.Exported;
 import com.google.gwt.maps.client.impl.ProjectionImpl;
-import com.google.gwt.maps.jsio.client.Exported;
 
 /**
  * This is the interface for map projections. A map projection instance is
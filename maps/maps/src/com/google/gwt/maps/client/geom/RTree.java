@@ -0,0 +1,515 @@
+/*
+ * Copyright 2010 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geom;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * An in-memory R-tree that indexes items by their latitude/longitude bounding
+ * box. The tree is implemented entirely in Java over primitive
+ * <code>double</code> arrays, so it can answer range and nearest neighbor
+ * queries without calling into the Maps API and runs on the JVM as well as in
+ * compiled JavaScript.
+ *
+ * Item boxes are assumed not to cross the 180th meridian. Query bounds may
+ * cross it, in which case they are specified with <code>west &gt; east</code>
+ * as returned by the Maps API.
+ *
+ * @param <T> the type of item stored in the tree
+ */
+public class RTree<T> {
+
+  /**
+   * A queued entry for the nearest neighbor search; either a node or an item.
+   */
+  private static class Candidate implements Comparable<Candidate> {
+    final double distance;
+    final Object entry;
+    final boolean isItem;
+
+    Candidate(double distance, Object entry, boolean isItem) {
+      this.distance = distance;
+      this.entry = entry;
+      this.isItem = isItem;
+    }
+
+    public int compareTo(Candidate other) {
+      return Double.compare(distance, other.distance);
+    }
+  }
+
+  /**
+   * A node of the tree. Child boxes are stored packed as
+   * <code>{south, west, north, east}</code> quadruples.
+   */
+  private static class Node {
+    final double[] boxes = new double[(MAX_ENTRIES + 1) * 4];
+    final Object[] children = new Object[MAX_ENTRIES + 1];
+    int count;
+    final boolean leaf;
+    Node parent;
+
+    Node(boolean leaf) {
+      this.leaf = leaf;
+    }
+
+    void add(Object child, double[] box, int offset) {
+      System.arraycopy(box, offset, boxes, count * 4, 4);
+      children[count] = child;
+      if (child instanceof Node) {
+        ((Node) child).parent = this;
+      }
+      ++count;
+    }
+
+    int indexOf(Object child) {
+      for (int i = 0; i < count; ++i) {
+        if (children[i].equals(child)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    void removeAt(int index) {
+      --count;
+      children[index] = children[count];
+      System.arraycopy(boxes, count * 4, boxes, index * 4, 4);
+      children[count] = null;
+    }
+
+    /**
+     * Computes the box enclosing all children into <code>out</code>.
+     */
+    void union(double[] out) {
+      out[0] = Double.POSITIVE_INFINITY;
+      out[1] = Double.POSITIVE_INFINITY;
+      out[2] = Double.NEGATIVE_INFINITY;
+      out[3] = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < count; ++i) {
+        int o = i * 4;
+        out[0] = Math.min(out[0], boxes[o]);
+        out[1] = Math.min(out[1], boxes[o + 1]);
+        out[2] = Math.max(out[2], boxes[o + 2]);
+        out[3] = Math.max(out[3], boxes[o + 3]);
+      }
+    }
+  }
+
+  private static final int MAX_ENTRIES = 16;
+
+  private static final int MIN_ENTRIES = 6;
+
+  private static double area(double[] b, int o) {
+    return (b[o + 2] - b[o]) * (b[o + 3] - b[o + 1]);
+  }
+
+  private static boolean contains(double[] outer, int o, double[] inner, int i) {
+    return outer[o] <= inner[i] && outer[o + 1] <= inner[i + 1]
+        && outer[o + 2] >= inner[i + 2] && outer[o + 3] >= inner[i + 3];
+  }
+
+  /**
+   * Returns the squared distance from a point to a box, scaling longitude by
+   * the cosine of the latitude so that distances are roughly isotropic.
+   */
+  private static double distanceSquared(double[] b, int o, double lat,
+      double lng, double lngScale) {
+    double dy = Math.max(0, Math.max(b[o] - lat, lat - b[o + 2]));
+    double dx = Math.max(0, Math.max(b[o + 1] - lng, lng - b[o + 3]))
+        * lngScale;
+    return dx * dx + dy * dy;
+  }
+
+  private static double enlargedArea(double[] b, int o, double[] box) {
+    return (Math.max(b[o + 2], box[2]) - Math.min(b[o], box[0]))
+        * (Math.max(b[o + 3], box[3]) - Math.min(b[o + 1], box[1]));
+  }
+
+  private static boolean intersects(double[] b, int o, double south,
+      double west, double north, double east) {
+    return b[o] <= north && b[o + 2] >= south && b[o + 1] <= east
+        && b[o + 3] >= west;
+  }
+
+  private final Map<T, double[]> itemBoxes = new HashMap<T, double[]>();
+  private Node root = new Node(true);
+  private final double[] scratch = new double[4];
+
+  /**
+   * Removes all items from the tree.
+   */
+  public void clear() {
+    itemBoxes.clear();
+    root = new Node(true);
+  }
+
+  /**
+   * Returns <code>true</code> if the item is in the tree.
+   *
+   * @param item the item to look for.
+   * @return <code>true</code> if the item is in the tree.
+   */
+  public boolean contains(T item) {
+    return itemBoxes.containsKey(item);
+  }
+
+  /**
+   * Returns the bounding box an item was inserted with as a
+   * <code>{south, west, north, east}</code> array, or <code>null</code> if
+   * the item is not in the tree. The returned array must not be modified.
+   *
+   * @param item the item to look up.
+   * @return the bounding box of the item.
+   */
+  public double[] getBounds(T item) {
+    return itemBoxes.get(item);
+  }
+
+  /**
+   * Inserts a point item. Inserting an item that is already in the tree moves
+   * it.
+   *
+   * @param item the item to insert.
+   * @param lat the latitude of the item in degrees.
+   * @param lng the longitude of the item in degrees.
+   */
+  public void insert(T item, double lat, double lng) {
+    insert(item, lat, lng, lat, lng);
+  }
+
+  /**
+   * Inserts an item with the given bounding box. Inserting an item that is
+   * already in the tree moves it.
+   *
+   * @param item the item to insert.
+   * @param south the southern edge of the item in degrees.
+   * @param west the western edge of the item in degrees.
+   * @param north the northern edge of the item in degrees.
+   * @param east the eastern edge of the item in degrees.
+   */
+  public void insert(T item, double south, double west, double north,
+      double east) {
+    remove(item);
+    double[] box = new double[] {
+        Math.min(south, north), Math.min(west, east), Math.max(south, north),
+        Math.max(west, east)};
+    itemBoxes.put(item, box);
+    insertEntry(item, box);
+  }
+
+  /**
+   * Returns up to <code>k</code> items closest to the given point, nearest
+   * first. The distance to an item is the distance to the nearest point of
+   * its bounding box.
+   *
+   * @param lat the latitude of the point in degrees.
+   * @param lng the longitude of the point in degrees.
+   * @param k the maximum number of items to return.
+   * @return the items closest to the point.
+   */
+  @SuppressWarnings("unchecked")
+  public List<T> nearest(double lat, double lng, int k) {
+    List<T> result = new ArrayList<T>();
+    if (k <= 0 || itemBoxes.isEmpty()) {
+      return result;
+    }
+    double lngScale = Math.cos(lat * Math.PI / 180);
+    PriorityQueue<Candidate> queue = new PriorityQueue<Candidate>();
+    queue.add(new Candidate(0, root, false));
+    while (!queue.isEmpty() && result.size() < k) {
+      Candidate candidate = queue.poll();
+      if (candidate.isItem) {
+        result.add((T) candidate.entry);
+        continue;
+      }
+      Node node = (Node) candidate.entry;
+      for (int i = 0; i < node.count; ++i) {
+        queue.add(new Candidate(distanceSquared(node.boxes, i * 4, lat, lng,
+            lngScale), node.children[i], node.leaf));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Removes an item from the tree.
+   *
+   * @param item the item to remove.
+   * @return <code>true</code> if the item was in the tree.
+   */
+  public boolean remove(T item) {
+    double[] box = itemBoxes.remove(item);
+    if (box == null) {
+      return false;
+    }
+    Node leaf = findLeaf(root, item, box);
+    assert leaf != null : "item box and tree are out of sync";
+    leaf.removeAt(leaf.indexOf(item));
+    condense(leaf);
+    return true;
+  }
+
+  /**
+   * Returns the items whose bounding box intersects the given bounds.
+   *
+   * @param south the southern edge of the bounds in degrees.
+   * @param west the western edge of the bounds in degrees.
+   * @param north the northern edge of the bounds in degrees.
+   * @param east the eastern edge of the bounds in degrees.
+   * @return the items that intersect the bounds.
+   */
+  public List<T> search(double south, double west, double north, double east) {
+    List<T> result = new ArrayList<T>();
+    if (west <= east) {
+      search(root, south, west, north, east, result);
+    } else {
+      // The bounds cross the 180th meridian; query both halves.
+      search(root, south, west, north, 180, result);
+      List<T> other = new ArrayList<T>();
+      search(root, south, -180, north, east, other);
+      Set<T> seen = new HashSet<T>(result);
+      for (T item : other) {
+        if (!seen.contains(item)) {
+          result.add(item);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of items in the tree.
+   *
+   * @return the number of items in the tree.
+   */
+  public int size() {
+    return itemBoxes.size();
+  }
+
+  /**
+   * Walks up from a node whose entries changed, dissolving underfull nodes
+   * and fixing parent boxes. Items below dissolved nodes are reinserted.
+   */
+  private void condense(Node node) {
+    List<Object> orphans = new ArrayList<Object>();
+    while (node != root) {
+      Node parent = node.parent;
+      int index = parent.indexOf(node);
+      if (node.count < MIN_ENTRIES) {
+        parent.removeAt(index);
+        collectItems(node, orphans);
+      } else {
+        node.union(scratch);
+        System.arraycopy(scratch, 0, parent.boxes, index * 4, 4);
+      }
+      node = parent;
+    }
+    if (!root.leaf && root.count == 1) {
+      root = (Node) root.children[0];
+      root.parent = null;
+    } else if (!root.leaf && root.count == 0) {
+      root = new Node(true);
+    }
+    for (Object orphan : orphans) {
+      insertEntry(orphan, itemBoxes.get(orphan));
+    }
+  }
+
+  private void collectItems(Node node, List<Object> out) {
+    for (int i = 0; i < node.count; ++i) {
+      if (node.leaf) {
+        out.add(node.children[i]);
+      } else {
+        collectItems((Node) node.children[i], out);
+      }
+    }
+  }
+
+  private Node findLeaf(Node node, Object item, double[] box) {
+    for (int i = 0; i < node.count; ++i) {
+      if (node.leaf) {
+        if (node.children[i].equals(item)) {
+          return node;
+        }
+      } else if (contains(node.boxes, i * 4, box, 0)) {
+        Node leaf = findLeaf((Node) node.children[i], item, box);
+        if (leaf != null) {
+          return leaf;
+        }
+      }
+    }
+    return null;
+  }
+
+  private void insertEntry(Object item, double[] box) {
+    // Descend to the leaf whose box needs the least enlargement.
+    Node node = root;
+    while (!node.leaf) {
+      int best = 0;
+      double bestGrowth = Double.POSITIVE_INFINITY;
+      double bestArea = Double.POSITIVE_INFINITY;
+      for (int i = 0; i < node.count; ++i) {
+        double area = area(node.boxes, i * 4);
+        double growth = enlargedArea(node.boxes, i * 4, box) - area;
+        if (growth < bestGrowth || (growth == bestGrowth && area < bestArea)) {
+          best = i;
+          bestGrowth = growth;
+          bestArea = area;
+        }
+      }
+      node = (Node) node.children[best];
+    }
+    node.add(item, box, 0);
+
+    // Split overflowing nodes and propagate box changes up to the root.
+    while (node != null) {
+      Node sibling = node.count > MAX_ENTRIES ? split(node) : null;
+      Node parent = node.parent;
+      if (parent == null) {
+        if (sibling != null) {
+          root = new Node(false);
+          node.union(scratch);
+          root.add(node, scratch, 0);
+          sibling.union(scratch);
+          root.add(sibling, scratch, 0);
+        }
+        break;
+      }
+      node.union(scratch);
+      System.arraycopy(scratch, 0, parent.boxes, parent.indexOf(node) * 4, 4);
+      if (sibling != null) {
+        sibling.union(scratch);
+        parent.add(sibling, scratch, 0);
+      }
+      node = parent;
+    }
+  }
+
+  private void search(Node node, double south, double west, double north,
+      double east, List<T> result) {
+    for (int i = 0; i < node.count; ++i) {
+      if (intersects(node.boxes, i * 4, south, west, north, east)) {
+        if (node.leaf) {
+          @SuppressWarnings("unchecked")
+          T item = (T) node.children[i];
+          result.add(item);
+        } else {
+          search((Node) node.children[i], south, west, north, east, result);
+        }
+      }
+    }
+  }
+
+  /**
+   * Splits an overflowing node in two using the linear-cost algorithm,
+   * leaving one half in <code>node</code> and returning the other half.
+   */
+  private Node split(Node node) {
+    int n = node.count;
+    double[] boxes = new double[n * 4];
+    Object[] children = new Object[n];
+    System.arraycopy(node.boxes, 0, boxes, 0, n * 4);
+    System.arraycopy(node.children, 0, children, 0, n);
+
+    // Pick the two entries that are farthest apart along either axis.
+    int seedA = 0;
+    int seedB = 1;
+    double bestSeparation = Double.NEGATIVE_INFINITY;
+    for (int axis = 0; axis < 2; ++axis) {
+      int highestLow = 0;
+      int lowestHigh = 0;
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < n; ++i) {
+        double low = boxes[i * 4 + axis];
+        double high = boxes[i * 4 + axis + 2];
+        if (low > boxes[highestLow * 4 + axis]) {
+          highestLow = i;
+        }
+        if (high < boxes[lowestHigh * 4 + axis + 2]) {
+          lowestHigh = i;
+        }
+        min = Math.min(min, low);
+        max = Math.max(max, high);
+      }
+      double width = Math.max(max - min, Double.MIN_VALUE);
+      double separation = (boxes[highestLow * 4 + axis] - boxes[lowestHigh * 4
+          + axis + 2])
+          / width;
+      if (highestLow != lowestHigh && separation > bestSeparation) {
+        bestSeparation = separation;
+        seedA = lowestHigh;
+        seedB = highestLow;
+      }
+    }
+
+    Node sibling = new Node(node.leaf);
+    sibling.parent = node.parent;
+    for (int i = 0; i < node.count; ++i) {
+      node.children[i] = null;
+    }
+    node.count = 0;
+    node.add(children[seedA], boxes, seedA * 4);
+    sibling.add(children[seedB], boxes, seedB * 4);
+
+    double[] boxA = new double[4];
+    double[] boxB = new double[4];
+    System.arraycopy(boxes, seedA * 4, boxA, 0, 4);
+    System.arraycopy(boxes, seedB * 4, boxB, 0, 4);
+    int remaining = n - 2;
+    for (int i = 0; i < n; ++i) {
+      if (i == seedA || i == seedB) {
+        continue;
+      }
+      Node target;
+      double[] targetBox;
+      if (node.count + remaining <= MIN_ENTRIES) {
+        target = node;
+        targetBox = boxA;
+      } else if (sibling.count + remaining <= MIN_ENTRIES) {
+        target = sibling;
+        targetBox = boxB;
+      } else {
+        double[] entry = new double[4];
+        System.arraycopy(boxes, i * 4, entry, 0, 4);
+        double growthA = enlargedArea(boxA, 0, entry) - area(boxA, 0);
+        double growthB = enlargedArea(boxB, 0, entry) - area(boxB, 0);
+        if (growthA < growthB
+            || (growthA == growthB && node.count <= sibling.count)) {
+          target = node;
+          targetBox = boxA;
+        } else {
+          target = sibling;
+          targetBox = boxB;
+        }
+      }
+      target.add(children[i], boxes, i * 4);
+      targetBox[0] = Math.min(targetBox[0], boxes[i * 4]);
+      targetBox[1] = Math.min(targetBox[1], boxes[i * 4 + 1]);
+      targetBox[2] = Math.max(targetBox[2], boxes[i * 4 + 2]);
+      targetBox[3] = Math.max(targetBox[3], boxes[i * 4 + 3]);
+      --remaining;
+    }
+    return sibling;
+  }
+}
@@ -17,10 +17,10 @@ package com.google.gwt.maps.client.impl;
 
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.Binding;
+import com.google.gwt.apis.jsio.client.Constructor;
+import com.google.gwt.apis.jsio.client.JSFlyweightWrapper;
 import com.google.gwt.maps.client.control.Control.CustomControl;
-import com.google.gwt.maps.jsio.client.Binding;
-import com.google.gwt.maps.jsio.client.Constructor;
-import com.google.gwt.maps.jsio.client.JSFlyweightWrapper;
 
 /**
  * Wraps the GControl and its subclasses in the Maps API using JSIO.
@@ -17,11 +17,11 @@ package com.google.gwt.maps.client.impl;
 
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.Constructor;
+import com.google.gwt.apis.jsio.client.JSFlyweightWrapper;
+import com.google.gwt.apis.jsio.client.JSList;
 import com.google.gwt.maps.client.Copyright;
 import com.google.gwt.maps.client.geom.LatLngBounds;
-import com.google.gwt.maps.jsio.client.Constructor;
-import com.google.gwt.maps.jsio.client.JSFlyweightWrapper;
-import com.google.gwt.maps.jsio.client.JSList;
 
 /**
  * Wraps the GCopyrightCollection using JSIO.
@@ -17,10 +17,10 @@ package com.google.gwt.maps.client.impl;
 
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.BeanProperties;
+import com.google.gwt.apis.jsio.client.Constructor;
+import com.google.gwt.apis.jsio.client.JSFlyweightWrapper;
 import com.google.gwt.maps.client.geom.LatLngBounds;
-import com.google.gwt.maps.jsio.client.BeanProperties;
-import com.google.gwt.maps.jsio.client.Constructor;
-import com.google.gwt.maps.jsio.client.JSFlyweightWrapper;
 
 /**
  * Wraps the GCopyright class in the Maps API using JSIO.
@@ -17,10 +17,10 @@ package com.google.gwt.maps.client.impl;
 
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
-import com.google.gwt.maps.jsio.client.BeanProperties;
-import com.google.gwt.maps.jsio.client.Constructor;
-import com.google.gwt.maps.jsio.client.FieldName;
-import com.google.gwt.maps.jsio.client.JSFlyweightWrapper;
+import com.google.gwt.apis.jsio.client.BeanProperties;
+import com.google.gwt.apis.jsio.client.Constructor;
+import com.google.gwt.apis.jsio.client.FieldName;
+import com.google.gwt.apis.jsio.client.JSFlyweightWrapper;
 
 /**
  * Wraps the GDirectionQueryOptions object in the Maps API using JSIO. It has no
@@ -18,6 +18,10 @@ package com.google.gwt.maps.client.impl;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.core.client.GWT.UncaughtExceptionHandler;
+import com.google.gwt.apis.jsio.client.Exported;
+import com.google.gwt.apis.jsio.client.Global;
+import com.google.gwt.apis.jsio.client.JSFunction;
+import com.google.gwt.apis.jsio.client.JSWrapper;
 import com.google.gwt.maps.client.Copyright;
 import com.google.gwt.maps.client.MapType;
 import com.google.gwt.maps.client.geom.Bounds;
@@ -27,10 +31,6 @@ import com.google.gwt.maps.client.geom.Point;
 import com.google.gwt.maps.client.overlay.Overlay;
 import com.google.gwt.maps.client.streetview.StreetviewData;
 import com.google.gwt.maps.client.streetview.StreetviewLocation;
-import com.google.gwt.maps.jsio.client.Exported;
-import com.google.gwt.maps.jsio.client.Global;
-import com.google.gwt.maps.jsio.client.JSFunction;
-import com.google.gwt.maps.jsio.client.JSWrapper;
 import com.google.gwt.user.client.Element;
 
 /**
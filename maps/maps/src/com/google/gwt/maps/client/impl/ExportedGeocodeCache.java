@@ -16,8 +16,8 @@
 package com.google.gwt.maps.client.impl;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.Exported;
 import com.google.gwt.maps.client.geocode.CustomGeocodeCache;
-import com.google.gwt.maps.jsio.client.Exported;
 
 /**
  * Helper class for AbstractGeocodeCache. This class defines methods that are
@@ -18,18 +18,18 @@ package com.google.gwt.maps.client.impl;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.core.client.JsArray;
+import com.google.gwt.apis.jsio.client.BeanProperties;
+import com.google.gwt.apis.jsio.client.Constructor;
+import com.google.gwt.apis.jsio.client.FieldName;
+import com.google.gwt.apis.jsio.client.JSFlyweightWrapper;
+import com.google.gwt.apis.jsio.client.JSFunction;
+import com.google.gwt.apis.jsio.client.JSWrapper;
 import com.google.gwt.maps.client.geocode.CustomGeocodeCache;
 import com.google.gwt.maps.client.geocode.GeocodeCache;
 import com.google.gwt.maps.client.geocode.Placemark;
 import com.google.gwt.maps.client.geom.LatLng;
 import com.google.gwt.maps.client.geom.LatLngBounds;
 import com.google.gwt.maps.client.impl.EventImpl.LatLngCallback;
-import com.google.gwt.maps.jsio.client.BeanProperties;
-import com.google.gwt.maps.jsio.client.Constructor;
-import com.google.gwt.maps.jsio.client.FieldName;
-import com.google.gwt.maps.jsio.client.JSFlyweightWrapper;
-import com.google.gwt.maps.jsio.client.JSFunction;
-import com.google.gwt.maps.jsio.client.JSWrapper;
 
 /**
  * Wraps the GGeocoderClient object from the Maps API using JSIO.
@@ -17,12 +17,12 @@ package com.google.gwt.maps.client.impl;
 
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.BeanProperties;
+import com.google.gwt.apis.jsio.client.Constructor;
+import com.google.gwt.apis.jsio.client.FieldName;
+import com.google.gwt.apis.jsio.client.JSFlyweightWrapper;
 import com.google.gwt.maps.client.MapType;
 import com.google.gwt.maps.client.impl.EventImpl.VoidCallback;
-import com.google.gwt.maps.jsio.client.BeanProperties;
-import com.google.gwt.maps.jsio.client.Constructor;
-import com.google.gwt.maps.jsio.client.FieldName;
-import com.google.gwt.maps.jsio.client.JSFlyweightWrapper;
 
 /**
  * Provides an interface to the GInfoWindowsOptions object from the Maps API
@@ -17,13 +17,14 @@ package com.google.gwt.maps.client.impl;
 
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.Constructor;
+import com.google.gwt.apis.jsio.client.FieldName;
+import com.google.gwt.apis.jsio.client.JSFlyweightWrapper;
+import com.google.gwt.apis.jsio.client.JSList;
+import com.google.gwt.apis.jsio.client.JSWrapper;
 import com.google.gwt.maps.client.TileLayer;
 import com.google.gwt.maps.client.InfoWindowContent.InfoWindowTab;
 import com.google.gwt.maps.client.overlay.Marker;
-import com.google.gwt.maps.jsio.client.Constructor;
-import com.google.gwt.maps.jsio.client.FieldName;
-import com.google.gwt.maps.jsio.client.JSFlyweightWrapper;
-import com.google.gwt.maps.jsio.client.JSList;
 
 import java.util.Arrays;
 
@@ -66,18 +67,116 @@ public final class JsUtil {
 
   private static final ListGenerator lists = GWT.create(ListGenerator.class);
 
+  /**
+   * Copies the numbers in a JavaScript array into a Java array. In compiled
+   * code the whole array is copied in one native call.
+   * 
+   * @param jsArray the JavaScript array to read.
+   * @param array receives the first <code>array.length</code> elements.
+   */
+  public static void toArray(JavaScriptObject jsArray, double[] array) {
+    if (GWT.isScript()) {
+      copyNumbers(jsArray, array);
+    } else {
+      for (int i = 0; i < array.length; i++) {
+        array[i] = getDouble(jsArray, i);
+      }
+    }
+  }
+
+  /**
+   * Copies the numbers in a JavaScript array into a Java array, truncating
+   * them to integers. In compiled code the whole array is copied in one native
+   * call.
+   * 
+   * @param jsArray the JavaScript array to read.
+   * @param array receives the first <code>array.length</code> elements.
+   */
+  public static void toArray(JavaScriptObject jsArray, int[] array) {
+    if (GWT.isScript()) {
+      copyInts(jsArray, array);
+    } else {
+      for (int i = 0; i < array.length; i++) {
+        array[i] = getInt(jsArray, i);
+      }
+    }
+  }
+
   public static void toArray(JSList<?> list, Object[] array) {
+    if (list.size() == array.length) {
+      // JSListWrapper copies the whole list without re-reading its length.
+      list.toArray(array);
+      return;
+    }
     for (int i = 0; i < array.length; i++) {
       array[i] = list.get(i);
     }
   }
 
   public static void toArray(JSList<Integer> list, int[] array) {
+    if (list instanceof JSWrapper) {
+      toArray(((JSWrapper<?>) list).getJavaScriptObject(), array);
+      return;
+    }
     for (int i = 0; i < array.length; i++) {
       array[i] = list.get(i).intValue();
     }
   }
 
+  /**
+   * Copies a Java array into a new JavaScript array. In compiled code the
+   * whole array is copied in one native call.
+   * 
+   * @param array the values to copy.
+   * @return a new JavaScript array holding the values.
+   */
+  public static JavaScriptObject toJsArray(double[] array) {
+    if (GWT.isScript()) {
+      return slice(array);
+    }
+    JavaScriptObject jsArray = JavaScriptObject.createArray();
+    for (int i = 0; i < array.length; i++) {
+      setDouble(jsArray, i, array[i]);
+    }
+    return jsArray;
+  }
+
+  /**
+   * Copies a Java array into a new JavaScript array. In compiled code the
+   * whole array is copied in one native call.
+   * 
+   * @param array the values to copy.
+   * @return a new JavaScript array holding the values.
+   */
+  public static JavaScriptObject toJsArray(int[] array) {
+    if (GWT.isScript()) {
+      return slice(array);
+    }
+    JavaScriptObject jsArray = JavaScriptObject.createArray();
+    for (int i = 0; i < array.length; i++) {
+      setDouble(jsArray, i, array[i]);
+    }
+    return jsArray;
+  }
+
+  /**
+   * Copies a Java array into a new JavaScript array. In compiled code the
+   * whole array is copied in one native call.
+   * 
+   * @param array the values to copy.
+   * @return a new JavaScript array holding the values.
+   */
+  public static JavaScriptObject toJsArray(String[] array) {
+    if (GWT.isScript()) {
+      return slice(array);
+    }
+    JavaScriptObject jsArray = JavaScriptObject.createArray();
+    for (int i = 0; i < array.length; i++) {
+      setString(jsArray, i, array[i]);
+    }
+    return jsArray;
+  }
+
   public static JSList<InfoWindowTab> toJsList(InfoWindowTab[] array) {
     JSList<InfoWindowTab> list = lists.asInfoWindowTabList(lists.newArray());
     list.addAll(Arrays.asList(array));
@@ -85,11 +184,7 @@ public final class JsUtil {
   }
 
   public static JSList<Integer> toJsList(int[] array) {
-    JSList<Integer> list = lists.asIntegerList(lists.newArray());
-    for (int i = 0; i < array.length; i++) {
-      list.add(new Integer(array[i]));
-    }
-    return list;
+    return lists.asIntegerList(toJsArray(array));
   }
 
   public static JSList<Marker> toJsList(Marker[] array) {
@@ -105,10 +200,55 @@ public final class JsUtil {
   }
 
   public static JSList<String> toJsList(String[] array) {
-    JSList<String> list = lists.asStringList(lists.newArray());
-    list.addAll(Arrays.asList(array));
-    return list;
+    return lists.asStringList(toJsArray(array));
   }
+
+  /**
+   * Only valid in compiled code, where Java arrays are JavaScript arrays.
+   */
+  private static native void copyInts(JavaScriptObject from, int[] to) /*-{
+    for (var i = 0, n = to.length; i < n; ++i) {
+      to[i] = from[i] | 0;
+    }
+  }-*/;
+
+  /**
+   * Only valid in compiled code, where Java arrays are JavaScript arrays.
+   */
+  private static native void copyNumbers(JavaScriptObject from,
+      double[] to) /*-{
+    for (var i = 0, n = to.length; i < n; ++i) {
+      to[i] = from[i];
+    }
+  }-*/;
+
+  private static native double getDouble(JavaScriptObject array, int index) /*-{
+    return array[index];
+  }-*/;
+
+  private static native int getInt(JavaScriptObject array, int index) /*-{
+    return array[index] | 0;
+  }-*/;
+
+  private static native void setDouble(JavaScriptObject array, int index,
+      double value) /*-{
+    array[index] = value;
+  }-*/;
+
+  private static native void setString(JavaScriptObject array, int index,
+      String value) /*-{
+    array[index] = value;
+  }-*/;
+
+  /**
+   * Returns a plain JavaScript copy of a Java array. Only valid in compiled
+   * code, where Java arrays are JavaScript arrays with extra properties that
+   * <code>slice</code> does not copy.
+   */
+  private static native JavaScriptObject slice(Object array) /*-{
+    return array.slice(0);
+  }-*/;
+
   // Utility class only.  Users may not instantiate this class.
   private JsUtil() {
   }
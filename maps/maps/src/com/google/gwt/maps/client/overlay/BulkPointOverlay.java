@@ -0,0 +1,661 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.maps.client.MapPane;
+import com.google.gwt.maps.client.MapPaneType;
+import com.google.gwt.maps.client.MapWidget;
+import com.google.gwt.maps.client.event.MapClickHandler;
+import com.google.gwt.maps.client.event.MapMoveHandler;
+import com.google.gwt.maps.client.geom.LatLng;
+import com.google.gwt.maps.client.geom.MercatorTransform;
+import com.google.gwt.maps.client.geom.Point;
+import com.google.gwt.maps.client.geom.PointIndex;
+import com.google.gwt.maps.client.geom.Size;
+import com.google.gwt.user.client.DOM;
+import com.google.gwt.user.client.ui.Widget;
+
+/**
+ * Draws a large set of points, as dots or as a heatmap, onto a single canvas
+ * element in one map pane. This replaces one DOM node per point with one per
+ * overlay, so hundreds of thousands of points can be shown where individual
+ * {@link Marker}s would be far too slow.
+ * 
+ * The points are passed as packed <code>{lat, lng}</code> pairs and indexed
+ * once by a {@link PointIndex}. The canvas covers the viewport plus a margin
+ * on every side. Panning within the margin costs nothing; panning beyond it
+ * shifts the existing pixels and draws only the newly exposed strips. The
+ * whole canvas is redrawn only when the zoom level, the map size or the pane
+ * origin changes.
+ * 
+ * Clicks are hit-tested against the index rather than through DOM events; see
+ * {@link #setPointClickHandler(PointClickHandler)} and
+ * {@link #getPointAt(double, double, int)}. Positions assume the Mercator
+ * projection and 256 pixel tiles of the predefined map types.
+ * 
+ * The overlay draws nothing in browsers without canvas support; see
+ * {@link #isSupported()}.
+ */
+public class BulkPointOverlay extends Overlay {
+
+  /**
+   * How the points are drawn.
+   */
+  public enum Mode {
+    /**
+     * Each point is drawn as a dot of the overlay color.
+     */
+    POINTS,
+
+    /**
+     * Overlapping points add up to a density that is mapped to a color ramp
+     * from blue to red.
+     */
+    HEATMAP
+  }
+
+  /**
+   * Receives clicks on points of the overlay.
+   */
+  public interface PointClickHandler {
+    /**
+     * Called when the map is clicked close to a point.
+     * 
+     * @param overlay the overlay the point belongs to.
+     * @param index the index of the point in the coordinates passed to the
+     *          overlay, counting pairs.
+     */
+    void onPointClick(BulkPointOverlay overlay, int index);
+  }
+
+  /**
+   * The canvas element wrapped so it can be added to a {@link MapPane}.
+   */
+  private static class CanvasWidget extends Widget {
+    CanvasWidget() {
+      setElement(DOM.createElement("canvas"));
+    }
+  }
+
+  /**
+   * Draws the points visited by an index query.
+   */
+  private class Painter implements PointIndex.Visitor {
+    JavaScriptObject context;
+    double left;
+    double offset;
+    JavaScriptObject sprite;
+    double top;
+    double worldSize;
+
+    public void visit(int index, double x, double y) {
+      drawSprite(context, sprite, x * worldSize + offset - left - spriteRadius,
+          y * worldSize - top - spriteRadius);
+      ++drawnCount;
+    }
+  }
+
+  /**
+   * The default color of dots.
+   */
+  public static final String DEFAULT_COLOR = "#d00";
+
+  /**
+   * The default distance in pixels within which a click hits a point.
+   */
+  public static final int DEFAULT_HIT_RADIUS = 4;
+
+  /**
+   * The default radius in pixels of a heatmap point.
+   */
+  public static final int DEFAULT_HEATMAP_RADIUS = 12;
+
+  /**
+   * The default radius in pixels of a dot.
+   */
+  public static final int DEFAULT_POINT_RADIUS = 2;
+
+  /**
+   * The fraction of the viewport size added as a margin on each side.
+   */
+  private static final double MARGIN = 0.5;
+
+  /**
+   * The opacity of a single heatmap point at its center.
+   */
+  private static final double HEAT_INTENSITY = 0.25;
+
+  private static native void beginRegion(JavaScriptObject context, int x,
+      int y, int width, int height) /*-{
+    context.save();
+    context.beginPath();
+    context.rect(x, y, width, height);
+    context.clip();
+    context.clearRect(x, y, width, height);
+  }-*/;
+
+  private static native void colorize(JavaScriptObject heat,
+      JavaScriptObject context, JavaScriptObject palette, int x, int y,
+      int width, int height) /*-{
+    var image = heat.getImageData(x, y, width, height);
+    var data = image.data;
+    for (var i = 3; i < data.length; i += 4) {
+      var p = data[i] * 4;
+      data[i - 3] = palette[p];
+      data[i - 2] = palette[p + 1];
+      data[i - 1] = palette[p + 2];
+      data[i] = palette[p + 3];
+    }
+    context.putImageData(image, x, y);
+  }-*/;
+
+  private static native JavaScriptObject createHeatSprite(int radius) /*-{
+    var sprite = $doc.createElement('canvas');
+    sprite.width = sprite.height = radius * 2;
+    var context = sprite.getContext('2d');
+    var gradient = context.createRadialGradient(radius, radius, 0, radius,
+        radius, radius);
+    gradient.addColorStop(0, 'rgba(0,0,0,'
+        + @com.google.gwt.maps.client.overlay.BulkPointOverlay::HEAT_INTENSITY
+        + ')');
+    gradient.addColorStop(1, 'rgba(0,0,0,0)');
+    context.fillStyle = gradient;
+    context.fillRect(0, 0, radius * 2, radius * 2);
+    return sprite;
+  }-*/;
+
+  /**
+   * Returns a ramp of 256 RGBA colors, indexed by heat density.
+   */
+  private static native JavaScriptObject createPalette() /*-{
+    var canvas = $doc.createElement('canvas');
+    canvas.width = 256;
+    canvas.height = 1;
+    var context = canvas.getContext('2d');
+    var gradient = context.createLinearGradient(0, 0, 256, 0);
+    gradient.addColorStop(0.2, 'blue');
+    gradient.addColorStop(0.4, 'cyan');
+    gradient.addColorStop(0.6, 'lime');
+    gradient.addColorStop(0.8, 'yellow');
+    gradient.addColorStop(1, 'red');
+    context.fillStyle = gradient;
+    context.fillRect(0, 0, 256, 1);
+    var data = context.getImageData(0, 0, 256, 1).data;
+    var palette = [];
+    for (var i = 0; i < 1024; ++i) {
+      palette.push(data[i]);
+    }
+    // Fade in the faintest densities
+    for (var a = 0; a < 256; ++a) {
+      palette[a * 4 + 3] = Math.min(255, a * 3);
+    }
+    return palette;
+  }-*/;
+
+  private static native JavaScriptObject createPointSprite(String color,
+      int radius) /*-{
+    var sprite = $doc.createElement('canvas');
+    sprite.width = sprite.height = radius * 2;
+    var context = sprite.getContext('2d');
+    context.fillStyle = color;
+    context.beginPath();
+    context.arc(radius, radius, radius, 0, Math.PI * 2, false);
+    context.fill();
+    return sprite;
+  }-*/;
+
+  private static native JavaScriptObject createScratchCanvas() /*-{
+    return $doc.createElement('canvas');
+  }-*/;
+
+  private static native void drawSprite(JavaScriptObject context,
+      JavaScriptObject sprite, double x, double y) /*-{
+    context.drawImage(sprite, Math.round(x), Math.round(y));
+  }-*/;
+
+  private static native void endRegion(JavaScriptObject context) /*-{
+    context.restore();
+  }-*/;
+
+  private static native JavaScriptObject getContext(
+      JavaScriptObject canvas) /*-{
+    return canvas.getContext('2d');
+  }-*/;
+
+  private static native void setCanvasSize(JavaScriptObject canvas,
+      int width, int height) /*-{
+    canvas.width = width;
+    canvas.height = height;
+  }-*/;
+
+  /**
+   * Moves the contents of a canvas by an offset, leaving the uncovered area
+   * transparent.
+   */
+  private static native void shift(JavaScriptObject context,
+      JavaScriptObject canvas, int dx, int dy) /*-{
+    context.save();
+    context.globalCompositeOperation = 'copy';
+    context.drawImage(canvas, dx, dy);
+    context.restore();
+  }-*/;
+
+  /**
+   * Returns whether the browser supports the canvas element this overlay
+   * draws into.
+   * 
+   * @return <code>true</code> if points can be drawn.
+   */
+  public static native boolean isSupported() /*-{
+    return !!$doc.createElement('canvas').getContext;
+  }-*/;
+
+  private int areaLeft;
+  private int areaTop;
+  private CanvasWidget canvas;
+  private MapClickHandler clickHandler;
+  private String color = DEFAULT_COLOR;
+  private JavaScriptObject context;
+  private int drawnCount;
+  private int fullRedrawCount;
+  private JavaScriptObject heatCanvas;
+  private JavaScriptObject heatContext;
+  private int height;
+  private int incrementalRedrawCount;
+  private final PointIndex index;
+  private double lastRedrawMillis;
+  private final double[] latLngs;
+  private MapWidget map;
+  private final Mode mode;
+  private MapMoveHandler moveHandler;
+  private double originX;
+  private double originY;
+  private final Painter painter = new Painter();
+  private JavaScriptObject palette;
+  private MapPane pane;
+  private MapPaneType paneType = MapPaneType.MARKER_SHADOW_PANE;
+  private PointClickHandler pointClickHandler;
+  private int radius;
+  private boolean rendered;
+  private JavaScriptObject sprite;
+  private int spriteRadius;
+  private int width;
+  private int zoomLevel;
+
+  /**
+   * Creates an overlay that draws each point as a dot.
+   * 
+   * @param latLngs the points as interleaved lat/lng pairs in degrees. The
+   *          array is not copied.
+   */
+  public BulkPointOverlay(double[] latLngs) {
+    this(latLngs, Mode.POINTS);
+  }
+
+  /**
+   * Creates an overlay.
+   * 
+   * @param latLngs the points as interleaved lat/lng pairs in degrees. The
+   *          array is not copied.
+   * @param mode how the points are drawn.
+   */
+  public BulkPointOverlay(double[] latLngs, Mode mode) {
+    this(latLngs, new PointIndex(latLngs), mode);
+  }
+
+  private BulkPointOverlay(double[] latLngs, PointIndex index, Mode mode) {
+    this.latLngs = latLngs;
+    this.index = index;
+    this.mode = mode;
+    radius = mode == Mode.HEATMAP ? DEFAULT_HEATMAP_RADIUS
+        : DEFAULT_POINT_RADIUS;
+  }
+
+  /**
+   * Returns the number of full redraws of the canvas.
+   * 
+   * @return the number of full redraws.
+   */
+  public int getFullRedrawCount() {
+    return fullRedrawCount;
+  }
+
+  /**
+   * Returns the number of redraws that only drew newly exposed strips.
+   * 
+   * @return the number of incremental redraws.
+   */
+  public int getIncrementalRedrawCount() {
+    return incrementalRedrawCount;
+  }
+
+  /**
+   * Returns the number of points drawn by the last redraw, including points
+   * drawn more than once because they touch several strips.
+   * 
+   * @return the number of points drawn.
+   */
+  public int getLastDrawnCount() {
+    return drawnCount;
+  }
+
+  /**
+   * Returns the time taken by the last redraw that drew anything.
+   * 
+   * @return the time in milliseconds.
+   */
+  public double getLastRedrawMillis() {
+    return lastRedrawMillis;
+  }
+
+  /**
+   * Returns the coordinates of the points.
+   * 
+   * @return interleaved lat/lng pairs; the array is not copied.
+   */
+  public double[] getLatLngs() {
+    return latLngs;
+  }
+
+  /**
+   * Returns the mode the points are drawn in.
+   * 
+   * @return the mode.
+   */
+  public Mode getMode() {
+    return mode;
+  }
+
+  /**
+   * Finds the point nearest to a location at the current zoom level.
+   * 
+   * @param lat the latitude of the location in degrees.
+   * @param lng the longitude of the location in degrees.
+   * @param radiusPixels the largest distance in pixels at which a point is
+   *          found.
+   * @return the index of the nearest point, counting pairs, or -1 if there is
+   *         none or the overlay is not on a map.
+   */
+  public int getPointAt(double lat, double lng, int radiusPixels) {
+    if (map == null) {
+      return -1;
+    }
+    return index.nearest(PointIndex.toX(lng), PointIndex.toY(lat),
+        radiusPixels / getWorldSize(map.getZoomLevel()));
+  }
+
+  /**
+   * Returns the number of points.
+   * 
+   * @return the number of points.
+   */
+  public int getPointCount() {
+    return index.size();
+  }
+
+  /**
+   * Redraws the whole canvas, for example after changing the color.
+   */
+  public void refresh() {
+    rendered = false;
+    update();
+  }
+
+  /**
+   * Resets the redraw counters.
+   */
+  public void resetStats() {
+    fullRedrawCount = 0;
+    incrementalRedrawCount = 0;
+  }
+
+  /**
+   * Sets the color of dots. Call {@link #refresh()} to apply it to an overlay
+   * that is already on a map.
+   * 
+   * @param color a CSS color.
+   */
+  public void setColor(String color) {
+    this.color = color;
+    sprite = null;
+  }
+
+  /**
+   * Sets the pane the canvas is added to. It must be set before the overlay
+   * is added to a map. The default is {@link MapPaneType#MARKER_SHADOW_PANE},
+   * below the markers.
+   * 
+   * @param paneType the pane to draw into.
+   */
+  public void setPane(MapPaneType paneType) {
+    this.paneType = paneType;
+  }
+
+  /**
+   * Sets the handler notified when the map is clicked within
+   * {@link #DEFAULT_HIT_RADIUS} pixels of a point.
+   * 
+   * @param handler the handler, or <code>null</code> to ignore clicks.
+   */
+  public void setPointClickHandler(PointClickHandler handler) {
+    pointClickHandler = handler;
+  }
+
+  /**
+   * Sets the radius of a point in pixels. Call {@link #refresh()} to apply it
+   * to an overlay that is already on a map.
+   * 
+   * @param radius the radius in pixels.
+   */
+  public void setRadius(int radius) {
+    this.radius = radius;
+    sprite = null;
+  }
+
+  @Override
+  protected Overlay copy() {
+    BulkPointOverlay copy = new BulkPointOverlay(latLngs, index, mode);
+    copy.color = color;
+    copy.paneType = paneType;
+    copy.pointClickHandler = pointClickHandler;
+    copy.radius = radius;
+    return copy;
+  }
+
+  @Override
+  protected void initialize(MapWidget map) {
+    this.map = map;
+    if (!isSupported()) {
+      return;
+    }
+    pane = map.getPane(paneType);
+    canvas = new CanvasWidget();
+    pane.add(canvas, 0, 0);
+    context = getContext(canvas.getElement());
+    if (mode == Mode.HEATMAP) {
+      heatCanvas = createScratchCanvas();
+      heatContext = getContext(heatCanvas);
+      palette = createPalette();
+    }
+    rendered = false;
+
+    moveHandler = new MapMoveHandler() {
+      public void onMove(MapMoveEvent event) {
+        update();
+      }
+    };
+    map.addMapMoveHandler(moveHandler);
+    clickHandler = new MapClickHandler() {
+      public void onClick(MapClickEvent event) {
+        LatLng latLng = event.getLatLng();
+        if (pointClickHandler == null || event.getOverlay() != null
+            || latLng == null) {
+          return;
+        }
+        int point = getPointAt(latLng.getLatitude(), latLng.getLongitude(),
+            DEFAULT_HIT_RADIUS);
+        if (point >= 0) {
+          pointClickHandler.onPointClick(BulkPointOverlay.this, point);
+        }
+      }
+    };
+    map.addMapClickHandler(clickHandler);
+  }
+
+  @Override
+  protected void redraw(boolean force) {
+    // The origin is checked on every update, so force needs no special case
+    update();
+  }
+
+  @Override
+  protected void remove() {
+    if (canvas != null) {
+      map.removeMapMoveHandler(moveHandler);
+      map.removeMapClickHandler(clickHandler);
+      canvas.removeFromParent();
+    }
+    canvas = null;
+    context = null;
+    heatCanvas = null;
+    heatContext = null;
+    map = null;
+    pane = null;
+  }
+
+  /**
+   * Draws the points that fall into a region of the canvas, replacing what
+   * was drawn there before.
+   */
+  private void drawRegion(int x, int y, int regionWidth, int regionHeight) {
+    if (regionWidth <= 0 || regionHeight <= 0) {
+      return;
+    }
+    JavaScriptObject target = mode == Mode.HEATMAP ? heatContext : context;
+    beginRegion(target, x, y, regionWidth, regionHeight);
+    double worldSize = getWorldSize(zoomLevel);
+    painter.context = target;
+    painter.sprite = sprite;
+    painter.worldSize = worldSize;
+    painter.left = originX + areaLeft;
+    painter.top = originY + areaTop;
+    // Include points just outside the region whose sprites reach into it
+    double left = (painter.left + x - spriteRadius) / worldSize;
+    double top = (painter.top + y - spriteRadius) / worldSize;
+    double right = (painter.left + x + regionWidth + spriteRadius) / worldSize;
+    double bottom = (painter.top + y + regionHeight + spriteRadius)
+        / worldSize;
+    // Draw the copies of the world to either side of the 180th meridian too
+    for (int copy = -1; copy <= 1; ++copy) {
+      if (left - copy <= 1 && right - copy >= 0) {
+        painter.offset = copy * worldSize;
+        index.search(left - copy, top, right - copy, bottom, painter);
+      }
+    }
+    endRegion(target);
+    if (mode == Mode.HEATMAP) {
+      colorize(heatContext, context, palette, x, y, regionWidth,
+          regionHeight);
+    }
+  }
+
+  private double getWorldSize(int zoom) {
+    return MercatorTransform.DEFAULT_TILE_SIZE * Math.pow(2, zoom);
+  }
+
+  /**
+   * Brings the canvas up to date with the current viewport, drawing as little
+   * as possible.
+   */
+  private void update() {
+    if (map == null || context == null) {
+      return;
+    }
+    int zoom = map.getZoomLevel();
+    double worldSize = getWorldSize(zoom);
+    LatLng center = map.getCenter();
+    Point centerPixel = map.convertLatLngToDivPixel(center);
+    Size size = map.getSize();
+    // The world pixel at the origin of the map panes
+    double x = PointIndex.toX(center.getLongitude()) * worldSize
+        - centerPixel.getX();
+    double y = PointIndex.toY(center.getLatitude()) * worldSize
+        - centerPixel.getY();
+    int viewLeft = centerPixel.getX() - size.getWidth() / 2;
+    int viewTop = centerPixel.getY() - size.getHeight() / 2;
+    int marginX = (int) (size.getWidth() * MARGIN);
+    int marginY = (int) (size.getHeight() * MARGIN);
+    int newWidth = size.getWidth() + marginX * 2;
+    int newHeight = size.getHeight() + marginY * 2;
+
+    boolean sameFrame = rendered && zoom == zoomLevel
+        && Math.abs(x - originX) < 0.5 && Math.abs(y - originY) < 0.5
+        && newWidth == width && newHeight == height;
+    if (sameFrame && viewLeft >= areaLeft && viewTop >= areaTop
+        && viewLeft + size.getWidth() <= areaLeft + width
+        && viewTop + size.getHeight() <= areaTop + height) {
+      // The viewport is still covered by the canvas
+      return;
+    }
+
+    double start = Duration.currentTimeMillis();
+    drawnCount = 0;
+    int newLeft = viewLeft - marginX;
+    int newTop = viewTop - marginY;
+    int dx = areaLeft - newLeft;
+    int dy = areaTop - newTop;
+    if (sprite == null) {
+      spriteRadius = Math.max(1, radius);
+      sprite = mode == Mode.HEATMAP ? createHeatSprite(spriteRadius)
+          : createPointSprite(color, spriteRadius);
+    }
+    zoomLevel = zoom;
+    originX = x;
+    originY = y;
+    areaLeft = newLeft;
+    areaTop = newTop;
+    pane.setWidgetPosition(canvas, newLeft, newTop);
+
+    if (!sameFrame || Math.abs(dx) >= width || Math.abs(dy) >= height) {
+      if (newWidth != width || newHeight != height) {
+        width = newWidth;
+        height = newHeight;
+        setCanvasSize(canvas.getElement(), width, height);
+        if (heatCanvas != null) {
+          setCanvasSize(heatCanvas, width, height);
+        }
+      }
+      drawRegion(0, 0, width, height);
+      rendered = true;
+      ++fullRedrawCount;
+    } else {
+      shift(context, canvas.getElement(), dx, dy);
+      if (heatContext != null) {
+        shift(heatContext, heatCanvas, dx, dy);
+      }
+      // The exposed vertical strip, then the rest of the horizontal one
+      int stripLeft = dx > 0 ? 0 : width + dx;
+      drawRegion(stripLeft, 0, Math.abs(dx), height);
+      int rowLeft = dx > 0 ? dx : 0;
+      int rowTop = dy > 0 ? 0 : height + dy;
+      drawRegion(rowLeft, rowTop, width - Math.abs(dx), Math.abs(dy));
+      ++incrementalRedrawCount;
+    }
+    lastRedrawMillis = Duration.currentTimeMillis() - start;
+  }
+}
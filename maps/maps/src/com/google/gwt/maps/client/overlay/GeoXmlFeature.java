@@ -0,0 +1,149 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.maps.client.geom.Geometry;
+
+/**
+ * A placemark read from a KML or GeoRSS document by {@link GeoXmlParser}. A
+ * feature is plain Java data; it does not create any Maps API objects, so
+ * features can be filtered or indexed before deciding which of them to draw.
+ */
+public class GeoXmlFeature {
+
+  /**
+   * The kind of geometry of a feature.
+   */
+  public static enum Type {
+    /**
+     * A single position, drawn as a {@link Marker}.
+     */
+    POINT,
+
+    /**
+     * An open path, drawn as a {@link Polyline}.
+     */
+    LINE,
+
+    /**
+     * The outer boundary of an area, drawn as a {@link Polygon}.
+     */
+    POLYGON
+  }
+
+  private double[] bounds;
+  private final String description;
+  private final double[] latLngs;
+  private final String name;
+  private final String styleUrl;
+  private final Type type;
+
+  GeoXmlFeature(Type type, String name, String description, String styleUrl,
+      double[] latLngs) {
+    this.type = type;
+    this.name = name;
+    this.description = description;
+    this.styleUrl = styleUrl;
+    this.latLngs = latLngs;
+  }
+
+  /**
+   * Returns the bounding box of the feature.
+   * 
+   * @return the bounds as a <code>{south, west, north, east}</code> array.
+   */
+  public double[] getBounds() {
+    if (bounds == null) {
+      bounds = Geometry.getBounds(latLngs);
+    }
+    return bounds;
+  }
+
+  /**
+   * Returns the description of the feature.
+   * 
+   * @return the description, or <code>null</code> if the document has none.
+   */
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * Returns the latitude of the first vertex of the feature, which is the
+   * position of a point.
+   * 
+   * @return the latitude in degrees.
+   */
+  public double getLatitude() {
+    return latLngs[0];
+  }
+
+  /**
+   * Returns the vertices of the feature. The array is not copied.
+   * 
+   * @return the vertices as interleaved lat/lng pairs.
+   */
+  public double[] getLatLngs() {
+    return latLngs;
+  }
+
+  /**
+   * Returns the longitude of the first vertex of the feature, which is the
+   * position of a point.
+   * 
+   * @return the longitude in degrees.
+   */
+  public double getLongitude() {
+    return latLngs[1];
+  }
+
+  /**
+   * Returns the name or title of the feature.
+   * 
+   * @return the name, or <code>null</code> if the document has none.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the KML style reference of the feature, such as
+   * <code>#blueLine</code>.
+   * 
+   * @return the style reference, or <code>null</code> if the feature has none.
+   */
+  public String getStyleUrl() {
+    return styleUrl;
+  }
+
+  /**
+   * Returns the kind of geometry of the feature.
+   * 
+   * @return the kind of geometry.
+   */
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * Returns the number of vertices of the feature.
+   * 
+   * @return the number of vertices.
+   */
+  public int getVertexCount() {
+    return latLngs.length / 2;
+  }
+}
@@ -0,0 +1,509 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.maps.client.overlay.GeoXmlFeature.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A pull parser that reads placemarks from KML and GeoRSS documents one at a
+ * time. The parser is implemented entirely in Java and does not depend on the
+ * browser's XML support, so it also runs on the JVM, and a caller can stop
+ * after any number of features and resume later to keep the UI responsive
+ * while a large document is read. See {@link GeoXmlStreamLoader}.
+ * 
+ * The following are recognized:
+ * <ul>
+ * <li>KML <code>Placemark</code> elements with a <code>Point</code>,
+ * <code>LineString</code>, <code>LinearRing</code> or <code>Polygon</code>
+ * geometry, or several of them in a <code>MultiGeometry</code>. Only the outer
+ * boundary of a polygon is read.</li>
+ * <li>RSS <code>item</code> and Atom <code>entry</code> elements with a
+ * GeoRSS Simple <code>point</code>, <code>line</code> or <code>polygon</code>,
+ * a GeoRSS GML geometry, or W3C <code>geo:lat</code> and
+ * <code>geo:long</code> elements.</li>
+ * </ul>
+ * A placemark with several geometries is returned as one feature per
+ * geometry. Placemarks without a geometry are ignored, and geometries with
+ * malformed coordinates are skipped and counted.
+ * 
+ * Namespace prefixes are ignored; elements are matched by their local name.
+ * DTDs are skipped and only the predefined and numeric character entities are
+ * decoded.
+ */
+public class GeoXmlParser {
+
+  /**
+   * A growable array of interleaved lat/lng pairs, reused for each geometry.
+   */
+  private static class CoordinateBuffer {
+    int size;
+    double[] values = new double[64];
+
+    void add(double lat, double lng) {
+      if (size + 2 > values.length) {
+        double[] grown = new double[values.length * 2];
+        System.arraycopy(values, 0, grown, 0, size);
+        values = grown;
+      }
+      values[size++] = lat;
+      values[size++] = lng;
+    }
+
+    double[] toArray() {
+      double[] array = new double[size];
+      System.arraycopy(values, 0, array, 0, size);
+      return array;
+    }
+  }
+
+  /**
+   * Reads all the features of a document.
+   * 
+   * @param text the KML or GeoRSS document.
+   * @return the features of the document, in document order.
+   */
+  public static List<GeoXmlFeature> parse(String text) {
+    GeoXmlParser parser = new GeoXmlParser(text);
+    List<GeoXmlFeature> features = new ArrayList<GeoXmlFeature>();
+    GeoXmlFeature feature;
+    while ((feature = parser.next()) != null) {
+      features.add(feature);
+    }
+    return features;
+  }
+
+  private static String decodeEntities(String text) {
+    int amp = text.indexOf('&');
+    if (amp < 0) {
+      return text;
+    }
+    StringBuilder decoded = new StringBuilder(text.length());
+    int start = 0;
+    while (amp >= 0) {
+      int semi = text.indexOf(';', amp);
+      if (semi < 0) {
+        break;
+      }
+      decoded.append(text, start, amp);
+      String entity = text.substring(amp + 1, semi);
+      if (entity.equals("lt")) {
+        decoded.append('<');
+      } else if (entity.equals("gt")) {
+        decoded.append('>');
+      } else if (entity.equals("amp")) {
+        decoded.append('&');
+      } else if (entity.equals("quot")) {
+        decoded.append('"');
+      } else if (entity.equals("apos")) {
+        decoded.append('\'');
+      } else if (entity.startsWith("#")) {
+        try {
+          int code = entity.startsWith("#x") || entity.startsWith("#X")
+              ? Integer.parseInt(entity.substring(2), 16)
+              : Integer.parseInt(entity.substring(1));
+          decoded.append((char) code);
+        } catch (NumberFormatException e) {
+          decoded.append(text, amp, semi + 1);
+        }
+      } else {
+        decoded.append(text, amp, semi + 1);
+      }
+      start = semi + 1;
+      amp = text.indexOf('&', start);
+    }
+    decoded.append(text, start, text.length());
+    return decoded.toString();
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+  }
+
+  private static String localName(String qualifiedName) {
+    return qualifiedName.substring(qualifiedName.indexOf(':') + 1);
+  }
+
+  private String capture;
+  private int captureDepth;
+  private final StringBuilder captured = new StringBuilder();
+  private final CoordinateBuffer coordinates = new CoordinateBuffer();
+  private int depth;
+  private String description;
+  private int featureDepth = -1;
+  private String geoLat;
+  private String geoLong;
+  private int geometryDepth = -1;
+  private final List<double[]> geometryLatLngs = new ArrayList<double[]>();
+  private Type geometryType;
+  private final List<Type> geometryTypes = new ArrayList<Type>();
+  private int innerDepth = -1;
+  private String name;
+  private final List<GeoXmlFeature> pending = new ArrayList<GeoXmlFeature>();
+  private int pendingIndex;
+  private int pos;
+  private int skippedCount;
+  private String styleUrl;
+  private final String text;
+
+  /**
+   * Creates a parser over a KML or GeoRSS document.
+   * 
+   * @param text the document.
+   */
+  public GeoXmlParser(String text) {
+    this.text = text;
+  }
+
+  /**
+   * Returns the fraction of the document read so far.
+   * 
+   * @return a number between 0 and 1.
+   */
+  public double getProgress() {
+    return text.length() == 0 ? 1 : (double) pos / text.length();
+  }
+
+  /**
+   * Returns the number of geometries skipped because their coordinates could
+   * not be read.
+   * 
+   * @return the number of geometries skipped.
+   */
+  public int getSkippedCount() {
+    return skippedCount;
+  }
+
+  /**
+   * Reads the next feature of the document.
+   * 
+   * @return the next feature, or <code>null</code> at the end of the document.
+   */
+  public GeoXmlFeature next() {
+    while (pendingIndex == pending.size()) {
+      pending.clear();
+      pendingIndex = 0;
+      if (!advance()) {
+        return null;
+      }
+    }
+    return pending.get(pendingIndex++);
+  }
+
+  private void addGeometry(Type type, double[] latLngs) {
+    if (type == null) {
+      return;
+    }
+    if (latLngs == null || latLngs.length == 0
+        || (type == Type.LINE && latLngs.length < 4)
+        || (type == Type.POLYGON && latLngs.length < 6)) {
+      ++skippedCount;
+      return;
+    }
+    if (type == Type.POINT && latLngs.length > 2) {
+      double[] point = {latLngs[0], latLngs[1]};
+      latLngs = point;
+    }
+    geometryTypes.add(type);
+    geometryLatLngs.add(latLngs);
+  }
+
+  /**
+   * Reads the next markup token of the document.
+   * 
+   * @return <code>false</code> at the end of the document.
+   */
+  private boolean advance() {
+    int length = text.length();
+    if (pos >= length) {
+      return false;
+    }
+    int lt = text.indexOf('<', pos);
+    if (lt < 0) {
+      pos = length;
+      return false;
+    }
+    if (capture != null && lt > pos) {
+      captured.append(decodeEntities(text.substring(pos, lt)));
+    }
+
+    if (text.startsWith("<!--", lt)) {
+      pos = skipPast("-->", lt + 4);
+    } else if (text.startsWith("<![CDATA[", lt)) {
+      int end = text.indexOf("]]>", lt + 9);
+      if (end < 0) {
+        end = length;
+      }
+      if (capture != null) {
+        captured.append(text, lt + 9, end);
+      }
+      pos = Math.min(end + 3, length);
+    } else if (text.startsWith("<?", lt)) {
+      pos = skipPast("?>", lt + 2);
+    } else if (text.startsWith("<!", lt)) {
+      pos = skipPast(">", lt + 2);
+    } else if (text.startsWith("</", lt)) {
+      pos = skipPast(">", lt + 2);
+      endElement(localName(text.substring(lt + 2, pos - 1).trim()));
+      --depth;
+    } else {
+      int gt = findTagEnd(lt + 1);
+      int nameEnd = lt + 1;
+      while (nameEnd < gt && !isWhitespace(text.charAt(nameEnd))
+          && text.charAt(nameEnd) != '/') {
+        ++nameEnd;
+      }
+      String local = localName(text.substring(lt + 1, nameEnd));
+      ++depth;
+      startElement(local);
+      if (gt > lt + 1 && text.charAt(gt - 1) == '/') {
+        endElement(local);
+        --depth;
+      }
+      pos = Math.min(gt + 1, length);
+    }
+    return true;
+  }
+
+  private void endElement(String local) {
+    if (capture != null && depth == captureDepth) {
+      String value = captured.toString();
+      captured.setLength(0);
+      String element = capture;
+      capture = null;
+      endCapture(element, value);
+    }
+    if (depth == geometryDepth) {
+      geometryType = null;
+      geometryDepth = -1;
+    }
+    if (depth == innerDepth) {
+      innerDepth = -1;
+    }
+    if (depth == featureDepth) {
+      endFeature();
+      featureDepth = -1;
+    }
+  }
+
+  private void endCapture(String element, String value) {
+    if (element.equals("name") || element.equals("title")) {
+      name = value.trim();
+    } else if (element.equals("description") || element.equals("summary")) {
+      description = value.trim();
+    } else if (element.equals("styleUrl")) {
+      styleUrl = value.trim();
+    } else if (element.equals("lat")) {
+      geoLat = value;
+    } else if (element.equals("long")) {
+      geoLong = value;
+    } else if (element.equals("coordinates")) {
+      addGeometry(geometryType, parseCoordinates(value, true));
+    } else if (element.equals("pos") || element.equals("posList")) {
+      addGeometry(geometryType, parseCoordinates(value, false));
+    } else if (element.equals("point")) {
+      addGeometry(Type.POINT, parseCoordinates(value, false));
+    } else if (element.equals("line")) {
+      addGeometry(Type.LINE, parseCoordinates(value, false));
+    } else if (element.equals("polygon")) {
+      addGeometry(Type.POLYGON, parseCoordinates(value, false));
+    }
+  }
+
+  private void endFeature() {
+    if (geometryTypes.isEmpty() && geoLat != null && geoLong != null) {
+      addGeometry(Type.POINT, parseCoordinates(geoLat + " " + geoLong, false));
+    }
+    for (int i = 0; i < geometryTypes.size(); ++i) {
+      pending.add(new GeoXmlFeature(geometryTypes.get(i), name, description,
+          styleUrl, geometryLatLngs.get(i)));
+    }
+    geometryTypes.clear();
+    geometryLatLngs.clear();
+    name = null;
+    description = null;
+    styleUrl = null;
+    geoLat = null;
+    geoLong = null;
+    geometryType = null;
+    geometryDepth = -1;
+    innerDepth = -1;
+  }
+
+  /**
+   * Finds the closing bracket of a start tag, skipping quoted attribute
+   * values.
+   */
+  private int findTagEnd(int from) {
+    int length = text.length();
+    char quote = 0;
+    for (int i = from; i < length; ++i) {
+      char c = text.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '"' || c == '\'') {
+        quote = c;
+      } else if (c == '>') {
+        return i;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Reads a list of coordinates. KML coordinates are
+   * <code>lng,lat[,alt]</code> tuples separated by whitespace; GeoRSS and GML
+   * coordinates are <code>lat lng</code> pairs.
+   * 
+   * @return the coordinates as interleaved lat/lng pairs, or
+   *         <code>null</code> if they are malformed.
+   */
+  private double[] parseCoordinates(String value, boolean kml) {
+    coordinates.size = 0;
+    int length = value.length();
+    int field = 0;
+    int count = 0;
+    double first = 0;
+    double second = 0;
+    boolean afterComma = false;
+    int i = 0;
+    try {
+      while (i < length) {
+        char c = value.charAt(i);
+        if (c == ',') {
+          ++field;
+          afterComma = true;
+          ++i;
+          continue;
+        }
+        if (isWhitespace(c)) {
+          ++i;
+          continue;
+        }
+        if (kml && !afterComma && count > 0) {
+          // Whitespace without a comma starts the next tuple.
+          if (field < 1) {
+            return null;
+          }
+          coordinates.add(second, first);
+          field = 0;
+          count = 0;
+        }
+        int start = i;
+        while (i < length && value.charAt(i) != ','
+            && !isWhitespace(value.charAt(i))) {
+          ++i;
+        }
+        double number = Double.parseDouble(value.substring(start, i));
+        afterComma = false;
+        if (!kml) {
+          if (count == 0) {
+            first = number;
+            count = 1;
+          } else {
+            coordinates.add(first, number);
+            count = 0;
+          }
+        } else {
+          if (field == 0) {
+            first = number;
+          } else if (field == 1) {
+            second = number;
+          }
+          ++count;
+        }
+      }
+    } catch (NumberFormatException e) {
+      return null;
+    }
+    if (kml && count > 0) {
+      if (field < 1) {
+        return null;
+      }
+      coordinates.add(second, first);
+    } else if (!kml && count != 0) {
+      return null;
+    }
+    return coordinates.toArray();
+  }
+
+  private int skipPast(String terminator, int from) {
+    int end = text.indexOf(terminator, from);
+    return end < 0 ? text.length() : end + terminator.length();
+  }
+
+  private void startElement(String local) {
+    if (featureDepth < 0) {
+      if (local.equals("Placemark") || local.equals("item")
+          || local.equals("entry")) {
+        featureDepth = depth;
+      }
+      return;
+    }
+    if (innerDepth >= 0) {
+      return;
+    }
+    if (local.equals("innerBoundaryIs") || local.equals("interior")) {
+      innerDepth = depth;
+      return;
+    }
+
+    if (local.equals("Point")) {
+      startGeometry(Type.POINT);
+    } else if (local.equals("LineString")) {
+      startGeometry(Type.LINE);
+    } else if (local.equals("Polygon")) {
+      startGeometry(Type.POLYGON);
+    } else if (local.equals("LinearRing") && geometryType == null) {
+      startGeometry(Type.LINE);
+    }
+
+    boolean child = depth == featureDepth + 1;
+    if ((local.equals("coordinates") || local.equals("pos")
+        || local.equals("posList")) && geometryType != null) {
+      startCapture(local);
+    } else if (local.equals("point") || local.equals("line")
+        || local.equals("polygon") || local.equals("lat")
+        || local.equals("long")) {
+      startCapture(local);
+    } else if (child && name == null
+        && (local.equals("name") || local.equals("title"))) {
+      startCapture(local);
+    } else if (child && description == null
+        && (local.equals("description") || local.equals("summary"))) {
+      startCapture(local);
+    } else if (child && local.equals("styleUrl")) {
+      startCapture(local);
+    }
+  }
+
+  private void startCapture(String local) {
+    if (capture == null) {
+      capture = local;
+      captureDepth = depth;
+      captured.setLength(0);
+    }
+  }
+
+  private void startGeometry(Type type) {
+    geometryType = type;
+    geometryDepth = depth;
+  }
+}
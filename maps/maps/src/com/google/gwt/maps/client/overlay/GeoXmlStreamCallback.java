@@ -0,0 +1,49 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+/**
+ * Callback used by {@link GeoXmlStreamLoader} to report the progress of a
+ * load.
+ */
+public abstract class GeoXmlStreamCallback {
+
+  /**
+   * Called after each chunk of features has been added to the map. The
+   * default implementation does nothing.
+   * 
+   * @param featureCount the number of features loaded so far.
+   * @param progress the fraction of the document read so far, between 0 and
+   *          1.
+   */
+  public void onChunk(int featureCount, double progress) {
+  }
+
+  /**
+   * Called once every feature of the document has been added.
+   * 
+   * @param featureCount the number of features loaded.
+   */
+  public abstract void onComplete(int featureCount);
+
+  /**
+   * The document could not be fetched.
+   * 
+   * @param url the URL that was requested.
+   * @param caught the cause of the failure.
+   */
+  public abstract void onFailure(String url, Throwable caught);
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.maps.client.MapWidget;
+import com.google.gwt.maps.client.event.MapMoveEndHandler;
+import com.google.gwt.maps.client.event.MapZoomEndHandler;
+import com.google.gwt.maps.client.geom.LatLng;
+import com.google.gwt.user.client.Command;
+import com.google.gwt.user.client.DeferredCommand;
+import com.google.gwt.user.client.IncrementalCommand;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Loads a KML or GeoRSS document onto a map in chunks, as an alternative to
+ * {@link GeoXmlOverlay} for documents too large to load at once.
+ * 
+ * The document is read with a {@link GeoXmlParser}, a limited number of
+ * features at a time; the loader yields to the browser between chunks so that
+ * the page stays responsive. Points become markers managed by a
+ * {@link MarkerManager}, which only adds the markers in view and clusters
+ * dense areas. Lines and polygons are kept in an {@link OverlayIndex}, and at
+ * most {@link #setMaxShapes(int) a maximum number} of the shapes in view are
+ * added to the map at any time. The drawn shapes follow the map as it moves.
+ * 
+ * Override {@link #createOverlay(GeoXmlFeature)} to style the overlays.
+ */
+public class GeoXmlStreamLoader {
+
+  /**
+   * The default number of features added per chunk.
+   */
+  public static final int DEFAULT_CHUNK_SIZE = 100;
+
+  /**
+   * The default maximum number of lines and polygons drawn at once.
+   */
+  public static final int DEFAULT_MAX_SHAPES = 100;
+
+  private int chunkSize = DEFAULT_CHUNK_SIZE;
+  private final PolylineEncoder encoder = new PolylineEncoder();
+  private int featureCount;
+  private int generation;
+  private final MapWidget map;
+  private final MarkerManager markerManager;
+  private final List<Marker> markers = new ArrayList<Marker>();
+  private int maxShapes = DEFAULT_MAX_SHAPES;
+  private final MapMoveEndHandler moveEndHandler = new MapMoveEndHandler() {
+    public void onMoveEnd(MapMoveEndEvent event) {
+      scheduleRefresh();
+    }
+  };
+  private boolean refreshPending;
+  private final OverlayIndex shapes = new OverlayIndex();
+  private Set<Overlay> visibleShapes = new HashSet<Overlay>();
+  private final MapZoomEndHandler zoomEndHandler = new MapZoomEndHandler() {
+    public void onZoomEnd(MapZoomEndEvent event) {
+      scheduleRefresh();
+    }
+  };
+
+  /**
+   * Creates a loader for a map, with its own marker manager.
+   * 
+   * @param map the map to load documents onto.
+   */
+  public GeoXmlStreamLoader(MapWidget map) {
+    this(map, new MarkerManager(map));
+  }
+
+  /**
+   * Creates a loader for a map that adds markers to an existing manager.
+   * 
+   * @param map the map to load documents onto.
+   * @param markerManager the manager to add markers to.
+   */
+  public GeoXmlStreamLoader(MapWidget map, MarkerManager markerManager) {
+    this.map = map;
+    this.markerManager = markerManager;
+
+    map.addMapMoveEndHandler(moveEndHandler);
+    map.addMapZoomEndHandler(zoomEndHandler);
+  }
+
+  /**
+   * Stops the loads in progress. Features already added stay on the map.
+   */
+  public void cancel() {
+    ++generation;
+  }
+
+  /**
+   * Stops the loads in progress and removes every loaded feature.
+   */
+  public void clear() {
+    cancel();
+    for (Marker marker : markers) {
+      markerManager.removeMarker(marker);
+    }
+    markers.clear();
+    map.removeOverlays(visibleShapes);
+    visibleShapes.clear();
+    shapes.clear();
+    featureCount = 0;
+  }
+
+  /**
+   * Stops using the loader. Stops the loads in progress, removes every loaded
+   * feature and stops following the map. The loader must not be used
+   * afterwards.
+   */
+  public void dispose() {
+    clear();
+    refreshPending = false;
+    map.removeMapMoveEndHandler(moveEndHandler);
+    map.removeMapZoomEndHandler(zoomEndHandler);
+  }
+
+  /**
+   * Returns the number of features added per chunk.
+   * 
+   * @return the number of features added per chunk.
+   */
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  /**
+   * Returns the number of features loaded.
+   * 
+   * @return the number of features loaded.
+   */
+  public int getFeatureCount() {
+    return featureCount;
+  }
+
+  /**
+   * Returns the manager that holds the loaded markers.
+   * 
+   * @return the marker manager.
+   */
+  public MarkerManager getMarkerManager() {
+    return markerManager;
+  }
+
+  /**
+   * Returns the maximum number of lines and polygons drawn at once.
+   * 
+   * @return the maximum number of shapes drawn at once.
+   */
+  public int getMaxShapes() {
+    return maxShapes;
+  }
+
+  /**
+   * Returns the number of lines and polygons currently added to the map.
+   * 
+   * @return the number of shapes on the map.
+   */
+  public int getVisibleShapeCount() {
+    return visibleShapes.size();
+  }
+
+  /**
+   * Fetches a document and loads it. The document must be served from the
+   * same origin as the page.
+   * 
+   * @param url the URL of the KML or GeoRSS document.
+   * @param cb the callback to report progress to.
+   */
+  public void load(final String url, final GeoXmlStreamCallback cb) {
+    if (url == null) {
+      throw new NullPointerException("url parameter must not be null");
+    }
+    if (cb == null) {
+      throw new NullPointerException("callback parameter must not be null");
+    }
+    RequestBuilder builder = new RequestBuilder(RequestBuilder.GET, url);
+    try {
+      builder.sendRequest(null, new RequestCallback() {
+        public void onError(Request request, Throwable exception) {
+          cb.onFailure(url, exception);
+        }
+
+        public void onResponseReceived(Request request, Response response) {
+          if (response.getStatusCode() == Response.SC_OK) {
+            loadText(response.getText(), cb);
+          } else {
+            cb.onFailure(url, new RequestException("HTTP "
+                + response.getStatusCode() + " " + response.getStatusText()));
+          }
+        }
+      });
+    } catch (RequestException e) {
+      cb.onFailure(url, e);
+    }
+  }
+
+  /**
+   * Loads a document already in memory. The first chunk is added
+   * after the current event has been handled.
+   * 
+   * @param text the KML or GeoRSS document.
+   * @param cb the callback to report progress to.
+   */
+  public void loadText(String text, final GeoXmlStreamCallback cb) {
+    final GeoXmlParser parser = new GeoXmlParser(text);
+    final int loadGeneration = generation;
+    DeferredCommand.addCommand(new IncrementalCommand() {
+      public boolean execute() {
+        if (loadGeneration != generation) {
+          return false;
+        }
+        int added = 0;
+        GeoXmlFeature feature;
+        while (added < chunkSize && (feature = parser.next()) != null) {
+          addFeature(feature);
+          ++added;
+        }
+        boolean done = added < chunkSize;
+        cb.onChunk(featureCount, parser.getProgress());
+        if (done) {
+          cb.onComplete(featureCount);
+        }
+        return !done;
+      }
+    });
+  }
+
+  /**
+   * Updates the lines and polygons on the map to match the current view. This
+   * is done automatically when the map moves and after each chunk; call it
+   * directly to apply changes immediately.
+   */
+  public void refresh() {
+    refreshPending = false;
+    List<Overlay> inView = shapes.getOverlays(map.getBounds());
+    Set<Overlay> nowVisible = new HashSet<Overlay>();
+    for (Overlay shape : inView) {
+      if (nowVisible.size() == maxShapes) {
+        break;
+      }
+      nowVisible.add(shape);
+    }
+
+    List<Overlay> removed = new ArrayList<Overlay>();
+    for (Overlay shape : visibleShapes) {
+      if (!nowVisible.contains(shape)) {
+        removed.add(shape);
+      }
+    }
+    List<Overlay> added = new ArrayList<Overlay>();
+    for (Overlay shape : nowVisible) {
+      if (!visibleShapes.contains(shape)) {
+        added.add(shape);
+      }
+    }
+    map.removeOverlays(removed);
+    map.addOverlays(added);
+    visibleShapes = nowVisible;
+  }
+
+  /**
+   * Sets the number of features added per chunk. Smaller chunks keep the page
+   * more responsive; larger chunks finish sooner.
+   * 
+   * @param features the number of features added per chunk.
+   */
+  public void setChunkSize(int features) {
+    chunkSize = Math.max(1, features);
+  }
+
+  /**
+   * Sets the maximum number of lines and polygons drawn at once.
+   * 
+   * @param shapes the maximum number of shapes drawn at once.
+   */
+  public void setMaxShapes(int shapes) {
+    maxShapes = Math.max(0, shapes);
+    scheduleRefresh();
+  }
+
+  /**
+   * Creates the overlay that draws a feature. The default implementation
+   * creates a marker titled with the name of a point, and simplified encoded
+   * polylines and polygons for lines and areas. Override this method to style
+   * the overlays; return <code>null</code> to skip a feature.
+   * 
+   * @param feature the feature to draw.
+   * @return a {@link Marker}, {@link Polyline} or {@link Polygon}, or
+   *         <code>null</code>.
+   */
+  protected Overlay createOverlay(GeoXmlFeature feature) {
+    double[] latLngs = feature.getLatLngs();
+    switch (feature.getType()) {
+      case POINT:
+        MarkerOptions options = MarkerOptions.newInstance();
+        if (feature.getName() != null) {
+          options.setTitle(feature.getName());
+        }
+        return new Marker(LatLng.newInstance(latLngs[0], latLngs[1]),
+            options);
+      case LINE:
+        return Polyline.fromEncoded(encoder.encodePolyline(latLngs));
+      case POLYGON:
+        return Polygon.fromEncoded(new EncodedPolyline[] {
+            encoder.encodePolyline(latLngs)}, true, "#0055ff", 0.25, true);
+      default:
+        return null;
+    }
+  }
+
+  private void addFeature(GeoXmlFeature feature) {
+    Overlay overlay = createOverlay(feature);
+    if (overlay instanceof Marker) {
+      Marker marker = (Marker) overlay;
+      markerManager.addMarker(marker, feature.getLatitude(),
+          feature.getLongitude());
+      markers.add(marker);
+    } else if (overlay instanceof Polygon) {
+      shapes.add((Polygon) overlay, feature.getLatLngs());
+      scheduleRefresh();
+    } else if (overlay instanceof Polyline) {
+      double[] bounds = feature.getBounds();
+      shapes.add((Polyline) overlay, bounds[0], bounds[1], bounds[2],
+          bounds[3]);
+      scheduleRefresh();
+    } else {
+      return;
+    }
+    ++featureCount;
+  }
+
+  private void scheduleRefresh() {
+    if (!refreshPending) {
+      refreshPending = true;
+      DeferredCommand.addCommand(new Command() {
+        public void execute() {
+          if (refreshPending) {
+            refresh();
+          }
+        }
+      });
+    }
+  }
+}
@@ -223,6 +223,34 @@ public class Icon extends JavaScriptObject {
     return this.shadow;
   }-*/;
 
+  /**
+   * Returns the URL of the sprite sheet the foreground image is cut from.
+   * 
+   * @return the URL of the sprite sheet, or <code>null</code> if the icon does
+   *         not use a sprite.
+   */
+  public final native String getSpriteImageURL() /*-{
+    return this.sprite ? this.sprite.image : null;
+  }-*/;
+
+  /**
+   * Returns the horizontal offset of the foreground image in the sprite sheet.
+   * 
+   * @return the offset in pixels from the left edge of the sprite sheet.
+   */
+  public final native int getSpriteLeft() /*-{
+    return this.sprite ? this.sprite.left : 0;
+  }-*/;
+
+  /**
+   * Returns the vertical offset of the foreground image in the sprite sheet.
+   * 
+   * @return the offset in pixels from the top edge of the sprite sheet.
+   */
+  public final native int getSpriteTop() /*-{
+    return this.sprite ? this.sprite.top : 0;
+  }-*/;
+
   /**
    * Returns the URL of a virtually transparent version of the foreground icon
    * image used to capture click events in Internet Explorer. This image should
@@ -390,6 +418,21 @@ public class Icon extends JavaScriptObject {
     this.shadow = url;
   }-*/;
 
+  /**
+   * Cuts the foreground image out of a sprite sheet. The Maps API draws the
+   * region of the sheet at the given offset with the size given by
+   * {@link Icon#setIconSize(Size)}, so many icons can share a single image
+   * download. The foreground image URL is set to the sprite sheet as well.
+   * 
+   * @param url the URL of the sprite sheet.
+   * @param left the offset in pixels from the left edge of the sprite sheet.
+   * @param top the offset in pixels from the top edge of the sprite sheet.
+   */
+  public final native void setSprite(String url, int left, int top) /*-{
+    this.image = url;
+    this.sprite = {image: url, left: left, top: top};
+  }-*/;
+
   /**
    * The URL of a virtually transparent version of the foreground icon image
    * used to capture click events in Internet Explorer. This image should be a
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Target;
+
+/**
+ * A set of marker icons packed into a single sprite sheet at compile time.
+ * Extend this interface with one method per icon, each returning an
+ * {@link Icon}, and create it with <code>GWT.create()</code>:
+ * 
+ * <pre>
+ * interface StopIcons extends IconAtlas {
+ *   &#64;Image(&quot;bus.png&quot;)
+ *   Icon bus();
+ * 
+ *   &#64;Image(value = &quot;train.png&quot;, anchorX = 4, anchorY = 30)
+ *   Icon train();
+ * }
+ * </pre>
+ * 
+ * The images are read from the classpath relative to the package of the
+ * interface and packed into one PNG that is emitted with the compiled module
+ * under a strong name, so it can be cached forever. Each method returns the
+ * same {@link Icon} instance every time it is called, so thousands of markers
+ * that share a style share one icon object and one image download.
+ */
+public interface IconAtlas {
+
+  /**
+   * Names the image for an icon. Without this annotation the image is the
+   * method name followed by <code>.png</code>, anchored at the middle of its
+   * bottom edge.
+   */
+  @Target(ElementType.METHOD)
+  public @interface Image {
+    /**
+     * The horizontal position of the anchor in pixels from the left edge of
+     * the image, or -1 for the middle of the image.
+     */
+    int anchorX() default -1;
+
+    /**
+     * The vertical position of the anchor in pixels from the top edge of the
+     * image, or -1 for the bottom edge.
+     */
+    int anchorY() default -1;
+
+    /**
+     * The path to the image relative to the package of the atlas.
+     */
+    String value();
+  }
+
+  /**
+   * Returns the URL of the sprite sheet shared by all icons in this atlas.
+   * 
+   * @return the URL of the sprite sheet.
+   */
+  String getAtlasURL();
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.maps.client.geom.Point;
+import com.google.gwt.maps.client.geom.Size;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interns {@link Icon} instances by style so that markers drawn with the same
+ * image, size and anchor share one icon object rather than each building its
+ * own. Pass the returned icon to {@link MarkerOptions#setIcon(Icon)} for every
+ * marker of that style. Icons may also be registered under a name, for
+ * example the icons of an {@link IconAtlas}.
+ * 
+ * Interned icons are shared; don't modify them after they are returned.
+ */
+public class IconRegistry {
+
+  private static String createKey(String imageUrl, int width, int height,
+      int anchorX, int anchorY) {
+    return imageUrl + '|' + width + '|' + height + '|' + anchorX + '|'
+        + anchorY;
+  }
+
+  private int hitCount;
+  private final Map<String, Icon> icons = new HashMap<String, Icon>();
+  private int missCount;
+  private final Map<String, Icon> named = new HashMap<String, Icon>();
+
+  /**
+   * Removes all interned and named icons.
+   */
+  public void clear() {
+    icons.clear();
+    named.clear();
+  }
+
+  /**
+   * Returns the number of lookups answered with an existing icon.
+   * 
+   * @return the number of hits.
+   */
+  public int getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Returns the fraction of lookups answered with an existing icon.
+   * 
+   * @return the hit rate between 0 and 1, or 0 if there were no lookups.
+   */
+  public double getHitRate() {
+    int total = hitCount + missCount;
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  /**
+   * Returns the icon registered under a name.
+   * 
+   * @param name the name passed to {@link #register(String, Icon)}.
+   * @return the icon, or <code>null</code> if none is registered.
+   */
+  public Icon getIcon(String name) {
+    Icon icon = named.get(name);
+    if (icon == null) {
+      ++missCount;
+    } else {
+      ++hitCount;
+    }
+    return icon;
+  }
+
+  /**
+   * Returns the shared icon for an image of a given size and anchor, creating
+   * it on first use. The info window is anchored above the icon anchor at the
+   * top edge of the image.
+   * 
+   * @param imageUrl the URL of the foreground image.
+   * @param width the width of the image in pixels.
+   * @param height the height of the image in pixels.
+   * @param anchorX the horizontal position of the anchor in pixels from the
+   *          left edge of the image.
+   * @param anchorY the vertical position of the anchor in pixels from the top
+   *          edge of the image.
+   * @return the shared icon.
+   */
+  public Icon getIcon(String imageUrl, int width, int height, int anchorX,
+      int anchorY) {
+    String key = createKey(imageUrl, width, height, anchorX, anchorY);
+    Icon icon = icons.get(key);
+    if (icon != null) {
+      ++hitCount;
+      return icon;
+    }
+    ++missCount;
+    icon = Icon.newInstance(imageUrl);
+    icon.setIconSize(Size.newInstance(width, height));
+    icon.setIconAnchor(Point.newInstance(anchorX, anchorY));
+    icon.setInfoWindowAnchor(Point.newInstance(anchorX, 0));
+    icons.put(key, icon);
+    return icon;
+  }
+
+  /**
+   * Returns the number of lookups that found no existing icon.
+   * 
+   * @return the number of misses.
+   */
+  public int getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Registers an icon under a name, replacing any icon registered before.
+   * 
+   * @param name the name of the icon.
+   * @param icon the icon.
+   */
+  public void register(String name, Icon icon) {
+    named.put(name, icon);
+  }
+
+  /**
+   * Resets the hit and miss counts to zero.
+   */
+  public void resetStats() {
+    hitCount = 0;
+    missCount = 0;
+  }
+
+  /**
+   * Returns the number of distinct icons held, interned and named.
+   * 
+   * @return the number of icons.
+   */
+  public int size() {
+    return icons.size() + named.size();
+  }
+}
@@ -16,6 +16,7 @@
 package com.google.gwt.maps.client.overlay;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.impl.Extractor;
 import com.google.gwt.maps.client.InfoWindowContent;
 import com.google.gwt.maps.client.event.MarkerClickHandler;
 import com.google.gwt.maps.client.event.MarkerDoubleClickHandler;
@@ -52,7 +53,6 @@ import com.google.gwt.maps.client.impl.MarkerImpl;
 import com.google.gwt.maps.client.impl.EventImpl.BooleanCallback;
 import com.google.gwt.maps.client.impl.EventImpl.VoidCallback;
 import com.google.gwt.maps.client.overlay.Overlay.ConcreteOverlay;
-import com.google.gwt.maps.jsio.client.impl.Extractor;
 
 /**
  * Marks a position on the map. It extends the ConcreteOverlay class and thus is
@@ -91,6 +91,7 @@ public class Marker extends ConcreteOverlay {
   private HandlerCollection<MarkerClickHandler> markerClickHandlers;
   private HandlerCollection<MarkerDoubleClickHandler> markerDoubleClickHandlers;
   private HandlerCollection<MarkerDragEndHandler> markerDragEndHandlers;
+  private int dragEventInterval = HandlerCollection.DISPATCH_IMMEDIATE;
   private HandlerCollection<MarkerDragHandler> markerDragHandlers;
   private HandlerCollection<MarkerDragStartHandler> markerDragStartHandlers;
   private HandlerCollection<MarkerInfoWindowBeforeCloseHandler> markerInfoWindowBeforeCloseHandlers;
@@ -412,6 +413,29 @@ public class Marker extends ConcreteOverlay {
     MarkerImpl.impl.closeInfoWindow(this);
   }
 
+  /**
+   * Returns the number of coalesced drag events delivered to handlers. See
+   * {@link #setDragEventInterval(int)}.
+   * 
+   * @return the number of coalesced drag events delivered.
+   */
+  public int getDragEventsDelivered() {
+    return markerDragHandlers == null ? 0
+        : markerDragHandlers.getDeliveredCount();
+  }
+
+  /**
+   * Returns the number of drag events that were replaced by a later event
+   * before they were delivered to handlers. See
+   * {@link #setDragEventInterval(int)}.
+   * 
+   * @return the number of coalesced drag events dropped.
+   */
+  public int getDragEventsDropped() {
+    return markerDragHandlers == null ? 0
+        : markerDragHandlers.getDroppedCount();
+  }
+
   /**
    * @return the current icon used for this Marker.
    */
@@ -657,6 +681,23 @@ public class Marker extends ConcreteOverlay {
     }
   }
 
+  /**
+   * Sets how {@link MarkerDragHandler} events are delivered. By default
+   * ({@link com.google.gwt.maps.client.MapWidget#DISPATCH_IMMEDIATE}, -1)
+   * every event is delivered as it fires. Otherwise the events are coalesced
+   * so that each handler is called at most once per animation frame
+   * ({@link com.google.gwt.maps.client.MapWidget#DISPATCH_PER_FRAME}, 0) or
+   * once per the given number of milliseconds.
+   * 
+   * @param intervalMillis the coalescing interval in milliseconds, or one of
+   *          the <code>MapWidget.DISPATCH_*</code> constants.
+   */
+  public void setDragEventInterval(int intervalMillis) {
+    dragEventInterval = intervalMillis;
+    maybeInitMarkerDragHandlers();
+    markerDragHandlers.setCoalesceInterval(intervalMillis);
+  }
+
   /**
    * Allow this marker to be dragged. Note: in order for dragging to work, the
    * Marker must be created using the
@@ -941,6 +982,7 @@ public class Marker extends ConcreteOverlay {
     if (markerDragHandlers == null) {
       markerDragHandlers = new HandlerCollection<MarkerDragHandler>(jsoPeer,
           MapEvent.DRAG);
+      markerDragHandlers.setCoalesceInterval(dragEventInterval);
     }
   }
 
@@ -0,0 +1,436 @@
+/*
+ * Copyright 2010 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A spatial grid that buckets items by the map tile cell they fall into at
+ * each zoom level. The grid is implemented entirely in Java and never calls
+ * into the Maps API, so it can be used to decide which items are visible
+ * without creating or querying any JavaScript objects.
+ *
+ * Cells are computed with the spherical Mercator projection used by the Maps
+ * API and are addressed by their integer (x, y) index at a given zoom level,
+ * the same way the API addresses tiles. The buckets for a zoom level are
+ * built the first time that level is queried and are kept up to date as items
+ * are added and removed afterwards.
+ *
+ * @param <T> the type of item stored in the grid
+ */
+public class MarkerGrid<T> {
+
+  /**
+   * A single cell of the grid at a given zoom level.
+   *
+   * @param <T> the type of item stored in the grid
+   */
+  public static class Cell<T> {
+    private final List<T> items = new ArrayList<T>();
+    private final String key;
+    private double sumLat;
+    private double sumLng;
+    private final int x;
+    private final int y;
+
+    private Cell(String key, int x, int y) {
+      this.key = key;
+      this.x = x;
+      this.y = y;
+    }
+
+    /**
+     * Returns the latitude of the centroid of the items in this cell.
+     *
+     * @return the latitude of the centroid of the items in this cell.
+     */
+    public double getCenterLatitude() {
+      return items.isEmpty() ? 0 : sumLat / items.size();
+    }
+
+    /**
+     * Returns the longitude of the centroid of the items in this cell.
+     *
+     * @return the longitude of the centroid of the items in this cell.
+     */
+    public double getCenterLongitude() {
+      return items.isEmpty() ? 0 : sumLng / items.size();
+    }
+
+    /**
+     * Returns the number of items in this cell.
+     *
+     * @return the number of items in this cell.
+     */
+    public int getCount() {
+      return items.size();
+    }
+
+    /**
+     * Returns the items in this cell. The returned list must not be modified.
+     *
+     * @return the items in this cell.
+     */
+    public List<T> getItems() {
+      return items;
+    }
+
+    /**
+     * Returns a key that uniquely identifies this cell within its zoom level.
+     *
+     * @return a key that uniquely identifies this cell within its zoom level.
+     */
+    public String getKey() {
+      return key;
+    }
+
+    /**
+     * Returns the horizontal index of this cell.
+     *
+     * @return the horizontal index of this cell.
+     */
+    public int getX() {
+      return x;
+    }
+
+    /**
+     * Returns the vertical index of this cell.
+     *
+     * @return the vertical index of this cell.
+     */
+    public int getY() {
+      return y;
+    }
+
+    /**
+     * Appends an item and returns its index within the cell.
+     */
+    private int add(T item, double lat, double lng) {
+      items.add(item);
+      sumLat += lat;
+      sumLng += lng;
+      return items.size() - 1;
+    }
+
+    /**
+     * Removes the item at {@code index} by moving the last item into its
+     * place, so that removal takes constant time.
+     *
+     * @return the item moved into {@code index}, or <code>null</code> if the
+     *         removed item was the last one.
+     */
+    private T remove(int index, double lat, double lng) {
+      sumLat -= lat;
+      sumLng -= lng;
+      T last = items.remove(items.size() - 1);
+      if (index == items.size()) {
+        return null;
+      }
+      items.set(index, last);
+      return last;
+    }
+  }
+
+  /**
+   * Position of an item, recorded once when it is added, and the index of the
+   * item within its cell at each zoom level that has been built.
+   */
+  private static class Position {
+    final int[] indexes = new int[MAX_ZOOM + 1];
+    final double lat;
+    final double lng;
+
+    Position(double lat, double lng) {
+      this.lat = lat;
+      this.lng = lng;
+    }
+  }
+
+  /**
+   * The largest zoom level the grid will bucket items for.
+   */
+  public static final int MAX_ZOOM = 21;
+
+  /**
+   * The latitude at which the Mercator projection reaches the edge of the
+   * world square.
+   */
+  private static final double MAX_LATITUDE = 85.0511287798;
+
+  private static final int TILE_SIZE = 256;
+
+  private static String cellKey(int x, int y) {
+    return x + ":" + y;
+  }
+
+  private final int cellSize;
+  private final List<Map<String, Cell<T>>> levels = new ArrayList<Map<String, Cell<T>>>();
+  private final Map<T, Position> positions = new HashMap<T, Position>();
+
+  /**
+   * Creates an empty grid whose cells are 256 pixels square, the size of a
+   * map tile.
+   */
+  public MarkerGrid() {
+    this(TILE_SIZE);
+  }
+
+  /**
+   * Creates an empty grid.
+   *
+   * @param cellSize the width and height of a cell in pixels.
+   */
+  public MarkerGrid(int cellSize) {
+    if (cellSize <= 0) {
+      throw new IllegalArgumentException("cellSize must be positive");
+    }
+    this.cellSize = cellSize;
+    for (int i = 0; i <= MAX_ZOOM; ++i) {
+      levels.add(null);
+    }
+  }
+
+  /**
+   * Adds an item to the grid. Adding an item that is already in the grid moves
+   * it to the new position.
+   *
+   * @param item the item to add.
+   * @param lat the latitude of the item in degrees.
+   * @param lng the longitude of the item in degrees.
+   */
+  public void add(T item, double lat, double lng) {
+    remove(item);
+    Position pos = new Position(lat, lng);
+    positions.put(item, pos);
+    for (int zoom = 0; zoom <= MAX_ZOOM; ++zoom) {
+      Map<String, Cell<T>> cells = levels.get(zoom);
+      if (cells != null) {
+        addToLevel(cells, zoom, item, pos);
+      }
+    }
+  }
+
+  /**
+   * Removes all items from the grid.
+   */
+  public void clear() {
+    positions.clear();
+    for (int zoom = 0; zoom <= MAX_ZOOM; ++zoom) {
+      levels.set(zoom, null);
+    }
+  }
+
+  /**
+   * Returns <code>true</code> if the item is in the grid.
+   *
+   * @param item the item to look for.
+   * @return <code>true</code> if the item is in the grid.
+   */
+  public boolean contains(T item) {
+    return positions.containsKey(item);
+  }
+
+  /**
+   * Returns the cell size in pixels.
+   *
+   * @return the cell size in pixels.
+   */
+  public int getCellSize() {
+    return cellSize;
+  }
+
+  /**
+   * Returns the non-empty cells at the given zoom level that intersect the
+   * given bounds. Bounds that cross the 180th meridian are specified with
+   * <code>west &gt; east</code>, as returned by the Maps API.
+   *
+   * @param zoom the zoom level to query.
+   * @param south the southern edge of the bounds in degrees.
+   * @param west the western edge of the bounds in degrees.
+   * @param north the northern edge of the bounds in degrees.
+   * @param east the eastern edge of the bounds in degrees.
+   * @param padding the number of extra cells to include on each side.
+   * @return the non-empty cells that intersect the bounds.
+   */
+  public List<Cell<T>> getCells(int zoom, double south, double west,
+      double north, double east, int padding) {
+    zoom = clampZoom(zoom);
+    Map<String, Cell<T>> cells = getLevel(zoom);
+    List<Cell<T>> result = new ArrayList<Cell<T>>();
+    if (cells.isEmpty()) {
+      return result;
+    }
+
+    int cellsPerAxis = getCellsPerAxis(zoom);
+    int y0 = Math.max(0, getCellY(north, zoom) - padding);
+    int y1 = Math.min(cellsPerAxis - 1, getCellY(south, zoom) + padding);
+    int x0 = getUnwrappedCellX(west, zoom) - padding;
+    int x1 = getUnwrappedCellX(east, zoom) + padding;
+    if (west > east) {
+      // The bounds cross the 180th meridian; unwrap the eastern edge.
+      x1 += cellsPerAxis;
+    }
+    int width = Math.min(x1 - x0 + 1, cellsPerAxis);
+    int height = y1 - y0 + 1;
+    if (width <= 0 || height <= 0) {
+      return result;
+    }
+
+    if ((double) width * height > cells.size()) {
+      // Cheaper to scan the populated cells than to probe every index.
+      for (Cell<T> cell : cells.values()) {
+        if (cell.y >= y0 && cell.y <= y1
+            && wrap(cell.x - x0, cellsPerAxis) < width) {
+          result.add(cell);
+        }
+      }
+    } else {
+      for (int i = 0; i < width; ++i) {
+        int x = wrap(x0 + i, cellsPerAxis);
+        for (int y = y0; y <= y1; ++y) {
+          Cell<T> cell = cells.get(cellKey(x, y));
+          if (cell != null) {
+            result.add(cell);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns all items in the grid.
+   *
+   * @return all items in the grid.
+   */
+  public Collection<T> getItems() {
+    return positions.keySet();
+  }
+
+  /**
+   * Removes an item from the grid.
+   *
+   * @param item the item to remove.
+   * @return <code>true</code> if the item was in the grid.
+   */
+  public boolean remove(T item) {
+    Position pos = positions.remove(item);
+    if (pos == null) {
+      return false;
+    }
+    for (int zoom = 0; zoom <= MAX_ZOOM; ++zoom) {
+      Map<String, Cell<T>> cells = levels.get(zoom);
+      if (cells != null) {
+        String key = cellKey(getCellX(pos.lng, zoom), getCellY(pos.lat, zoom));
+        Cell<T> cell = cells.get(key);
+        if (cell != null) {
+          T moved = cell.remove(pos.indexes[zoom], pos.lat, pos.lng);
+          if (moved != null) {
+            positions.get(moved).indexes[zoom] = pos.indexes[zoom];
+          } else if (cell.getCount() == 0) {
+            cells.remove(key);
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the number of items in the grid.
+   *
+   * @return the number of items in the grid.
+   */
+  public int size() {
+    return positions.size();
+  }
+
+  /**
+   * Returns the horizontal cell index of a longitude at a zoom level.
+   */
+  int getCellX(double lng, int zoom) {
+    return wrap(getUnwrappedCellX(lng, zoom), getCellsPerAxis(zoom));
+  }
+
+  /**
+   * Returns the vertical cell index of a latitude at a zoom level.
+   */
+  int getCellY(double lat, int zoom) {
+    lat = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat));
+    double sin = Math.sin(lat * Math.PI / 180);
+    double y = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    int cell = (int) Math.floor(y * getWorldSize(zoom) / cellSize);
+    return Math.max(0, Math.min(getCellsPerAxis(zoom) - 1, cell));
+  }
+
+  private void addToLevel(Map<String, Cell<T>> cells, int zoom, T item,
+      Position pos) {
+    int x = getCellX(pos.lng, zoom);
+    int y = getCellY(pos.lat, zoom);
+    String key = cellKey(x, y);
+    Cell<T> cell = cells.get(key);
+    if (cell == null) {
+      cell = new Cell<T>(key, x, y);
+      cells.put(key, cell);
+    }
+    pos.indexes[zoom] = cell.add(item, pos.lat, pos.lng);
+  }
+
+  private int clampZoom(int zoom) {
+    return Math.max(0, Math.min(MAX_ZOOM, zoom));
+  }
+
+  private int getCellsPerAxis(int zoom) {
+    return Math.max(1, (int) Math.ceil(getWorldSize(zoom) / cellSize));
+  }
+
+  /**
+   * Returns the bucketed cells for a zoom level, building them on first use.
+   */
+  private Map<String, Cell<T>> getLevel(int zoom) {
+    Map<String, Cell<T>> cells = levels.get(zoom);
+    if (cells == null) {
+      cells = new HashMap<String, Cell<T>>();
+      for (Map.Entry<T, Position> entry : positions.entrySet()) {
+        addToLevel(cells, zoom, entry.getKey(), entry.getValue());
+      }
+      levels.set(zoom, cells);
+    }
+    return cells;
+  }
+
+  /**
+   * Returns the horizontal cell index of a longitude without wrapping it around
+   * the world, so that 180 degrees maps one past the last cell.
+   */
+  private int getUnwrappedCellX(double lng, int zoom) {
+    double x = (lng + 180) / 360;
+    return (int) Math.floor(x * getWorldSize(zoom) / cellSize);
+  }
+
+  private double getWorldSize(int zoom) {
+    return TILE_SIZE * Math.pow(2, zoom);
+  }
+
+  private int wrap(int value, int modulus) {
+    int result = value % modulus;
+    return result < 0 ? result + modulus : result;
+  }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2010 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.maps.client.MapWidget;
+import com.google.gwt.maps.client.event.MapMoveEndHandler;
+import com.google.gwt.maps.client.event.MapZoomEndHandler;
+import com.google.gwt.maps.client.geom.LatLng;
+import com.google.gwt.maps.client.geom.LatLngBounds;
+import com.google.gwt.maps.client.overlay.MarkerGrid.Cell;
+import com.google.gwt.user.client.Command;
+import com.google.gwt.user.client.DeferredCommand;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Manages a large number of markers on a {@link MapWidget}. Markers added to
+ * the manager are kept in a {@link MarkerGrid} and only the markers that fall
+ * inside the visible region of the map (plus a margin) are added to the map
+ * as overlays. Grid cells that hold at least
+ * {@link #setClusterThreshold(int) threshold} markers are drawn as a single
+ * cluster marker instead.
+ *
+ * The set of attached overlays is updated when the map is moved or zoomed.
+ * Several changes made in the same event loop are folded into a single
+ * update.
+ */
+public class MarkerManager {
+
+  /**
+   * The default number of markers a cell must hold to be drawn as a cluster.
+   */
+  public static final int DEFAULT_CLUSTER_THRESHOLD = 10;
+
+  /**
+   * The default grid cell size in pixels.
+   */
+  public static final int DEFAULT_GRID_SIZE = 64;
+
+  private final Map<String, Marker> clusterMarkers = new HashMap<String, Marker>();
+  private int clusterThreshold = DEFAULT_CLUSTER_THRESHOLD;
+  private final MarkerGrid<Marker> grid;
+  private final MapWidget map;
+  private int maxClusterZoom = MarkerGrid.MAX_ZOOM;
+  private int padding = 1;
+  private boolean refreshPending;
+  private Set<Marker> visible = new HashSet<Marker>();
+
+  /**
+   * Creates a manager for the given map using the default grid size.
+   *
+   * @param map the map to manage markers for.
+   */
+  public MarkerManager(MapWidget map) {
+    this(map, DEFAULT_GRID_SIZE);
+  }
+
+  /**
+   * Creates a manager for the given map.
+   *
+   * @param map the map to manage markers for.
+   * @param gridSize the width and height of a grid cell in pixels.
+   */
+  public MarkerManager(MapWidget map, int gridSize) {
+    this.map = map;
+    grid = new MarkerGrid<Marker>(gridSize);
+
+    map.addMapMoveEndHandler(new MapMoveEndHandler() {
+      public void onMoveEnd(MapMoveEndEvent event) {
+        scheduleRefresh();
+      }
+    });
+    map.addMapZoomEndHandler(new MapZoomEndHandler() {
+      public void onZoomEnd(MapZoomEndEvent event) {
+        scheduleRefresh();
+      }
+    });
+  }
+
+  /**
+   * Adds a marker to the manager. The marker is shown on the map the next time
+   * the visible markers are updated, if it is in view.
+   *
+   * @param marker the marker to add.
+   */
+  public void addMarker(Marker marker) {
+    LatLng point = marker.getLatLng();
+    addMarker(marker, point.getLatitude(), point.getLongitude());
+  }
+
+  /**
+   * Adds a marker to the manager at the given position. Use this method when
+   * the position is already known to avoid reading it back from the marker.
+   *
+   * @param marker the marker to add.
+   * @param lat the latitude of the marker in degrees.
+   * @param lng the longitude of the marker in degrees.
+   */
+  public void addMarker(Marker marker, double lat, double lng) {
+    grid.add(marker, lat, lng);
+    scheduleRefresh();
+  }
+
+  /**
+   * Adds several markers to the manager.
+   *
+   * @param markers the markers to add.
+   */
+  public void addMarkers(Collection<Marker> markers) {
+    for (Marker marker : markers) {
+      addMarker(marker);
+    }
+  }
+
+  /**
+   * Removes all markers from the manager and from the map.
+   */
+  public void clearMarkers() {
+    map.removeOverlays(visible);
+    visible.clear();
+    clusterMarkers.clear();
+    grid.clear();
+  }
+
+  /**
+   * Returns the number of markers a cell must hold to be drawn as a cluster.
+   *
+   * @return the number of markers a cell must hold to be drawn as a cluster.
+   */
+  public int getClusterThreshold() {
+    return clusterThreshold;
+  }
+
+  /**
+   * Returns the number of markers held by the manager.
+   *
+   * @return the number of markers held by the manager.
+   */
+  public int getMarkerCount() {
+    return grid.size();
+  }
+
+  /**
+   * Returns the highest zoom level at which markers are clustered.
+   *
+   * @return the highest zoom level at which markers are clustered.
+   */
+  public int getMaxClusterZoom() {
+    return maxClusterZoom;
+  }
+
+  /**
+   * Returns the number of overlays, markers and clusters, currently added to
+   * the map by this manager.
+   *
+   * @return the number of overlays currently added to the map.
+   */
+  public int getVisibleOverlayCount() {
+    return visible.size();
+  }
+
+  /**
+   * Updates the overlays on the map to match the current view. This is done
+   * automatically when the map moves; call it directly to apply changes
+   * immediately.
+   */
+  public void refresh() {
+    refreshPending = false;
+
+    LatLngBounds bounds = map.getBounds();
+    LatLng sw = bounds.getSouthWest();
+    LatLng ne = bounds.getNorthEast();
+    int zoom = map.getZoomLevel();
+    boolean cluster = zoom <= maxClusterZoom;
+
+    List<Cell<Marker>> cells = grid.getCells(zoom, sw.getLatitude(),
+        sw.getLongitude(), ne.getLatitude(), ne.getLongitude(), padding);
+
+    Set<Marker> nowVisible = new HashSet<Marker>();
+    Map<String, Marker> nowClusters = new HashMap<String, Marker>();
+    for (Cell<Marker> cell : cells) {
+      if (cluster && cell.getCount() >= clusterThreshold) {
+        String key = zoom + ":" + cell.getKey() + ":" + cell.getCount();
+        Marker clusterMarker = clusterMarkers.get(key);
+        if (clusterMarker == null) {
+          clusterMarker = createClusterMarker(LatLng.newInstance(
+              cell.getCenterLatitude(), cell.getCenterLongitude()),
+              cell.getCount());
+        }
+        nowClusters.put(key, clusterMarker);
+        nowVisible.add(clusterMarker);
+      } else {
+        nowVisible.addAll(cell.getItems());
+      }
+    }
+
+    List<Marker> removed = new ArrayList<Marker>();
+    for (Marker marker : visible) {
+      if (!nowVisible.contains(marker)) {
+        removed.add(marker);
+      }
+    }
+    List<Marker> added = new ArrayList<Marker>();
+    for (Marker marker : nowVisible) {
+      if (!visible.contains(marker)) {
+        added.add(marker);
+      }
+    }
+    map.removeOverlays(removed);
+    map.addOverlays(added);
+    visible = nowVisible;
+    clusterMarkers.clear();
+    clusterMarkers.putAll(nowClusters);
+  }
+
+  /**
+   * Removes a marker from the manager and from the map.
+   *
+   * @param marker the marker to remove.
+   */
+  public void removeMarker(Marker marker) {
+    if (grid.remove(marker)) {
+      if (visible.remove(marker)) {
+        map.removeOverlay(marker);
+      }
+      scheduleRefresh();
+    }
+  }
+
+  /**
+   * Sets the number of markers a cell must hold to be drawn as a cluster.
+   *
+   * @param threshold the minimum number of markers in a cluster.
+   */
+  public void setClusterThreshold(int threshold) {
+    clusterThreshold = Math.max(2, threshold);
+    scheduleRefresh();
+  }
+
+  /**
+   * Sets the highest zoom level at which markers are clustered. At higher
+   * zoom levels every visible marker is added to the map.
+   *
+   * @param zoom the highest zoom level at which markers are clustered.
+   */
+  public void setMaxClusterZoom(int zoom) {
+    maxClusterZoom = zoom;
+    scheduleRefresh();
+  }
+
+  /**
+   * Sets the number of grid cells outside the visible region for which
+   * markers are also added to the map, so that they are already present when
+   * the map is panned a short distance.
+   *
+   * @param cells the number of cells of margin on each side of the view.
+   */
+  public void setPadding(int cells) {
+    padding = Math.max(0, cells);
+    scheduleRefresh();
+  }
+
+  /**
+   * Creates the marker used to draw a cluster. Override this method to
+   * customize how clusters are drawn.
+   *
+   * @param center the centroid of the markers in the cluster.
+   * @param count the number of markers in the cluster.
+   * @return a marker representing the cluster.
+   */
+  protected Marker createClusterMarker(LatLng center, int count) {
+    MarkerOptions options = MarkerOptions.newInstance();
+    options.setTitle(count + " markers");
+    return new Marker(center, options);
+  }
+
+  private void scheduleRefresh() {
+    if (!refreshPending) {
+      refreshPending = true;
+      DeferredCommand.addCommand(new Command() {
+        public void execute() {
+          if (refreshPending) {
+            refresh();
+          }
+        }
+      });
+    }
+  }
+}
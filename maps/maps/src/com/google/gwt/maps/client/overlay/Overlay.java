@@ -16,9 +16,9 @@
 package com.google.gwt.maps.client.overlay;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.Exported;
 import com.google.gwt.maps.client.MapWidget;
 import com.google.gwt.maps.client.impl.OverlayImpl;
-import com.google.gwt.maps.jsio.client.Exported;
 
 /**
  * The base class for adding objects at a specific position on top of the map.
@@ -263,6 +263,16 @@ public abstract class Overlay {
     this.jsoPeer = jsoPeer;
   }
 
+  /**
+   * This method is not meant to be published, but is needed internally to
+   * support the MapWidget addOverlays() and removeOverlays() methods.
+   * 
+   * @return JavaScript object that is encapsulated by the Overlay object.
+   */
+  public JavaScriptObject getPeer() {
+    return jsoPeer;
+  }
+
   /**
    * Returns an uninitialized copy of itself that can be added to the map.
    * 
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.maps.client.geom.Geometry;
+import com.google.gwt.maps.client.geom.LatLng;
+import com.google.gwt.maps.client.geom.LatLngBounds;
+import com.google.gwt.maps.client.geom.RTree;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A spatial index over {@link Marker}, {@link Polyline} and {@link Polygon}
+ * overlays backed by an {@link RTree}. The position of each overlay is read
+ * from the Maps API once when it is added; all queries afterwards run in Java
+ * without calling into JavaScript for each overlay.
+ *
+ * If an indexed overlay is moved or edited, add it again to update its
+ * position in the index.
+ */
+public class OverlayIndex {
+
+  private final Map<Polygon, double[]> polygonVertices = new HashMap<Polygon, double[]>();
+  private final RTree<Overlay> tree = new RTree<Overlay>();
+
+  /**
+   * Adds a marker to the index.
+   *
+   * @param marker the marker to add.
+   */
+  public void add(Marker marker) {
+    LatLng point = marker.getLatLng();
+    add(marker, point.getLatitude(), point.getLongitude());
+  }
+
+  /**
+   * Adds a marker to the index at a known position, without reading the
+   * position back from the marker.
+   *
+   * @param marker the marker to add.
+   * @param lat the latitude of the marker in degrees.
+   * @param lng the longitude of the marker in degrees.
+   */
+  public void add(Marker marker, double lat, double lng) {
+    tree.insert(marker, lat, lng);
+  }
+
+  /**
+   * Adds a polygon to the index. The vertices are copied so that
+   * {@link #getPolygonsContaining(double, double)} can test them in Java.
+   *
+   * @param polygon the polygon to add.
+   */
+  public void add(Polygon polygon) {
+    int count = polygon.getVertexCount();
+    double[] latLngs = new double[count * 2];
+    for (int i = 0; i < count; ++i) {
+      LatLng vertex = polygon.getVertex(i);
+      latLngs[i * 2] = vertex.getLatitude();
+      latLngs[i * 2 + 1] = vertex.getLongitude();
+    }
+    addVertices(polygon, latLngs);
+  }
+
+  /**
+   * Adds a polygon to the index using already known vertices. The array is
+   * copied, so the caller may reuse it afterwards.
+   *
+   * @param polygon the polygon to add.
+   * @param latLngs the vertices of the polygon as interleaved lat/lng pairs.
+   */
+  public void add(Polygon polygon, double[] latLngs) {
+    double[] copy = new double[latLngs.length];
+    System.arraycopy(latLngs, 0, copy, 0, latLngs.length);
+    addVertices(polygon, copy);
+  }
+
+  /**
+   * Adds a polyline to the index by its bounds.
+   *
+   * @param polyline the polyline to add.
+   */
+  public void add(Polyline polyline) {
+    LatLngBounds bounds = polyline.getBounds();
+    LatLng sw = bounds.getSouthWest();
+    LatLng ne = bounds.getNorthEast();
+    add(polyline, sw.getLatitude(), sw.getLongitude(), ne.getLatitude(),
+        ne.getLongitude());
+  }
+
+  /**
+   * Adds a polyline to the index using already known bounds.
+   *
+   * @param polyline the polyline to add.
+   * @param south the southern edge of the polyline in degrees.
+   * @param west the western edge of the polyline in degrees.
+   * @param north the northern edge of the polyline in degrees.
+   * @param east the eastern edge of the polyline in degrees.
+   */
+  public void add(Polyline polyline, double south, double west, double north,
+      double east) {
+    tree.insert(polyline, south, west, north, east);
+  }
+
+  /**
+   * Removes all overlays from the index.
+   */
+  public void clear() {
+    tree.clear();
+    polygonVertices.clear();
+  }
+
+  /**
+   * Returns up to <code>k</code> overlays nearest to a point, nearest first.
+   *
+   * @param point the point to search from.
+   * @param k the maximum number of overlays to return.
+   * @return the overlays nearest to the point.
+   */
+  public List<Overlay> getNearest(LatLng point, int k) {
+    return getNearest(point.getLatitude(), point.getLongitude(), k);
+  }
+
+  /**
+   * Returns up to <code>k</code> overlays nearest to a point, nearest first.
+   *
+   * @param lat the latitude of the point in degrees.
+   * @param lng the longitude of the point in degrees.
+   * @param k the maximum number of overlays to return.
+   * @return the overlays nearest to the point.
+   */
+  public List<Overlay> getNearest(double lat, double lng, int k) {
+    return tree.nearest(lat, lng, k);
+  }
+
+  /**
+   * Returns the overlays whose bounds intersect the given bounds.
+   *
+   * @param south the southern edge of the bounds in degrees.
+   * @param west the western edge of the bounds in degrees.
+   * @param north the northern edge of the bounds in degrees.
+   * @param east the eastern edge of the bounds in degrees.
+   * @return the overlays in the bounds.
+   */
+  public List<Overlay> getOverlays(double south, double west, double north,
+      double east) {
+    return tree.search(south, west, north, east);
+  }
+
+  /**
+   * Returns the overlays whose bounds intersect the given bounds.
+   *
+   * @param bounds the bounds to search, for example the map's visible bounds.
+   * @return the overlays in the bounds.
+   */
+  public List<Overlay> getOverlays(LatLngBounds bounds) {
+    LatLng sw = bounds.getSouthWest();
+    LatLng ne = bounds.getNorthEast();
+    return getOverlays(sw.getLatitude(), sw.getLongitude(), ne.getLatitude(),
+        ne.getLongitude());
+  }
+
+  /**
+   * Returns the indexed polygons that contain a point.
+   *
+   * @param lat the latitude of the point in degrees.
+   * @param lng the longitude of the point in degrees.
+   * @return the polygons containing the point.
+   */
+  public List<Polygon> getPolygonsContaining(double lat, double lng) {
+    List<Polygon> result = new ArrayList<Polygon>();
+    for (Overlay overlay : tree.search(lat, lng, lat, lng)) {
+      double[] latLngs = polygonVertices.get(overlay);
+      if (latLngs != null && Geometry.containsLatLng(latLngs, lat, lng)) {
+        result.add((Polygon) overlay);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the indexed polygons that contain a point.
+   *
+   * @param point the point to test.
+   * @return the polygons containing the point.
+   */
+  public List<Polygon> getPolygonsContaining(LatLng point) {
+    return getPolygonsContaining(point.getLatitude(), point.getLongitude());
+  }
+
+  /**
+   * Removes an overlay from the index.
+   *
+   * @param overlay the overlay to remove.
+   * @return <code>true</code> if the overlay was in the index.
+   */
+  public boolean remove(Overlay overlay) {
+    polygonVertices.remove(overlay);
+    return tree.remove(overlay);
+  }
+
+  /**
+   * Returns the number of overlays in the index.
+   *
+   * @return the number of overlays in the index.
+   */
+  public int size() {
+    return tree.size();
+  }
+
+  private void addVertices(Polygon polygon, double[] latLngs) {
+    double[] bounds = Geometry.getBounds(latLngs);
+    if (bounds == null) {
+      remove(polygon);
+      return;
+    }
+    polygonVertices.put(polygon, latLngs);
+    tree.insert(polygon, bounds[0], bounds[1], bounds[2], bounds[3]);
+  }
+}
@@ -0,0 +1,420 @@
+/*
+ * Copyright 2010 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+/**
+ * Simplifies and encodes paths into the format expected by
+ * {@link Polyline#fromEncoded(EncodedPolyline)} and
+ * {@link Polygon#fromEncoded(EncodedPolyline[])}. See the <a href=
+ * "http://code.google.com/apis/maps/documentation/polylinealgorithm.html"
+ * >Encoded Polyline Algorithm Format</a> for details of the encoding.
+ *
+ * Paths are passed as interleaved <code>{lat0, lng0, lat1, lng1, ...}</code>
+ * arrays of degrees, so that large tracks can be processed without creating a
+ * {@link com.google.gwt.maps.client.geom.LatLng} for every vertex. Vertices are
+ * first simplified with the Douglas-Peucker algorithm; each retained vertex is
+ * then assigned the lowest zoom level at which it makes a visible difference,
+ * so the Maps API only draws the vertices needed at the current zoom.
+ */
+public class PolylineEncoder {
+
+  /**
+   * The result of encoding a path.
+   */
+  public static class Encoding {
+    private final String levels;
+    private final int numLevels;
+    private final String points;
+    private final int vertexCount;
+    private final int zoomFactor;
+
+    private Encoding(String points, String levels, int vertexCount,
+        int zoomFactor, int numLevels) {
+      this.points = points;
+      this.levels = levels;
+      this.vertexCount = vertexCount;
+      this.zoomFactor = zoomFactor;
+      this.numLevels = numLevels;
+    }
+
+    /**
+     * Returns the encoded zoom levels. See
+     * {@link EncodedPolyline#setLevels(String)}.
+     *
+     * @return the encoded zoom levels.
+     */
+    public String getLevels() {
+      return levels;
+    }
+
+    /**
+     * Returns the number of zoom levels. See
+     * {@link EncodedPolyline#setNumLevels(int)}.
+     *
+     * @return the number of zoom levels.
+     */
+    public int getNumLevels() {
+      return numLevels;
+    }
+
+    /**
+     * Returns the encoded points. See {@link EncodedPolyline#setPoints(String)}.
+     *
+     * @return the encoded points.
+     */
+    public String getPoints() {
+      return points;
+    }
+
+    /**
+     * Returns the number of vertices retained after simplification.
+     *
+     * @return the number of encoded vertices.
+     */
+    public int getVertexCount() {
+      return vertexCount;
+    }
+
+    /**
+     * Returns the zoom factor. See {@link EncodedPolyline#setZoomFactor(int)}.
+     *
+     * @return the zoom factor.
+     */
+    public int getZoomFactor() {
+      return zoomFactor;
+    }
+
+    /**
+     * Creates an {@link EncodedPolyline} from this encoding.
+     *
+     * @return a new encoded polyline object.
+     */
+    public EncodedPolyline toEncodedPolyline() {
+      return EncodedPolyline.newInstance(points, zoomFactor, levels, numLevels);
+    }
+
+    /**
+     * Creates a styled {@link EncodedPolyline} from this encoding.
+     *
+     * @param color a string that contains a hexadecimal numeric HTML style,
+     *          i.e. #RRGGBB
+     * @param weight the width of the line in pixels.
+     * @param opacity a number between 0 and 1.0 where 1.0 is totally opaque.
+     * @return a new encoded polyline object.
+     */
+    public EncodedPolyline toEncodedPolyline(String color, int weight,
+        double opacity) {
+      return EncodedPolyline.newInstance(points, zoomFactor, levels, numLevels,
+          color, weight, opacity);
+    }
+  }
+
+  /**
+   * The default number of zoom levels.
+   */
+  public static final int DEFAULT_NUM_LEVELS = 18;
+
+  /**
+   * The default distance in degrees below which vertices are dropped.
+   */
+  public static final double DEFAULT_TOLERANCE = 0.00001;
+
+  /**
+   * The default magnification between adjacent zoom levels.
+   */
+  public static final int DEFAULT_ZOOM_FACTOR = 2;
+
+  /**
+   * Decodes an encoded points string into an interleaved lat/lng array.
+   *
+   * @param encoded the encoded points.
+   * @return the decoded vertices as interleaved lat/lng pairs.
+   */
+  public static double[] decodePoints(String encoded) {
+    int length = encoded.length();
+    double[] buffer = new double[Math.max(2, length)];
+    int count = 0;
+    int index = 0;
+    int lat = 0;
+    int lng = 0;
+    while (index < length) {
+      int result = 0;
+      int shift = 0;
+      int b;
+      do {
+        b = encoded.charAt(index++) - 63;
+        result |= (b & 0x1f) << shift;
+        shift += 5;
+      } while (b >= 0x20);
+      int value = (result & 1) != 0 ? ~(result >> 1) : (result >> 1);
+      if (count % 2 == 0) {
+        lat += value;
+        buffer[count++] = lat * 1e-5;
+      } else {
+        lng += value;
+        buffer[count++] = lng * 1e-5;
+      }
+    }
+    double[] latLngs = new double[count - count % 2];
+    System.arraycopy(buffer, 0, latLngs, 0, latLngs.length);
+    return latLngs;
+  }
+
+  /**
+   * Encodes vertices into a points string without simplification.
+   *
+   * @param latLngs the vertices as interleaved lat/lng pairs.
+   * @return the encoded points.
+   */
+  public static String encodePoints(double[] latLngs) {
+    StringBuilder sb = new StringBuilder();
+    int lastLat = 0;
+    int lastLng = 0;
+    for (int i = 0; i + 1 < latLngs.length; i += 2) {
+      int lat = (int) Math.round(latLngs[i] * 1e5);
+      int lng = (int) Math.round(latLngs[i + 1] * 1e5);
+      encodeSigned(lat - lastLat, sb);
+      encodeSigned(lng - lastLng, sb);
+      lastLat = lat;
+      lastLng = lng;
+    }
+    return sb.toString();
+  }
+
+  private static void encodeSigned(int value, StringBuilder sb) {
+    encodeUnsigned(value < 0 ? ~(value << 1) : value << 1, sb);
+  }
+
+  private static void encodeUnsigned(int value, StringBuilder sb) {
+    while (value >= 0x20) {
+      sb.append((char) ((0x20 | (value & 0x1f)) + 63));
+      value >>= 5;
+    }
+    sb.append((char) (value + 63));
+  }
+
+  /**
+   * Returns the distance in degrees from a vertex to the segment between two
+   * other vertices.
+   */
+  private static double segmentDistance(double[] p, int i, int a, int b) {
+    double lat = p[i * 2];
+    double lng = p[i * 2 + 1];
+    double latA = p[a * 2];
+    double lngA = p[a * 2 + 1];
+    double dLat = p[b * 2] - latA;
+    double dLng = p[b * 2 + 1] - lngA;
+    double lengthSquared = dLat * dLat + dLng * dLng;
+    double u = lengthSquared == 0 ? 0 : ((lat - latA) * dLat + (lng - lngA)
+        * dLng)
+        / lengthSquared;
+    double nearLat;
+    double nearLng;
+    if (u <= 0) {
+      nearLat = latA;
+      nearLng = lngA;
+    } else if (u >= 1) {
+      nearLat = p[b * 2];
+      nearLng = p[b * 2 + 1];
+    } else {
+      nearLat = latA + u * dLat;
+      nearLng = lngA + u * dLng;
+    }
+    double y = lat - nearLat;
+    double x = lng - nearLng;
+    return Math.sqrt(x * x + y * y);
+  }
+
+  private final int numLevels;
+  private final double tolerance;
+  private final int zoomFactor;
+  private final double[] zoomLevelBreaks;
+
+  /**
+   * Creates an encoder with the default number of levels, zoom factor and
+   * tolerance.
+   */
+  public PolylineEncoder() {
+    this(DEFAULT_NUM_LEVELS, DEFAULT_ZOOM_FACTOR, DEFAULT_TOLERANCE);
+  }
+
+  /**
+   * Creates an encoder.
+   *
+   * @param numLevels the number of zoom levels to encode.
+   * @param zoomFactor the magnification between adjacent zoom levels.
+   * @param tolerance the distance in degrees below which vertices are dropped
+   *          at every zoom level.
+   */
+  public PolylineEncoder(int numLevels, int zoomFactor, double tolerance) {
+    if (numLevels < 1 || zoomFactor < 2 || tolerance <= 0) {
+      throw new IllegalArgumentException();
+    }
+    this.numLevels = numLevels;
+    this.zoomFactor = zoomFactor;
+    this.tolerance = tolerance;
+    zoomLevelBreaks = new double[numLevels];
+    for (int i = 0; i < numLevels; ++i) {
+      zoomLevelBreaks[i] = tolerance * Math.pow(zoomFactor, numLevels - i - 1);
+    }
+  }
+
+  /**
+   * Simplifies and encodes a path.
+   *
+   * @param latLngs the vertices as interleaved lat/lng pairs.
+   * @return the encoded path.
+   */
+  public Encoding encode(double[] latLngs) {
+    int n = latLngs.length / 2;
+    double[] distances = computeDistances(latLngs, this.tolerance);
+    StringBuilder points = new StringBuilder();
+    StringBuilder levels = new StringBuilder();
+    int lastLat = 0;
+    int lastLng = 0;
+    int count = 0;
+    for (int i = 0; i < n; ++i) {
+      boolean endpoint = i == 0 || i == n - 1;
+      if (!endpoint && distances[i] <= tolerance) {
+        continue;
+      }
+      int lat = (int) Math.round(latLngs[i * 2] * 1e5);
+      int lng = (int) Math.round(latLngs[i * 2 + 1] * 1e5);
+      encodeSigned(lat - lastLat, points);
+      encodeSigned(lng - lastLng, points);
+      lastLat = lat;
+      lastLng = lng;
+      encodeUnsigned(endpoint ? numLevels - 1 : numLevels
+          - computeLevel(distances[i]) - 1, levels);
+      ++count;
+    }
+    return new Encoding(points.toString(), levels.toString(), count,
+        zoomFactor, numLevels);
+  }
+
+  /**
+   * Simplifies, encodes and wraps a path in an {@link EncodedPolyline}.
+   *
+   * @param latLngs the vertices as interleaved lat/lng pairs.
+   * @return a new encoded polyline object.
+   */
+  public EncodedPolyline encodePolyline(double[] latLngs) {
+    return encode(latLngs).toEncodedPolyline();
+  }
+
+  /**
+   * Returns the number of zoom levels this encoder produces.
+   *
+   * @return the number of zoom levels.
+   */
+  public int getNumLevels() {
+    return numLevels;
+  }
+
+  /**
+   * Returns the distance in degrees below which vertices are dropped.
+   *
+   * @return the simplification tolerance.
+   */
+  public double getTolerance() {
+    return tolerance;
+  }
+
+  /**
+   * Returns the magnification between adjacent zoom levels.
+   *
+   * @return the zoom factor.
+   */
+  public int getZoomFactor() {
+    return zoomFactor;
+  }
+
+  /**
+   * Simplifies a path with the Douglas-Peucker algorithm, keeping the
+   * endpoints and every vertex that deviates more than the given distance from
+   * the simplified line.
+   *
+   * @param latLngs the vertices as interleaved lat/lng pairs.
+   * @param tolerance the maximum deviation in degrees.
+   * @return the retained vertices as interleaved lat/lng pairs.
+   */
+  public double[] simplify(double[] latLngs, double tolerance) {
+    int n = latLngs.length / 2;
+    double[] distances = computeDistances(latLngs, tolerance);
+    int count = 0;
+    for (int i = 0; i < n; ++i) {
+      if (i == 0 || i == n - 1 || distances[i] > tolerance) {
+        ++count;
+      }
+    }
+    double[] result = new double[count * 2];
+    int j = 0;
+    for (int i = 0; i < n; ++i) {
+      if (i == 0 || i == n - 1 || distances[i] > tolerance) {
+        result[j++] = latLngs[i * 2];
+        result[j++] = latLngs[i * 2 + 1];
+      }
+    }
+    return result;
+  }
+
+  private int computeLevel(double distance) {
+    int level = 0;
+    while (level < numLevels - 1 && distance < zoomLevelBreaks[level]) {
+      ++level;
+    }
+    return level;
+  }
+
+  /**
+   * Runs Douglas-Peucker over the whole path, recording for each vertex the
+   * distance at which it was kept. Vertices that were never kept have a
+   * distance of zero. An explicit stack is used so that long tracks do not
+   * overflow the call stack.
+   */
+  private double[] computeDistances(double[] latLngs, double tolerance) {
+    int n = latLngs.length / 2;
+    double[] distances = new double[n];
+    if (n < 3) {
+      return distances;
+    }
+    int[] stack = new int[n * 2];
+    int top = 0;
+    stack[top++] = 0;
+    stack[top++] = n - 1;
+    while (top > 0) {
+      int last = stack[--top];
+      int first = stack[--top];
+      double maxDistance = 0;
+      int maxIndex = -1;
+      for (int i = first + 1; i < last; ++i) {
+        double d = segmentDistance(latLngs, i, first, last);
+        if (d > maxDistance) {
+          maxDistance = d;
+          maxIndex = i;
+        }
+      }
+      if (maxDistance > tolerance) {
+        distances[maxIndex] = maxDistance;
+        stack[top++] = first;
+        stack[top++] = maxIndex;
+        stack[top++] = maxIndex;
+        stack[top++] = last;
+      }
+    }
+    return distances;
+  }
+}
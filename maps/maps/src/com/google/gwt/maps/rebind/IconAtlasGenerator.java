@@ -0,0 +1,237 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.rebind;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.ext.Generator;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.typeinfo.JClassType;
+import com.google.gwt.core.ext.typeinfo.JMethod;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.dev.util.Util;
+import com.google.gwt.maps.client.geom.Point;
+import com.google.gwt.maps.client.geom.Size;
+import com.google.gwt.maps.client.overlay.Icon;
+import com.google.gwt.maps.client.overlay.IconAtlas;
+import com.google.gwt.user.rebind.ClassSourceFileComposerFactory;
+import com.google.gwt.user.rebind.SourceWriter;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Packs the images of an {@link IconAtlas} into a single PNG sprite sheet and
+ * generates an implementation whose methods return shared {@link Icon}
+ * instances cut from that sheet.
+ */
+public class IconAtlasGenerator extends Generator {
+
+  private static final String ATLAS_URL_METHOD = "getAtlasURL";
+
+  @Override
+  public String generate(TreeLogger logger, GeneratorContext context,
+      String typeName) throws UnableToCompleteException {
+    TypeOracle typeOracle = context.getTypeOracle();
+    JClassType sourceType = typeOracle.findType(typeName);
+    if (sourceType == null) {
+      logger.log(TreeLogger.ERROR, "Could not find requested typeName", null);
+      throw new UnableToCompleteException();
+    }
+    if (sourceType.isInterface() == null) {
+      logger.log(TreeLogger.ERROR, typeName + " must be an interface", null);
+      throw new UnableToCompleteException();
+    }
+
+    String packageName = sourceType.getPackage().getName();
+    String generatedSimpleSourceName = sourceType.getName().replace('.', '_')
+        + "Impl";
+    ClassSourceFileComposerFactory f = new ClassSourceFileComposerFactory(
+        packageName, generatedSimpleSourceName);
+    f.addImport(GWT.class.getName());
+    f.addImport(Icon.class.getName());
+    f.addImport(Point.class.getName());
+    f.addImport(Size.class.getName());
+    f.addImplementedInterface(sourceType.getQualifiedSourceName());
+
+    PrintWriter out = context.tryCreate(logger, packageName,
+        generatedSimpleSourceName);
+
+    // If an implementation already exists, we don't need to do any work
+    if (out != null) {
+      List<JMethod> methods = getIconMethods(logger, typeOracle, sourceType);
+      BufferedImage[] images = new BufferedImage[methods.size()];
+      int[] widths = new int[images.length];
+      int[] heights = new int[images.length];
+      for (int i = 0; i < images.length; ++i) {
+        images[i] = readImage(logger, packageName, methods.get(i));
+        widths[i] = images[i].getWidth();
+        heights[i] = images[i].getHeight();
+      }
+      SpritePacker packer = new SpritePacker(widths, heights);
+      String atlasName = writeAtlas(logger, context, packer, images);
+
+      SourceWriter sw = f.createSourceWriter(context, out);
+      sw.println("private static final String ATLAS_URL = "
+          + "GWT.getModuleBaseURL() + \"" + atlasName + "\";");
+      sw.println("private static final Icon[] icons = new Icon["
+          + images.length + "];");
+      sw.println();
+      sw.println("private static Icon getIcon(int index, int left, int top, "
+          + "int width, int height, int anchorX, int anchorY) {");
+      sw.indent();
+      sw.println("if (icons[index] == null) {");
+      sw.indent();
+      sw.println("Icon icon = Icon.newInstance();");
+      sw.println("icon.setSprite(ATLAS_URL, left, top);");
+      sw.println("icon.setIconSize(Size.newInstance(width, height));");
+      sw.println("icon.setIconAnchor(Point.newInstance(anchorX, anchorY));");
+      sw.println("icon.setInfoWindowAnchor(Point.newInstance(anchorX, 0));");
+      sw.println("icons[index] = icon;");
+      sw.outdent();
+      sw.println("}");
+      sw.println("return icons[index];");
+      sw.outdent();
+      sw.println("}");
+      sw.println();
+      sw.println("public String " + ATLAS_URL_METHOD + "() {");
+      sw.indentln("return ATLAS_URL;");
+      sw.println("}");
+
+      for (int i = 0; i < images.length; ++i) {
+        IconAtlas.Image annotation = methods.get(i).getAnnotation(
+            IconAtlas.Image.class);
+        int anchorX = annotation == null || annotation.anchorX() < 0
+            ? widths[i] / 2 : annotation.anchorX();
+        int anchorY = annotation == null || annotation.anchorY() < 0
+            ? heights[i] : annotation.anchorY();
+        sw.println();
+        sw.println("public Icon " + methods.get(i).getName() + "() {");
+        sw.indentln("return getIcon(" + i + ", " + packer.getLeft(i) + ", "
+            + packer.getTop(i) + ", " + widths[i] + ", " + heights[i] + ", "
+            + anchorX + ", " + anchorY + ");");
+        sw.println("}");
+      }
+      sw.commit(logger);
+    }
+
+    return f.getCreatedClassName();
+  }
+
+  /**
+   * Returns the methods that declare icons, checking that each takes no
+   * parameters and returns an {@link Icon}.
+   */
+  private List<JMethod> getIconMethods(TreeLogger logger,
+      TypeOracle typeOracle, JClassType sourceType)
+      throws UnableToCompleteException {
+    JClassType iconType = typeOracle.findType(Icon.class.getName());
+    List<JMethod> methods = new ArrayList<JMethod>();
+    for (JMethod method : sourceType.getOverridableMethods()) {
+      if (method.getName().equals(ATLAS_URL_METHOD)
+          && method.getParameters().length == 0) {
+        continue;
+      }
+      if (method.getParameters().length != 0
+          || method.getReturnType() != iconType) {
+        logger.log(TreeLogger.ERROR, "Method " + method.getName()
+            + " must take no parameters and return " + Icon.class.getName(),
+            null);
+        throw new UnableToCompleteException();
+      }
+      methods.add(method);
+    }
+    return methods;
+  }
+
+  /**
+   * Reads the image for an icon from the classpath.
+   */
+  private BufferedImage readImage(TreeLogger logger, String packageName,
+      JMethod method) throws UnableToCompleteException {
+    IconAtlas.Image annotation = method.getAnnotation(IconAtlas.Image.class);
+    String fileName = annotation == null ? method.getName() + ".png"
+        : annotation.value();
+    String path = packageName.replace('.', '/') + "/" + fileName;
+    URL url = getClass().getClassLoader().getResource(path);
+    if (url == null) {
+      logger.log(TreeLogger.ERROR, "Could not find image " + path
+          + " for method " + method.getName(), null);
+      throw new UnableToCompleteException();
+    }
+    try {
+      BufferedImage image = ImageIO.read(url);
+      if (image == null) {
+        logger.log(TreeLogger.ERROR, "Unsupported image format " + path, null);
+        throw new UnableToCompleteException();
+      }
+      return image;
+    } catch (IOException e) {
+      logger.log(TreeLogger.ERROR, "Could not read image " + path, e);
+      throw new UnableToCompleteException();
+    }
+  }
+
+  /**
+   * Draws the packed images into a sprite sheet and emits it as a PNG named
+   * after its contents.
+   *
+   * @return the file name of the sprite sheet relative to the module base.
+   */
+  private String writeAtlas(TreeLogger logger, GeneratorContext context,
+      SpritePacker packer, BufferedImage[] images)
+      throws UnableToCompleteException {
+    BufferedImage atlas = new BufferedImage(Math.max(1, packer.getWidth()),
+        Math.max(1, packer.getHeight()), BufferedImage.TYPE_INT_ARGB);
+    for (int i = 0; i < images.length; ++i) {
+      atlas.getGraphics().drawImage(images[i], packer.getLeft(i),
+          packer.getTop(i), null);
+    }
+
+    byte[] bytes;
+    try {
+      ByteArrayOutputStream png = new ByteArrayOutputStream();
+      ImageIO.write(atlas, "png", png);
+      bytes = png.toByteArray();
+    } catch (IOException e) {
+      logger.log(TreeLogger.ERROR, "Could not encode sprite sheet", e);
+      throw new UnableToCompleteException();
+    }
+
+    String atlasName = Util.computeStrongName(bytes) + ".cache.png";
+    // Another permutation may already have emitted the same sheet
+    OutputStream atlasOut = context.tryCreateResource(logger, atlasName);
+    if (atlasOut != null) {
+      try {
+        atlasOut.write(bytes);
+      } catch (IOException e) {
+        logger.log(TreeLogger.ERROR, "Could not write sprite sheet", e);
+        throw new UnableToCompleteException();
+      }
+      context.commitResource(logger, atlasOut);
+    }
+    return atlasName;
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.rebind;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Packs rectangular images into a single sprite sheet using rows ("shelves")
+ * of images sorted by height. The sheet is kept roughly square, and images are
+ * separated by {@link #PADDING} pixels so that scaled sprites do not bleed
+ * into their neighbours.
+ */
+class SpritePacker {
+
+  /**
+   * The number of transparent pixels between neighbouring images.
+   */
+  static final int PADDING = 1;
+
+  private int height;
+  private final int[] lefts;
+  private final int[] tops;
+  private int width;
+
+  /**
+   * Packs a set of images.
+   *
+   * @param widths the width of each image in pixels.
+   * @param heights the height of each image in pixels.
+   */
+  SpritePacker(int[] widths, final int[] heights) {
+    int count = widths.length;
+    lefts = new int[count];
+    tops = new int[count];
+
+    List<Integer> order = new ArrayList<Integer>();
+    int maxWidth = 0;
+    long area = 0;
+    for (int i = 0; i < count; ++i) {
+      order.add(i);
+      maxWidth = Math.max(maxWidth, widths[i]);
+      area += (long) (widths[i] + PADDING) * (heights[i] + PADDING);
+    }
+    // Tallest first so each shelf wastes as little height as possible
+    Collections.sort(order, new Comparator<Integer>() {
+      public int compare(Integer a, Integer b) {
+        return heights[b] - heights[a];
+      }
+    });
+    int targetWidth = Math.max(maxWidth, (int) Math.ceil(Math.sqrt(area)));
+
+    int x = 0;
+    int shelfTop = 0;
+    int shelfHeight = 0;
+    for (int i : order) {
+      if (x > 0 && x + widths[i] > targetWidth) {
+        shelfTop += shelfHeight + PADDING;
+        shelfHeight = 0;
+        x = 0;
+      }
+      lefts[i] = x;
+      tops[i] = shelfTop;
+      width = Math.max(width, x + widths[i]);
+      shelfHeight = Math.max(shelfHeight, heights[i]);
+      x += widths[i] + PADDING;
+    }
+    height = shelfTop + shelfHeight;
+  }
+
+  /**
+   * Returns the height of the sprite sheet.
+   *
+   * @return the height in pixels.
+   */
+  int getHeight() {
+    return height;
+  }
+
+  /**
+   * Returns the horizontal position of an image in the sprite sheet.
+   *
+   * @param index the index of the image.
+   * @return the offset in pixels from the left edge of the sheet.
+   */
+  int getLeft(int index) {
+    return lefts[index];
+  }
+
+  /**
+   * Returns the vertical position of an image in the sprite sheet.
+   *
+   * @param index the index of the image.
+   * @return the offset in pixels from the top edge of the sheet.
+   */
+  int getTop(int index) {
+    return tops[index];
+  }
+
+  /**
+   * Returns the width of the sprite sheet.
+   *
+   * @return the width in pixels.
+   */
+  int getWidth() {
+    return width;
+  }
+}
@@ -17,32 +17,55 @@ package com.google.gwt.maps;
 
 import com.google.gwt.junit.tools.GWTTestSuite;
 import com.google.gwt.maps.client.AdsManagerTest;
+import com.google.gwt.maps.client.CachingTileLayerTest;
 import com.google.gwt.maps.client.CopyrightEventTest;
 import com.google.gwt.maps.client.DraggableObjectTest;
 import com.google.gwt.maps.client.GoogleBarOptionsTest;
+import com.google.gwt.maps.client.InfoWindowContentPoolTest;
 import com.google.gwt.maps.client.InfoWindowEventsTest;
 import com.google.gwt.maps.client.MapOptionsTest;
 import com.google.gwt.maps.client.MapPaneTypeTest;
 import com.google.gwt.maps.client.MapUIOptionsTest;
 import com.google.gwt.maps.client.MapWidgetEventsTest;
 import com.google.gwt.maps.client.MapWidgetTest;
+import com.google.gwt.maps.client.OverlayBatchBenchmark;
 import com.google.gwt.maps.client.MapsNotInstalledTest;
 import com.google.gwt.maps.client.control.ControlTest;
+import com.google.gwt.maps.client.geocode.BatchDirectionsTest;
+import com.google.gwt.maps.client.geocode.BatchGeocoderTest;
+import com.google.gwt.maps.client.geocode.DirectionsCacheTest;
 import com.google.gwt.maps.client.geocode.DirectionsTest;
 import com.google.gwt.maps.client.geocode.GeocodeTest;
+import com.google.gwt.maps.client.geocode.LruGeocodeCacheTest;
 import com.google.gwt.maps.client.geocode.StatusCodesTest;
 import com.google.gwt.maps.client.geom.BoundsTest;
+import com.google.gwt.maps.client.geom.GeometryServiceTest;
+import com.google.gwt.maps.client.geom.GeometryTest;
 import com.google.gwt.maps.client.geom.LatLngBoundsTest;
 import com.google.gwt.maps.client.geom.LatLngTest;
+import com.google.gwt.maps.client.geom.MercatorTransformTest;
+import com.google.gwt.maps.client.geom.PointIndexTest;
 import com.google.gwt.maps.client.geom.ProjectionTest;
+import com.google.gwt.maps.client.geom.RTreeTest;
+import com.google.gwt.maps.client.impl.HandlerCollectionBenchmark;
+import com.google.gwt.maps.client.impl.HandlerCollectionTest;
+import com.google.gwt.maps.client.impl.JsUtilTest;
 import com.google.gwt.maps.client.impl.MinimumMapVersionTest;
+import com.google.gwt.maps.client.overlay.BulkPointOverlayTest;
 import com.google.gwt.maps.client.overlay.GeoXmlOverlayTest;
+import com.google.gwt.maps.client.overlay.GeoXmlParserTest;
+import com.google.gwt.maps.client.overlay.GeoXmlStreamLoaderTest;
+import com.google.gwt.maps.client.overlay.IconRegistryTest;
 import com.google.gwt.maps.client.overlay.IconTest;
 import com.google.gwt.maps.client.overlay.MarkerEventsTest;
+import com.google.gwt.maps.client.overlay.MarkerGridTest;
+import com.google.gwt.maps.client.overlay.MarkerManagerTest;
 import com.google.gwt.maps.client.overlay.MarkerTest;
+import com.google.gwt.maps.client.overlay.OverlayIndexTest;
 import com.google.gwt.maps.client.overlay.OverlayTest;
 import com.google.gwt.maps.client.overlay.PolygonEventsTest;
 import com.google.gwt.maps.client.overlay.PolygonTest;
+import com.google.gwt.maps.client.overlay.PolylineEncoderTest;
 import com.google.gwt.maps.client.overlay.PolylineEventsTest;
 import com.google.gwt.maps.client.overlay.PolylineTest;
 import com.google.gwt.maps.client.overlay.TrafficOverlayTest;
@@ -58,6 +81,7 @@ import com.google.gwt.maps.client.streetview.StreetviewPanoramaOptionsTest;
 import com.google.gwt.maps.client.streetview.StreetviewPanoramaWidgetTest;
 import com.google.gwt.maps.client.streetview.StreetviewPanoramaWidgetTest2;
 import com.google.gwt.maps.client.streetview.StreetviewUserPhotoOptionsTest;
+import com.google.gwt.maps.rebind.SpritePackerTest;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
@@ -71,9 +95,11 @@ public class MapsTestSuite extends GWTTestSuite {
 
     // com.google.gwt.maps.client tests
     suite.addTestSuite(AdsManagerTest.class);
+    suite.addTestSuite(CachingTileLayerTest.class);
     suite.addTestSuite(CopyrightEventTest.class);
     suite.addTestSuite(DraggableObjectTest.class);
     suite.addTestSuite(GoogleBarOptionsTest.class);
+    suite.addTestSuite(InfoWindowContentPoolTest.class);
     suite.addTestSuite(InfoWindowEventsTest.class);
     suite.addTestSuite(MapOptionsTest.class);
     suite.addTestSuite(MapPaneTypeTest.class);
@@ -82,32 +108,61 @@ public class MapsTestSuite extends GWTTestSuite {
     suite.addTestSuite(MapUIOptionsTest.class);
     suite.addTestSuite(MapWidgetEventsTest.class);
     suite.addTestSuite(MapWidgetTest.class);
+    suite.addTestSuite(OverlayBatchBenchmark.class);
 
     // com.google.gwt.maps.client.control tests
     suite.addTestSuite(ControlTest.class);
 
     // com.google.gwt.maps.client.geocode tests
+    suite.addTestSuite(BatchDirectionsTest.class);
+    suite.addTestSuite(BatchGeocoderTest.class);
+    suite.addTestSuite(DirectionsCacheTest.class);
     suite.addTestSuite(DirectionsTest.class);
     suite.addTestSuite(GeocodeTest.class);
+    suite.addTestSuite(LruGeocodeCacheTest.class);
     suite.addTestSuite(StatusCodesTest.class);
 
     // com.google.gwt.maps.client.geom tests
     suite.addTestSuite(BoundsTest.class);
+    // Intentionally omitting GeometryServiceBenchmark - run manually
+    suite.addTestSuite(GeometryServiceTest.class);
+    suite.addTestSuite(GeometryTest.class);
     suite.addTestSuite(LatLngBoundsTest.class);
     suite.addTestSuite(LatLngTest.class);
+    // Intentionally omitting MercatorTransformBenchmark - run manually
+    suite.addTestSuite(MercatorTransformTest.class);
+    suite.addTestSuite(PointIndexTest.class);
     suite.addTestSuite(ProjectionTest.class);
+    // Intentionally omitting RTreeBenchmark - run manually
+    suite.addTestSuite(RTreeTest.class);
 
     // com.google.gwt.maps.client.impl
+    suite.addTestSuite(HandlerCollectionBenchmark.class);
+    suite.addTestSuite(HandlerCollectionTest.class);
+    // Intentionally omitting JSListBenchmark - run manually
+    suite.addTestSuite(JsUtilTest.class);
     suite.addTestSuite(MinimumMapVersionTest.class);
 
     // com.google.gwt.maps.client.overlay
+    // Intentionally omitting BulkPointOverlayBenchmark - run manually
+    suite.addTestSuite(BulkPointOverlayTest.class);
     suite.addTestSuite(GeoXmlOverlayTest.class);
+    // Intentionally omitting GeoXmlParserBenchmark - run manually
+    suite.addTestSuite(GeoXmlParserTest.class);
+    suite.addTestSuite(GeoXmlStreamLoaderTest.class);
+    suite.addTestSuite(IconRegistryTest.class);
     suite.addTestSuite(IconTest.class);
     suite.addTestSuite(MarkerEventsTest.class);
+    suite.addTestSuite(MarkerGridTest.class);
+    // Intentionally omitting MarkerManagerBenchmark - run manually
+    suite.addTestSuite(MarkerManagerTest.class);
     suite.addTestSuite(MarkerTest.class);
+    suite.addTestSuite(OverlayIndexTest.class);
     suite.addTestSuite(OverlayTest.class);
     suite.addTestSuite(PolygonEventsTest.class);
     suite.addTestSuite(PolygonTest.class);
+    // Intentionally omitting PolylineEncoderBenchmark - run manually
+    suite.addTestSuite(PolylineEncoderTest.class);
     suite.addTestSuite(PolylineEventsTest.class);
     suite.addTestSuite(PolylineTest.class);
     suite.addTestSuite(TrafficOverlayTest.class);
@@ -123,6 +178,9 @@ public class MapsTestSuite extends GWTTestSuite {
     suite.addTestSuite(StreetviewPanoramaOptionsTest.class);
     suite.addTestSuite(StreetviewUserPhotoOptionsTest.class);
 
+    // com.google.gwt.maps.rebind
+    suite.addTestSuite(SpritePackerTest.class);
+
     // These tests are running as different modules.
     // They are last to minimize the module-switching time.
     suite.addTestSuite(StreetviewPanoramaWidgetTest.class);
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client;
+
+import com.google.gwt.maps.client.geom.LatLng;
+import com.google.gwt.maps.client.geom.Point;
+import com.google.gwt.user.client.ui.RootPanel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for {@link CachingTileLayer}.
+ */
+public class CachingTileLayerTest extends MapsTestCase {
+
+  /**
+   * A tile layer that counts how often it computes a URL.
+   */
+  private static class CountingTileLayer extends TileLayer {
+    int calls;
+
+    CountingTileLayer() {
+      super(new CopyrightCollection(), 0, 17);
+    }
+
+    @Override
+    public double getOpacity() {
+      return 1.0;
+    }
+
+    @Override
+    public String getTileURL(Point tile, int zoomLevel) {
+      ++calls;
+      return "tiles/" + zoomLevel + "/" + tile.getX() + "/" + tile.getY()
+          + ".png";
+    }
+
+    @Override
+    public boolean isPng() {
+      return true;
+    }
+  }
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  /**
+   * Runs before every test method.
+   */
+  @Override
+  public void gwtSetUp() {
+    TestUtilities.cleanDom();
+  }
+
+  public void testEviction() {
+    loadApi(new Runnable() {
+      public void run() {
+        CountingTileLayer tiles = new CountingTileLayer();
+        CachingTileLayer layer = new CachingTileLayer(tiles,
+            new CopyrightCollection(), 0, 17, 2);
+        layer.getTileURL(Point.newInstance(0, 0), 1);
+        layer.getTileURL(Point.newInstance(1, 0), 1);
+        // Touch (0, 0) so that (1, 0) becomes the least recently used tile.
+        layer.getTileURL(Point.newInstance(0, 0), 1);
+        layer.getTileURL(Point.newInstance(0, 1), 1);
+        assertEquals(2, layer.size());
+        assertEquals(1, layer.getEvictionCount());
+        assertEquals(3, tiles.calls);
+        layer.getTileURL(Point.newInstance(0, 0), 1);
+        assertEquals(3, tiles.calls);
+        layer.getTileURL(Point.newInstance(1, 0), 1);
+        assertEquals(4, tiles.calls);
+      }
+    });
+  }
+
+  public void testGetTileURLCached() {
+    loadApi(new Runnable() {
+      public void run() {
+        CountingTileLayer tiles = new CountingTileLayer();
+        CachingTileLayer layer = new CachingTileLayer(tiles,
+            new CopyrightCollection(), 0, 17);
+        assertEquals("tiles/3/1/2.png", layer.getTileURL(
+            Point.newInstance(1, 2), 3));
+        assertEquals("tiles/3/1/2.png", layer.getTileURL(
+            Point.newInstance(1, 2), 3));
+        assertEquals("tiles/4/1/2.png", layer.getTileURL(
+            Point.newInstance(1, 2), 4));
+        assertEquals(2, tiles.calls);
+        assertEquals(1, layer.getHitCount());
+        assertEquals(2, layer.getMissCount());
+        assertEquals(1.0 / 3, layer.getHitRate(), 1e-9);
+        assertTrue(layer.isPng());
+        assertEquals(1.0, layer.getOpacity(), 0);
+      }
+    });
+  }
+
+  public void testPrefetch() {
+    loadApi(new Runnable() {
+      public void run() {
+        final List<String> prefetched = new ArrayList<String>();
+        CachingTileLayer layer = new CachingTileLayer(new CountingTileLayer(),
+            new CopyrightCollection(), 0, 17) {
+          @Override
+          protected void prefetchTile(String url) {
+            prefetched.add(url);
+          }
+        };
+        MapWidget map = new MapWidget(LatLng.newInstance(45, 45), 6);
+        map.setSize("300px", "300px");
+        RootPanel.get().add(map);
+
+        layer.setPrefetchNextZoom(false);
+        layer.prefetch(map);
+        int ring = prefetched.size();
+        assertTrue("no tiles prefetched", ring > 0);
+        assertEquals(ring, layer.getPrefetchCount());
+        for (String url : prefetched) {
+          assertTrue(url, url.startsWith("tiles/6/"));
+        }
+
+        // Prefetching again finds every tile in the cache.
+        layer.prefetch(map);
+        assertEquals(ring, prefetched.size());
+
+        layer.setPrefetchNextZoom(true);
+        layer.prefetch(map);
+        assertTrue(prefetched.size() > ring);
+        assertTrue(prefetched.get(ring).startsWith("tiles/7/"));
+
+        String[] parts = prefetched.get(0).split("/");
+        layer.getTileURL(Point.newInstance(Integer.parseInt(parts[2]),
+            Integer.parseInt(parts[3].substring(0, parts[3].indexOf('.')))),
+            6);
+        assertEquals(1, layer.getPrefetchHitCount());
+      }
+    });
+  }
+}
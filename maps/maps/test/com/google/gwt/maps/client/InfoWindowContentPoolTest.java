@@ -0,0 +1,156 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client;
+
+import com.google.gwt.maps.client.InfoWindowContentPool.Renderer;
+import com.google.gwt.maps.client.InfoWindowContentPool.Tab;
+import com.google.gwt.maps.client.geom.LatLng;
+import com.google.gwt.maps.client.overlay.Marker;
+import com.google.gwt.user.client.ui.Label;
+import com.google.gwt.user.client.ui.RootPanel;
+
+/**
+ * Tests for {@link InfoWindowContentPool}.
+ */
+public class InfoWindowContentPoolTest extends MapsTestCase {
+
+  /**
+   * A renderer that counts the labels it creates.
+   */
+  private static class LabelRenderer implements Renderer<String, Label> {
+    int created;
+
+    public void bind(Label widget, String data) {
+      widget.setText(data);
+    }
+
+    public Label createWidget() {
+      ++created;
+      return new Label();
+    }
+  }
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  /**
+   * Runs before every test method.
+   */
+  @Override
+  public void gwtSetUp() {
+    TestUtilities.cleanDom();
+  }
+
+  public void testAcquireRelease() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget map = new MapWidget(LatLng.newInstance(45, 45), 6);
+        InfoWindowContentPool pool = new InfoWindowContentPool(map, 1);
+        LabelRenderer renderer = new LabelRenderer();
+        Label first = pool.acquire(renderer, "first");
+        Label second = pool.acquire(renderer, "second");
+        assertEquals("first", first.getText());
+        assertEquals(2, renderer.created);
+        pool.release(renderer, first);
+        pool.release(renderer, second);
+        assertEquals(1, pool.getIdleCount(renderer));
+        assertEquals(1, pool.getDiscardCount());
+
+        Label third = pool.acquire(renderer, "third");
+        assertSame(first, third);
+        assertEquals("third", third.getText());
+        assertEquals(1, pool.getHitCount());
+        assertEquals(2, pool.getMissCount());
+        assertEquals(1.0 / 3, pool.getHitRate(), 1e-9);
+
+        pool.resetStats();
+        assertEquals(0, pool.getHitRate(), 0);
+        assertEquals(0, pool.getDiscardCount());
+      }
+    });
+  }
+
+  public void testDispose() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget map = new MapWidget(LatLng.newInstance(45, 45), 6);
+        map.setSize("300px", "300px");
+        RootPanel.get().add(map);
+
+        InfoWindowContentPool pool = new InfoWindowContentPool(map);
+        LabelRenderer renderer = new LabelRenderer();
+        pool.open(map.getCenter(), renderer, "first");
+        pool.dispose();
+        assertFalse(map.getInfoWindow().isVisible());
+        assertEquals(0, pool.getIdleCount(renderer));
+      }
+    });
+  }
+
+  public void testLazyTabs() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget map = new MapWidget(LatLng.newInstance(45, 45), 6);
+        map.setSize("300px", "300px");
+        RootPanel.get().add(map);
+
+        InfoWindowContentPool pool = new InfoWindowContentPool(map);
+        LabelRenderer summary = new LabelRenderer();
+        LabelRenderer details = new LabelRenderer();
+        Tab[] tabs = {
+            new Tab("Summary", summary, "summary"),
+            new Tab("Details", details, "details")};
+        pool.open(map.getCenter(), tabs, 0);
+        assertEquals(1, summary.created);
+        assertEquals(0, details.created);
+
+        map.closeInfoWindow();
+        assertEquals(1, pool.getSkippedTabCount());
+        assertEquals(1, pool.getIdleCount(summary));
+        assertEquals(0, pool.getIdleCount(details));
+      }
+    });
+  }
+
+  public void testReuseAcrossMarkers() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget map = new MapWidget(LatLng.newInstance(45, 45), 6);
+        map.setSize("300px", "300px");
+        RootPanel.get().add(map);
+        Marker first = new Marker(LatLng.newInstance(45, 45));
+        Marker second = new Marker(LatLng.newInstance(45.1, 45.1));
+        map.addOverlay(first);
+        map.addOverlay(second);
+
+        InfoWindowContentPool pool = new InfoWindowContentPool(map);
+        LabelRenderer renderer = new LabelRenderer();
+        pool.open(first, renderer, "first");
+        // Opening another window releases the widget of the previous one
+        // before acquiring, so the same widget is rebound every time.
+        pool.open(second, renderer, "second");
+        pool.open(first, renderer, "first again");
+        assertEquals(1, renderer.created);
+        assertEquals(2, pool.getHitCount());
+
+        map.closeInfoWindow();
+        assertEquals(1, pool.getIdleCount(renderer));
+      }
+    });
+  }
+}
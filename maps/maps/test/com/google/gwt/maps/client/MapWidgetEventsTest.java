@@ -18,6 +18,7 @@ package com.google.gwt.maps.client;
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.maps.client.event.MapAddMapTypeHandler;
 import com.google.gwt.maps.client.event.MapAddOverlayHandler;
+import com.google.gwt.maps.client.event.MapAddOverlaysHandler;
 import com.google.gwt.maps.client.event.MapClearOverlaysHandler;
 import com.google.gwt.maps.client.event.MapClickHandler;
 import com.google.gwt.maps.client.event.MapDoubleClickHandler;
@@ -35,10 +36,12 @@ import com.google.gwt.maps.client.event.MapMoveHandler;
 import com.google.gwt.maps.client.event.MapMoveStartHandler;
 import com.google.gwt.maps.client.event.MapRemoveMapTypeHandler;
 import com.google.gwt.maps.client.event.MapRemoveOverlayHandler;
+import com.google.gwt.maps.client.event.MapRemoveOverlaysHandler;
 import com.google.gwt.maps.client.event.MapRightClickHandler;
 import com.google.gwt.maps.client.event.MapZoomEndHandler;
 import com.google.gwt.maps.client.event.MapAddMapTypeHandler.MapAddMapTypeEvent;
 import com.google.gwt.maps.client.event.MapAddOverlayHandler.MapAddOverlayEvent;
+import com.google.gwt.maps.client.event.MapAddOverlaysHandler.MapAddOverlaysEvent;
 import com.google.gwt.maps.client.event.MapClearOverlaysHandler.MapClearOverlaysEvent;
 import com.google.gwt.maps.client.event.MapClickHandler.MapClickEvent;
 import com.google.gwt.maps.client.event.MapDoubleClickHandler.MapDoubleClickEvent;
@@ -56,6 +59,7 @@ import com.google.gwt.maps.client.event.MapMoveHandler.MapMoveEvent;
 import com.google.gwt.maps.client.event.MapMoveStartHandler.MapMoveStartEvent;
 import com.google.gwt.maps.client.event.MapRemoveMapTypeHandler.MapRemoveMapTypeEvent;
 import com.google.gwt.maps.client.event.MapRemoveOverlayHandler.MapRemoveOverlayEvent;
+import com.google.gwt.maps.client.event.MapRemoveOverlaysHandler.MapRemoveOverlaysEvent;
 import com.google.gwt.maps.client.event.MapRightClickHandler.MapRightClickEvent;
 import com.google.gwt.maps.client.event.MapZoomEndHandler.MapZoomEndEvent;
 import com.google.gwt.maps.client.geom.LatLng;
@@ -65,6 +69,9 @@ import com.google.gwt.maps.client.overlay.Overlay;
 import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.ui.RootPanel;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Tests for the MapWidget events.
  * 
@@ -267,6 +274,38 @@ public class MapWidgetEventsTest extends MapsTestCase {
     }, false);
   }
 
+  /**
+   * Adding overlays in a batch fires a single batched event and none of the
+   * per-overlay events.
+   */
+  public void testMapAddOverlaysEvent() {
+    loadApi(new Runnable() {
+      public void run() {
+        final MapWidget m = new MapWidget();
+        final List<Marker> markers = new ArrayList<Marker>();
+        for (int i = 0; i < 3; ++i) {
+          markers.add(new Marker(LatLng.newInstance(i, i)));
+        }
+        final int[] batchCount = {0};
+        m.addMapAddOverlayHandler(new MapAddOverlayHandler() {
+          public void onAddOverlay(MapAddOverlayEvent event) {
+            fail("Per-overlay event fired for a batch add");
+          }
+        });
+        m.addMapAddOverlaysHandler(new MapAddOverlaysHandler() {
+          public void onAddOverlays(MapAddOverlaysEvent event) {
+            assertEquals(event.getSender(), m);
+            assertEquals(markers, event.getOverlays());
+            ++batchCount[0];
+          }
+        });
+        RootPanel.get().add(m);
+        m.addOverlays(markers);
+        assertEquals(1, batchCount[0]);
+      }
+    });
+  }
+
   public void testMapAddOverlayTrigger() {
     loadApi(new Runnable() {
       public void run() {
@@ -494,6 +533,64 @@ public class MapWidgetEventsTest extends MapsTestCase {
     }, false);
   }
 
+  /**
+   * With a coalescing interval set, a burst of mouse moves is delivered as a
+   * single event carrying the latest position.
+   */
+  public void testMapMouseMoveCoalesced() {
+    loadApi(new Runnable() {
+      public void run() {
+        final MapWidget m = new MapWidget();
+        final List<LatLng> received = new ArrayList<LatLng>();
+        m.setCoalescedEventInterval(50);
+        m.addMapMouseMoveHandler(new MapMouseMoveHandler() {
+          public void onMouseMove(MapMouseMoveEvent event) {
+            received.add(event.getLatLng());
+          }
+        });
+        RootPanel.get().add(m);
+        for (int i = 0; i < 10; ++i) {
+          m.trigger(new MapMouseMoveEvent(m, LatLng.newInstance(i, i)));
+        }
+        assertEquals(0, received.size());
+
+        new Timer() {
+          public void run() {
+            assertEquals(1, received.size());
+            assertEquals(LatLng.newInstance(9, 9), received.get(0));
+            assertEquals(1, m.getCoalescedEventsDelivered());
+            assertEquals(9, m.getCoalescedEventsDropped());
+            finishTest();
+          }
+        }.schedule(500);
+      }
+    }, false);
+  }
+
+  /**
+   * Events are only coalesced while a handler is registered for them.
+   */
+  public void testMapMouseMoveCoalescedOnlyWithHandlers() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget m = new MapWidget();
+        RootPanel.get().add(m);
+        m.setCoalescedEventInterval(50);
+        MapMouseMoveHandler handler = new MapMouseMoveHandler() {
+          public void onMouseMove(MapMouseMoveEvent event) {
+          }
+        };
+        m.addMapMouseMoveHandler(handler);
+        m.removeMapMouseMoveHandler(handler);
+        for (int i = 0; i < 10; ++i) {
+          m.trigger(new MapMouseMoveEvent(m, LatLng.newInstance(i, i)));
+        }
+        assertEquals(0, m.getCoalescedEventsDropped());
+        assertEquals(0, m.getCoalescedEventsDelivered());
+      }
+    });
+  }
+
   /**
    * Note: testMapMouseOutEvent() can't be implemented as there is no way to
    * create a "mouseout" event by API calls apart from GEvent.trigger().
@@ -772,6 +869,39 @@ public class MapWidgetEventsTest extends MapsTestCase {
     }, false);
   }
 
+  /**
+   * Removing overlays in a batch fires a single batched event and none of the
+   * per-overlay events.
+   */
+  public void testMapRemoveOverlaysEvent() {
+    loadApi(new Runnable() {
+      public void run() {
+        final MapWidget m = new MapWidget();
+        final List<Marker> markers = new ArrayList<Marker>();
+        for (int i = 0; i < 3; ++i) {
+          markers.add(new Marker(LatLng.newInstance(i, i)));
+        }
+        final int[] batchCount = {0};
+        m.addMapRemoveOverlayHandler(new MapRemoveOverlayHandler() {
+          public void onRemoveOverlay(MapRemoveOverlayEvent event) {
+            fail("Per-overlay event fired for a batch remove");
+          }
+        });
+        m.addMapRemoveOverlaysHandler(new MapRemoveOverlaysHandler() {
+          public void onRemoveOverlays(MapRemoveOverlaysEvent event) {
+            assertEquals(event.getSender(), m);
+            assertEquals(markers, event.getOverlays());
+            ++batchCount[0];
+          }
+        });
+        RootPanel.get().add(m);
+        m.addOverlays(markers);
+        m.removeOverlays(markers);
+        assertEquals(1, batchCount[0]);
+      }
+    });
+  }
+
   public void testMapRemoveOverlayTrigger() {
     loadApi(new Runnable() {
       public void run() {
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.maps.client.event.MapAddOverlayHandler;
+import com.google.gwt.maps.client.event.MapAddOverlaysHandler;
+import com.google.gwt.maps.client.event.MapRemoveOverlayHandler;
+import com.google.gwt.maps.client.event.MapRemoveOverlaysHandler;
+import com.google.gwt.maps.client.geom.LatLng;
+import com.google.gwt.maps.client.overlay.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares adding and removing overlays one at a time with
+ * {@link MapWidget#addOverlay} and {@link MapWidget#removeOverlay} against the
+ * batched {@link MapWidget#addOverlays} and {@link MapWidget#removeOverlays},
+ * with handlers registered for both kinds of event. It runs as part of the
+ * MapsTestSuite so that the event counts are checked on every run; the
+ * timings are printed to the console.
+ */
+public class OverlayBatchBenchmark extends MapsTestCase {
+
+  private static final int[] SIZES = {500, 5000};
+
+  /**
+   * Counts the notifications delivered to the registered handlers.
+   */
+  private static class CountingHandler implements MapAddOverlayHandler,
+      MapAddOverlaysHandler, MapRemoveOverlayHandler,
+      MapRemoveOverlaysHandler {
+    int events;
+
+    public void onAddOverlay(MapAddOverlayEvent event) {
+      ++events;
+    }
+
+    public void onAddOverlays(MapAddOverlaysEvent event) {
+      ++events;
+    }
+
+    public void onRemoveOverlay(MapRemoveOverlayEvent event) {
+      ++events;
+    }
+
+    public void onRemoveOverlays(MapRemoveOverlaysEvent event) {
+      ++events;
+    }
+  }
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  /**
+   * Runs before each test method.
+   */
+  @Override
+  public void gwtSetUp() {
+    TestUtilities.cleanDom();
+  }
+
+  public void testAddRemove() {
+    loadApi(new Runnable() {
+      public void run() {
+        for (int size : SIZES) {
+          runBenchmark(size);
+        }
+      }
+    });
+  }
+
+  private MapWidget createMap(CountingHandler handler) {
+    TestUtilities.cleanDom();
+    MapWidget map = addDefaultMap();
+    map.addMapAddOverlayHandler(handler);
+    map.addMapAddOverlaysHandler(handler);
+    map.addMapRemoveOverlayHandler(handler);
+    map.addMapRemoveOverlaysHandler(handler);
+    return map;
+  }
+
+  private void runBenchmark(int size) {
+    List<Marker> markers = new ArrayList<Marker>(size);
+    for (int i = 0; i < size; ++i) {
+      markers.add(new Marker(LatLng.newInstance((Math.random() - 0.5) * 10,
+          (Math.random() - 0.5) * 10)));
+    }
+
+    CountingHandler single = new CountingHandler();
+    MapWidget map = createMap(single);
+    Duration singleAdd = new Duration();
+    for (Marker marker : markers) {
+      map.addOverlay(marker);
+    }
+    int singleAddMillis = singleAdd.elapsedMillis();
+    Duration singleRemove = new Duration();
+    for (Marker marker : markers) {
+      map.removeOverlay(marker);
+    }
+    int singleRemoveMillis = singleRemove.elapsedMillis();
+
+    CountingHandler batch = new CountingHandler();
+    map = createMap(batch);
+    Duration batchAdd = new Duration();
+    map.addOverlays(markers);
+    int batchAddMillis = batchAdd.elapsedMillis();
+    Duration batchRemove = new Duration();
+    map.removeOverlays(markers);
+    int batchRemoveMillis = batchRemove.elapsedMillis();
+
+    System.out.println("OverlayBatch " + size + " markers: one at a time add "
+        + singleAddMillis + "ms, remove " + singleRemoveMillis + "ms, "
+        + single.events + " events; batched add " + batchAddMillis
+        + "ms, remove " + batchRemoveMillis + "ms, " + batch.events
+        + " events");
+    assertEquals(2 * size, single.events);
+    assertEquals(2, batch.events);
+  }
+}
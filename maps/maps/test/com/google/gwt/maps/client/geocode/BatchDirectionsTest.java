@@ -0,0 +1,153 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geocode;
+
+import com.google.gwt.maps.client.MapsTestCase;
+import com.google.gwt.user.client.Timer;
+
+/**
+ * Tests for {@link BatchDirections}, run against a local stub service so that
+ * no requests are sent to Google's servers.
+ */
+public class BatchDirectionsTest extends MapsTestCase {
+
+  /**
+   * Answers every pair after a short delay with a distance of 1000 times the
+   * length of the origin plus the length of the destination. Destinations
+   * starting with "?" are unknown.
+   */
+  private static class StubService implements DirectionsService {
+    int inFlight;
+    int maxInFlight;
+    int requests;
+
+    public void load(String query, DirectionQueryOptions options,
+        DirectionsCallback callback) {
+      throw new UnsupportedOperationException();
+    }
+
+    public void loadFromWaypoints(final Waypoint[] waypoints,
+        DirectionQueryOptions options, final DirectionsCallback callback) {
+      ++requests;
+      maxInFlight = Math.max(maxInFlight, ++inFlight);
+      new Timer() {
+        @Override
+        public void run() {
+          --inFlight;
+          String origin = waypoints[0].toString();
+          String destination = waypoints[1].toString();
+          if (destination.startsWith("?")) {
+            callback.onFailure(StatusCodes.UNKNOWN_DIRECTIONS);
+          } else {
+            int meters = 1000 * origin.length() + destination.length();
+            callback.onSuccess(DirectionsCacheTest.createResults(meters,
+                meters / 10));
+          }
+        }
+      }.schedule(10);
+    }
+  }
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  public void testConcurrencyLimit() {
+    loadApi(new Runnable() {
+      public void run() {
+        final StubService stub = new StubService();
+        final BatchDirections batch = new BatchDirections(stub);
+        batch.setMaxConcurrentRequests(2);
+        Waypoint[] origins = {new Waypoint("a"), new Waypoint("bb")};
+        Waypoint[] destinations = {
+            new Waypoint("c"), new Waypoint("dd"), new Waypoint("eee")};
+        DistanceMatrix matrix = batch.computeMatrix(origins, destinations,
+            null, new DistanceMatrixCallback() {
+              public void onComplete(DistanceMatrix matrix) {
+                assertEquals(2, stub.maxInFlight);
+                assertEquals(6, batch.getRequestCount());
+                assertEquals(0, matrix.getFailedCount());
+                assertEquals(1001.0, matrix.getMeters(0, 0), 0);
+                assertEquals(2003.0, matrix.getMeters(1, 2), 0);
+                assertEquals(200, matrix.getSeconds(1, 2));
+                assertEquals(StatusCodes.SUCCESS, matrix.getStatusCode(0, 1));
+                finishTest();
+              }
+            });
+        assertEquals(2, matrix.getRowCount());
+        assertEquals(3, matrix.getColumnCount());
+        assertFalse(matrix.isComplete());
+        assertEquals(2, batch.getInFlightCount());
+        assertEquals(4, batch.getQueuedCount());
+        assertTrue(Double.isNaN(matrix.getMeters(1, 1)));
+        assertEquals(-1, matrix.getSeconds(1, 1));
+      }
+    }, false);
+  }
+
+  public void testFailuresAndDiagonal() {
+    loadApi(new Runnable() {
+      public void run() {
+        final StubService stub = new StubService();
+        BatchDirections batch = new BatchDirections(stub);
+        Waypoint[] places = {new Waypoint("a"), new Waypoint("?b")};
+        batch.computeMatrix(places, places, null,
+            new DistanceMatrixCallback() {
+              public void onComplete(DistanceMatrix matrix) {
+                // The two pairs from a place to itself are not queried.
+                assertEquals(2, stub.requests);
+                assertEquals(0.0, matrix.getMeters(0, 0), 0);
+                assertEquals(0.0, matrix.getMeters(1, 1), 0);
+                assertEquals(1, matrix.getFailedCount());
+                assertEquals(StatusCodes.UNKNOWN_DIRECTIONS,
+                    matrix.getStatusCode(0, 1));
+                assertTrue(Double.isNaN(matrix.getMeters(0, 1)));
+                assertEquals(2001.0, matrix.getMeters(1, 0), 0);
+                finishTest();
+              }
+            });
+      }
+    }, false);
+  }
+
+  public void testRepeatedPairsCached() {
+    loadApi(new Runnable() {
+      public void run() {
+        final StubService stub = new StubService();
+        final DirectionsCache cache = new DirectionsCache(stub, 100, 0);
+        final BatchDirections batch = new BatchDirections(cache);
+        final Waypoint[] origins = {new Waypoint("a"), new Waypoint("b")};
+        final Waypoint[] destinations = {new Waypoint("c")};
+        batch.computeMatrix(origins, destinations, null,
+            new DistanceMatrixCallback() {
+              public void onComplete(DistanceMatrix first) {
+                DistanceMatrix second = batch.computeMatrix(origins,
+                    destinations, null, new DistanceMatrixCallback() {
+                      public void onComplete(DistanceMatrix matrix) {
+                        assertEquals(2, stub.requests);
+                        assertEquals(2, cache.getHitCount());
+                        finishTest();
+                      }
+                    });
+                // Cached pairs are answered synchronously.
+                assertTrue(second.isComplete());
+              }
+            });
+      }
+    }, false);
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geocode;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.maps.client.MapsTestCase;
+import com.google.gwt.user.client.Timer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for {@link BatchGeocoder}, run against a local stub service so that
+ * no requests are sent to Google's servers.
+ */
+public class BatchGeocoderTest extends MapsTestCase {
+
+  /**
+   * Answers every address after a short delay. Addresses listed in
+   * <code>quotaErrors</code> are answered with
+   * {@link StatusCodes#TOO_MANY_QUERIES} that many times first, and addresses
+   * starting with "?" are unknown.
+   */
+  private static class StubService implements GeocodeService {
+    int inFlight;
+    int maxInFlight;
+    final Map<String, Integer> quotaErrors = new HashMap<String, Integer>();
+
+    public void getLocations(final String address,
+        final LocationCallback callback) {
+      maxInFlight = Math.max(maxInFlight, ++inFlight);
+      new Timer() {
+        public void run() {
+          --inFlight;
+          Integer errors = quotaErrors.get(address);
+          if (errors != null && errors > 0) {
+            quotaErrors.put(address, errors - 1);
+            callback.onFailure(StatusCodes.TOO_MANY_QUERIES);
+          } else if (address.startsWith("?")) {
+            callback.onFailure(StatusCodes.UNKNOWN_ADDRESS);
+          } else {
+            JsArray<Placemark> locations = JavaScriptObject.createArray()
+                .cast();
+            callback.onSuccess(locations);
+          }
+        }
+      }.schedule(10);
+    }
+  }
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  public void testConcurrencyLimit() {
+    loadApi(new Runnable() {
+      public void run() {
+        final StubService stub = new StubService();
+        final BatchGeocoder batch = new BatchGeocoder(stub);
+        batch.setMaxConcurrentRequests(2);
+        batch.setRate(1000, 1000);
+        List<String> addresses = new ArrayList<String>();
+        for (int i = 0; i < 10; ++i) {
+          addresses.add("address " + i);
+        }
+        final boolean[] seen = new boolean[addresses.size()];
+        batch.geocode(addresses, new BatchGeocodeCallback() {
+          public void onComplete(int succeeded, int failed) {
+            assertEquals(10, succeeded);
+            assertEquals(0, failed);
+            for (boolean b : seen) {
+              assertTrue(b);
+            }
+            assertEquals(2, stub.maxInFlight);
+            assertEquals(10, batch.getRequestCount());
+            finishTest();
+          }
+
+          public void onFailure(int index, String address, int statusCode) {
+            fail("Unexpected failure " + statusCode + " for " + address);
+          }
+
+          public void onSuccess(int index, String address,
+              JsArray<Placemark> locations) {
+            assertEquals("address " + index, address);
+            seen[index] = true;
+          }
+        });
+        assertEquals(2, batch.getInFlightCount());
+        assertEquals(8, batch.getQueuedCount());
+      }
+    }, false);
+  }
+
+  public void testFailuresReported() {
+    loadApi(new Runnable() {
+      public void run() {
+        BatchGeocoder batch = new BatchGeocoder(new StubService());
+        List<String> addresses = Arrays.asList("a", "?b", "c");
+        batch.geocode(addresses, new BatchGeocodeCallback() {
+          public void onComplete(int succeeded, int failed) {
+            assertEquals(2, succeeded);
+            assertEquals(1, failed);
+            finishTest();
+          }
+
+          public void onFailure(int index, String address, int statusCode) {
+            assertEquals(1, index);
+            assertEquals(StatusCodes.UNKNOWN_ADDRESS, statusCode);
+          }
+
+          public void onSuccess(int index, String address,
+              JsArray<Placemark> locations) {
+            assertTrue(index != 1);
+          }
+        });
+      }
+    }, false);
+  }
+
+  public void testQuotaErrorsRetried() {
+    loadApi(new Runnable() {
+      public void run() {
+        StubService stub = new StubService();
+        stub.quotaErrors.put("b", 2);
+        final BatchGeocoder batch = new BatchGeocoder(stub);
+        batch.setBackoff(20, 100);
+        batch.geocode(Arrays.asList("a", "b", "c"), new BatchGeocodeCallback() {
+          public void onComplete(int succeeded, int failed) {
+            assertEquals(3, succeeded);
+            assertEquals(0, failed);
+            assertEquals(2, batch.getRetryCount());
+            assertEquals(5, batch.getRequestCount());
+            finishTest();
+          }
+
+          public void onFailure(int index, String address, int statusCode) {
+            fail("Unexpected failure " + statusCode + " for " + address);
+          }
+
+          public void onSuccess(int index, String address,
+              JsArray<Placemark> locations) {
+          }
+        });
+      }
+    }, false);
+  }
+
+  public void testRetriesExhausted() {
+    loadApi(new Runnable() {
+      public void run() {
+        StubService stub = new StubService();
+        stub.quotaErrors.put("a", 10);
+        final BatchGeocoder batch = new BatchGeocoder(stub);
+        batch.setBackoff(5, 20);
+        batch.setMaxRetries(2);
+        batch.geocode(Arrays.asList("a"), new BatchGeocodeCallback() {
+          public void onComplete(int succeeded, int failed) {
+            assertEquals(0, succeeded);
+            assertEquals(1, failed);
+            assertEquals(3, batch.getRequestCount());
+            finishTest();
+          }
+
+          public void onFailure(int index, String address, int statusCode) {
+            assertEquals(StatusCodes.TOO_MANY_QUERIES, statusCode);
+          }
+
+          public void onSuccess(int index, String address,
+              JsArray<Placemark> locations) {
+            fail("Unexpected success for " + address);
+          }
+        });
+      }
+    }, false);
+  }
+
+  public void testTokenBucket() {
+    loadApi(new Runnable() {
+      public void run() {
+        BatchGeocoder batch = new BatchGeocoder(new StubService());
+        batch.setMaxConcurrentRequests(10);
+        batch.setRate(20, 3);
+        batch.geocode(Arrays.asList("a", "b", "c", "d", "e"),
+            new BatchGeocodeCallback() {
+              public void onComplete(int succeeded, int failed) {
+                assertEquals(5, succeeded);
+                finishTest();
+              }
+
+              public void onFailure(int index, String address, int statusCode) {
+                fail("Unexpected failure " + statusCode + " for " + address);
+              }
+
+              public void onSuccess(int index, String address,
+                  JsArray<Placemark> locations) {
+              }
+            });
+        // Only the burst is sent immediately; the rest waits for tokens.
+        assertEquals(3, batch.getRequestCount());
+        assertEquals(2, batch.getQueuedCount());
+      }
+    }, false);
+  }
+}
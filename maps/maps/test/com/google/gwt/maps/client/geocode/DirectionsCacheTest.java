@@ -0,0 +1,237 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geocode;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.maps.client.MapsTestCase;
+import com.google.gwt.user.client.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for {@link DirectionsCache}, run against a local stub service so that
+ * no requests are sent to Google's servers.
+ */
+public class DirectionsCacheTest extends MapsTestCase {
+
+  /**
+   * Records each query and answers it when {@link #reply(int)} is called.
+   */
+  private static class StubService implements DirectionsService {
+    final List<DirectionsCallback> callbacks =
+        new ArrayList<DirectionsCallback>();
+    final List<String> queries = new ArrayList<String>();
+
+    public void load(String query, DirectionQueryOptions options,
+        DirectionsCallback callback) {
+      queries.add(query);
+      callbacks.add(callback);
+    }
+
+    public void loadFromWaypoints(Waypoint[] waypoints,
+        DirectionQueryOptions options, DirectionsCallback callback) {
+      StringBuilder query = new StringBuilder();
+      for (Waypoint waypoint : waypoints) {
+        query.append(waypoint).append(";");
+      }
+      load(query.toString(), options, callback);
+    }
+
+    void fail(int index, int statusCode) {
+      callbacks.get(index).onFailure(statusCode);
+    }
+
+    void reply(int index) {
+      callbacks.get(index).onSuccess(createResults(1000 * (index + 1),
+          60 * (index + 1)));
+    }
+  }
+
+  /**
+   * Counts the results delivered to it.
+   */
+  private static class CountingCallback implements DirectionsCallback {
+    int failures;
+    DirectionResults result;
+    int successes;
+
+    public void onFailure(int statusCode) {
+      ++failures;
+    }
+
+    public void onSuccess(DirectionResults result) {
+      this.result = result;
+      ++successes;
+    }
+  }
+
+  static DirectionResults createResults(double meters, int seconds) {
+    return new DirectionResults(nativeCreateResults(meters, seconds));
+  }
+
+  private static native JavaScriptObject nativeCreateResults(double meters,
+      int seconds) /*-{
+    return {
+      getDistance: function() {
+        return {meters: meters, html: meters + ' m'};
+      },
+      getDuration: function() {
+        return {seconds: seconds, html: seconds + ' s'};
+      }
+    };
+  }-*/;
+
+  private static Waypoint[] waypoints(String... addresses) {
+    Waypoint[] waypoints = new Waypoint[addresses.length];
+    for (int i = 0; i < addresses.length; ++i) {
+      waypoints[i] = new Waypoint(addresses[i]);
+    }
+    return waypoints;
+  }
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  public void testCanonicalWaypoints() {
+    loadApi(new Runnable() {
+      public void run() {
+        StubService stub = new StubService();
+        DirectionsCache cache = new DirectionsCache(stub, 10, 0);
+        CountingCallback first = new CountingCallback();
+        cache.loadFromWaypoints(waypoints("Seattle, WA", "47.6062091,-122.3"),
+            null, first);
+        stub.reply(0);
+
+        CountingCallback second = new CountingCallback();
+        cache.loadFromWaypoints(waypoints("  seattle,   wa ",
+            "47.60620912, -122.30"), null, second);
+        assertEquals(1, stub.queries.size());
+        assertEquals(1, second.successes);
+        assertSame(first.result, second.result);
+        assertEquals(1000.0, second.result.getDistance().inMeters(), 0);
+
+        // The order of the waypoints matters.
+        cache.loadFromWaypoints(waypoints("47.6062091,-122.3", "Seattle, WA"),
+            null, new CountingCallback());
+        assertEquals(2, stub.queries.size());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 1e-9);
+      }
+    });
+  }
+
+  public void testEviction() {
+    loadApi(new Runnable() {
+      public void run() {
+        StubService stub = new StubService();
+        DirectionsCache cache = new DirectionsCache(stub, 2, 0);
+        for (int i = 0; i < 3; ++i) {
+          cache.load("from: a to: " + i, null, new CountingCallback());
+          stub.reply(i);
+        }
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        cache.load("from: a to: 0", null, new CountingCallback());
+        assertEquals(4, stub.queries.size());
+        cache.load("from: a to: 2", null, new CountingCallback());
+        assertEquals(4, stub.queries.size());
+      }
+    });
+  }
+
+  public void testFailuresNotCached() {
+    loadApi(new Runnable() {
+      public void run() {
+        StubService stub = new StubService();
+        DirectionsCache cache = new DirectionsCache(stub, 10, 0);
+        CountingCallback callback = new CountingCallback();
+        cache.load("from: a to: b", null, callback);
+        stub.fail(0, StatusCodes.UNKNOWN_DIRECTIONS);
+        assertEquals(1, callback.failures);
+        cache.load("from: a to: b", null, callback);
+        assertEquals(2, stub.queries.size());
+        assertEquals(0, cache.size());
+      }
+    });
+  }
+
+  public void testOptionsInKey() {
+    loadApi(new Runnable() {
+      public void run() {
+        StubService stub = new StubService();
+        DirectionsCache cache = new DirectionsCache(stub, 10, 0);
+        DirectionQueryOptions avoid = new DirectionQueryOptions();
+        avoid.setAvoidHighways(true);
+        cache.load("from: a to: b", null, new CountingCallback());
+        stub.reply(0);
+        cache.load("from: a to: b", avoid, new CountingCallback());
+        stub.reply(1);
+        assertEquals(2, stub.queries.size());
+
+        DirectionQueryOptions same = new DirectionQueryOptions();
+        same.setAvoidHighways(true);
+        same.setPreserveViewport(true);
+        CountingCallback callback = new CountingCallback();
+        cache.load("from: a to: b", same, callback);
+        assertEquals(2, stub.queries.size());
+        assertEquals(2000.0, callback.result.getDistance().inMeters(), 0);
+      }
+    });
+  }
+
+  public void testPendingShared() {
+    loadApi(new Runnable() {
+      public void run() {
+        StubService stub = new StubService();
+        DirectionsCache cache = new DirectionsCache(stub, 10, 0);
+        CountingCallback first = new CountingCallback();
+        CountingCallback second = new CountingCallback();
+        cache.load("from: a to: b", null, first);
+        cache.load("FROM: A TO: B", null, second);
+        assertEquals(1, stub.queries.size());
+        assertEquals(0, first.successes);
+        stub.reply(0);
+        assertEquals(1, first.successes);
+        assertEquals(1, second.successes);
+        assertSame(first.result, second.result);
+      }
+    });
+  }
+
+  public void testTtl() {
+    loadApi(new Runnable() {
+      public void run() {
+        final StubService stub = new StubService();
+        final DirectionsCache cache = new DirectionsCache(stub, 10, 1);
+        cache.load("from: a to: b", null, new CountingCallback());
+        stub.reply(0);
+        new Timer() {
+          @Override
+          public void run() {
+            cache.load("from: a to: b", null, new CountingCallback());
+            assertEquals(2, stub.queries.size());
+            assertEquals(1, cache.getExpiredCount());
+            finishTest();
+          }
+        }.schedule(20);
+      }
+    }, false);
+  }
+}
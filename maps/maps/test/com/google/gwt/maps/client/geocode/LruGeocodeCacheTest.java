@@ -0,0 +1,207 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geocode;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.maps.client.MapsTestCase;
+import com.google.gwt.user.client.Timer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for {@link LruGeocodeCache} and the request de-duplication in
+ * {@link Geocoder}.
+ */
+public class LruGeocodeCacheTest extends MapsTestCase {
+
+  /**
+   * A store that keeps its entries in a Java map.
+   */
+  private static class MapStore implements GeocodeCacheStore {
+    final Map<String, String> values = new LinkedHashMap<String, String>();
+
+    public void clear() {
+      values.clear();
+    }
+
+    public String get(String key) {
+      return values.get(key);
+    }
+
+    public List<String> keys() {
+      return new ArrayList<String>(values.keySet());
+    }
+
+    public void put(String key, String value) {
+      values.put(key, value);
+    }
+
+    public void remove(String key) {
+      values.remove(key);
+    }
+  }
+
+  private static native JavaScriptObject createReply(String name) /*-{
+    return {
+      name: name,
+      Status: {code: 200, request: "geocode"},
+      Placemark: [{address: name, Point: {coordinates: [1, 2, 0]}}]
+    };
+  }-*/;
+
+  private static native String getName(JavaScriptObject reply) /*-{
+    return reply.name;
+  }-*/;
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  public void testCanonicalKeys() {
+    loadApi(new Runnable() {
+      public void run() {
+        LruGeocodeCache cache = new LruGeocodeCache();
+        cache.put("10 Main St, Springfield", createReply("a"));
+        JavaScriptObject reply = cache.get("10  main st springfield");
+        assertNotNull(reply);
+        assertEquals("a", getName(reply));
+        assertEquals(1, cache.getHitCount());
+        assertNull(cache.get("11 Main St"));
+        assertEquals(1, cache.getMissCount());
+      }
+    });
+  }
+
+  public void testEviction() {
+    loadApi(new Runnable() {
+      public void run() {
+        LruGeocodeCache cache = new LruGeocodeCache(2, 0);
+        cache.put("a", createReply("a"));
+        cache.put("b", createReply("b"));
+        // Touch "a" so that "b" becomes the least recently used entry.
+        assertNotNull(cache.get("a"));
+        cache.put("c", createReply("c"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+      }
+    });
+  }
+
+  public void testExpiry() {
+    loadApi(new Runnable() {
+      public void run() {
+        final LruGeocodeCache cache = new LruGeocodeCache(10, 50);
+        cache.put("a", createReply("a"));
+        assertNotNull(cache.get("a"));
+        new Timer() {
+          public void run() {
+            assertNull(cache.get("a"));
+            assertEquals(1, cache.getExpiredCount());
+            assertEquals(0, cache.size());
+            finishTest();
+          }
+        }.schedule(200);
+      }
+    }, false);
+  }
+
+  public void testInFlightRequestsCollapsed() {
+    loadApi(new Runnable() {
+      public void run() {
+        final int[] gets = {0};
+        final int[] replies = {0};
+        LruGeocodeCache cache = new LruGeocodeCache() {
+          @Override
+          public JavaScriptObject get(String address) {
+            ++gets[0];
+            return super.get(address);
+          }
+        };
+        Geocoder geocoder = new Geocoder(cache);
+        LocationCallback callback = new LocationCallback() {
+          public void onFailure(int statusCode) {
+            fail("Geocode failed with status " + statusCode);
+          }
+
+          public void onSuccess(JsArray<Placemark> locations) {
+            if (++replies[0] == 3) {
+              // The geocoder consulted the cache for one request only.
+              assertEquals(1, gets[0]);
+              finishTest();
+            }
+          }
+        };
+        geocoder.getLocations("1600 Amphitheatre Pky, Mountain View, CA",
+            callback);
+        geocoder.getLocations("1600 amphitheatre pky mountain view ca",
+            callback);
+        geocoder.getLocations("1600 Amphitheatre Pky,  Mountain View, CA",
+            callback);
+      }
+    }, false);
+  }
+
+  public void testPersistence() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapStore store = new MapStore();
+        LruGeocodeCache cache = new LruGeocodeCache(10, 0, store);
+        cache.put("a", createReply("a"));
+        assertEquals(1, store.values.size());
+
+        // A new cache over the same store starts warm.
+        LruGeocodeCache reloaded = new LruGeocodeCache(10, 0, store);
+        JavaScriptObject reply = reloaded.get("a");
+        assertNotNull(reply);
+        assertEquals("a", getName(reply));
+        assertEquals(1, reloaded.getHitCount());
+
+        reloaded.reset();
+        assertEquals(0, store.values.size());
+      }
+    });
+  }
+
+  public void testStoreBoundedAcrossInstances() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapStore store = new MapStore();
+        LruGeocodeCache cache = new LruGeocodeCache(3, 0, store);
+        cache.put("a", createReply("a"));
+        cache.put("b", createReply("b"));
+        cache.put("c", createReply("c"));
+
+        // The entries of the first cache are never loaded into the second.
+        LruGeocodeCache reloaded = new LruGeocodeCache(3, 0, store);
+        reloaded.put("d", createReply("d"));
+        reloaded.put("e", createReply("e"));
+        assertEquals(3, store.values.size());
+        assertEquals(2, reloaded.getEvictionCount());
+        assertNull(store.get("a"));
+        assertNull(store.get("b"));
+        assertNotNull(reloaded.get("c"));
+      }
+    });
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geom;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.maps.client.MapsTestCase;
+import com.google.gwt.user.client.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how long {@link GeometryService} blocks the UI thread computing
+ * polygon areas for thousands of shapes, with the synchronous Java fallback
+ * and with the worker pool. For the worker pool a probe timer records the
+ * longest time the UI thread went without servicing timers. Workers are only used in web mode. This is not part of the
+ * MapsTestSuite - run it manually.
+ */
+public class GeometryServiceBenchmark extends MapsTestCase {
+
+  private static final int PROBE_MILLIS = 5;
+  private static final int SHAPES = 5000;
+  private static final int TIMEOUT_MILLIS = 60000;
+  private static final int VERTICES_PER_SHAPE = 50;
+
+  private static PackedPaths createRings() {
+    Random random = new Random(SHAPES);
+    List<double[]> rings = new ArrayList<double[]>();
+    for (int i = 0; i < SHAPES; ++i) {
+      double lat = random.nextDouble() * 160 - 80;
+      double lng = random.nextDouble() * 350 - 175;
+      double[] ring = new double[VERTICES_PER_SHAPE * 2];
+      for (int j = 0; j < VERTICES_PER_SHAPE; ++j) {
+        double angle = 2 * Math.PI * j / VERTICES_PER_SHAPE;
+        ring[j * 2] = lat + Math.sin(angle);
+        ring[j * 2 + 1] = lng + Math.cos(angle);
+      }
+      rings.add(ring);
+    }
+    return PackedPaths.pack(rings);
+  }
+
+  private GeometryService async;
+  private double[] asyncResult;
+  private double finishedMillis;
+  private double lastTickMillis;
+  private double maxTickGapMillis;
+  private Timer probe;
+  private double startMillis;
+  private double submitMillis;
+  private double syncMillis;
+  private double[] syncResult;
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  public void testAreas() {
+    PackedPaths rings = createRings();
+
+    GeometryService sync = new GeometryService();
+    sync.setMinWorkerVertices(Integer.MAX_VALUE);
+    double start = Duration.currentTimeMillis();
+    sync.computeAreas(rings, new GeometryCallback<double[]>() {
+      public void onSuccess(double[] result) {
+        syncResult = result;
+      }
+    });
+    syncMillis = Duration.currentTimeMillis() - start;
+
+    // A timer that should tick every few milliseconds; the longest gap
+    // between ticks is the longest time the UI thread was blocked.
+    probe = new Timer() {
+      @Override
+      public void run() {
+        double now = Duration.currentTimeMillis();
+        maxTickGapMillis = Math.max(maxTickGapMillis, now - lastTickMillis);
+        lastTickMillis = now;
+      }
+    };
+    async = new GeometryService();
+    async.setMinWorkerVertices(0);
+    delayTestFinish(TIMEOUT_MILLIS);
+    startMillis = lastTickMillis = Duration.currentTimeMillis();
+    probe.scheduleRepeating(PROBE_MILLIS);
+    async.computeAreas(rings, new GeometryCallback<double[]>() {
+      public void onSuccess(double[] result) {
+        asyncResult = result;
+        finishedMillis = Duration.currentTimeMillis() - startMillis;
+        // Let the probe observe the time spent delivering the result
+        new Timer() {
+          @Override
+          public void run() {
+            report();
+          }
+        }.schedule(PROBE_MILLIS * 4);
+      }
+    });
+    submitMillis = Duration.currentTimeMillis() - startMillis;
+  }
+
+  private void report() {
+    probe.cancel();
+    assertEquals(syncResult.length, asyncResult.length);
+    for (int i = 0; i < syncResult.length; ++i) {
+      assertEquals(syncResult[i], asyncResult[i], syncResult[i] * 1e-9);
+    }
+    System.out.println("GeometryService areas of " + SHAPES + " x "
+        + VERTICES_PER_SHAPE + " vertex rings: synchronous blocks "
+        + syncMillis + "ms; with " + async.getWorkerJobCount()
+        + " worker jobs submit blocks " + submitMillis
+        + "ms, longest probe gap " + maxTickGapMillis + "ms, result after "
+        + finishedMillis + "ms");
+    async.shutdown();
+    finishTest();
+  }
+}
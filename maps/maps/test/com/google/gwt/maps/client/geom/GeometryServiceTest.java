@@ -0,0 +1,137 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geom;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit test for GeometryService. Runs on the JVM; no browser is required, so
+ * every job takes the synchronous fallback.
+ */
+public class GeometryServiceTest extends TestCase {
+
+  /**
+   * Records the result passed to the callback.
+   */
+  private static class Result<T> implements GeometryCallback<T> {
+    int calls;
+    T value;
+
+    public void onSuccess(T result) {
+      ++calls;
+      value = result;
+    }
+  }
+
+  private static PackedPaths createPaths() {
+    List<double[]> paths = new ArrayList<double[]>();
+    paths.add(new double[] {0, 0, 0, 1, 1, 1, 1, 0});
+    paths.add(new double[0]);
+    paths.add(new double[] {10, 10, 10, 12, 14, 12, 14, 10});
+    return PackedPaths.pack(paths);
+  }
+
+  public void testComputeAreas() {
+    GeometryService service = new GeometryService();
+    Result<double[]> result = new Result<double[]>();
+    service.computeAreas(createPaths(), result);
+    assertEquals(1, result.calls);
+    assertEquals(3, result.value.length);
+    assertEquals(Geometry.getArea(new double[] {0, 0, 0, 1, 1, 1, 1, 0}),
+        result.value[0]);
+    assertEquals(0.0, result.value[1]);
+    assertEquals(Geometry.getArea(new double[] {10, 10, 10, 12, 14, 12, 14,
+        10}), result.value[2]);
+  }
+
+  public void testComputeBounds() {
+    GeometryService service = new GeometryService();
+    Result<double[]> result = new Result<double[]>();
+    service.computeBounds(createPaths(), result);
+    assertEquals(12, result.value.length);
+    assertEquals(0.0, result.value[0]);
+    assertEquals(1.0, result.value[3]);
+    assertEquals(Double.POSITIVE_INFINITY, result.value[4]);
+    assertEquals(Double.NEGATIVE_INFINITY, result.value[6]);
+    assertEquals(10.0, result.value[8]);
+    assertEquals(10.0, result.value[9]);
+    assertEquals(14.0, result.value[10]);
+    assertEquals(12.0, result.value[11]);
+
+    service.computeBoundsUnion(createPaths(), result);
+    assertEquals(4, result.value.length);
+    assertEquals(0.0, result.value[0]);
+    assertEquals(0.0, result.value[1]);
+    assertEquals(14.0, result.value[2]);
+    assertEquals(12.0, result.value[3]);
+  }
+
+  public void testComputeLengths() {
+    GeometryService service = new GeometryService();
+    Result<double[]> result = new Result<double[]>();
+    service.computeLengths(createPaths(), result);
+    double degree = Geometry.EARTH_RADIUS * Math.toRadians(1);
+    assertEquals(3 * degree, result.value[0], degree * 1e-3);
+    assertEquals(0.0, result.value[1]);
+  }
+
+  public void testLocatePoints() {
+    GeometryService service = new GeometryService();
+    Result<int[]> result = new Result<int[]>();
+    service.locatePoints(createPaths(),
+        new double[] {0.5, 0.5, 12, 11, 5, 5, 14.5, 11}, result);
+    assertEquals(4, result.value.length);
+    assertEquals(0, result.value[0]);
+    assertEquals(2, result.value[1]);
+    assertEquals(-1, result.value[2]);
+    assertEquals(-1, result.value[3]);
+  }
+
+  public void testPack() {
+    PackedPaths paths = createPaths();
+    assertEquals(3, paths.getPathCount());
+    assertEquals(8, paths.getVertexCount());
+    assertEquals(0, paths.getOffset(0));
+    assertEquals(8, paths.getOffset(1));
+    assertEquals(8, paths.getOffset(2));
+    assertEquals(16, paths.getOffset(3));
+    try {
+      new PackedPaths(new double[4], new int[] {0, 6});
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  public void testSynchronousFallback() {
+    GeometryService service = new GeometryService();
+    service.setMinWorkerVertices(0);
+    assertFalse(service.isWorkerAvailable());
+    Result<double[]> result = new Result<double[]>();
+    service.computeLengths(createPaths(), result);
+    assertEquals(1, result.calls);
+    assertEquals(1, service.getSyncJobCount());
+    assertEquals(0, service.getWorkerJobCount());
+    assertEquals(0, service.getPendingJobCount());
+
+    service.resetStats();
+    assertEquals(0, service.getSyncJobCount());
+    service.shutdown();
+  }
+}
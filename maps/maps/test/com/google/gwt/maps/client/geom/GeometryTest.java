@@ -0,0 +1,77 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geom;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for Geometry. Runs on the JVM; no browser is required.
+ */
+public class GeometryTest extends TestCase {
+
+  public void testContainsLatLng() {
+    // An L-shaped ring.
+    double[] ring = {0, 0, 0, 10, 5, 10, 5, 5, 10, 5, 10, 0};
+    assertTrue(Geometry.containsLatLng(ring, 2, 2));
+    assertTrue(Geometry.containsLatLng(ring, 2, 8));
+    assertTrue(Geometry.containsLatLng(ring, 8, 2));
+    assertFalse(Geometry.containsLatLng(ring, 8, 8));
+    assertFalse(Geometry.containsLatLng(ring, -1, 2));
+    assertFalse(Geometry.containsLatLng(new double[0], 0, 0));
+  }
+
+  public void testGetBounds() {
+    double[] bounds = Geometry.getBounds(new double[] {1, 2, -3, 4, 5, -6});
+    assertEquals(-3.0, bounds[0]);
+    assertEquals(-6.0, bounds[1]);
+    assertEquals(5.0, bounds[2]);
+    assertEquals(4.0, bounds[3]);
+    assertNull(Geometry.getBounds(new double[0]));
+  }
+
+  public void testContainsLatLngRange() {
+    // The L-shaped ring packed after a triangle.
+    double[] packed = {20, 20, 30, 20, 20, 30,
+        0, 0, 0, 10, 5, 10, 5, 5, 10, 5, 10, 0};
+    assertTrue(Geometry.containsLatLng(packed, 6, 18, 2, 8));
+    assertFalse(Geometry.containsLatLng(packed, 6, 18, 8, 8));
+    assertFalse(Geometry.containsLatLng(packed, 6, 18, 22, 22));
+    assertTrue(Geometry.containsLatLng(packed, 0, 6, 22, 22));
+  }
+
+  public void testGetArea() {
+    // A one degree square on the equator.
+    double[] square = {0, 0, 0, 1, 1, 1, 1, 0};
+    double expected = Geometry.EARTH_RADIUS * Geometry.EARTH_RADIUS
+        * Math.toRadians(1) * Math.sin(Math.toRadians(1));
+    assertEquals(expected, Geometry.getArea(square), expected * 1e-3);
+
+    // Winding order does not matter.
+    double[] reversed = {1, 0, 1, 1, 0, 1, 0, 0};
+    assertEquals(Geometry.getArea(square), Geometry.getArea(reversed), 1e-3);
+    assertEquals(0.0, Geometry.getArea(new double[] {0, 0, 1, 1}));
+  }
+
+  public void testGetLength() {
+    double degree = Geometry.EARTH_RADIUS * Math.toRadians(1);
+    assertEquals(degree, Geometry.getLength(new double[] {0, 0, 0, 1}), 1e-6);
+    assertEquals(2 * degree,
+        Geometry.getLength(new double[] {0, 0, 1, 0, 2, 0}), 1e-6);
+    assertEquals(degree,
+        Geometry.getLength(new double[] {9, 9, 0, 0, 1, 0, 9, 9}, 2, 6), 1e-6);
+    assertEquals(0.0, Geometry.getLength(new double[] {5, 5}));
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geom;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.maps.client.MapsTestCase;
+
+/**
+ * Compares projecting coordinates through the Maps API with
+ * {@link MercatorProjection#fromLatLngToPixel(LatLng, int)} against the bulk
+ * conversions of {@link MercatorTransform}. This is not part of the
+ * MapsTestSuite - run it manually.
+ */
+public class MercatorTransformBenchmark extends MapsTestCase {
+
+  private static final int[] SIZES = {1000, 10000, 100000};
+  private static final int ZOOM = 12;
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  public void testFromLatLngToPixel() {
+    loadApi(new Runnable() {
+      public void run() {
+        for (int size : SIZES) {
+          runBenchmark(size);
+        }
+      }
+    });
+  }
+
+  private void runBenchmark(int size) {
+    double[] latLngs = new double[size * 2];
+    for (int i = 0; i < size; ++i) {
+      latLngs[i * 2] = Math.random() * 160 - 80;
+      latLngs[i * 2 + 1] = Math.random() * 360 - 180;
+    }
+    MercatorProjection projection = new MercatorProjection(20);
+    MercatorTransform transform = new MercatorTransform(20);
+
+    int[] jsPixels = new int[size * 2];
+    double start = Duration.currentTimeMillis();
+    for (int i = 0; i < size; ++i) {
+      Point p = projection.fromLatLngToPixel(LatLng.newInstance(
+          latLngs[i * 2], latLngs[i * 2 + 1]), ZOOM);
+      jsPixels[i * 2] = p.getX();
+      jsPixels[i * 2 + 1] = p.getY();
+    }
+    double jsMillis = Duration.currentTimeMillis() - start;
+
+    double[] pixels = new double[size * 2];
+    start = Duration.currentTimeMillis();
+    transform.fromLatLngToPixel(latLngs, pixels, ZOOM);
+    double javaMillis = Duration.currentTimeMillis() - start;
+
+    // The Maps API rounds to whole pixels.
+    for (int i = 0; i < pixels.length; ++i) {
+      assertEquals(jsPixels[i], pixels[i], 1.0);
+    }
+    System.out.println("MercatorTransform " + size + " points: Maps API "
+        + jsMillis + "ms, bulk Java " + javaMillis + "ms");
+  }
+}
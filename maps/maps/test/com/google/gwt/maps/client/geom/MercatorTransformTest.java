@@ -0,0 +1,99 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geom;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for MercatorTransform. Runs on the JVM; no browser is required.
+ */
+public class MercatorTransformTest extends TestCase {
+
+  public void testBadZoomLevel() {
+    MercatorTransform transform = new MercatorTransform(20);
+    try {
+      transform.getPixelX(0, 20);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  public void testBulkMatchesSingle() {
+    MercatorTransform transform = new MercatorTransform(20);
+    double[] latLngs = {37.42, -122.08, -33.86, 151.2, 51.5, 0, 0, 179.9};
+    double[] pixels = new double[latLngs.length];
+    transform.fromLatLngToPixel(latLngs, pixels, 12);
+    for (int i = 0; i < latLngs.length; i += 2) {
+      assertEquals(transform.getPixelX(latLngs[i + 1], 12), pixels[i], 0);
+      assertEquals(transform.getPixelY(latLngs[i], 12), pixels[i + 1], 0);
+    }
+
+    // Convert in place over a sub-range.
+    double[] buffer = latLngs.clone();
+    transform.fromLatLngToPixel(buffer, 2, buffer, 2, 2, 12);
+    assertEquals(latLngs[0], buffer[0], 0);
+    assertEquals(pixels[2], buffer[2], 0);
+    assertEquals(pixels[5], buffer[5], 0);
+    assertEquals(latLngs[7], buffer[7], 0);
+  }
+
+  public void testKnownPixels() {
+    MercatorTransform transform = new MercatorTransform(20);
+    assertEquals(256.0, transform.getWrapWidth(0), 0);
+    assertEquals(256.0 * 1024, transform.getWrapWidth(10), 0);
+
+    assertEquals(128.0, transform.getPixelX(0, 0), 1e-9);
+    assertEquals(128.0, transform.getPixelY(0, 0), 1e-9);
+    assertEquals(0.0, transform.getPixelX(-180, 0), 1e-9);
+    assertEquals(512.0, transform.getPixelX(180, 1), 1e-9);
+    // The edge of the world square.
+    assertEquals(0.0, transform.getPixelY(85.0511287798, 0), 1e-6);
+    assertEquals(256.0, transform.getPixelY(-85.0511287798, 0), 1e-6);
+  }
+
+  public void testPoleClamped() {
+    MercatorTransform transform = new MercatorTransform(20);
+    double y = transform.getPixelY(90, 0);
+    assertFalse(Double.isInfinite(y));
+    assertTrue(y < 0);
+  }
+
+  public void testRoundTrip() {
+    MercatorTransform transform = new MercatorTransform(20);
+    double[] latLngs = {37.42, -122.08, -33.86, 151.2, 80, -179.5, 0, 0};
+    double[] buffer = latLngs.clone();
+    for (int zoom = 0; zoom < 20; zoom += 5) {
+      transform.fromLatLngToPixel(latLngs, buffer, zoom);
+      transform.fromPixelToLatLng(buffer, buffer, zoom, false);
+      for (int i = 0; i < latLngs.length; ++i) {
+        assertEquals(latLngs[i], buffer[i], 1e-9);
+      }
+    }
+  }
+
+  public void testWrap() {
+    MercatorTransform transform = new MercatorTransform(20);
+    double x = transform.getPixelX(170, 3) + transform.getWrapWidth(3);
+    assertEquals(170, transform.getLongitude(x, 3), 1e-9);
+
+    double[] pixels = {x, transform.getPixelY(10, 3)};
+    double[] latLngs = new double[2];
+    transform.fromPixelToLatLng(pixels, latLngs, 3, true);
+    assertEquals(530, latLngs[1], 1e-9);
+    assertEquals(10, latLngs[0], 1e-9);
+  }
+}
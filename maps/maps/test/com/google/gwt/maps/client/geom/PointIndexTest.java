@@ -0,0 +1,113 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geom;
+
+import junit.framework.TestCase;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Unit test for PointIndex. Runs on the JVM; no browser is required.
+ */
+public class PointIndexTest extends TestCase {
+
+  /**
+   * Collects the indexes of the points visited.
+   */
+  private static class Collector implements PointIndex.Visitor {
+    final Set<Integer> found = new HashSet<Integer>();
+
+    public void visit(int index, double x, double y) {
+      assertTrue("Visited twice", found.add(index));
+    }
+  }
+
+  private static double[] createPoints(int count, long seed) {
+    Random random = new Random(seed);
+    double[] latLngs = new double[count * 2];
+    for (int i = 0; i < count; ++i) {
+      latLngs[i * 2] = 40 + random.nextDouble() * 10;
+      latLngs[i * 2 + 1] = -80 + random.nextDouble() * 20;
+    }
+    return latLngs;
+  }
+
+  public void testEmpty() {
+    PointIndex index = new PointIndex(new double[0]);
+    assertEquals(0, index.size());
+    assertEquals(0, index.search(0, 0, 1, 1, new Collector()));
+    assertEquals(-1, index.nearest(0.5, 0.5, 1));
+  }
+
+  public void testNearest() {
+    double[] latLngs = createPoints(5000, 2);
+    PointIndex index = new PointIndex(latLngs);
+    Random random = new Random(3);
+    for (int q = 0; q < 100; ++q) {
+      double x = PointIndex.toX(-80 + random.nextDouble() * 20);
+      double y = PointIndex.toY(40 + random.nextDouble() * 10);
+      double maxDistance = random.nextDouble() * 0.001;
+      int expected = -1;
+      double best = maxDistance * maxDistance;
+      for (int i = 0; i < latLngs.length / 2; ++i) {
+        double dx = PointIndex.toX(latLngs[i * 2 + 1]) - x;
+        double dy = PointIndex.toY(latLngs[i * 2]) - y;
+        if (dx * dx + dy * dy <= best) {
+          best = dx * dx + dy * dy;
+          expected = i;
+        }
+      }
+      assertEquals(expected, index.nearest(x, y, maxDistance));
+    }
+  }
+
+  public void testSearch() {
+    double[] latLngs = createPoints(10000, 1);
+    PointIndex index = new PointIndex(latLngs);
+    assertEquals(10000, index.size());
+    Random random = new Random(4);
+    for (int q = 0; q < 50; ++q) {
+      double left = PointIndex.toX(-82 + random.nextDouble() * 22);
+      double top = PointIndex.toY(52 - random.nextDouble() * 12);
+      double right = left + random.nextDouble() * 0.02;
+      double bottom = top + random.nextDouble() * 0.02;
+      Set<Integer> expected = new HashSet<Integer>();
+      for (int i = 0; i < latLngs.length / 2; ++i) {
+        double x = PointIndex.toX(latLngs[i * 2 + 1]);
+        double y = PointIndex.toY(latLngs[i * 2]);
+        if (x >= left && x <= right && y >= top && y <= bottom) {
+          expected.add(i);
+        }
+      }
+      Collector collector = new Collector();
+      assertEquals(expected.size(), index.search(left, top, right, bottom,
+          collector));
+      assertEquals(expected, collector.found);
+    }
+  }
+
+  public void testSinglePoint() {
+    PointIndex index = new PointIndex(new double[] {0, 0});
+    assertEquals(0.5, PointIndex.toX(0), 1e-12);
+    assertEquals(0.5, PointIndex.toY(0), 1e-12);
+    assertEquals(0, index.nearest(0.5, 0.5, 0));
+    Collector collector = new Collector();
+    assertEquals(1, index.search(0.4, 0.4, 0.6, 0.6, collector));
+    assertEquals(0, index.search(0.6, 0.4, 0.7, 0.6, collector));
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geom;
+
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures RTree insert, range and nearest neighbor query times. Runs on the
+ * JVM. This is not part of the MapsTestSuite - run it manually.
+ */
+public class RTreeBenchmark extends TestCase {
+
+  private static final int QUERIES = 1000;
+  private static final int[] SIZES = {1000, 10000, 100000};
+
+  public void testQueries() {
+    for (int size : SIZES) {
+      runBenchmark(size);
+    }
+  }
+
+  private void runBenchmark(int size) {
+    Random random = new Random(size);
+    double[] lats = new double[size];
+    double[] lngs = new double[size];
+    for (int i = 0; i < size; ++i) {
+      lats[i] = random.nextDouble() * 160 - 80;
+      lngs[i] = random.nextDouble() * 360 - 180;
+    }
+
+    RTree<Integer> tree = new RTree<Integer>();
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < size; ++i) {
+      tree.insert(i, lats[i], lngs[i]);
+    }
+    long insertMillis = System.currentTimeMillis() - start;
+
+    int found = 0;
+    start = System.currentTimeMillis();
+    for (int q = 0; q < QUERIES; ++q) {
+      double lat = random.nextDouble() * 150 - 75;
+      double lng = random.nextDouble() * 350 - 175;
+      List<Integer> result = tree.search(lat, lng, lat + 5, lng + 5);
+      found += result.size();
+    }
+    long rangeMillis = System.currentTimeMillis() - start;
+
+    start = System.currentTimeMillis();
+    for (int q = 0; q < QUERIES; ++q) {
+      tree.nearest(random.nextDouble() * 160 - 80,
+          random.nextDouble() * 360 - 180, 10);
+    }
+    long nearestMillis = System.currentTimeMillis() - start;
+
+    System.out.println("RTree " + size + " items: insert " + insertMillis
+        + "ms, " + QUERIES + " range queries " + rangeMillis + "ms ("
+        + found + " hits), " + QUERIES + " 10-nearest queries "
+        + nearestMillis + "ms");
+    assertEquals(size, tree.size());
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.geom;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Unit test for RTree. Runs on the JVM; no browser is required.
+ */
+public class RTreeTest extends TestCase {
+
+  private static double[] randomBox(Random random) {
+    double lat = random.nextDouble() * 160 - 80;
+    double lng = random.nextDouble() * 340 - 170;
+    double size = random.nextDouble() * 2;
+    return new double[] {lat, lng, lat + size, lng + size};
+  }
+
+  public void testEmpty() {
+    RTree<String> tree = new RTree<String>();
+    assertEquals(0, tree.size());
+    assertTrue(tree.search(-90, -180, 90, 180).isEmpty());
+    assertTrue(tree.nearest(0, 0, 5).isEmpty());
+    assertFalse(tree.remove("a"));
+  }
+
+  public void testInsertMoves() {
+    RTree<String> tree = new RTree<String>();
+    tree.insert("a", 10, 10);
+    tree.insert("a", -10, -10);
+    assertEquals(1, tree.size());
+    assertTrue(tree.search(9, 9, 11, 11).isEmpty());
+    assertEquals(1, tree.search(-11, -11, -9, -9).size());
+  }
+
+  public void testNearest() {
+    Random random = new Random(42);
+    RTree<Integer> tree = new RTree<Integer>();
+    List<double[]> points = new ArrayList<double[]>();
+    for (int i = 0; i < 1000; ++i) {
+      double[] p = {random.nextDouble() * 10, random.nextDouble() * 10};
+      points.add(p);
+      tree.insert(i, p[0], p[1]);
+    }
+    List<Integer> nearest = tree.nearest(5, 5, 10);
+    assertEquals(10, nearest.size());
+
+    // The k-th nearest must be no farther than any point not returned.
+    double scale = Math.cos(5 * Math.PI / 180);
+    double kth = distance(points.get(nearest.get(9)), 5, 5, scale);
+    Set<Integer> found = new HashSet<Integer>(nearest);
+    for (int i = 0; i < points.size(); ++i) {
+      if (!found.contains(i)) {
+        assertTrue(distance(points.get(i), 5, 5, scale) >= kth);
+      }
+    }
+    for (int i = 1; i < nearest.size(); ++i) {
+      assertTrue(distance(points.get(nearest.get(i - 1)), 5, 5, scale)
+          <= distance(points.get(nearest.get(i)), 5, 5, scale));
+    }
+  }
+
+  public void testSearchAcrossDateLine() {
+    RTree<String> tree = new RTree<String>();
+    tree.insert("west", 0, 179.5);
+    tree.insert("east", 0, -179.5);
+    tree.insert("far", 0, 0);
+    List<String> result = tree.search(-1, 179, 1, -179);
+    assertEquals(2, result.size());
+    assertTrue(result.contains("west"));
+    assertTrue(result.contains("east"));
+  }
+
+  public void testSearchMatchesBruteForce() {
+    Random random = new Random(7);
+    RTree<Integer> tree = new RTree<Integer>();
+    List<double[]> boxes = new ArrayList<double[]>();
+    for (int i = 0; i < 2000; ++i) {
+      double[] box = randomBox(random);
+      boxes.add(box);
+      tree.insert(i, box[0], box[1], box[2], box[3]);
+    }
+    // Remove every third item to exercise node condensing.
+    Set<Integer> removed = new HashSet<Integer>();
+    for (int i = 0; i < boxes.size(); i += 3) {
+      assertTrue(tree.remove(i));
+      removed.add(i);
+    }
+    assertEquals(boxes.size() - removed.size(), tree.size());
+
+    for (int q = 0; q < 50; ++q) {
+      double[] query = randomBox(random);
+      query[2] += 10;
+      query[3] += 10;
+      Set<Integer> expected = new HashSet<Integer>();
+      for (int i = 0; i < boxes.size(); ++i) {
+        double[] b = boxes.get(i);
+        if (!removed.contains(i) && b[0] <= query[2] && b[2] >= query[0]
+            && b[1] <= query[3] && b[3] >= query[1]) {
+          expected.add(i);
+        }
+      }
+      List<Integer> actual = tree.search(query[0], query[1], query[2],
+          query[3]);
+      assertEquals(expected.size(), actual.size());
+      assertEquals(expected, new HashSet<Integer>(actual));
+    }
+
+    tree.clear();
+    assertEquals(0, tree.size());
+  }
+
+  private double distance(double[] p, double lat, double lng, double scale) {
+    double dy = p[0] - lat;
+    double dx = (p[1] - lng) * scale;
+    return dx * dx + dy * dy;
+  }
+}
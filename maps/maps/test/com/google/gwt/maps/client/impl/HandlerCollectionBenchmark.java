@@ -0,0 +1,94 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.impl;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.maps.client.MapWidget;
+import com.google.gwt.maps.client.MapsTestCase;
+import com.google.gwt.maps.client.TestUtilities;
+import com.google.gwt.maps.client.impl.EventImpl.VoidCallback;
+
+/**
+ * Measures adding, firing and removing handlers on a
+ * {@link HandlerCollection}: 1000 handlers receive 100000 events in web mode,
+ * or 1000 events in hosted mode where every call crosses into Java. It runs as
+ * part of the MapsTestSuite; the timings are printed to the console.
+ */
+public class HandlerCollectionBenchmark extends MapsTestCase {
+
+  private static final int EVENTS = GWT.isScript() ? 100000 : 1000;
+  private static final int HANDLERS = 1000;
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  /**
+   * Runs before each test method.
+   */
+  @Override
+  public void gwtSetUp() {
+    TestUtilities.cleanDom();
+  }
+
+  public void testFanOut() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget map = addDefaultMap();
+        HandlerCollection<Object> handlers = new HandlerCollection<Object>(
+            map.getPeer(), MapEvent.MOVE);
+        final int[] calls = {0};
+        Object[] listeners = new Object[HANDLERS];
+
+        Duration addTime = new Duration();
+        for (int i = 0; i < HANDLERS; ++i) {
+          listeners[i] = new Object();
+          handlers.addHandler(listeners[i], new VoidCallback() {
+            @Override
+            public void callback() {
+              ++calls[0];
+            }
+          });
+        }
+        int addMillis = addTime.elapsedMillis();
+
+        Duration fireTime = new Duration();
+        for (int i = 0; i < EVENTS; ++i) {
+          handlers.trigger();
+        }
+        int fireMillis = fireTime.elapsedMillis();
+
+        // Remove in an order that defeats a scan from either end.
+        Duration removeTime = new Duration();
+        for (int i = 0; i < HANDLERS; i += 2) {
+          handlers.removeHandler(listeners[i]);
+        }
+        for (int i = 1; i < HANDLERS; i += 2) {
+          handlers.removeHandler(listeners[i]);
+        }
+        int removeMillis = removeTime.elapsedMillis();
+
+        System.out.println("HandlerCollection " + HANDLERS + " handlers: add "
+            + addMillis + "ms, " + EVENTS + " events " + fireMillis
+            + "ms (" + calls[0] + " calls), remove " + removeMillis + "ms");
+        assertEquals(HANDLERS * EVENTS, calls[0]);
+        assertEquals(0, handlers.getHandlerCount());
+      }
+    });
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.impl;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.GWT.UncaughtExceptionHandler;
+import com.google.gwt.maps.client.MapWidget;
+import com.google.gwt.maps.client.MapsTestCase;
+import com.google.gwt.maps.client.TestUtilities;
+import com.google.gwt.maps.client.geom.LatLng;
+import com.google.gwt.maps.client.impl.EventImpl.LatLngCallback;
+import com.google.gwt.maps.client.impl.EventImpl.VoidCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the fan-out dispatch in {@link HandlerCollection}.
+ */
+public class HandlerCollectionTest extends MapsTestCase {
+
+  /**
+   * Records the order in which callbacks are invoked.
+   */
+  private static class RecordingCallback extends VoidCallback {
+    private final List<String> log;
+    private final String name;
+
+    RecordingCallback(List<String> log, String name) {
+      this.log = log;
+      this.name = name;
+    }
+
+    @Override
+    public void callback() {
+      log.add(name);
+    }
+  }
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  /**
+   * Runs before each test method.
+   */
+  @Override
+  public void gwtSetUp() {
+    TestUtilities.cleanDom();
+  }
+
+  public void testArgumentsSharedByHandlers() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget map = addDefaultMap();
+        HandlerCollection<Object> handlers = new HandlerCollection<Object>(
+            map.getPeer(), MapEvent.MOUSEMOVE);
+        final List<LatLng> received = new ArrayList<LatLng>();
+        for (int i = 0; i < 3; ++i) {
+          handlers.addHandler(new Object(), new LatLngCallback() {
+            @Override
+            public void callback(LatLng latlng) {
+              received.add(latlng);
+            }
+          });
+        }
+        LatLng point = LatLng.newInstance(1, 2);
+        handlers.trigger(point);
+        assertEquals(3, received.size());
+        assertEquals(point, received.get(0));
+        assertSame(received.get(0), received.get(1));
+        assertSame(received.get(0), received.get(2));
+      }
+    });
+  }
+
+  public void testDispatchOrder() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget map = addDefaultMap();
+        HandlerCollection<Object> handlers = new HandlerCollection<Object>(
+            map.getPeer(), MapEvent.MOVE);
+        List<String> log = new ArrayList<String>();
+        Object a = new Object();
+        handlers.addHandler(a, new RecordingCallback(log, "a"));
+        handlers.addHandler(new Object(), new RecordingCallback(log, "b"));
+        handlers.addHandler(new Object(), new RecordingCallback(log, "c"));
+        assertEquals(3, handlers.getHandlerCount());
+
+        handlers.trigger();
+        assertEquals("[a, b, c]", log.toString());
+
+        log.clear();
+        handlers.removeHandler(a);
+        handlers.trigger();
+        assertEquals("[b, c]", log.toString());
+        assertEquals(2, handlers.getHandlerCount());
+      }
+    });
+  }
+
+  public void testDuplicateListener() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget map = addDefaultMap();
+        HandlerCollection<Object> handlers = new HandlerCollection<Object>(
+            map.getPeer(), MapEvent.MOVE);
+        List<String> log = new ArrayList<String>();
+        Object a = new Object();
+        handlers.addHandler(a, new RecordingCallback(log, "a1"));
+        handlers.addHandler(a, new RecordingCallback(log, "a2"));
+
+        // Each removal takes out the earliest registration.
+        handlers.removeHandler(a);
+        handlers.trigger();
+        assertEquals("[a2]", log.toString());
+
+        log.clear();
+        handlers.removeHandler(a);
+        handlers.removeHandler(a);
+        handlers.trigger();
+        assertEquals("[]", log.toString());
+        assertEquals(0, handlers.getHandlerCount());
+      }
+    });
+  }
+
+  public void testExceptionDoesNotStopDispatch() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget map = addDefaultMap();
+        HandlerCollection<Object> handlers = new HandlerCollection<Object>(
+            map.getPeer(), MapEvent.MOVE);
+        List<String> log = new ArrayList<String>();
+        final RuntimeException first = new RuntimeException("first");
+        handlers.addHandler(new Object(), new RecordingCallback(log, "a"));
+        handlers.addHandler(new Object(), new VoidCallback() {
+          @Override
+          public void callback() {
+            throw first;
+          }
+        });
+        handlers.addHandler(new Object(), new VoidCallback() {
+          @Override
+          public void callback() {
+            throw new IllegalStateException("second");
+          }
+        });
+        handlers.addHandler(new Object(), new RecordingCallback(log, "d"));
+
+        UncaughtExceptionHandler saved = GWT.getUncaughtExceptionHandler();
+        try {
+          final List<Throwable> reported = new ArrayList<Throwable>();
+          GWT.setUncaughtExceptionHandler(new UncaughtExceptionHandler() {
+            public void onUncaughtException(Throwable e) {
+              reported.add(e);
+            }
+          });
+          handlers.trigger();
+          assertEquals("[a, d]", log.toString());
+          assertEquals(2, reported.size());
+          assertSame(first, reported.get(0));
+
+          // Without a handler the first exception surfaces after the loop.
+          log.clear();
+          GWT.setUncaughtExceptionHandler(null);
+          try {
+            handlers.trigger();
+            fail("Expected the first exception to be rethrown");
+          } catch (RuntimeException e) {
+            assertEquals("first", e.getMessage());
+          }
+          assertEquals("[a, d]", log.toString());
+        } finally {
+          GWT.setUncaughtExceptionHandler(saved);
+        }
+      }
+    });
+  }
+
+  public void testRemoveDuringDispatch() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget map = addDefaultMap();
+        final HandlerCollection<Object> handlers = new HandlerCollection<Object>(
+            map.getPeer(), MapEvent.MOVE);
+        final List<String> log = new ArrayList<String>();
+        final Object b = new Object();
+        final Object c = new Object();
+        handlers.addHandler(new Object(), new VoidCallback() {
+          @Override
+          public void callback() {
+            log.add("a");
+            // Removes a handler that has not been reached yet.
+            handlers.removeHandler(c);
+          }
+        });
+        handlers.addHandler(b, new VoidCallback() {
+          @Override
+          public void callback() {
+            log.add("b");
+            // Removes the handler being dispatched.
+            handlers.removeHandler(b);
+          }
+        });
+        handlers.addHandler(c, new RecordingCallback(log, "c"));
+        handlers.addHandler(new Object(), new RecordingCallback(log, "d"));
+
+        handlers.trigger();
+        assertEquals("[a, b, d]", log.toString());
+
+        log.clear();
+        handlers.trigger();
+        assertEquals("[a, d]", log.toString());
+      }
+    });
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.impl;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.JSList;
+import com.google.gwt.apis.jsio.client.impl.JSListWrapper;
+import com.google.gwt.maps.client.MapsTestCase;
+import com.google.gwt.maps.client.TileLayer;
+
+/**
+ * Measures iterating a {@link JSListWrapper} with and without the wrapper
+ * cache, and converting arrays element by element against the bulk
+ * conversions in {@link JsUtil}. This is not part of the MapsTestSuite - run
+ * it manually.
+ */
+public class JSListBenchmark extends MapsTestCase {
+
+  private static final int PASSES = 3;
+  private static final int[] SIZES = {1000, 10000, 100000};
+
+  private static native JavaScriptObject nativeGetTileLayer() /*-{
+    return $wnd.G_NORMAL_MAP.getTileLayers()[0];
+  }-*/;
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  public void testConversion() {
+    loadApi(new Runnable() {
+      public void run() {
+        for (int size : SIZES) {
+          runConversion(size);
+        }
+      }
+    });
+  }
+
+  public void testIteration() {
+    loadApi(new Runnable() {
+      public void run() {
+        for (int size : SIZES) {
+          runIteration(size);
+        }
+      }
+    });
+  }
+
+  private void runConversion(int size) {
+    int[] values = new int[size];
+    for (int i = 0; i < size; ++i) {
+      values[i] = i;
+    }
+
+    // Element by element, as JsUtil used to convert.
+    double start = Duration.currentTimeMillis();
+    JSList<Integer> list = JsUtil.toJsList(new int[0]);
+    for (int i = 0; i < size; ++i) {
+      list.add(new Integer(values[i]));
+    }
+    int[] copy = new int[size];
+    for (int i = 0; i < size; ++i) {
+      copy[i] = list.get(i).intValue();
+    }
+    double elementMillis = Duration.currentTimeMillis() - start;
+
+    start = Duration.currentTimeMillis();
+    list = JsUtil.toJsList(values);
+    copy = new int[size];
+    JsUtil.toArray(list, copy);
+    double bulkMillis = Duration.currentTimeMillis() - start;
+
+    assertEquals(size - 1, copy[size - 1]);
+    System.out.println("JSList conversion " + size
+        + " ints: element by element " + elementMillis + "ms, bulk "
+        + bulkMillis + "ms");
+  }
+
+  @SuppressWarnings("unchecked")
+  private void runIteration(int size) {
+    TileLayer[] layers = new TileLayer[size];
+    JavaScriptObject jso = nativeGetTileLayer();
+    for (int i = 0; i < size; ++i) {
+      layers[i] = TileLayer.createPeer(jso);
+    }
+    JSListWrapper<TileLayer> list =
+        (JSListWrapper<TileLayer>) JsUtil.toJsList(layers);
+
+    double start = Duration.currentTimeMillis();
+    for (int pass = 0; pass < PASSES; ++pass) {
+      for (TileLayer layer : list) {
+        assertNotNull(layer);
+      }
+    }
+    double uncachedMillis = Duration.currentTimeMillis() - start;
+
+    list.setCachingWrappers(true);
+    start = Duration.currentTimeMillis();
+    for (int pass = 0; pass < PASSES; ++pass) {
+      for (TileLayer layer : list) {
+        assertNotNull(layer);
+      }
+    }
+    double cachedMillis = Duration.currentTimeMillis() - start;
+
+    start = Duration.currentTimeMillis();
+    Object[] array = list.toArray();
+    double toArrayMillis = Duration.currentTimeMillis() - start;
+
+    assertEquals(size, array.length);
+    System.out.println("JSList iteration " + size + " elements x " + PASSES
+        + " passes: uncached " + uncachedMillis + "ms, cached " + cachedMillis
+        + "ms, toArray " + toArrayMillis + "ms");
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.impl;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.apis.jsio.client.JSList;
+import com.google.gwt.apis.jsio.client.impl.JSListWrapper;
+import com.google.gwt.maps.client.MapsTestCase;
+import com.google.gwt.maps.client.TileLayer;
+
+/**
+ * Tests the bulk conversions in {@link JsUtil} and the wrapper cache of
+ * {@link JSListWrapper}.
+ */
+public class JsUtilTest extends MapsTestCase {
+
+  private static native JavaScriptObject nativeGetTileLayer(int index) /*-{
+    return $wnd.G_HYBRID_MAP.getTileLayers()[index];
+  }-*/;
+
+  private static native int nativeLength(JavaScriptObject array) /*-{
+    return array.length;
+  }-*/;
+
+  private static native void nativeReverse(JavaScriptObject array) /*-{
+    array.reverse();
+  }-*/;
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  public void testIntArrays() {
+    int[] values = {3, -1, 4, 1, 5};
+    JavaScriptObject jsArray = JsUtil.toJsArray(values);
+    assertEquals(values.length, nativeLength(jsArray));
+    int[] copy = new int[values.length];
+    JsUtil.toArray(jsArray, copy);
+    for (int i = 0; i < values.length; ++i) {
+      assertEquals(values[i], copy[i]);
+    }
+
+    copy = new int[values.length];
+    JsUtil.toArray(JsUtil.toJsList(values), copy);
+    for (int i = 0; i < values.length; ++i) {
+      assertEquals(values[i], copy[i]);
+    }
+  }
+
+  public void testDoubleArrays() {
+    double[] values = {0.5, -122.08, 37.42};
+    double[] copy = new double[values.length];
+    JsUtil.toArray(JsUtil.toJsArray(values), copy);
+    for (int i = 0; i < values.length; ++i) {
+      assertEquals(values[i], copy[i], 0);
+    }
+  }
+
+  public void testStringList() {
+    String[] values = {"a", "b", "c"};
+    JSList<String> list = JsUtil.toJsList(values);
+    assertEquals(3, list.size());
+    String[] copy = new String[3];
+    JsUtil.toArray(list, copy);
+    for (int i = 0; i < values.length; ++i) {
+      assertEquals(values[i], copy[i]);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public void testWrapperCache() {
+    loadApi(new Runnable() {
+      public void run() {
+        TileLayer[] layers = {
+            TileLayer.createPeer(nativeGetTileLayer(0)),
+            TileLayer.createPeer(nativeGetTileLayer(1))};
+        JSListWrapper<TileLayer> list =
+            (JSListWrapper<TileLayer>) JsUtil.toJsList(layers);
+        assertEquals(2, list.size());
+
+        // Without the cache every access creates a new wrapper.
+        assertNotSame(list.get(0), list.get(0));
+
+        list.setCachingWrappers(true);
+        assertTrue(list.isCachingWrappers());
+        TileLayer first = list.get(0);
+        TileLayer second = list.get(1);
+        assertSame(first, list.get(0));
+        assertSame(second, list.get(1));
+
+        Object[] array = list.toArray();
+        assertSame(first, array[0]);
+        assertSame(second, array[1]);
+
+        // Removing an element shifts the cache with the array.
+        list.remove(0);
+        assertSame(second, list.get(0));
+
+        // Changes made from JavaScript are detected.
+        list.add(0, first);
+        assertSame(first, list.get(0));
+        nativeReverse(list.getJavaScriptObject());
+        assertNotSame(first, list.get(0));
+        assertSame(list.get(0), list.get(0));
+
+        list.setCachingWrappers(false);
+        assertNotSame(list.get(0), list.get(0));
+      }
+    });
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.maps.client.MapWidget;
+import com.google.gwt.maps.client.MapsTestCase;
+import com.google.gwt.maps.client.TestUtilities;
+import com.google.gwt.maps.client.geom.LatLng;
+
+/**
+ * Measures the frame time of a {@link BulkPointOverlay}: the time to build
+ * its index, to draw the whole canvas and to draw the strips exposed by a
+ * pan, for dots and for a heatmap. This is not part of the MapsTestSuite -
+ * run it manually in a browser with canvas support.
+ */
+public class BulkPointOverlayBenchmark extends MapsTestCase {
+
+  private static final int PANS = 10;
+  private static final int[] SIZES = {10000, 100000, 1000000};
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  /**
+   * Runs before each test method.
+   */
+  @Override
+  public void gwtSetUp() {
+    TestUtilities.cleanDom();
+  }
+
+  public void testFrameTime() {
+    loadApi(new Runnable() {
+      public void run() {
+        if (!BulkPointOverlay.isSupported()) {
+          System.out.println("BulkPointOverlay: canvas not supported");
+          return;
+        }
+        for (int size : SIZES) {
+          runBenchmark(size, BulkPointOverlay.Mode.POINTS);
+          runBenchmark(size, BulkPointOverlay.Mode.HEATMAP);
+        }
+      }
+    });
+  }
+
+  private void runBenchmark(int size, BulkPointOverlay.Mode mode) {
+    TestUtilities.cleanDom();
+    MapWidget map = addDefaultMap();
+    LatLng center = map.getCenter();
+    double lat = center.getLatitude();
+    double lng = center.getLongitude();
+
+    // Spread the points over an area a few times larger than the view.
+    double[] latLngs = new double[size * 2];
+    for (int i = 0; i < size; ++i) {
+      latLngs[i * 2] = lat + (Math.random() - 0.5) * 8;
+      latLngs[i * 2 + 1] = lng + (Math.random() - 0.5) * 8;
+    }
+
+    Duration buildTime = new Duration();
+    BulkPointOverlay overlay = new BulkPointOverlay(latLngs, mode);
+    int buildMillis = buildTime.elapsedMillis();
+
+    map.addOverlay(overlay);
+    double fullMillis = overlay.getLastRedrawMillis();
+    int fullDrawn = overlay.getLastDrawnCount();
+
+    // Pan east far enough past the margin to expose a strip every time
+    double panMillis = 0;
+    double maxPanMillis = 0;
+    for (int i = 1; i <= PANS; ++i) {
+      map.setCenter(LatLng.newInstance(lat, lng + i * 1.2));
+      panMillis += overlay.getLastRedrawMillis();
+      maxPanMillis = Math.max(maxPanMillis, overlay.getLastRedrawMillis());
+    }
+
+    Duration hitTime = new Duration();
+    int hits = 0;
+    for (int i = 0; i < 1000; ++i) {
+      if (overlay.getPointAt(lat + (Math.random() - 0.5) * 8, lng
+          + (Math.random() - 0.5) * 8, BulkPointOverlay.DEFAULT_HIT_RADIUS)
+          >= 0) {
+        ++hits;
+      }
+    }
+    int hitMillis = hitTime.elapsedMillis();
+
+    System.out.println("BulkPointOverlay " + mode + " " + size
+        + " points: index " + buildMillis + "ms, full frame " + fullMillis
+        + "ms (" + fullDrawn + " drawn), pan frame avg "
+        + (panMillis / PANS) + "ms max " + maxPanMillis + "ms ("
+        + overlay.getIncrementalRedrawCount() + " incremental, "
+        + overlay.getFullRedrawCount() + " full), 1000 hit tests "
+        + hitMillis + "ms (" + hits + " hits)");
+    map.removeOverlay(overlay);
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.maps.client.MapWidget;
+import com.google.gwt.maps.client.MapsTestCase;
+import com.google.gwt.maps.client.TestUtilities;
+import com.google.gwt.maps.client.geom.LatLng;
+
+/**
+ * Tests the BulkPointOverlay class.
+ */
+public class BulkPointOverlayTest extends MapsTestCase {
+
+  /**
+   * Returns a grid of points a tenth of a degree apart around a center.
+   */
+  private static double[] createGrid(LatLng center, int side) {
+    double[] latLngs = new double[side * side * 2];
+    for (int i = 0; i < side * side; ++i) {
+      latLngs[i * 2] = center.getLatitude() + (i / side - side / 2) * 0.1;
+      latLngs[i * 2 + 1] = center.getLongitude() + (i % side - side / 2)
+          * 0.1;
+    }
+    return latLngs;
+  }
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  /**
+   * Runs before each test method.
+   */
+  @Override
+  public void gwtSetUp() {
+    TestUtilities.cleanDom();
+  }
+
+  public void testGetPointAt() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget map = addDefaultMap();
+        LatLng center = map.getCenter();
+        double[] latLngs = createGrid(center, 21);
+        BulkPointOverlay overlay = new BulkPointOverlay(latLngs);
+        assertEquals(441, overlay.getPointCount());
+        assertSame(latLngs, overlay.getLatLngs());
+        assertEquals(-1, overlay.getPointAt(latLngs[0], latLngs[1], 4));
+
+        map.addOverlay(overlay);
+        assertEquals(0, overlay.getPointAt(latLngs[0], latLngs[1], 4));
+        assertEquals(220, overlay.getPointAt(center.getLatitude() + 0.001,
+            center.getLongitude(), 4));
+        // Halfway between points is more than 4 pixels from any at zoom 8
+        assertEquals(-1, overlay.getPointAt(center.getLatitude() + 0.05,
+            center.getLongitude() + 0.05, 4));
+
+        map.removeOverlay(overlay);
+        assertEquals(-1, overlay.getPointAt(latLngs[0], latLngs[1], 4));
+      }
+    });
+  }
+
+  public void testRedraw() {
+    loadApi(new Runnable() {
+      public void run() {
+        if (!BulkPointOverlay.isSupported()) {
+          return;
+        }
+        MapWidget map = addDefaultMap();
+        LatLng center = map.getCenter();
+        BulkPointOverlay overlay = new BulkPointOverlay(createGrid(center,
+            41), BulkPointOverlay.Mode.HEATMAP);
+        assertEquals(BulkPointOverlay.Mode.HEATMAP, overlay.getMode());
+        map.addOverlay(overlay);
+        assertEquals(1, overlay.getFullRedrawCount());
+        assertTrue(overlay.getLastDrawnCount() > 0);
+
+        // A pan within the margin draws nothing
+        map.setCenter(LatLng.newInstance(center.getLatitude(),
+            center.getLongitude() + 0.1));
+        assertEquals(1, overlay.getFullRedrawCount()
+            + overlay.getIncrementalRedrawCount());
+
+        // A pan past the margin draws the exposed strip
+        map.setCenter(LatLng.newInstance(center.getLatitude(),
+            center.getLongitude() + 1.2));
+        assertEquals(2, overlay.getFullRedrawCount()
+            + overlay.getIncrementalRedrawCount());
+
+        overlay.refresh();
+        assertEquals(3, overlay.getFullRedrawCount()
+            + overlay.getIncrementalRedrawCount());
+        overlay.resetStats();
+        assertEquals(0, overlay.getFullRedrawCount());
+        map.removeOverlay(overlay);
+      }
+    });
+  }
+}
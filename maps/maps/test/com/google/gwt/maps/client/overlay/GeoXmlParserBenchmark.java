@@ -0,0 +1,90 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+
+/**
+ * Measures GeoXmlParser throughput on generated KML documents and on the
+ * cta.kml fixture. Runs on the JVM. This is not part of the MapsTestSuite -
+ * run it manually.
+ */
+public class GeoXmlParserBenchmark extends TestCase {
+
+  private static final int[] SIZES = {1000, 10000, 100000};
+
+  private static String generateKml(int placemarks) {
+    StringBuilder kml = new StringBuilder(
+        "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<kml xmlns=\"http://www.opengis.net/kml/2.2\"><Document>\n");
+    double lat = 37;
+    double lng = -122;
+    for (int i = 0; i < placemarks; ++i) {
+      kml.append("<Placemark><name>Feature ").append(i).append(
+          "</name><description><![CDATA[<p>Item ").append(i).append(
+          "</p>]]></description>");
+      if (i % 10 == 0) {
+        // One line in ten, with 20 vertices.
+        kml.append("<LineString><coordinates>");
+        for (int v = 0; v < 20; ++v) {
+          kml.append(lng + v * 0.001).append(',');
+          kml.append(lat + v * 0.0005).append(",0 ");
+        }
+        kml.append("</coordinates></LineString>");
+      } else {
+        kml.append("<Point><coordinates>").append(lng).append(',');
+        kml.append(lat).append(",0</coordinates></Point>");
+      }
+      kml.append("</Placemark>\n");
+      lat += 0.0001;
+      lng += 0.0001;
+    }
+    return kml.append("</Document></kml>").toString();
+  }
+
+  public void testFixture() throws IOException {
+    String text = GeoXmlParserTest.readFixture("cta.kml");
+    int passes = 200;
+    long start = System.currentTimeMillis();
+    int vertices = 0;
+    for (int pass = 0; pass < passes; ++pass) {
+      for (GeoXmlFeature feature : GeoXmlParser.parse(text)) {
+        vertices += feature.getVertexCount();
+      }
+    }
+    long millis = System.currentTimeMillis() - start;
+    System.out.println("GeoXmlParser cta.kml x " + passes + ": " + millis
+        + "ms, " + (vertices / passes) + " vertices per pass");
+  }
+
+  public void testGenerated() {
+    for (int size : SIZES) {
+      String text = generateKml(size);
+      long start = System.currentTimeMillis();
+      GeoXmlParser parser = new GeoXmlParser(text);
+      int count = 0;
+      while (parser.next() != null) {
+        ++count;
+      }
+      long millis = System.currentTimeMillis() - start;
+      assertEquals(size, count);
+      System.out.println("GeoXmlParser " + size + " placemarks ("
+          + (text.length() / 1024) + "KB): " + millis + "ms");
+    }
+  }
+}
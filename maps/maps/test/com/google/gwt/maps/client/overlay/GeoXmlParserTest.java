@@ -0,0 +1,186 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.maps.client.overlay.GeoXmlFeature.Type;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * Unit test for GeoXmlParser. Runs on the JVM; no browser is required.
+ */
+public class GeoXmlParserTest extends TestCase {
+
+  static String readFixture(String name) throws IOException {
+    ClassLoader loader = GeoXmlParserTest.class.getClassLoader();
+    InputStream in = loader.getResourceAsStream("com/google/gwt/maps/public/"
+        + name);
+    assertNotNull("missing fixture " + name, in);
+    Reader reader = new InputStreamReader(in, "UTF-8");
+    try {
+      StringBuilder text = new StringBuilder();
+      char[] buffer = new char[8192];
+      int read;
+      while ((read = reader.read(buffer)) > 0) {
+        text.append(buffer, 0, read);
+      }
+      return text.toString();
+    } finally {
+      reader.close();
+    }
+  }
+
+  public void testFixture() throws IOException {
+    List<GeoXmlFeature> features = GeoXmlParser.parse(readFixture("cta.kml"));
+    assertEquals(8, features.size());
+    GeoXmlFeature blue = features.get(0);
+    assertEquals("Blue Line", blue.getName());
+    assertEquals("#blueLine", blue.getStyleUrl());
+    assertEquals(Type.LINE, blue.getType());
+    assertEquals(41.97881025520548, blue.getLatLngs()[0], 0);
+    assertEquals(-87.89289951324463, blue.getLatLngs()[1], 0);
+    for (GeoXmlFeature feature : features) {
+      double[] bounds = feature.getBounds();
+      assertTrue(bounds[0] > 41 && bounds[2] < 43);
+      assertTrue(bounds[1] > -89 && bounds[3] < -87);
+    }
+  }
+
+  public void testGeoRss() {
+    String rss = "<rss xmlns:georss='http://www.georss.org/georss'"
+        + " xmlns:geo='http://www.w3.org/2003/01/geo/wgs84_pos#'><channel>"
+        + "<title>Feed</title>"
+        + "<item><title>Simple</title><georss:point>45.25 -110.5"
+        + "</georss:point></item>"
+        + "<item><title>Path</title><georss:line>45 -110 46 -111 47 -112"
+        + "</georss:line></item>"
+        + "<item><title>W3C</title><geo:lat>10.5</geo:lat>"
+        + "<geo:long>20.25</geo:long></item>"
+        + "<item><title>No geometry</title></item>"
+        + "</channel></rss>";
+    List<GeoXmlFeature> features = GeoXmlParser.parse(rss);
+    assertEquals(3, features.size());
+    assertEquals("Simple", features.get(0).getName());
+    assertEquals(Type.POINT, features.get(0).getType());
+    assertEquals(45.25, features.get(0).getLatitude(), 0);
+    assertEquals(-110.5, features.get(0).getLongitude(), 0);
+    assertEquals(Type.LINE, features.get(1).getType());
+    assertEquals(3, features.get(1).getVertexCount());
+    assertEquals(10.5, features.get(2).getLatitude(), 0);
+    assertEquals(20.25, features.get(2).getLongitude(), 0);
+
+    String atom = "<feed><entry><title>Atom</title>"
+        + "<author><name>Someone</name></author>"
+        + "<georss:where><gml:Polygon><gml:exterior><gml:LinearRing>"
+        + "<gml:posList>1 2 1 3 2 3 1 2</gml:posList>"
+        + "</gml:LinearRing></gml:exterior></gml:Polygon></georss:where>"
+        + "</entry></feed>";
+    features = GeoXmlParser.parse(atom);
+    assertEquals(1, features.size());
+    assertEquals("Atom", features.get(0).getName());
+    assertEquals(Type.POLYGON, features.get(0).getType());
+    assertEquals(4, features.get(0).getVertexCount());
+  }
+
+  public void testIncremental() {
+    StringBuilder kml = new StringBuilder("<kml><Document>");
+    for (int i = 0; i < 10; ++i) {
+      kml.append("<Placemark><name>p" + i + "</name><Point><coordinates>" + i
+          + "," + i + "</coordinates></Point></Placemark>");
+    }
+    kml.append("</Document></kml>");
+    GeoXmlParser parser = new GeoXmlParser(kml.toString());
+    double progress = 0;
+    for (int i = 0; i < 10; ++i) {
+      GeoXmlFeature feature = parser.next();
+      assertEquals("p" + i, feature.getName());
+      assertTrue(parser.getProgress() > progress);
+      progress = parser.getProgress();
+    }
+    assertNull(parser.next());
+    assertEquals(1.0, parser.getProgress(), 0);
+  }
+
+  public void testKml() {
+    String kml = "<?xml version='1.0'?><kml><Folder>"
+        + "<!-- <Placemark> in a comment is ignored -->"
+        + "<Placemark><name>A &amp; B &#38; &#x41;</name>"
+        + "<description><![CDATA[<b>bold</b> & more]]></description>"
+        + "<Point><coordinates>-122.5, 37.25, 0</coordinates></Point>"
+        + "</Placemark>"
+        + "<Placemark><name>Area</name><Polygon>"
+        + "<outerBoundaryIs><LinearRing><coordinates>"
+        + "0,0 0,10 10,10 10,0 0,0</coordinates></LinearRing>"
+        + "</outerBoundaryIs><innerBoundaryIs><LinearRing><coordinates>"
+        + "1,1 1,2 2,2 1,1</coordinates></LinearRing></innerBoundaryIs>"
+        + "</Polygon></Placemark>"
+        + "<Placemark><name>Multi</name><MultiGeometry>"
+        + "<Point><coordinates>1,2</coordinates></Point>"
+        + "<LineString><coordinates>1,2,5\n3,4,5</coordinates></LineString>"
+        + "</MultiGeometry></Placemark>"
+        + "<Placemark name='empty'/>"
+        + "</Folder></kml>";
+    List<GeoXmlFeature> features = GeoXmlParser.parse(kml);
+    assertEquals(4, features.size());
+
+    GeoXmlFeature point = features.get(0);
+    assertEquals("A & B & A", point.getName());
+    assertEquals("<b>bold</b> & more", point.getDescription());
+    assertEquals(37.25, point.getLatitude(), 0);
+    assertEquals(-122.5, point.getLongitude(), 0);
+
+    GeoXmlFeature area = features.get(1);
+    assertEquals(Type.POLYGON, area.getType());
+    assertEquals(5, area.getVertexCount());
+    double[] bounds = area.getBounds();
+    assertEquals(0, bounds[0], 0);
+    assertEquals(10, bounds[3], 0);
+
+    assertEquals("Multi", features.get(2).getName());
+    assertEquals(Type.POINT, features.get(2).getType());
+    assertEquals("Multi", features.get(3).getName());
+    assertEquals(Type.LINE, features.get(3).getType());
+    double[] line = features.get(3).getLatLngs();
+    assertEquals(4, line.length);
+    assertEquals(2, line[0], 0);
+    assertEquals(1, line[1], 0);
+    assertEquals(4, line[2], 0);
+    assertEquals(3, line[3], 0);
+  }
+
+  public void testMalformed() {
+    String kml = "<kml><Placemark><name>bad</name><Point>"
+        + "<coordinates>abc,def</coordinates></Point></Placemark>"
+        + "<Placemark><LineString><coordinates>1,2</coordinates></LineString>"
+        + "</Placemark>"
+        + "<Placemark><Point><coordinates>1,2</coordinates></Point>"
+        + "</Placemark></kml>";
+    GeoXmlParser parser = new GeoXmlParser(kml);
+    GeoXmlFeature feature = parser.next();
+    assertEquals(2, feature.getLatitude(), 0);
+    assertNull(parser.next());
+    assertEquals(2, parser.getSkippedCount());
+
+    // A truncated document ends without an error.
+    assertTrue(GeoXmlParser.parse("<kml><Placemark><Point><coordi").isEmpty());
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.maps.client.MapWidget;
+import com.google.gwt.maps.client.MapsTestCase;
+import com.google.gwt.maps.client.TestUtilities;
+import com.google.gwt.maps.client.geom.LatLng;
+import com.google.gwt.user.client.Timer;
+
+/**
+ * Tests the GeoXmlStreamLoader class.
+ */
+public class GeoXmlStreamLoaderTest extends MapsTestCase {
+
+  private static String createKml(LatLng center, int points, int lines) {
+    StringBuilder kml = new StringBuilder("<kml><Document>");
+    double lat = center.getLatitude();
+    double lng = center.getLongitude();
+    for (int i = 0; i < points; ++i) {
+      kml.append("<Placemark><name>Point " + i + "</name><Point>"
+          + "<coordinates>" + (lng + i * 0.01) + "," + lat
+          + "</coordinates></Point></Placemark>");
+    }
+    for (int i = 0; i < lines; ++i) {
+      kml.append("<Placemark><LineString><coordinates>" + lng + ","
+          + (lat + i * 0.01) + " " + (lng + 0.05) + "," + (lat + i * 0.01)
+          + "</coordinates></LineString></Placemark>");
+    }
+    return kml.append("</Document></kml>").toString();
+  }
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  /**
+   * Runs before each test method.
+   */
+  @Override
+  public void gwtSetUp() {
+    TestUtilities.cleanDom();
+  }
+
+  public void testCancel() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget map = addDefaultMap();
+        GeoXmlStreamLoader loader = new GeoXmlStreamLoader(map);
+        loader.loadText(createKml(map.getCenter(), 5, 0),
+            new GeoXmlStreamCallback() {
+              @Override
+              public void onComplete(int featureCount) {
+                fail("cancelled load completed");
+              }
+
+              @Override
+              public void onFailure(String url, Throwable caught) {
+                fail(caught.toString());
+              }
+            });
+        loader.cancel();
+        assertEquals(0, loader.getFeatureCount());
+      }
+    });
+  }
+
+  public void testDispose() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget map = addDefaultMap();
+        final int[] refreshes = {0};
+        final GeoXmlStreamLoader loader = new GeoXmlStreamLoader(map) {
+          @Override
+          public void refresh() {
+            ++refreshes[0];
+            super.refresh();
+          }
+        };
+        loader.loadText(createKml(map.getCenter(), 5, 2),
+            new GeoXmlStreamCallback() {
+              @Override
+              public void onComplete(int featureCount) {
+                fail("disposed load completed");
+              }
+
+              @Override
+              public void onFailure(String url, Throwable caught) {
+                fail(caught.toString());
+              }
+            });
+        loader.dispose();
+        // The loader no longer follows the map.
+        map.setCenter(LatLng.newInstance(10, 10));
+        map.setZoomLevel(map.getZoomLevel() + 1);
+
+        new Timer() {
+          @Override
+          public void run() {
+            assertEquals(0, loader.getFeatureCount());
+            assertEquals(0, refreshes[0]);
+            finishTest();
+          }
+        }.schedule(500);
+      }
+    }, false);
+  }
+
+  public void testLoadText() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget map = addDefaultMap();
+        final GeoXmlStreamLoader loader = new GeoXmlStreamLoader(map);
+        loader.setChunkSize(2);
+        loader.setMaxShapes(2);
+        loader.loadText(createKml(map.getCenter(), 3, 3),
+            new GeoXmlStreamCallback() {
+              private int chunks;
+
+              @Override
+              public void onChunk(int featureCount, double progress) {
+                ++chunks;
+                assertTrue(featureCount <= chunks * 2);
+              }
+
+              @Override
+              public void onComplete(int featureCount) {
+                assertEquals(6, featureCount);
+                assertTrue(chunks >= 3);
+                assertEquals(3, loader.getMarkerManager().getMarkerCount());
+                loader.refresh();
+                assertEquals(2, loader.getVisibleShapeCount());
+
+                loader.clear();
+                assertEquals(0, loader.getFeatureCount());
+                assertEquals(0, loader.getVisibleShapeCount());
+                assertEquals(0, loader.getMarkerManager().getMarkerCount());
+                finishTest();
+              }
+
+              @Override
+              public void onFailure(String url, Throwable caught) {
+                fail(caught.toString());
+              }
+            });
+      }
+    }, false);
+  }
+}
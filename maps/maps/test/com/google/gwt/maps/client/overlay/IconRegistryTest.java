@@ -0,0 +1,117 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.maps.client.MapsTestCase;
+import com.google.gwt.maps.client.TestUtilities;
+import com.google.gwt.maps.client.geom.LatLng;
+
+/**
+ * Tests the IconRegistry class and icons generated for an IconAtlas.
+ */
+public class IconRegistryTest extends MapsTestCase {
+
+  /**
+   * An atlas of the two images next to this test.
+   */
+  interface TestIcons extends IconAtlas {
+    @Image(value = "atlas-dot.png", anchorX = 8, anchorY = 8)
+    Icon dot();
+
+    @Image("atlas-pin.png")
+    Icon pin();
+  }
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  /**
+   * Runs before each test method.
+   */
+  @Override
+  public void gwtSetUp() {
+    TestUtilities.cleanDom();
+  }
+
+  public void testAtlas() {
+    loadApi(new Runnable() {
+      public void run() {
+        TestIcons icons = GWT.create(TestIcons.class);
+        assertTrue(icons.getAtlasURL().endsWith(".cache.png"));
+        assertSame(icons.pin(), icons.pin());
+        // Icons are shared by every instance of the atlas
+        TestIcons other = GWT.create(TestIcons.class);
+        assertSame(icons.dot(), other.dot());
+
+        Icon pin = icons.pin();
+        assertEquals(icons.getAtlasURL(), pin.getSpriteImageURL());
+        assertEquals(20, pin.getIconSize().getWidth());
+        assertEquals(34, pin.getIconSize().getHeight());
+        assertEquals(10, pin.getIconAnchor().getX());
+        assertEquals(34, pin.getIconAnchor().getY());
+
+        Icon dot = icons.dot();
+        assertEquals(icons.getAtlasURL(), dot.getSpriteImageURL());
+        assertEquals(16, dot.getIconSize().getWidth());
+        assertEquals(8, dot.getIconAnchor().getX());
+        assertEquals(8, dot.getIconAnchor().getY());
+        // The tallest image is packed first
+        assertEquals(0, pin.getSpriteLeft());
+        assertEquals(0, pin.getSpriteTop());
+        assertTrue(dot.getSpriteLeft() >= 20 || dot.getSpriteTop() >= 34);
+
+        Marker marker = new Marker(LatLng.newInstance(0, 0),
+            MarkerOptions.newInstance(dot));
+        assertEquals(icons.getAtlasURL(), marker.getIcon().getImageURL());
+      }
+    });
+  }
+
+  public void testIntern() {
+    loadApi(new Runnable() {
+      public void run() {
+        IconRegistry registry = new IconRegistry();
+        Icon red = registry.getIcon("red.png", 20, 34, 10, 34);
+        assertEquals("red.png", red.getImageURL());
+        assertEquals(20, red.getIconSize().getWidth());
+        assertEquals(10, red.getIconAnchor().getX());
+        assertSame(red, registry.getIcon("red.png", 20, 34, 10, 34));
+        assertNotSame(red, registry.getIcon("red.png", 20, 34, 10, 30));
+        assertNotSame(red, registry.getIcon("blue.png", 20, 34, 10, 34));
+        assertEquals(3, registry.size());
+        assertEquals(1, registry.getHitCount());
+        assertEquals(3, registry.getMissCount());
+        assertEquals(0.25, registry.getHitRate());
+
+        registry.resetStats();
+        assertEquals(0.0, registry.getHitRate());
+        assertNull(registry.getIcon("stop"));
+        registry.register("stop", red);
+        assertSame(red, registry.getIcon("stop"));
+        assertEquals(4, registry.size());
+        assertEquals(1, registry.getHitCount());
+        assertEquals(1, registry.getMissCount());
+
+        registry.clear();
+        assertEquals(0, registry.size());
+        assertNotSame(red, registry.getIcon("red.png", 20, 34, 10, 34));
+      }
+    });
+  }
+}
@@ -115,6 +115,13 @@ public class IconTest extends MapsTestCase {
         ic.setShadowURL(dummyShadowURL);
         assertEquals("Shadow URL", dummyShadowURL, ic.getShadowURL());
 
+        assertNull("SpriteImageURL", ic.getSpriteImageURL());
+        ic.setSprite("Sprites", 12, 34);
+        assertEquals("SpriteImageURL", "Sprites", ic.getSpriteImageURL());
+        assertEquals("SpriteLeft", 12, ic.getSpriteLeft());
+        assertEquals("SpriteTop", 34, ic.getSpriteTop());
+        assertEquals("ImageURL", "Sprites", ic.getImageURL());
+
         String transparentUrl = "TransparentURL";
         ic.setTransparentImageURL(transparentUrl);
         assertEquals("TransarentURL", transparentUrl,
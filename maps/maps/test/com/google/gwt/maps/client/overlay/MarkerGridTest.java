@@ -0,0 +1,141 @@
+/*
+ * Copyright 2010 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.maps.client.overlay.MarkerGrid.Cell;
+
+import junit.framework.TestCase;
+
+import java.util.List;
+
+/**
+ * Unit test for MarkerGrid. Runs on the JVM; no browser is required.
+ */
+public class MarkerGridTest extends TestCase {
+
+  public void testAddRemove() {
+    MarkerGrid<String> grid = new MarkerGrid<String>();
+    grid.add("a", 10, 10);
+    grid.add("b", -10, -10);
+    assertEquals(2, grid.size());
+    assertEquals(2, countItems(grid.getCells(0, -90, -180, 90, 180, 0)));
+
+    assertTrue(grid.remove("a"));
+    assertFalse(grid.remove("a"));
+    assertEquals(1, grid.size());
+    assertEquals(1, countItems(grid.getCells(0, -90, -180, 90, 180, 0)));
+
+    grid.clear();
+    assertEquals(0, grid.size());
+    assertTrue(grid.getCells(0, -90, -180, 90, 180, 0).isEmpty());
+  }
+
+  public void testRemoveFromSharedCell() {
+    MarkerGrid<String> grid = new MarkerGrid<String>();
+    for (int i = 0; i < 10; ++i) {
+      grid.add("m" + i, 10 + i * 0.01, 10);
+    }
+    // Build two levels so that removal updates the indexes of both.
+    assertEquals(10, countItems(grid.getCells(0, -90, -180, 90, 180, 0)));
+    assertEquals(10, countItems(grid.getCells(5, -90, -180, 90, 180, 0)));
+
+    assertTrue(grid.remove("m0"));
+    assertTrue(grid.remove("m5"));
+    assertTrue(grid.remove("m9"));
+    assertTrue(grid.remove("m1"));
+    for (int zoom : new int[] {0, 5}) {
+      List<Cell<String>> cells = grid.getCells(zoom, -90, -180,
+          90, 180, 0);
+      assertEquals(1, cells.size());
+      List<String> items = cells.get(0).getItems();
+      assertEquals(6, items.size());
+      for (String item : new String[] {"m2", "m3", "m4", "m6", "m7", "m8"}) {
+        assertTrue(item, items.contains(item));
+      }
+    }
+    for (String item : new String[] {"m2", "m3", "m4", "m6", "m7", "m8"}) {
+      assertTrue(grid.remove(item));
+    }
+    assertTrue(grid.getCells(5, -90, -180, 90, 180, 0).isEmpty());
+  }
+
+  public void testCellIndex() {
+    MarkerGrid<String> grid = new MarkerGrid<String>(256);
+    // At zoom 1 the world is 2x2 tiles.
+    assertEquals(0, grid.getCellX(-90, 1));
+    assertEquals(1, grid.getCellX(90, 1));
+    assertEquals(0, grid.getCellY(45, 1));
+    assertEquals(1, grid.getCellY(-45, 1));
+    // Latitudes beyond the projection are clamped to the edge tiles.
+    assertEquals(0, grid.getCellY(90, 1));
+    assertEquals(1, grid.getCellY(-90, 1));
+  }
+
+  public void testCentroid() {
+    MarkerGrid<String> grid = new MarkerGrid<String>();
+    grid.add("a", 10, 20);
+    grid.add("b", 12, 22);
+    List<Cell<String>> cells = grid.getCells(0, -90, -180, 90, 180, 0);
+    assertEquals(1, cells.size());
+    assertEquals(2, cells.get(0).getCount());
+    assertEquals(11.0, cells.get(0).getCenterLatitude(), 1e-9);
+    assertEquals(21.0, cells.get(0).getCenterLongitude(), 1e-9);
+  }
+
+  public void testIncrementalUpdate() {
+    MarkerGrid<String> grid = new MarkerGrid<String>(64);
+    grid.add("a", 40, -74);
+    // Build the level, then modify the grid after it has been cached.
+    assertEquals(1, countItems(grid.getCells(10, 39, -75, 41, -73, 0)));
+    grid.add("b", 40.1, -74.1);
+    grid.add("a", -33, 151);
+    assertEquals(1, countItems(grid.getCells(10, 39, -75, 41, -73, 0)));
+    assertEquals(1, countItems(grid.getCells(10, -34, 150, -32, 152, 0)));
+  }
+
+  public void testQueryAcrossDateLine() {
+    MarkerGrid<String> grid = new MarkerGrid<String>(64);
+    grid.add("west", 0, 179.5);
+    grid.add("east", 0, -179.5);
+    grid.add("far", 0, 0);
+    // Bounds that cross the 180th meridian have west > east.
+    List<Cell<String>> cells = grid.getCells(5, -1, 179, 1, -179, 0);
+    assertEquals(2, countItems(cells));
+  }
+
+  public void testViewportQuery() {
+    MarkerGrid<String> grid = new MarkerGrid<String>(64);
+    for (int i = 0; i < 100; ++i) {
+      grid.add("in" + i, 40 + i * 0.001, -74 + i * 0.001);
+      grid.add("out" + i, -40 - i * 0.001, 100 + i * 0.001);
+    }
+    List<Cell<String>> cells = grid.getCells(12, 39.9, -74.1, 40.2, -73.8, 0);
+    assertEquals(100, countItems(cells));
+    for (Cell<String> cell : cells) {
+      for (String item : cell.getItems()) {
+        assertTrue(item.startsWith("in"));
+      }
+    }
+  }
+
+  private int countItems(List<Cell<String>> cells) {
+    int count = 0;
+    for (Cell<String> cell : cells) {
+      count += cell.getCount();
+    }
+    return count;
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.maps.client.MapWidget;
+import com.google.gwt.maps.client.MapsTestCase;
+import com.google.gwt.maps.client.TestUtilities;
+import com.google.gwt.maps.client.geom.LatLng;
+
+/**
+ * Measures the cost of adding markers to a {@link MarkerManager} and of
+ * refreshing the visible set, along with the number of overlays left on the
+ * map. This is not part of the MapsTestSuite - run it manually.
+ */
+public class MarkerManagerBenchmark extends MapsTestCase {
+
+  private static final int[] SIZES = {1000, 10000, 100000};
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  /**
+   * Runs before each test method.
+   */
+  @Override
+  public void gwtSetUp() {
+    TestUtilities.cleanDom();
+  }
+
+  public void testAddAndRefresh() {
+    loadApi(new Runnable() {
+      public void run() {
+        for (int size : SIZES) {
+          runBenchmark(size);
+        }
+      }
+    });
+  }
+
+  private void runBenchmark(int size) {
+    TestUtilities.cleanDom();
+    MapWidget map = addDefaultMap();
+    LatLng center = map.getCenter();
+    double lat = center.getLatitude();
+    double lng = center.getLongitude();
+
+    // Spread the points over an area a few times larger than the view.
+    double[] lats = new double[size];
+    double[] lngs = new double[size];
+    Marker[] markers = new Marker[size];
+    for (int i = 0; i < size; ++i) {
+      lats[i] = lat + (Math.random() - 0.5) * 8;
+      lngs[i] = lng + (Math.random() - 0.5) * 8;
+      markers[i] = new Marker(LatLng.newInstance(lats[i], lngs[i]));
+    }
+
+    MarkerManager manager = new MarkerManager(map);
+    Duration addTime = new Duration();
+    for (int i = 0; i < size; ++i) {
+      manager.addMarker(markers[i], lats[i], lngs[i]);
+    }
+    int addMillis = addTime.elapsedMillis();
+
+    Duration firstRefresh = new Duration();
+    manager.refresh();
+    int firstMillis = firstRefresh.elapsedMillis();
+
+    map.setCenter(LatLng.newInstance(lat + 1, lng + 1));
+    Duration panRefresh = new Duration();
+    manager.refresh();
+    int panMillis = panRefresh.elapsedMillis();
+
+    System.out.println("MarkerManager " + size + " markers: add " + addMillis
+        + "ms, first refresh " + firstMillis + "ms, refresh after pan "
+        + panMillis + "ms, live overlays "
+        + manager.getVisibleOverlayCount());
+    assertTrue(manager.getVisibleOverlayCount() <= size);
+    manager.clearMarkers();
+  }
+}
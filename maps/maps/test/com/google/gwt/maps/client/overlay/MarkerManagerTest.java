@@ -0,0 +1,87 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.maps.client.MapWidget;
+import com.google.gwt.maps.client.MapsTestCase;
+import com.google.gwt.maps.client.TestUtilities;
+import com.google.gwt.maps.client.geom.LatLng;
+
+/**
+ * Tests the MarkerManager class.
+ */
+public class MarkerManagerTest extends MapsTestCase {
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  /**
+   * Runs before each test method.
+   */
+  @Override
+  public void gwtSetUp() {
+    TestUtilities.cleanDom();
+  }
+
+  public void testClustering() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget map = addDefaultMap();
+        MarkerManager manager = new MarkerManager(map);
+        manager.setClusterThreshold(5);
+        LatLng center = map.getCenter();
+        for (int i = 0; i < 20; ++i) {
+          manager.addMarker(new Marker(LatLng.newInstance(
+              center.getLatitude() + i * 0.0001, center.getLongitude())));
+        }
+        manager.refresh();
+        assertEquals(20, manager.getMarkerCount());
+        assertEquals(1, manager.getVisibleOverlayCount());
+
+        manager.setMaxClusterZoom(map.getZoomLevel() - 1);
+        manager.refresh();
+        assertEquals(20, manager.getVisibleOverlayCount());
+      }
+    });
+  }
+
+  public void testViewport() {
+    loadApi(new Runnable() {
+      public void run() {
+        MapWidget map = addDefaultMap();
+        MarkerManager manager = new MarkerManager(map);
+        manager.setPadding(0);
+        LatLng center = map.getCenter();
+        Marker inView = new Marker(center);
+        manager.addMarker(inView);
+        manager.addMarker(new Marker(LatLng.newInstance(-center.getLatitude(),
+            center.getLongitude() + 90)));
+        manager.refresh();
+        assertEquals(2, manager.getMarkerCount());
+        assertEquals(1, manager.getVisibleOverlayCount());
+
+        manager.removeMarker(inView);
+        assertEquals(1, manager.getMarkerCount());
+        assertEquals(0, manager.getVisibleOverlayCount());
+
+        manager.clearMarkers();
+        assertEquals(0, manager.getMarkerCount());
+      }
+    });
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.maps.client.MapsTestCase;
+import com.google.gwt.maps.client.geom.LatLng;
+
+import java.util.List;
+
+/**
+ * Tests the OverlayIndex class.
+ */
+public class OverlayIndexTest extends MapsTestCase {
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.maps.GoogleMapsTest";
+  }
+
+  public void testIndex() {
+    loadApi(new Runnable() {
+      public void run() {
+        OverlayIndex index = new OverlayIndex();
+        Marker marker = new Marker(LatLng.newInstance(1, 1));
+        Polyline polyline = new Polyline(new LatLng[] {
+            LatLng.newInstance(20, 20), LatLng.newInstance(25, 25)});
+        Polygon polygon = new Polygon(new LatLng[] {
+            LatLng.newInstance(0, 0), LatLng.newInstance(0, 10),
+            LatLng.newInstance(10, 10), LatLng.newInstance(10, 0),
+            LatLng.newInstance(0, 0)});
+        index.add(marker);
+        index.add(polyline);
+        index.add(polygon);
+        assertEquals(3, index.size());
+
+        List<Overlay> inView = index.getOverlays(-1, -1, 2, 2);
+        assertEquals(2, inView.size());
+        assertTrue(inView.contains(marker));
+        assertTrue(inView.contains(polygon));
+
+        assertEquals(polyline, index.getNearest(30, 30, 1).get(0));
+        assertEquals(1, index.getPolygonsContaining(5, 5).size());
+        assertEquals(0, index.getPolygonsContaining(15, 5).size());
+
+        assertTrue(index.remove(polygon));
+        assertEquals(0, index.getPolygonsContaining(5, 5).size());
+        assertEquals(2, index.size());
+      }
+    });
+  }
+
+  public void testPolygonVerticesCopied() {
+    loadApi(new Runnable() {
+      public void run() {
+        OverlayIndex index = new OverlayIndex();
+        Polygon polygon = new Polygon(new LatLng[] {
+            LatLng.newInstance(0, 0), LatLng.newInstance(0, 10),
+            LatLng.newInstance(10, 10), LatLng.newInstance(10, 0)});
+        double[] latLngs = {0, 0, 0, 10, 10, 10, 10, 0};
+        index.add(polygon, latLngs);
+        // Reusing the array must not change the indexed polygon.
+        for (int i = 0; i < latLngs.length; ++i) {
+          latLngs[i] += 50;
+        }
+        assertEquals(1, index.getPolygonsContaining(5, 5).size());
+        assertEquals(0, index.getPolygonsContaining(55, 55).size());
+      }
+    });
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.maps.client.overlay.PolylineEncoder.Encoding;
+
+import junit.framework.TestCase;
+
+/**
+ * Measures PolylineEncoder time and output size on synthetic GPS tracks. Runs
+ * on the JVM. This is not part of the MapsTestSuite - run it manually.
+ */
+public class PolylineEncoderBenchmark extends TestCase {
+
+  private static final int[] SIZES = {1000, 10000, 50000, 100000};
+
+  public void testEncode() {
+    for (int size : SIZES) {
+      runBenchmark(size);
+    }
+  }
+
+  private void runBenchmark(int size) {
+    double[] track = new double[size * 2];
+    double lat = 37;
+    double lng = -122;
+    for (int i = 0; i < size; ++i) {
+      // A wandering path with a little GPS jitter.
+      lat += Math.sin(i * 0.001) * 0.0002 + (Math.random() - 0.5) * 0.00002;
+      lng += Math.cos(i * 0.0007) * 0.0002 + (Math.random() - 0.5) * 0.00002;
+      track[i * 2] = lat;
+      track[i * 2 + 1] = lng;
+    }
+
+    long start = System.currentTimeMillis();
+    String raw = PolylineEncoder.encodePoints(track);
+    long rawMillis = System.currentTimeMillis() - start;
+
+    start = System.currentTimeMillis();
+    Encoding encoding = new PolylineEncoder().encode(track);
+    long encodeMillis = System.currentTimeMillis() - start;
+
+    System.out.println("PolylineEncoder " + size + " vertices: encode "
+        + encodeMillis + "ms, " + encoding.getVertexCount()
+        + " vertices kept, " + encoding.getPoints().length()
+        + " chars (unsimplified " + raw.length() + " chars in " + rawMillis
+        + "ms)");
+    assertTrue(encoding.getVertexCount() <= size);
+  }
+}
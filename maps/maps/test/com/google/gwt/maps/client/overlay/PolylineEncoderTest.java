@@ -0,0 +1,103 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.client.overlay;
+
+import com.google.gwt.maps.client.overlay.PolylineEncoder.Encoding;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for PolylineEncoder. Runs on the JVM; no browser is required.
+ */
+public class PolylineEncoderTest extends TestCase {
+
+  // The example from the Encoded Polyline Algorithm Format documentation.
+  private static final double[] DOC_POINTS = {
+      38.5, -120.2, 40.7, -120.95, 43.252, -126.453};
+  private static final String DOC_ENCODED = "_p~iF~ps|U_ulLnnqC_mqNvxq`@";
+
+  public void testDecodePoints() {
+    double[] decoded = PolylineEncoder.decodePoints(DOC_ENCODED);
+    assertEquals(DOC_POINTS.length, decoded.length);
+    for (int i = 0; i < DOC_POINTS.length; ++i) {
+      assertEquals(DOC_POINTS[i], decoded[i], 1e-9);
+    }
+  }
+
+  public void testEncode() {
+    Encoding encoding = new PolylineEncoder().encode(DOC_POINTS);
+    assertEquals(DOC_ENCODED, encoding.getPoints());
+    assertEquals(3, encoding.getVertexCount());
+    assertEquals(3, encoding.getLevels().length());
+    assertEquals(PolylineEncoder.DEFAULT_NUM_LEVELS, encoding.getNumLevels());
+    assertEquals(PolylineEncoder.DEFAULT_ZOOM_FACTOR, encoding.getZoomFactor());
+    // Endpoints are visible at every zoom level.
+    char top = (char) (PolylineEncoder.DEFAULT_NUM_LEVELS - 1 + 63);
+    assertEquals(top, encoding.getLevels().charAt(0));
+    assertEquals(top, encoding.getLevels().charAt(2));
+  }
+
+  public void testEncodeDropsCollinearVertices() {
+    double[] line = new double[200];
+    for (int i = 0; i < 100; ++i) {
+      line[i * 2] = i * 0.01;
+      line[i * 2 + 1] = i * 0.02;
+    }
+    Encoding encoding = new PolylineEncoder().encode(line);
+    assertEquals(2, encoding.getVertexCount());
+    assertEquals(2, encoding.getLevels().length());
+    double[] decoded = PolylineEncoder.decodePoints(encoding.getPoints());
+    assertEquals(4, decoded.length);
+    assertEquals(0.99, decoded[2], 1e-9);
+    assertEquals(1.98, decoded[3], 1e-9);
+  }
+
+  public void testEncodePoints() {
+    assertEquals(DOC_ENCODED, PolylineEncoder.encodePoints(DOC_POINTS));
+    assertEquals("", PolylineEncoder.encodePoints(new double[0]));
+  }
+
+  public void testSimplify() {
+    PolylineEncoder encoder = new PolylineEncoder();
+    double[] path = {0, 0, 0.5, 1, 0, 2, 0.001, 3, 0, 4};
+    double[] coarse = encoder.simplify(path, 0.1);
+    // Only the small bump at (0.001, 3) is removed.
+    assertEquals(8, coarse.length);
+    assertEquals(0.5, coarse[2], 0);
+    assertEquals(2, coarse[5], 0);
+    assertEquals(4, coarse[7], 0);
+    double[] fine = encoder.simplify(path, 0.0001);
+    assertEquals(path.length, fine.length);
+  }
+
+  public void testRoundTripLongTrack() {
+    double[] track = new double[100000];
+    double lat = 37;
+    double lng = -122;
+    for (int i = 0; i < track.length; i += 2) {
+      lat += Math.sin(i * 0.001) * 0.0005;
+      lng += Math.cos(i * 0.0007) * 0.0005;
+      track[i] = lat;
+      track[i + 1] = lng;
+    }
+    Encoding encoding = new PolylineEncoder().encode(track);
+    double[] decoded = PolylineEncoder.decodePoints(encoding.getPoints());
+    assertEquals(encoding.getVertexCount() * 2, decoded.length);
+    assertEquals(encoding.getVertexCount(), encoding.getLevels().length());
+    assertEquals(track[track.length - 2], decoded[decoded.length - 2], 1e-5);
+    assertEquals(track[track.length - 1], decoded[decoded.length - 1], 1e-5);
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.maps.rebind;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for SpritePacker. Runs on the JVM; no browser is required.
+ */
+public class SpritePackerTest extends TestCase {
+
+  private static void assertNoOverlap(SpritePacker packer, int[] widths,
+      int[] heights) {
+    for (int i = 0; i < widths.length; ++i) {
+      assertTrue(packer.getLeft(i) + widths[i] <= packer.getWidth());
+      assertTrue(packer.getTop(i) + heights[i] <= packer.getHeight());
+      for (int j = i + 1; j < widths.length; ++j) {
+        boolean apart = packer.getLeft(i) + widths[i] <= packer.getLeft(j)
+            || packer.getLeft(j) + widths[j] <= packer.getLeft(i)
+            || packer.getTop(i) + heights[i] <= packer.getTop(j)
+            || packer.getTop(j) + heights[j] <= packer.getTop(i);
+        assertTrue("Images " + i + " and " + j + " overlap", apart);
+      }
+    }
+  }
+
+  public void testEmpty() {
+    SpritePacker packer = new SpritePacker(new int[0], new int[0]);
+    assertEquals(0, packer.getWidth());
+    assertEquals(0, packer.getHeight());
+  }
+
+  public void testManyImages() {
+    int[] widths = new int[200];
+    int[] heights = new int[200];
+    long area = 0;
+    for (int i = 0; i < widths.length; ++i) {
+      widths[i] = 8 + i % 25;
+      heights[i] = 10 + (i * 7) % 30;
+      area += widths[i] * heights[i];
+    }
+    SpritePacker packer = new SpritePacker(widths, heights);
+    assertNoOverlap(packer, widths, heights);
+    // The sheet should be roughly square and not waste too much space
+    long sheet = (long) packer.getWidth() * packer.getHeight();
+    assertTrue(sheet < area * 2);
+    assertTrue(packer.getWidth() < packer.getHeight() * 3);
+    assertTrue(packer.getHeight() < packer.getWidth() * 3);
+  }
+
+  public void testSingleImage() {
+    SpritePacker packer = new SpritePacker(new int[] {20}, new int[] {34});
+    assertEquals(0, packer.getLeft(0));
+    assertEquals(0, packer.getTop(0));
+    assertEquals(20, packer.getWidth());
+    assertEquals(34, packer.getHeight());
+  }
+
+  public void testTallestFirst() {
+    int[] widths = {16, 20};
+    int[] heights = {16, 34};
+    SpritePacker packer = new SpritePacker(widths, heights);
+    assertEquals(0, packer.getLeft(1));
+    assertEquals(0, packer.getTop(1));
+    // The second image does not fit next to the first in a square sheet
+    assertEquals(0, packer.getLeft(0));
+    assertEquals(34 + SpritePacker.PADDING, packer.getTop(0));
+    assertEquals(20, packer.getWidth());
+    assertEquals(34 + SpritePacker.PADDING + 16, packer.getHeight());
+    assertNoOverlap(packer, widths, heights);
+  }
+}
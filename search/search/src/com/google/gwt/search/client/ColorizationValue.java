@@ -15,7 +15,7 @@
  */
 package com.google.gwt.search.client;
 
-import com.google.gwt.search.jsio.client.JSOpaque;
+import com.google.gwt.apis.jsio.client.JSOpaque;
 
 /**
  * Used with {@link ImageSearch#setColorization(ColorizationValue)} to control
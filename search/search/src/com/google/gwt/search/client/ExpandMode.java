@@ -15,7 +15,7 @@
  */
 package com.google.gwt.search.client;
 
-import com.google.gwt.search.jsio.client.JSOpaque;
+import com.google.gwt.apis.jsio.client.JSOpaque;
 
 /**
  * Determines how results are initially displayed in a SearchControl. The user
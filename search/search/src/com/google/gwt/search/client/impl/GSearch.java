@@ -17,12 +17,12 @@ package com.google.gwt.search.client.impl;
 
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.core.client.JsArray;
+import com.google.gwt.apis.jsio.client.BeanProperties;
+import com.google.gwt.apis.jsio.client.Binding;
+import com.google.gwt.apis.jsio.client.JSFlyweightWrapper;
+import com.google.gwt.apis.jsio.client.JSOpaque;
 import com.google.gwt.search.client.Result;
 import com.google.gwt.search.client.Search;
-import com.google.gwt.search.jsio.client.BeanProperties;
-import com.google.gwt.search.jsio.client.Binding;
-import com.google.gwt.search.jsio.client.JSFlyweightWrapper;
-import com.google.gwt.search.jsio.client.JSOpaque;
 import com.google.gwt.user.client.Element;
 
 /**
@@ -15,9 +15,9 @@
  */
 package com.google.gwt.search.client.impl;
 
+import com.google.gwt.apis.jsio.client.Constructor;
+import com.google.gwt.apis.jsio.client.JSOpaque;
 import com.google.gwt.search.client.Search;
-import com.google.gwt.search.jsio.client.Constructor;
-import com.google.gwt.search.jsio.client.JSOpaque;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
 
@@ -15,9 +15,9 @@
  */
 package com.google.gwt.search.client.impl;
 
+import com.google.gwt.apis.jsio.client.Exported;
+import com.google.gwt.apis.jsio.client.JSFunction;
 import com.google.gwt.search.client.Result;
-import com.google.gwt.search.jsio.client.Exported;
-import com.google.gwt.search.jsio.client.JSFunction;
 
 /**
  * 
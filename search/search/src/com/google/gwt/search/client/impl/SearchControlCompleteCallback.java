@@ -15,10 +15,10 @@
  */
 package com.google.gwt.search.client.impl;
 
+import com.google.gwt.apis.jsio.client.Exported;
+import com.google.gwt.apis.jsio.client.JSFunction;
 import com.google.gwt.search.client.Search;
 import com.google.gwt.search.client.SearchControl;
-import com.google.gwt.search.jsio.client.Exported;
-import com.google.gwt.search.jsio.client.JSFunction;
 
 /**
  * Argument passed to
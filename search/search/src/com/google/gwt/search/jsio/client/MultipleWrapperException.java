@@ -1,30 +0,0 @@
-/*
- * Copyright 2007 Google Inc.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License"); you may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at
- * 
- * http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-package com.google.gwt.search.jsio.client;
-
-/**
- * Thrown when a JSWrapper is attached to a JavaScriptObject that is already
- * being managed by a JSWrapper. 
- */
-public class MultipleWrapperException extends RuntimeException {
-
-  public MultipleWrapperException() {
-  }
-
-  public MultipleWrapperException(String message) {
-    super(message);
-  }
-}
@@ -1,30 +0,0 @@
-/*
- * Copyright 2008 Google Inc.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License"); you may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at
- * 
- * http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-package com.google.gwt.search.jsio.client.impl;
-
-import com.google.gwt.core.client.JavaScriptObject;
-
-/**
- * Encapsulates wrap/unwrap logic for passing objects through the
- * Java/JavaScript barrier.
- * 
- * @param <T> the type of object
- */
-public interface Extractor<T> {
-  T fromJS(JavaScriptObject jso);
-
-  JavaScriptObject toJS(T o);
-}
\ No newline at end of file
@@ -54,6 +54,9 @@ import java.util.List;
  * <p>In order to add a row to the underlying table, use {@link
  * DataTable#addRow()}. And then {@link #setValue} or {@link #set} can be used
  * to set cell values.
+ *
+ * <p>To read or aggregate a large number or date column without boxing every
+ * value, use {@link DoubleColumn}, {@link IntColumn} or {@link DateColumn}.
  */
 public abstract class DataColumn<T> extends AbstractList<T> {
 
@@ -19,6 +19,7 @@ import com.google.gwt.ajaxloader.client.ArrayHelper;
 import com.google.gwt.ajaxloader.client.Properties;
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.core.client.JsArrayInteger;
+import com.google.gwt.core.client.JsArrayNumber;
 
 import java.util.Date;
 
@@ -31,6 +32,10 @@ import java.util.Date;
  */
 public class DataTable extends AbstractDataTable {
 
+  private static final int PACKED_BOOLEAN = 2;
+  private static final int PACKED_DATE = 1;
+  private static final int PACKED_NUMBER = 0;
+
   public static native DataTable create() /*-{
     return new $wnd.google.visualization.DataTable();
   }-*/;
@@ -66,6 +71,45 @@ public class DataTable extends AbstractDataTable {
     return this.addRows(number);
   }-*/;
 
+  /**
+   * Appends rows from a row-major packed buffer in a single native call. The
+   * buffer holds one value per column for each new row, so its length must be
+   * a multiple of the number of columns. Values in date and datetime columns
+   * are milliseconds since the epoch, values in boolean columns are true when
+   * non-zero, and NaN stands for null. String and timeofday columns are not
+   * supported.
+   * 
+   * @param values the packed cell values, row by row.
+   * @return the index of the last added row.
+   */
+  public final int addRows(double[] values) {
+    int numberOfColumns = getNumberOfColumns();
+    if (numberOfColumns == 0 || values.length % numberOfColumns != 0) {
+      throw new IllegalArgumentException("Expected a multiple of "
+          + numberOfColumns + " values, got " + values.length);
+    }
+    int[] kinds = new int[numberOfColumns];
+    for (int i = 0; i < numberOfColumns; i++) {
+      ColumnType type = getColumnType(i);
+      switch (type) {
+        case NUMBER:
+          kinds[i] = PACKED_NUMBER;
+          break;
+        case DATE:
+        case DATETIME:
+          kinds[i] = PACKED_DATE;
+          break;
+        case BOOLEAN:
+          kinds[i] = PACKED_BOOLEAN;
+          break;
+        default:
+          throw new IllegalArgumentException(type.name());
+      }
+    }
+    return addRowsPacked(ArrayHelper.toJsArrayNumber(values),
+        ArrayHelper.toJsArrayInteger(kinds));
+  }
+
   public final void insertColumn(int columnIndex, ColumnType type) {
     insertColumn(columnIndex, type.getParameter());
   }
@@ -156,10 +200,62 @@ public class DataTable extends AbstractDataTable {
     this.setCell(rowIndex, columnIndex, null, formattedValue, properties);
   }-*/;
 
+  /**
+   * Sets the values of a date or datetime column in a single native call,
+   * starting at the first row. Rows are added as needed, so that the table has
+   * at least {@code millis.length} rows.
+   * 
+   * @param columnIndex The index of the column.
+   * @param millis The dates as milliseconds since the epoch.
+   */
+  public final void setColumnDates(int columnIndex, long[] millis) {
+    double[] values = new double[millis.length];
+    for (int i = 0; i < millis.length; i++) {
+      values[i] = millis[i];
+    }
+    setColumnValues(columnIndex, ArrayHelper.toJsArrayNumber(values), true);
+  }
+
   public final native void setColumnLabel(int columnIndex, String label) /*-{
     this.setColumnLabel(columnIndex, label);
   }-*/;
 
+  /**
+   * Sets the values of a number column in a single native call, starting at
+   * the first row. Rows are added as needed, so that the table has at least
+   * {@code values.length} rows. NaN values are stored as null.
+   * 
+   * @param columnIndex The index of the column.
+   * @param values The values, one per row.
+   */
+  public final void setColumnValues(int columnIndex, double[] values) {
+    setColumnValues(columnIndex, ArrayHelper.toJsArrayNumber(values), false);
+  }
+
+  /**
+   * Sets the values of a number column in a single native call, starting at
+   * the first row. Rows are added as needed, so that the table has at least
+   * {@code values.length} rows.
+   * 
+   * @param columnIndex The index of the column.
+   * @param values The values, one per row.
+   */
+  public final void setColumnValues(int columnIndex, int[] values) {
+    setColumnValues(columnIndex, ArrayHelper.toJsArrayInteger(values), false);
+  }
+
+  /**
+   * Sets the values of a string column in a single native call, starting at
+   * the first row. Rows are added as needed, so that the table has at least
+   * {@code values.length} rows.
+   * 
+   * @param columnIndex The index of the column.
+   * @param values The values, one per row. May contain null.
+   */
+  public final void setColumnValues(int columnIndex, String[] values) {
+    setColumnValues(columnIndex, ArrayHelper.toJsArrayString(values), false);
+  }
+
   public final native void setFormattedValue(int rowIndex, int columnIndex,
       String value) /*-{
     this.setFormattedValue(rowIndex, columnIndex, value);
@@ -230,6 +326,32 @@ public class DataTable extends AbstractDataTable {
     return this.addColumn(type, label, id);
   }-*/;
 
+  private native int addRowsPacked(JsArrayNumber values,
+      JsArrayInteger kinds) /*-{
+    var numberOfColumns = kinds.length;
+    var rows = new $wnd.Array();
+    // Safari bug: see issue 219
+    rows.constructor = $wnd.Array;
+    for (var i = 0, n = values.length; i < n; i += numberOfColumns) {
+      var row = new $wnd.Array(numberOfColumns);
+      row.constructor = $wnd.Array;
+      for (var j = 0; j < numberOfColumns; ++j) {
+        var value = values[i + j];
+        if (value !== value) {
+          value = null;
+        } else if (kinds[j] == @com.google.gwt.visualization.client.DataTable::PACKED_DATE) {
+          value = new $wnd.Date(value);
+          value.constructor = $wnd.Date;
+        } else if (kinds[j] == @com.google.gwt.visualization.client.DataTable::PACKED_BOOLEAN) {
+          value = value != 0;
+        }
+        row[j] = value;
+      }
+      rows.push(row);
+    }
+    return this.addRows(rows);
+  }-*/;
+
   // TODO: add sort, getSortedRows and getValue for timeofday
 
   private native void insertColumn(int columnIndex, String type) /*-{
@@ -258,6 +380,26 @@ public class DataTable extends AbstractDataTable {
     this.setCell(rowIndex, columnIndex, newDate, formattedValue, properties);
   }-*/;
 
+  private native void setColumnValues(int columnIndex,
+      JavaScriptObject values, boolean dates) /*-{
+    var n = values.length;
+    var missing = n - this.getNumberOfRows();
+    if (missing > 0) {
+      this.addRows(missing);
+    }
+    for (var i = 0; i < n; ++i) {
+      var value = values[i];
+      if (value !== value) {
+        value = null;
+      } else if (dates && value != null) {
+        value = new $wnd.Date(value);
+        // Safari bug: see issue 219
+        value.constructor = $wnd.Date;
+      }
+      this.setValue(i, columnIndex, value);
+    }
+  }-*/;
+
   private native void setValue(int rowIndex, int columnIndex, int hour,
       int minute, int second, int millis) /*-{
     var newArray = new $wnd.Array(hour, minute, second, millis);
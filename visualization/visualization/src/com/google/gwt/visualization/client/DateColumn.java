@@ -0,0 +1,107 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.visualization.client;
+
+import com.google.gwt.core.client.JsArrayNumber;
+import com.google.gwt.visualization.client.AbstractDataTable.ColumnType;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only view of a date or datetime column that reads values as
+ * milliseconds since the epoch. Null cells read as 0; use
+ * {@link #isNull(int)} to tell them apart.
+ */
+public final class DateColumn extends PrimitiveColumn {
+
+  /**
+   * Returns the column identified by {@code columnId} in {@code table}.
+   *
+   * @throws IllegalArgumentException if {@code columnId} is not found
+   */
+  public static DateColumn of(AbstractDataTable table, String columnId) {
+    return of(table, getColumnIndex(table, columnId));
+  }
+
+  /** Returns the column identified by {@code columnIndex} in {@code table}. */
+  public static DateColumn of(AbstractDataTable table, int columnIndex) {
+    return new DateColumn(table, columnIndex);
+  }
+
+  private DateColumn(AbstractDataTable table, int columnIndex) {
+    super(table, columnIndex, ColumnType.DATE, ColumnType.DATETIME);
+  }
+
+  /** Returns the value at {@code row}, or 0 if the cell is null. */
+  public long getTime(int row) {
+    return (long) getTimeValue(row);
+  }
+
+  /**
+   * Returns the latest non-null value.
+   *
+   * @throws NoSuchElementException if all the cells are null
+   */
+  public long max() {
+    return (long) nonEmpty(summarize()).get(3);
+  }
+
+  /**
+   * Returns the earliest non-null value.
+   *
+   * @throws NoSuchElementException if all the cells are null
+   */
+  public long min() {
+    return (long) nonEmpty(summarize()).get(2);
+  }
+
+  /**
+   * Returns the value at percentile {@code p} of the non-null values,
+   * interpolating linearly between the closest ranks and rounding to the
+   * nearest millisecond.
+   *
+   * @param p the percentile, between 0 and 100 inclusive.
+   * @throws NoSuchElementException if all the cells are null
+   */
+  public long percentile(double p) {
+    double value = percentileValue(p);
+    if (Double.isNaN(value)) {
+      throw new NoSuchElementException();
+    }
+    return Math.round(value);
+  }
+
+  /**
+   * Returns all the values in row order as milliseconds, with 0 for null
+   * cells. The values are doubles because GWT emulates long with an object
+   * per value.
+   */
+  public double[] toArray() {
+    JsArrayNumber values = values(0);
+    double[] result = new double[values.length()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = values.get(i);
+    }
+    return result;
+  }
+
+  private native double getTimeValue(int row) /*-{
+    var data = this.@com.google.gwt.visualization.client.PrimitiveColumn::data;
+    var column = this.@com.google.gwt.visualization.client.PrimitiveColumn::columnIndex;
+    var value = data.getValue(row, column);
+    return value == null ? 0 : value.getTime();
+  }-*/;
+}
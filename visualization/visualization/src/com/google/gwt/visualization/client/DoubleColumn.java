@@ -0,0 +1,89 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.visualization.client;
+
+import com.google.gwt.core.client.JsArrayNumber;
+import com.google.gwt.visualization.client.AbstractDataTable.ColumnType;
+
+/**
+ * A read-only view of a number column that reads values as doubles. Null
+ * cells read as NaN. For example: <pre class="code">   {@code
+ *   DoubleColumn column = DoubleColumn.of(data, columnIndex);
+ *   double total = column.sum();
+ *   double median = column.percentile(50);
+ * }</pre>
+ */
+public final class DoubleColumn extends PrimitiveColumn {
+
+  /**
+   * Returns the column identified by {@code columnId} in {@code table}.
+   *
+   * @throws IllegalArgumentException if {@code columnId} is not found
+   */
+  public static DoubleColumn of(AbstractDataTable table, String columnId) {
+    return of(table, getColumnIndex(table, columnId));
+  }
+
+  /** Returns the column identified by {@code columnIndex} in {@code table}. */
+  public static DoubleColumn of(AbstractDataTable table, int columnIndex) {
+    return new DoubleColumn(table, columnIndex);
+  }
+
+  private DoubleColumn(AbstractDataTable table, int columnIndex) {
+    super(table, columnIndex, ColumnType.NUMBER);
+  }
+
+  /** Returns the value at {@code row}, or NaN if the cell is null. */
+  public double get(int row) {
+    return isNull(row) ? Double.NaN : data.getValueDouble(row, columnIndex);
+  }
+
+  /** Returns the largest non-null value, or NaN if there are none. */
+  public double max() {
+    return summarize().get(3);
+  }
+
+  /** Returns the smallest non-null value, or NaN if there are none. */
+  public double min() {
+    return summarize().get(2);
+  }
+
+  /**
+   * Returns the value at percentile {@code p} of the non-null values,
+   * interpolating linearly between the closest ranks, or NaN if there are
+   * none.
+   *
+   * @param p the percentile, between 0 and 100 inclusive.
+   */
+  public double percentile(double p) {
+    return percentileValue(p);
+  }
+
+  /** Returns the sum of the non-null values. */
+  public double sum() {
+    return summarize().get(1);
+  }
+
+  /** Returns all the values in row order, with NaN for null cells. */
+  public double[] toArray() {
+    JsArrayNumber values = values(Double.NaN);
+    double[] result = new double[values.length()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = values.get(i);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.visualization.client;
+
+import com.google.gwt.core.client.JsArrayNumber;
+import com.google.gwt.visualization.client.AbstractDataTable.ColumnType;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only view of a number column that reads values as ints. Null cells
+ * read as 0; use {@link #isNull(int)} to tell them apart.
+ */
+public final class IntColumn extends PrimitiveColumn {
+
+  /**
+   * Returns the column identified by {@code columnId} in {@code table}.
+   *
+   * @throws IllegalArgumentException if {@code columnId} is not found
+   */
+  public static IntColumn of(AbstractDataTable table, String columnId) {
+    return of(table, getColumnIndex(table, columnId));
+  }
+
+  /** Returns the column identified by {@code columnIndex} in {@code table}. */
+  public static IntColumn of(AbstractDataTable table, int columnIndex) {
+    return new IntColumn(table, columnIndex);
+  }
+
+  private IntColumn(AbstractDataTable table, int columnIndex) {
+    super(table, columnIndex, ColumnType.NUMBER);
+  }
+
+  /** Returns the value at {@code row}, or 0 if the cell is null. */
+  public int get(int row) {
+    return isNull(row) ? 0 : data.getValueInt(row, columnIndex);
+  }
+
+  /**
+   * Returns the largest non-null value.
+   *
+   * @throws NoSuchElementException if all the cells are null
+   */
+  public int max() {
+    return (int) nonEmpty(summarize()).get(3);
+  }
+
+  /**
+   * Returns the smallest non-null value.
+   *
+   * @throws NoSuchElementException if all the cells are null
+   */
+  public int min() {
+    return (int) nonEmpty(summarize()).get(2);
+  }
+
+  /**
+   * Returns the value at percentile {@code p} of the non-null values,
+   * interpolating linearly between the closest ranks.
+   *
+   * @param p the percentile, between 0 and 100 inclusive.
+   * @throws NoSuchElementException if all the cells are null
+   */
+  public double percentile(double p) {
+    double value = percentileValue(p);
+    if (Double.isNaN(value)) {
+      throw new NoSuchElementException();
+    }
+    return value;
+  }
+
+  /**
+   * Returns the sum of the non-null values. The sum is a double so that it
+   * does not overflow.
+   */
+  public double sum() {
+    return summarize().get(1);
+  }
+
+  /** Returns all the values in row order, with 0 for null cells. */
+  public int[] toArray() {
+    JsArrayNumber values = values(0);
+    int[] result = new int[values.length()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = (int) values.get(i);
+    }
+    return result;
+  }
+}
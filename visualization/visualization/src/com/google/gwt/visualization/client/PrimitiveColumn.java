@@ -0,0 +1,202 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.visualization.client;
+
+import com.google.gwt.core.client.JsArrayNumber;
+import com.google.gwt.visualization.client.AbstractDataTable.ColumnType;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only view of a data column in an {@link AbstractDataTable} that
+ * reads values as primitives. Unlike {@link DataColumn}, which boxes every
+ * value it returns, the typed subclasses copy a whole column into a primitive
+ * array with {@code toArray()} and compute aggregations such as the sum or the
+ * maximum in a single native pass over the table, without creating a Java
+ * object per row. Null cells are skipped by the aggregations.
+ *
+ * @see DoubleColumn
+ * @see IntColumn
+ * @see DateColumn
+ */
+public abstract class PrimitiveColumn {
+
+  final AbstractDataTable data;
+  final int columnIndex;
+  private final boolean dates;
+
+  PrimitiveColumn(AbstractDataTable table, int columnIndex,
+      ColumnType... compatibleColumnTypes) {
+    if (columnIndex < 0 || columnIndex >= table.getNumberOfColumns()) {
+      throw new IndexOutOfBoundsException(Integer.toString(columnIndex));
+    }
+    ColumnType columnType = table.getColumnType(columnIndex);
+    if (!Arrays.asList(compatibleColumnTypes).contains(columnType)) {
+      throw new IllegalArgumentException(columnType.name());
+    }
+    this.data = table;
+    this.columnIndex = columnIndex;
+    this.dates = columnType == ColumnType.DATE
+        || columnType == ColumnType.DATETIME;
+  }
+
+  /** Returns the number of non-null values in the column. */
+  public final int count() {
+    return (int) summarize().get(0);
+  }
+
+  /** Returns the column index. */
+  public final int getColumnIndex() {
+    return columnIndex;
+  }
+
+  /** Returns the underlying table that this object reads from. */
+  public final AbstractDataTable getDataTable() {
+    return data;
+  }
+
+  /** Returns whether the cell at {@code row} is null. */
+  public final boolean isNull(int row) {
+    return data.isValueNull(row, columnIndex);
+  }
+
+  /**
+   * Returns the mean of the non-null values, or NaN if there are none. For
+   * date columns, the mean is in milliseconds since the epoch.
+   */
+  public final double mean() {
+    JsArrayNumber summary = summarize();
+    double count = summary.get(0);
+    return count == 0 ? Double.NaN : summary.get(1) / count;
+  }
+
+  /** Returns the number of rows in the underlying table. */
+  public final int size() {
+    return data.getNumberOfRows();
+  }
+
+  /**
+   * Returns {@code summary} if it counts at least one non-null value.
+   *
+   * @throws NoSuchElementException if all the cells are null
+   */
+  static JsArrayNumber nonEmpty(JsArrayNumber summary) {
+    if (summary.get(0) == 0) {
+      throw new NoSuchElementException();
+    }
+    return summary;
+  }
+
+  /**
+   * Returns the column index for {@code columnId} in {@code table}.
+   *
+   * @throws IllegalArgumentException if that column ID is not found
+   */
+  static int getColumnIndex(AbstractDataTable table, String columnId) {
+    int index = table.getColumnIndex(columnId);
+    if (index < 0) {
+      throw new IllegalArgumentException(columnId);
+    }
+    return index;
+  }
+
+  /**
+   * Returns the value at percentile {@code p} of the non-null values,
+   * interpolating linearly between the closest ranks, or NaN if there are
+   * none.
+   *
+   * @param p the percentile, between 0 and 100 inclusive.
+   */
+  final double percentileValue(double p) {
+    if (!(p >= 0 && p <= 100)) {
+      throw new IllegalArgumentException(Double.toString(p));
+    }
+    return nativePercentile(p);
+  }
+
+  /**
+   * Returns the number of non-null values, their sum, their minimum and their
+   * maximum, computed in a single pass. The minimum and maximum are NaN if
+   * there are no non-null values.
+   */
+  final native JsArrayNumber summarize() /*-{
+    var data = this.@com.google.gwt.visualization.client.PrimitiveColumn::data;
+    var column = this.@com.google.gwt.visualization.client.PrimitiveColumn::columnIndex;
+    var dates = this.@com.google.gwt.visualization.client.PrimitiveColumn::dates;
+    var count = 0, sum = 0, min = Infinity, max = -Infinity;
+    for (var i = 0, n = data.getNumberOfRows(); i < n; ++i) {
+      var value = data.getValue(i, column);
+      if (value == null) {
+        continue;
+      }
+      if (dates) {
+        value = value.getTime();
+      }
+      ++count;
+      sum += value;
+      if (value < min) {
+        min = value;
+      }
+      if (value > max) {
+        max = value;
+      }
+    }
+    return count == 0 ? [0, 0, NaN, NaN] : [count, sum, min, max];
+  }-*/;
+
+  /**
+   * Returns all the values of the column in row order, with
+   * {@code nullValue} in place of null cells.
+   */
+  final native JsArrayNumber values(double nullValue) /*-{
+    var data = this.@com.google.gwt.visualization.client.PrimitiveColumn::data;
+    var column = this.@com.google.gwt.visualization.client.PrimitiveColumn::columnIndex;
+    var dates = this.@com.google.gwt.visualization.client.PrimitiveColumn::dates;
+    var n = data.getNumberOfRows();
+    var values = new Array(n);
+    for (var i = 0; i < n; ++i) {
+      var value = data.getValue(i, column);
+      values[i] = value == null ? nullValue : dates ? value.getTime() : value;
+    }
+    return values;
+  }-*/;
+
+  private native double nativePercentile(double p) /*-{
+    var data = this.@com.google.gwt.visualization.client.PrimitiveColumn::data;
+    var column = this.@com.google.gwt.visualization.client.PrimitiveColumn::columnIndex;
+    var dates = this.@com.google.gwt.visualization.client.PrimitiveColumn::dates;
+    var values = [];
+    for (var i = 0, n = data.getNumberOfRows(); i < n; ++i) {
+      var value = data.getValue(i, column);
+      if (value != null) {
+        values.push(dates ? value.getTime() : value);
+      }
+    }
+    if (values.length == 0) {
+      return NaN;
+    }
+    values.sort(function(a, b) {
+      return a - b;
+    });
+    var rank = (values.length - 1) * p / 100;
+    var lower = Math.floor(rank);
+    if (lower == rank) {
+      return values[lower];
+    }
+    return values[lower] + (values[lower + 1] - values[lower]) * (rank - lower);
+  }-*/;
+}
@@ -0,0 +1,527 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.visualization.client;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.user.client.Timer;
+import com.google.gwt.visualization.client.Query.Callback;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends {@link Query queries} to data sources and remembers their responses.
+ * Responses are stored under the data source URL and query string, kept for a
+ * limited time, and evicted least recently used first when the cache is full.
+ * Queries for a key already being loaded wait for that request instead of
+ * sending another one, so several widgets on a page can ask for the same data
+ * at once. Error responses are not cached.
+ *
+ * <p>{@link #poll} replaces {@link Query#setRefreshInterval(int)}. A poll sends
+ * the same {@link Query} every time, so the data source receives the
+ * signature of the data it last answered with and can reply "not_modified"
+ * instead of sending the data again. A poll only calls back when the data
+ * changes, so charts are not redrawn with the same data. For data sources that
+ * ignore the signature, the data is compared with {@link #getSignature}.
+ *
+ * <p>Hit, miss, expiry, eviction and skipped redraw counts are kept to help
+ * size the cache and the poll intervals.
+ */
+public class QueryClient {
+
+  /**
+   * A query sent again at a fixed interval.
+   */
+  public class Poll {
+    private QueryResponse answered;
+    private final Callback callback;
+    private boolean cancelled;
+    private QueryResponse current;
+    private final String dataSource;
+    private boolean delivered;
+    private final int intervalMillis;
+    private final String query;
+    private final Query request;
+    private String signature;
+    private final Timer timer = new Timer() {
+      @Override
+      public void run() {
+        request(dataSource, query, Poll.this, new Callback() {
+          public void onResponse(QueryResponse response) {
+            onPollResponse(response);
+          }
+        });
+      }
+    };
+
+    private Poll(String dataSource, String query, int intervalMillis,
+        Callback callback) {
+      this.dataSource = dataSource;
+      this.query = query;
+      this.intervalMillis = intervalMillis;
+      this.callback = callback;
+      this.request = createQuery(dataSource, query);
+    }
+
+    /**
+     * Stops sending the query. A response already on its way is dropped.
+     */
+    public void cancel() {
+      cancelled = true;
+      timer.cancel();
+    }
+
+    /**
+     * Returns <code>true</code> until {@link #cancel()} is called.
+     */
+    public boolean isActive() {
+      return !cancelled;
+    }
+
+    /**
+     * Returns the signature of the data last passed on, computing it the
+     * first time a response has to be compared with it.
+     */
+    private String getCurrentSignature() {
+      if (signature == null) {
+        signature = getSignature(getKey(dataSource, query), current);
+      }
+      return signature;
+    }
+
+    private void onPollResponse(QueryResponse response) {
+      if (cancelled) {
+        return;
+      }
+      if (response.isError()) {
+        delivered = false;
+        callback.onResponse(response);
+      } else if (delivered && (response == current
+          || getSignature(getKey(dataSource, query), response).equals(
+              getCurrentSignature()))) {
+        // A "not_modified" reply is answered with the current response, so
+        // the signatures are only compared when the data was sent again
+        current = response;
+        ++skippedRedrawCount;
+      } else {
+        current = response;
+        signature = null;
+        delivered = true;
+        callback.onResponse(response);
+      }
+      if (!cancelled) {
+        timer.schedule(intervalMillis);
+      }
+    }
+  }
+
+  /**
+   * A cached response, its signature and the time at which it expires. The
+   * signature is only computed when a poll needs it.
+   */
+  private static class Entry {
+    final double expires;
+    final QueryResponse response;
+    String signature;
+
+    Entry(QueryResponse response, String signature, double expires) {
+      this.response = response;
+      this.signature = signature;
+      this.expires = expires;
+    }
+  }
+
+  /**
+   * The maximum number of entries used by the default constructor.
+   */
+  public static final int DEFAULT_MAX_ENTRIES = 50;
+
+  /**
+   * The time to live used by the default constructor, in milliseconds.
+   */
+  public static final double DEFAULT_TTL_MILLIS = 60 * 1000;
+
+  /**
+   * Returns a signature of the data in {@code response}: a hash of its column
+   * types, ids and labels and of all its cell values, computed in a single
+   * native pass. Two responses with the same data have the same signature.
+   *
+   * @return the signature, or <code>null</code> for an error response.
+   */
+  public static native String getSignature(QueryResponse response) /*-{
+    if (response.isError()) {
+      return null;
+    }
+    var data = response.getDataTable();
+    // 32-bit FNV-1a over the text of the columns and the cells
+    var hash = 0x811c9dc5;
+    function mix(text) {
+      for (var i = 0, n = text.length; i < n; ++i) {
+        hash ^= text.charCodeAt(i);
+        hash += (hash << 1) + (hash << 4) + (hash << 7) + (hash << 8)
+            + (hash << 24);
+      }
+      // Separates consecutive values
+      hash ^= 0x1f;
+      hash += (hash << 1) + (hash << 4) + (hash << 7) + (hash << 8)
+          + (hash << 24);
+    }
+    var numberOfColumns = data.getNumberOfColumns();
+    var numberOfRows = data.getNumberOfRows();
+    for (var j = 0; j < numberOfColumns; ++j) {
+      mix(data.getColumnType(j));
+      mix(data.getColumnId(j) || '');
+      mix(data.getColumnLabel(j) || '');
+    }
+    for (var i = 0; i < numberOfRows; ++i) {
+      for (var j = 0; j < numberOfColumns; ++j) {
+        var value = data.getValue(i, j);
+        if (value == null) {
+          mix('');
+        } else if (value.getTime) {
+          mix('d' + value.getTime());
+        } else {
+          mix(typeof value + value);
+        }
+      }
+    }
+    return numberOfRows + 'x' + numberOfColumns + ':'
+        + (hash >>> 0).toString(16);
+  }-*/;
+
+  private static native boolean isNotModified(QueryResponse response) /*-{
+    if (!response.isError() || !response.getReasons) {
+      return false;
+    }
+    var reasons = response.getReasons() || [];
+    for (var i = 0; i < reasons.length; ++i) {
+      if (reasons[i] == 'not_modified') {
+        return true;
+      }
+    }
+    return false;
+  }-*/;
+
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(
+      16, 0.75f, true);
+  private int evictionCount;
+  private int expiredCount;
+  private int hitCount;
+  private final int maxEntries;
+  private int missCount;
+  private final Query.Options options;
+  private final Map<String, List<Callback>> pending = new HashMap<String, List<Callback>>();
+  private int skippedRedrawCount;
+  private int timeoutSeconds;
+  private final double ttlMillis;
+
+  /**
+   * Creates a client with the default query options, holding up to
+   * {@link #DEFAULT_MAX_ENTRIES} responses for {@link #DEFAULT_TTL_MILLIS}.
+   */
+  public QueryClient() {
+    this(null, DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS);
+  }
+
+  /**
+   * Creates a client.
+   *
+   * @param options the options of the queries sent, or <code>null</code> for
+   *          the defaults.
+   * @param maxEntries the maximum number of responses kept.
+   * @param ttlMillis the time in milliseconds a response stays valid, or 0 to
+   *          keep responses until they are evicted.
+   */
+  public QueryClient(Query.Options options, int maxEntries, double ttlMillis) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+    this.options = options;
+    this.maxEntries = maxEntries;
+    this.ttlMillis = ttlMillis;
+  }
+
+  /**
+   * Removes all cached responses. Requests in progress are not affected.
+   */
+  public void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of entries evicted to make room for newer ones.
+   *
+   * @return the number of entries evicted.
+   */
+  public int getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * Returns the number of entries dropped because they outlived the time to
+   * live.
+   *
+   * @return the number of entries expired.
+   */
+  public int getExpiredCount() {
+    return expiredCount;
+  }
+
+  /**
+   * Returns the number of queries answered from the cache or by joining a
+   * request already in progress.
+   *
+   * @return the number of cache hits.
+   */
+  public int getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Returns the fraction of queries answered without a new request.
+   *
+   * @return the hit rate between 0 and 1, or 0 if no query was made.
+   */
+  public double getHitRate() {
+    int total = hitCount + missCount;
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  /**
+   * Returns the number of queries sent to a data source.
+   *
+   * @return the number of cache misses.
+   */
+  public int getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Returns the number of poll responses that were not passed on because
+   * their data had not changed.
+   *
+   * @return the number of skipped redraws.
+   */
+  public int getSkippedRedrawCount() {
+    return skippedRedrawCount;
+  }
+
+  /**
+   * Sends {@code query} to {@code dataSource} now and then every
+   * {@code intervalMillis} after each response, until the returned poll is
+   * cancelled. The first response may come from the cache; later ones are
+   * always fetched again. {@code callback} is only called when the data
+   * changes, or on errors.
+   *
+   * @param dataSource the URL of the data source.
+   * @param query the query string, or <code>null</code> for all the data.
+   * @param intervalMillis the time between a response and the next request.
+   * @param callback called with each changed response.
+   * @return the poll, to cancel it.
+   */
+  public Poll poll(String dataSource, String query, int intervalMillis,
+      Callback callback) {
+    if (intervalMillis <= 0) {
+      throw new IllegalArgumentException("intervalMillis must be positive");
+    }
+    final Poll poll = new Poll(dataSource, query, intervalMillis, callback);
+    send(dataSource, query, new Callback() {
+      public void onResponse(QueryResponse response) {
+        poll.onPollResponse(response);
+      }
+    });
+    return poll;
+  }
+
+  /**
+   * Resets the hit, miss, expiry, eviction and skipped redraw counts to zero.
+   */
+  public void resetStats() {
+    evictionCount = 0;
+    expiredCount = 0;
+    hitCount = 0;
+    missCount = 0;
+    skippedRedrawCount = 0;
+  }
+
+  /**
+   * Sends {@code query} to {@code dataSource}, unless a fresh response is
+   * cached, in which case {@code callback} is called before this method
+   * returns.
+   *
+   * @param dataSource the URL of the data source.
+   * @param query the query string, or <code>null</code> for all the data.
+   * @param callback called with the response.
+   */
+  public void send(String dataSource, String query, Callback callback) {
+    request(dataSource, query, null, callback);
+  }
+
+  /**
+   * Sets the timeout of the queries sent, in seconds, or 0 for the default.
+   */
+  public void setTimeout(int timeoutSeconds) {
+    this.timeoutSeconds = timeoutSeconds;
+  }
+
+  /**
+   * Returns the number of cached responses.
+   *
+   * @return the number of cached responses.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Creates a query for the data source. A poll creates one query and sends
+   * it every time, so that the query can pass the signature of its last
+   * response back to the data source.
+   *
+   * @param dataSource the URL of the data source.
+   * @param query the query string, or <code>null</code> for all the data.
+   * @return the query.
+   */
+  protected Query createQuery(String dataSource, String query) {
+    Query request = options == null ? Query.create(dataSource)
+        : Query.create(dataSource, options);
+    if (query != null) {
+      request.setQuery(query);
+    }
+    if (timeoutSeconds > 0) {
+      request.setTimeout(timeoutSeconds);
+    }
+    return request;
+  }
+
+  /**
+   * Sends a query to its data source. This method may be overridden to send
+   * queries some other way.
+   *
+   * @param request the query, created by {@link #createQuery}.
+   * @param callback called with the response.
+   */
+  protected void sendQuery(Query request, Callback callback) {
+    request.send(callback);
+  }
+
+  /**
+   * Removes the least recently used entries until the cache fits.
+   */
+  private void evict() {
+    Iterator<String> it = entries.keySet().iterator();
+    while (entries.size() > maxEntries && it.hasNext()) {
+      it.next();
+      it.remove();
+      ++evictionCount;
+    }
+  }
+
+  private String getKey(String dataSource, String query) {
+    return query == null ? dataSource : dataSource + "|q:" + query;
+  }
+
+  /**
+   * Returns the signature of {@code response}, computed at most once while
+   * it is cached under {@code key}.
+   */
+  private String getSignature(String key, QueryResponse response) {
+    Entry entry = entries.get(key);
+    if (entry == null || entry.response != response) {
+      return getSignature(response);
+    }
+    if (entry.signature == null) {
+      entry.signature = getSignature(response);
+    }
+    return entry.signature;
+  }
+
+  /**
+   * Answers a query from the cache or adds it to a request in progress.
+   *
+   * @return <code>false</code> if the caller must start a new request.
+   */
+  private boolean lookup(String key, boolean refresh, Callback callback) {
+    Entry entry = entries.get(key);
+    if (entry != null && entry.expires > 0
+        && entry.expires <= Duration.currentTimeMillis()) {
+      entries.remove(key);
+      ++expiredCount;
+      entry = null;
+    }
+    if (entry != null && !refresh) {
+      ++hitCount;
+      callback.onResponse(entry.response);
+      return true;
+    }
+    List<Callback> waiting = pending.get(key);
+    if (waiting != null) {
+      ++hitCount;
+      waiting.add(callback);
+      return true;
+    }
+    ++missCount;
+    return false;
+  }
+
+  /**
+   * Sends a query, or answers it from the cache or a request in progress.
+   *
+   * @param poll the poll refreshing the data, whose query is sent, or
+   *          <code>null</code> to send a new query only if the cache misses.
+   */
+  private void request(String dataSource, String query, final Poll poll,
+      Callback callback) {
+    final String key = getKey(dataSource, query);
+    if (lookup(key, poll != null, callback)) {
+      return;
+    }
+    List<Callback> waiting = new ArrayList<Callback>();
+    waiting.add(callback);
+    pending.put(key, waiting);
+    Query request = poll != null ? poll.request : createQuery(dataSource,
+        query);
+    sendQuery(request, new Callback() {
+      public void onResponse(QueryResponse response) {
+        double expires = ttlMillis > 0 ? Duration.currentTimeMillis()
+            + ttlMillis : 0;
+        QueryResponse result = response;
+        if (!response.isError()) {
+          if (poll != null) {
+            poll.answered = response;
+          }
+          entries.put(key, new Entry(response, null, expires));
+          evict();
+        } else if (isNotModified(response) && poll != null
+            && poll.answered != null) {
+          // The data the poll's query was last answered with is current
+          Entry entry = entries.get(key);
+          result = poll.answered;
+          entries.put(key, new Entry(result, entry != null
+              && entry.response == result ? entry.signature : null, expires));
+          evict();
+        }
+        for (Callback waiting : pending.remove(key)) {
+          waiting.onResponse(result);
+        }
+      }
+    });
+  }
+}
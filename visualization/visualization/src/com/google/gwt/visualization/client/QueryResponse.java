@@ -17,6 +17,7 @@
 package com.google.gwt.visualization.client;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
 
 /**
  * Represents a response of a query execution as received from the data source.
@@ -41,6 +42,10 @@ public class QueryResponse extends JavaScriptObject {
     return this.getMessage();
   }-*/;
 
+  public final native JsArrayString getReasons() /*-{
+    return this.getReasons();
+  }-*/;
+
   public final native boolean hasWarning() /*-{
     return this.hasWarning();
   }-*/;
@@ -48,6 +53,4 @@ public class QueryResponse extends JavaScriptObject {
   public final native boolean isError() /*-{
     return this.isError();
   }-*/;
-
-  // TODO : add getReasons()
 }
\ No newline at end of file
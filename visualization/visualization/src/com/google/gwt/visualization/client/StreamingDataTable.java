@@ -0,0 +1,318 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.visualization.client;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.user.client.Timer;
+import com.google.gwt.visualization.client.visualizations.Visualization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An append-only {@link DataTable} for live data. Row batches are appended to
+ * the end of the table, and the oldest rows are removed so that the table
+ * never holds more than the last {@code windowSize} rows, however long the
+ * stream runs. Bound visualizations are redrawn at most once per redraw
+ * interval, no matter how many batches arrive in between. For example:
+ * <pre class="code">   {@code
+ *   StreamingDataTable stream = new StreamingDataTable(data, 500);
+ *   stream.bind(chart, options);
+ *   ...
+ *   stream.append(batch);
+ * }</pre>
+ */
+public class StreamingDataTable {
+
+  /**
+   * The default minimum time between two redraws, in milliseconds.
+   */
+  public static final int DEFAULT_REDRAW_INTERVAL = 1000;
+
+  /**
+   * A visualization along with the options to draw it with.
+   */
+  private static class Binding<OptionsType extends AbstractDrawOptions> {
+    private final OptionsType options;
+    private final Visualization<OptionsType> visualization;
+
+    Binding(Visualization<OptionsType> visualization, OptionsType options) {
+      this.visualization = visualization;
+      this.options = options;
+    }
+
+    void draw(AbstractDataTable data) {
+      visualization.draw(data, options);
+    }
+  }
+
+  private final List<Binding<?>> bindings = new ArrayList<Binding<?>>();
+  private final DataTable data;
+  private double lastRedraw = Double.NEGATIVE_INFINITY;
+  private int redrawInterval = DEFAULT_REDRAW_INTERVAL;
+  private boolean redrawPending;
+  private final Timer redrawTimer = new Timer() {
+    @Override
+    public void run() {
+      redraw();
+    }
+  };
+  private int windowSize;
+
+  private int appendedRowCount;
+  private int evictedRowCount;
+  private int redrawCount;
+
+  /**
+   * Creates a stream that appends to {@code data}. The table must already
+   * have its columns. Rows it already holds are kept, up to the window size.
+   * 
+   * @param data the table to append to.
+   * @param windowSize the maximum number of rows to keep.
+   */
+  public StreamingDataTable(DataTable data, int windowSize) {
+    this.data = data;
+    setWindowSize(windowSize);
+  }
+
+  /**
+   * Appends the rows of {@code batch}. The batch must have the same columns
+   * as the table. Only cell values are copied.
+   * 
+   * @param batch the rows to append.
+   */
+  public void append(AbstractDataTable batch) {
+    int numberOfColumns = data.getNumberOfColumns();
+    if (batch.getNumberOfColumns() != numberOfColumns) {
+      throw new IllegalArgumentException("Expected " + numberOfColumns
+          + " columns, got " + batch.getNumberOfColumns());
+    }
+    int rows = batch.getNumberOfRows();
+    if (rows == 0) {
+      return;
+    }
+    int skipped = Math.max(0, rows - windowSize);
+    appendRows(data, batch, skipped);
+    rowsAppended(rows, skipped);
+  }
+
+  /**
+   * Appends rows from a row-major packed buffer. The buffer uses the same
+   * layout as {@link DataTable#addRows(double[])}.
+   * 
+   * @param values the packed cell values, row by row.
+   */
+  public void append(double[] values) {
+    int numberOfColumns = data.getNumberOfColumns();
+    if (numberOfColumns == 0 || values.length % numberOfColumns != 0) {
+      throw new IllegalArgumentException("Expected a multiple of "
+          + numberOfColumns + " values, got " + values.length);
+    }
+    int rows = values.length / numberOfColumns;
+    if (rows == 0) {
+      return;
+    }
+    int skipped = Math.max(0, rows - windowSize);
+    if (skipped > 0) {
+      double[] tail = new double[windowSize * numberOfColumns];
+      System.arraycopy(values, skipped * numberOfColumns, tail, 0,
+          tail.length);
+      values = tail;
+    }
+    data.addRows(values);
+    rowsAppended(rows, skipped);
+  }
+
+  /**
+   * Redraws {@code visualization} with the table whenever rows are appended,
+   * subject to the redraw interval. The visualization is not drawn until the
+   * next append or {@link #redraw()}.
+   * 
+   * @param visualization the visualization to redraw.
+   * @param options the options to draw it with.
+   */
+  public <OptionsType extends AbstractDrawOptions> void bind(
+      Visualization<OptionsType> visualization, OptionsType options) {
+    bindings.add(new Binding<OptionsType>(visualization, options));
+  }
+
+  /**
+   * Cancels any pending redraw. Call this when the stream is no longer
+   * displayed.
+   */
+  public void cancel() {
+    redrawTimer.cancel();
+    redrawPending = false;
+  }
+
+  /**
+   * Returns the number of rows appended since the last call to
+   * {@link #resetStats()}, including rows that were evicted since.
+   */
+  public int getAppendedRowCount() {
+    return appendedRowCount;
+  }
+
+  /**
+   * Returns the underlying table. Its rows should only be added through this
+   * stream.
+   */
+  public DataTable getDataTable() {
+    return data;
+  }
+
+  /**
+   * Returns the number of rows dropped to keep the table within the window
+   * since the last call to {@link #resetStats()}.
+   */
+  public int getEvictedRowCount() {
+    return evictedRowCount;
+  }
+
+  /**
+   * Returns the number of times the bound visualizations were redrawn since
+   * the last call to {@link #resetStats()}.
+   */
+  public int getRedrawCount() {
+    return redrawCount;
+  }
+
+  /**
+   * Returns the minimum time between two redraws, in milliseconds.
+   */
+  public int getRedrawInterval() {
+    return redrawInterval;
+  }
+
+  /**
+   * Returns the maximum number of rows the table keeps.
+   */
+  public int getWindowSize() {
+    return windowSize;
+  }
+
+  /**
+   * Returns <code>true</code> if appended rows are waiting to be drawn.
+   */
+  public boolean isRedrawPending() {
+    return redrawPending;
+  }
+
+  /**
+   * Redraws the bound visualizations now, and cancels any pending redraw.
+   */
+  public void redraw() {
+    cancel();
+    lastRedraw = Duration.currentTimeMillis();
+    for (Binding<?> binding : bindings) {
+      binding.draw(data);
+    }
+    redrawCount++;
+  }
+
+  /**
+   * Resets the row and redraw counters.
+   */
+  public void resetStats() {
+    appendedRowCount = 0;
+    evictedRowCount = 0;
+    redrawCount = 0;
+  }
+
+  /**
+   * Sets the minimum time between two redraws. A pending redraw keeps its
+   * schedule.
+   * 
+   * @param redrawInterval the interval in milliseconds.
+   */
+  public void setRedrawInterval(int redrawInterval) {
+    if (redrawInterval < 0) {
+      throw new IllegalArgumentException(Integer.toString(redrawInterval));
+    }
+    this.redrawInterval = redrawInterval;
+  }
+
+  /**
+   * Sets the maximum number of rows the table keeps. If the table holds more
+   * rows, the oldest ones are removed.
+   * 
+   * @param windowSize the maximum number of rows, at least 1.
+   */
+  public void setWindowSize(int windowSize) {
+    if (windowSize < 1) {
+      throw new IllegalArgumentException(Integer.toString(windowSize));
+    }
+    this.windowSize = windowSize;
+    int excess = data.getNumberOfRows() - windowSize;
+    if (excess > 0) {
+      data.removeRows(0, excess);
+      evictedRowCount += excess;
+      scheduleRedraw();
+    }
+  }
+
+  /**
+   * Removes {@code visualization} from the visualizations to redraw.
+   * 
+   * @param visualization the visualization to remove.
+   */
+  public void unbind(Visualization<?> visualization) {
+    for (int i = bindings.size() - 1; i >= 0; i--) {
+      if (bindings.get(i).visualization == visualization) {
+        bindings.remove(i);
+      }
+    }
+  }
+
+  private native void appendRows(DataTable data, AbstractDataTable batch,
+      int fromRow) /*-{
+    var numberOfColumns = batch.getNumberOfColumns();
+    var rows = new $wnd.Array();
+    // Safari bug: see issue 219
+    rows.constructor = $wnd.Array;
+    for (var i = fromRow, n = batch.getNumberOfRows(); i < n; ++i) {
+      var row = new $wnd.Array(numberOfColumns);
+      row.constructor = $wnd.Array;
+      for (var j = 0; j < numberOfColumns; ++j) {
+        row[j] = batch.getValue(i, j);
+      }
+      rows.push(row);
+    }
+    data.addRows(rows);
+  }-*/;
+
+  private void rowsAppended(int rows, int skipped) {
+    appendedRowCount += rows;
+    evictedRowCount += skipped;
+    int excess = data.getNumberOfRows() - windowSize;
+    if (excess > 0) {
+      data.removeRows(0, excess);
+      evictedRowCount += excess;
+    }
+    scheduleRedraw();
+  }
+
+  private void scheduleRedraw() {
+    if (redrawPending || bindings.isEmpty()) {
+      return;
+    }
+    redrawPending = true;
+    double wait = lastRedraw + redrawInterval - Duration.currentTimeMillis();
+    // Timer rejects a delay of 0, so even an overdue redraw waits 1ms; this
+    // also coalesces the batches appended in the same event.
+    redrawTimer.schedule(Math.max(1, (int) Math.min(wait, redrawInterval)));
+  }
+}
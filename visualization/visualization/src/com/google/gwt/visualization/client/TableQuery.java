@@ -0,0 +1,850 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.visualization.client;
+
+import com.google.gwt.ajaxloader.client.ArrayHelper;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.JsArrayInteger;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Filters, groups, aggregates and sorts the rows of an
+ * {@link AbstractDataTable} on the client, without sending a {@link Query} to
+ * the data source. For example: <pre class="code">   {@code
+ *   DataView view = TableQuery.from(data)
+ *       .where(Filter.greaterThan(2, 100))
+ *       .orderBy(2, false)
+ *       .limit(10)
+ *       .toView();
+ *   DataTable totals = TableQuery.from(data)
+ *       .groupBy(0)
+ *       .aggregate(Aggregation.sum(2), Aggregation.count())
+ *       .toTable();
+ * }</pre>
+ *
+ * <p>Filters are evaluated in a single native scan over the table. When the
+ * query is grouped, the columns of the result are the group columns followed
+ * by the aggregations, and {@link #orderBy(int, boolean)} refers to those
+ * columns. Grouped queries can only produce a table.
+ *
+ * <p>Date, datetime and timeofday values compare by their time in
+ * milliseconds. Null cells never match a comparison, and sort before any
+ * other value in ascending order.
+ */
+public class TableQuery {
+
+  /**
+   * An aggregation of the rows of each group of a grouped query. Null cells
+   * are ignored, except by {@link #count()}.
+   */
+  public static class Aggregation extends JavaScriptObject {
+
+    /** Counts the rows of each group. */
+    public static native Aggregation count() /*-{
+      return {op: 'count', column: -1, label: null};
+    }-*/;
+
+    /** Counts the non-null values of {@code columnIndex} in each group. */
+    public static Aggregation count(int columnIndex) {
+      return create("count", columnIndex);
+    }
+
+    /** Averages the values of a number column in each group. */
+    public static Aggregation avg(int columnIndex) {
+      return create("avg", columnIndex);
+    }
+
+    /** Takes the largest value of {@code columnIndex} in each group. */
+    public static Aggregation max(int columnIndex) {
+      return create("max", columnIndex);
+    }
+
+    /** Takes the smallest value of {@code columnIndex} in each group. */
+    public static Aggregation min(int columnIndex) {
+      return create("min", columnIndex);
+    }
+
+    /** Sums the values of a number column in each group. */
+    public static Aggregation sum(int columnIndex) {
+      return create("sum", columnIndex);
+    }
+
+    private static native Aggregation create(String op, int columnIndex) /*-{
+      return {op: op, column: columnIndex, label: null};
+    }-*/;
+
+    protected Aggregation() {
+    }
+
+    /**
+     * Sets the label of the result column. The default label is the
+     * aggregation name followed by the source column label, for example
+     * "sum(Sales)".
+     *
+     * @return this aggregation.
+     */
+    public final native Aggregation setLabel(String label) /*-{
+      this.label = label;
+      return this;
+    }-*/;
+  }
+
+  /**
+   * A condition on the rows of a table.
+   */
+  public static class Filter extends JavaScriptObject {
+
+    /** Matches the rows that match all of {@code filters}. */
+    public static Filter and(Filter... filters) {
+      return createComposite("and", ArrayHelper.toJsArray(filters));
+    }
+
+    /** Matches the values between {@code from} and {@code to} inclusive. */
+    public static Filter between(int columnIndex, Date from, Date to) {
+      return between(columnIndex, from.getTime(), to.getTime());
+    }
+
+    /** Matches the values between {@code from} and {@code to} inclusive. */
+    public static native Filter between(int columnIndex, double from,
+        double to) /*-{
+      return {op: 'between', column: columnIndex, value: from, to: to};
+    }-*/;
+
+    /** Matches the string values that contain {@code value}. */
+    public static Filter contains(int columnIndex, String value) {
+      return create(columnIndex, "contains", value);
+    }
+
+    /** Matches the values equal to {@code value}. */
+    public static Filter equalTo(int columnIndex, boolean value) {
+      return create(columnIndex, "eq", value);
+    }
+
+    /** Matches the values equal to {@code value}. */
+    public static Filter equalTo(int columnIndex, Date value) {
+      return create(columnIndex, "eq", value.getTime());
+    }
+
+    /** Matches the values equal to {@code value}. */
+    public static Filter equalTo(int columnIndex, double value) {
+      return create(columnIndex, "eq", value);
+    }
+
+    /** Matches the values equal to {@code value}. */
+    public static Filter equalTo(int columnIndex, String value) {
+      return create(columnIndex, "eq", value);
+    }
+
+    /** Matches the values greater than {@code value}. */
+    public static Filter greaterThan(int columnIndex, Date value) {
+      return create(columnIndex, "gt", value.getTime());
+    }
+
+    /** Matches the values greater than {@code value}. */
+    public static Filter greaterThan(int columnIndex, double value) {
+      return create(columnIndex, "gt", value);
+    }
+
+    /** Matches the values greater than {@code value}. */
+    public static Filter greaterThan(int columnIndex, String value) {
+      return create(columnIndex, "gt", value);
+    }
+
+    /** Matches the values greater than or equal to {@code value}. */
+    public static Filter greaterThanOrEqualTo(int columnIndex, Date value) {
+      return create(columnIndex, "ge", value.getTime());
+    }
+
+    /** Matches the values greater than or equal to {@code value}. */
+    public static Filter greaterThanOrEqualTo(int columnIndex, double value) {
+      return create(columnIndex, "ge", value);
+    }
+
+    /** Matches the values greater than or equal to {@code value}. */
+    public static Filter greaterThanOrEqualTo(int columnIndex, String value) {
+      return create(columnIndex, "ge", value);
+    }
+
+    /** Matches the values equal to any of {@code values}. */
+    public static Filter in(int columnIndex, double... values) {
+      return createSet(columnIndex, ArrayHelper.toJsArrayNumber(values));
+    }
+
+    /** Matches the values equal to any of {@code values}. */
+    public static Filter in(int columnIndex, String... values) {
+      return createSet(columnIndex, ArrayHelper.toJsArrayString(values));
+    }
+
+    /** Matches the rows whose value in {@code columnIndex} is not null. */
+    public static Filter isNotNull(int columnIndex) {
+      return create(columnIndex, "notnull", (String) null);
+    }
+
+    /** Matches the rows whose value in {@code columnIndex} is null. */
+    public static Filter isNull(int columnIndex) {
+      return create(columnIndex, "null", (String) null);
+    }
+
+    /** Matches the values less than {@code value}. */
+    public static Filter lessThan(int columnIndex, Date value) {
+      return create(columnIndex, "lt", value.getTime());
+    }
+
+    /** Matches the values less than {@code value}. */
+    public static Filter lessThan(int columnIndex, double value) {
+      return create(columnIndex, "lt", value);
+    }
+
+    /** Matches the values less than {@code value}. */
+    public static Filter lessThan(int columnIndex, String value) {
+      return create(columnIndex, "lt", value);
+    }
+
+    /** Matches the values less than or equal to {@code value}. */
+    public static Filter lessThanOrEqualTo(int columnIndex, Date value) {
+      return create(columnIndex, "le", value.getTime());
+    }
+
+    /** Matches the values less than or equal to {@code value}. */
+    public static Filter lessThanOrEqualTo(int columnIndex, double value) {
+      return create(columnIndex, "le", value);
+    }
+
+    /** Matches the values less than or equal to {@code value}. */
+    public static Filter lessThanOrEqualTo(int columnIndex, String value) {
+      return create(columnIndex, "le", value);
+    }
+
+    /** Matches the rows that do not match {@code filter}. */
+    public static Filter not(Filter filter) {
+      return createComposite("not", ArrayHelper.toJsArray(filter));
+    }
+
+    /** Matches the values not equal to {@code value}. */
+    public static Filter notEqualTo(int columnIndex, boolean value) {
+      return create(columnIndex, "ne", value);
+    }
+
+    /** Matches the values not equal to {@code value}. */
+    public static Filter notEqualTo(int columnIndex, Date value) {
+      return create(columnIndex, "ne", value.getTime());
+    }
+
+    /** Matches the values not equal to {@code value}. */
+    public static Filter notEqualTo(int columnIndex, double value) {
+      return create(columnIndex, "ne", value);
+    }
+
+    /** Matches the values not equal to {@code value}. */
+    public static Filter notEqualTo(int columnIndex, String value) {
+      return create(columnIndex, "ne", value);
+    }
+
+    /** Matches the rows that match any of {@code filters}. */
+    public static Filter or(Filter... filters) {
+      return createComposite("or", ArrayHelper.toJsArray(filters));
+    }
+
+    /** Matches the string values that start with {@code value}. */
+    public static Filter startsWith(int columnIndex, String value) {
+      return create(columnIndex, "startswith", value);
+    }
+
+    private static native Filter create(int columnIndex, String op,
+        boolean value) /*-{
+      return {op: op, column: columnIndex, value: value};
+    }-*/;
+
+    private static native Filter create(int columnIndex, String op,
+        double value) /*-{
+      return {op: op, column: columnIndex, value: value};
+    }-*/;
+
+    private static native Filter create(int columnIndex, String op,
+        String value) /*-{
+      return {op: op, column: columnIndex, value: value};
+    }-*/;
+
+    private static native Filter createComposite(String op,
+        JsArray<Filter> filters) /*-{
+      return {op: op, filters: filters};
+    }-*/;
+
+    private static native Filter createSet(int columnIndex,
+        JavaScriptObject values) /*-{
+      var set = {};
+      for (var i = 0; i < values.length; ++i) {
+        set[(typeof values[i] == 'string' ? 's' : 'n') + values[i]] = true;
+      }
+      return {op: 'in', column: columnIndex, value: set};
+    }-*/;
+
+    protected Filter() {
+    }
+  }
+
+  /**
+   * The function that turns a cell value into a key compared by value, shared
+   * by the native scan, group and sort. Dates become milliseconds since the
+   * epoch and times of day milliseconds since midnight.
+   */
+  private static final JavaScriptObject KEY = createKey();
+
+  /**
+   * Returns a new query over the rows of {@code data}.
+   */
+  public static TableQuery from(AbstractDataTable data) {
+    return new TableQuery(data);
+  }
+
+  /**
+   * Returns the rows of {@code data} listed in {@code rows}, in that order,
+   * as a new table with only the given columns. Only cell values are copied.
+   */
+  private static native DataTable copyRows(AbstractDataTable data,
+      JsArrayInteger rows, JsArrayInteger columns) /*-{
+    var result = new $wnd.google.visualization.DataTable();
+    for (var j = 0; j < columns.length; ++j) {
+      var column = columns[j];
+      result.addColumn(data.getColumnType(column),
+          data.getColumnLabel(column), data.getColumnId(column));
+    }
+    var newRows = new $wnd.Array();
+    // Safari bug: see issue 219
+    newRows.constructor = $wnd.Array;
+    for (var i = 0, n = rows.length; i < n; ++i) {
+      var row = new $wnd.Array(columns.length);
+      row.constructor = $wnd.Array;
+      for (var j = 0; j < columns.length; ++j) {
+        row[j] = data.getValue(rows[i], columns[j]);
+      }
+      newRows.push(row);
+    }
+    result.addRows(newRows);
+    return result;
+  }-*/;
+
+  private static native JavaScriptObject createKey() /*-{
+    return function(value) {
+      if (value == null || typeof value != 'object') {
+        return value;
+      }
+      if (value.getTime) {
+        return value.getTime();
+      }
+      return ((value[0] * 60 + value[1]) * 60 + value[2]) * 1000
+          + (value[3] || 0);
+    };
+  }-*/;
+
+  /**
+   * Groups {@code rows} by the values of {@code groupColumns} and returns a
+   * new table with one row per group, in the order the groups first appear.
+   * Without group columns, all the rows form a single group.
+   */
+  private static native DataTable group(AbstractDataTable data,
+      JsArrayInteger rows, JsArrayInteger groupColumns,
+      JsArray<Aggregation> aggregations) /*-{
+    var key = @com.google.gwt.visualization.client.TableQuery::KEY;
+
+    var numberOfAggregations = aggregations.length;
+    var groupsByKey = {};
+    var groups = [];
+    for (var i = 0, n = rows.length; i < n; ++i) {
+      var row = rows[i];
+      var groupKey = '$';
+      for (var j = 0; j < groupColumns.length; ++j) {
+        var value = data.getValue(row, groupColumns[j]);
+        if (value == null) {
+          groupKey += '-';
+        } else {
+          // Prefix each part with its length so that keys cannot collide.
+          var part = String(key(value));
+          groupKey += part.length + ':' + part;
+        }
+      }
+      var group = groupsByKey[groupKey];
+      if (!group) {
+        group = groupsByKey[groupKey] = {row: row, count: 0, counts: [],
+            sums: [], best: [], bestKeys: []};
+        for (var a = 0; a < numberOfAggregations; ++a) {
+          group.counts[a] = group.sums[a] = 0;
+          group.best[a] = -1;
+        }
+        groups.push(group);
+      }
+      ++group.count;
+      for (var a = 0; a < numberOfAggregations; ++a) {
+        var aggregation = aggregations[a];
+        if (aggregation.column < 0) {
+          continue;
+        }
+        var value = key(data.getValue(row, aggregation.column));
+        if (value == null) {
+          continue;
+        }
+        ++group.counts[a];
+        if (aggregation.op == 'sum' || aggregation.op == 'avg') {
+          group.sums[a] += value;
+        } else if (group.best[a] < 0
+            || (aggregation.op == 'min' ? value < group.bestKeys[a]
+                : value > group.bestKeys[a])) {
+          group.best[a] = row;
+          group.bestKeys[a] = value;
+        }
+      }
+    }
+    if (groups.length == 0 && groupColumns.length == 0) {
+      var empty = {row: -1, count: 0, counts: [], sums: [], best: []};
+      for (var a = 0; a < numberOfAggregations; ++a) {
+        empty.counts[a] = empty.sums[a] = 0;
+        empty.best[a] = -1;
+      }
+      groups.push(empty);
+    }
+
+    var result = new $wnd.google.visualization.DataTable();
+    for (var j = 0; j < groupColumns.length; ++j) {
+      var column = groupColumns[j];
+      result.addColumn(data.getColumnType(column),
+          data.getColumnLabel(column), data.getColumnId(column));
+    }
+    for (var a = 0; a < numberOfAggregations; ++a) {
+      var aggregation = aggregations[a];
+      var column = aggregation.column;
+      var label = aggregation.label;
+      if (label == null) {
+        label = aggregation.op + '('
+            + (column < 0 ? '' : data.getColumnLabel(column)) + ')';
+      }
+      var isExtreme = aggregation.op == 'min' || aggregation.op == 'max';
+      result.addColumn(isExtreme ? data.getColumnType(column) : 'number',
+          label);
+    }
+    var newRows = new $wnd.Array();
+    // Safari bug: see issue 219
+    newRows.constructor = $wnd.Array;
+    for (var i = 0; i < groups.length; ++i) {
+      var group = groups[i];
+      var newRow = new $wnd.Array();
+      newRow.constructor = $wnd.Array;
+      for (var j = 0; j < groupColumns.length; ++j) {
+        newRow.push(data.getValue(group.row, groupColumns[j]));
+      }
+      for (var a = 0; a < numberOfAggregations; ++a) {
+        var aggregation = aggregations[a];
+        var value;
+        if (aggregation.op == 'count') {
+          value = aggregation.column < 0 ? group.count : group.counts[a];
+        } else if (aggregation.op == 'sum') {
+          value = group.sums[a];
+        } else if (aggregation.op == 'avg') {
+          value = group.counts[a] == 0 ? null
+              : group.sums[a] / group.counts[a];
+        } else {
+          value = group.best[a] < 0 ? null
+              : data.getValue(group.best[a], aggregation.column);
+        }
+        newRow.push(value);
+      }
+      newRows.push(newRow);
+    }
+    result.addRows(newRows);
+    return result;
+  }-*/;
+
+  /**
+   * Returns the indexes of the rows of {@code data} that match
+   * {@code filter}, in a single pass.
+   */
+  private static native JsArrayInteger scan(AbstractDataTable data,
+      Filter filter) /*-{
+    var key = @com.google.gwt.visualization.client.TableQuery::KEY;
+
+    // Turns the filter into a function of the row index, so that the
+    // filter tree is only walked once.
+    function compile(filter) {
+      var op = filter.op;
+      if (op == 'and' || op == 'or' || op == 'not') {
+        var parts = [];
+        for (var i = 0; i < filter.filters.length; ++i) {
+          parts.push(compile(filter.filters[i]));
+        }
+        if (op == 'not') {
+          return function(row) {
+            return !parts[0](row);
+          };
+        }
+        var all = op == 'and';
+        return function(row) {
+          for (var i = 0; i < parts.length; ++i) {
+            if (parts[i](row) != all) {
+              return !all;
+            }
+          }
+          return all;
+        };
+      }
+      var column = filter.column;
+      var expected = filter.value;
+      var test;
+      switch (op) {
+        case 'null':
+          return function(row) {
+            return data.getValue(row, column) == null;
+          };
+        case 'notnull':
+          return function(row) {
+            return data.getValue(row, column) != null;
+          };
+        case 'eq': test = function(value) { return value === expected; }; break;
+        case 'ne': test = function(value) { return value !== expected; }; break;
+        case 'lt': test = function(value) { return value < expected; }; break;
+        case 'le': test = function(value) { return value <= expected; }; break;
+        case 'gt': test = function(value) { return value > expected; }; break;
+        case 'ge': test = function(value) { return value >= expected; }; break;
+        case 'between':
+          var to = filter.to;
+          test = function(value) {
+            return value >= expected && value <= to;
+          };
+          break;
+        case 'in':
+          test = function(value) {
+            return expected[(typeof value == 'string' ? 's' : 'n') + value]
+                === true;
+          };
+          break;
+        case 'contains':
+          test = function(value) {
+            return String(value).indexOf(expected) >= 0;
+          };
+          break;
+        case 'startswith':
+          test = function(value) {
+            return String(value).indexOf(expected) == 0;
+          };
+          break;
+        default:
+          throw new Error('Unknown filter: ' + op);
+      }
+      return function(row) {
+        var value = data.getValue(row, column);
+        return value != null && test(key(value));
+      };
+    }
+
+    var n = data.getNumberOfRows();
+    var rows = new $wnd.Array();
+    // Safari bug: see issue 219
+    rows.constructor = $wnd.Array;
+    if (filter == null) {
+      for (var i = 0; i < n; ++i) {
+        rows.push(i);
+      }
+    } else {
+      var matches = compile(filter);
+      for (var i = 0; i < n; ++i) {
+        if (matches(i)) {
+          rows.push(i);
+        }
+      }
+    }
+    return rows;
+  }-*/;
+
+  /**
+   * Sorts {@code rows} by the values of {@code columns} and keeps the first
+   * {@code limit} of them, or all of them if {@code limit} is negative. The
+   * sort is stable. When only a few rows are kept, they are selected without
+   * sorting the others.
+   */
+  private static native JsArrayInteger sort(AbstractDataTable data,
+      JsArrayInteger rows, JsArrayInteger columns, JsArrayInteger directions,
+      int limit) /*-{
+    var key = @com.google.gwt.visualization.client.TableQuery::KEY;
+
+    var n = rows.length;
+    if (limit < 0 || limit > n) {
+      limit = n;
+    }
+    if (columns.length == 0) {
+      return rows.slice(0, limit);
+    }
+    // Read the sort keys once rather than once per comparison.
+    var keys = [];
+    for (var k = 0; k < columns.length; ++k) {
+      var columnKeys = keys[k] = new Array(n);
+      for (var i = 0; i < n; ++i) {
+        columnKeys[i] = key(data.getValue(rows[i], columns[k]));
+      }
+    }
+    function compare(p, q) {
+      for (var k = 0; k < keys.length; ++k) {
+        var a = keys[k][p], b = keys[k][q];
+        if (a === b) {
+          continue;
+        }
+        var order = a == null ? -1 : b == null ? 1 : a < b ? -1 : a > b ? 1 : 0;
+        if (order != 0) {
+          return order * directions[k];
+        }
+      }
+      return p - q;
+    }
+
+    var positions = [];
+    if (limit < n / 8) {
+      // Top-N: keep the best positions in a sorted buffer.
+      for (var i = 0; i < n && limit > 0; ++i) {
+        var size = positions.length;
+        if (size == limit && compare(i, positions[size - 1]) >= 0) {
+          continue;
+        }
+        var low = 0, high = size;
+        while (low < high) {
+          var middle = (low + high) >> 1;
+          if (compare(positions[middle], i) < 0) {
+            low = middle + 1;
+          } else {
+            high = middle;
+          }
+        }
+        positions.splice(low, 0, i);
+        if (positions.length > limit) {
+          positions.pop();
+        }
+      }
+    } else {
+      for (var i = 0; i < n; ++i) {
+        positions.push(i);
+      }
+      positions.sort(compare);
+      positions.length = limit;
+    }
+    var result = new $wnd.Array();
+    // Safari bug: see issue 219
+    result.constructor = $wnd.Array;
+    for (var i = 0; i < positions.length; ++i) {
+      result.push(rows[positions[i]]);
+    }
+    return result;
+  }-*/;
+
+  private final List<Aggregation> aggregations = new ArrayList<Aggregation>();
+  private final AbstractDataTable data;
+  private final List<Filter> filters = new ArrayList<Filter>();
+  private int[] groupColumns;
+  private int limit = -1;
+  private int[] selectedColumns;
+  private final List<Integer> sortColumns = new ArrayList<Integer>();
+  private final List<Integer> sortDirections = new ArrayList<Integer>();
+
+  private TableQuery(AbstractDataTable data) {
+    this.data = data;
+  }
+
+  /**
+   * Adds aggregations to compute for each group. Aggregating without
+   * {@link #groupBy(int...)} treats all the matching rows as one group.
+   *
+   * @return this query.
+   */
+  public TableQuery aggregate(Aggregation... aggregations) {
+    for (Aggregation aggregation : aggregations) {
+      this.aggregations.add(aggregation);
+    }
+    return this;
+  }
+
+  /**
+   * Groups the matching rows by the values of {@code columnIndexes}.
+   *
+   * @return this query.
+   */
+  public TableQuery groupBy(int... columnIndexes) {
+    for (int columnIndex : columnIndexes) {
+      checkColumn(data, columnIndex);
+    }
+    groupColumns = columnIndexes;
+    return this;
+  }
+
+  /**
+   * Keeps at most {@code limit} rows of the result. Combined with
+   * {@link #orderBy(int, boolean)}, this selects the top rows without
+   * sorting all the others.
+   *
+   * @return this query.
+   */
+  public TableQuery limit(int limit) {
+    if (limit < 0) {
+      throw new IllegalArgumentException(Integer.toString(limit));
+    }
+    this.limit = limit;
+    return this;
+  }
+
+  /**
+   * Sorts the result by {@code columnIndex} in ascending order, after any
+   * previous sort keys.
+   *
+   * @return this query.
+   */
+  public TableQuery orderBy(int columnIndex) {
+    return orderBy(columnIndex, true);
+  }
+
+  /**
+   * Sorts the result by {@code columnIndex}, after any previous sort keys.
+   *
+   * @return this query.
+   */
+  public TableQuery orderBy(int columnIndex, boolean ascending) {
+    sortColumns.add(columnIndex);
+    sortDirections.add(ascending ? 1 : -1);
+    return this;
+  }
+
+  /**
+   * Keeps only {@code columnIndexes} in the result, in that order. Not
+   * supported by grouped queries.
+   *
+   * @return this query.
+   */
+  public TableQuery select(int... columnIndexes) {
+    for (int columnIndex : columnIndexes) {
+      checkColumn(data, columnIndex);
+    }
+    selectedColumns = columnIndexes;
+    return this;
+  }
+
+  /**
+   * Runs the query and returns the matching rows in result order. Not
+   * supported by grouped queries.
+   */
+  public int[] toRowIndexes() {
+    JsArrayInteger rows = selectRows();
+    int[] result = new int[rows.length()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = rows.get(i);
+    }
+    return result;
+  }
+
+  /**
+   * Runs the query and returns its result as a new table. Only cell values
+   * are copied.
+   */
+  public DataTable toTable() {
+    if (!isGrouped()) {
+      return copyRows(data, selectRows(), columns());
+    }
+    if (selectedColumns != null) {
+      throw new IllegalStateException("Grouped queries cannot select columns");
+    }
+    DataTable grouped = group(data, scan(data, filter()),
+        ArrayHelper.toJsArrayInteger(groupColumns),
+        ArrayHelper.toJsArray(aggregations.toArray(new Aggregation[0])));
+    if (sortColumns.isEmpty() && limit < 0) {
+      return grouped;
+    }
+    JsArrayInteger rows = scan(grouped, null);
+    return copyRows(grouped, sort(grouped, rows), columns(grouped));
+  }
+
+  /**
+   * Runs the query and returns its result as a view of the table, which
+   * avoids copying cell values. Not supported by grouped queries.
+   */
+  public DataView toView() {
+    DataView view = DataView.create(data);
+    view.setRows(selectRows());
+    if (selectedColumns != null) {
+      view.setColumns(selectedColumns);
+    }
+    return view;
+  }
+
+  /**
+   * Adds a filter that the rows must match, along with the previous ones.
+   *
+   * @return this query.
+   */
+  public TableQuery where(Filter filter) {
+    filters.add(filter);
+    return this;
+  }
+
+  private static void checkColumn(AbstractDataTable table, int columnIndex) {
+    if (columnIndex < 0 || columnIndex >= table.getNumberOfColumns()) {
+      throw new IndexOutOfBoundsException(Integer.toString(columnIndex));
+    }
+  }
+
+  private static JsArrayInteger columns(AbstractDataTable table) {
+    int[] columns = new int[table.getNumberOfColumns()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = i;
+    }
+    return ArrayHelper.toJsArrayInteger(columns);
+  }
+
+  private JsArrayInteger columns() {
+    return selectedColumns == null ? columns(data)
+        : ArrayHelper.toJsArrayInteger(selectedColumns);
+  }
+
+  private Filter filter() {
+    if (filters.isEmpty()) {
+      return null;
+    }
+    return filters.size() == 1 ? filters.get(0)
+        : Filter.and(filters.toArray(new Filter[filters.size()]));
+  }
+
+  private boolean isGrouped() {
+    return groupColumns != null || !aggregations.isEmpty();
+  }
+
+  private JsArrayInteger selectRows() {
+    if (isGrouped()) {
+      throw new IllegalStateException(
+          "Grouped queries can only produce a table");
+    }
+    return sort(data, scan(data, filter()));
+  }
+
+  private JsArrayInteger sort(AbstractDataTable table, JsArrayInteger rows) {
+    if (sortColumns.isEmpty() && limit < 0) {
+      return rows;
+    }
+    int[] columns = new int[sortColumns.size()];
+    int[] directions = new int[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = sortColumns.get(i);
+      checkColumn(table, columns[i]);
+      directions[i] = sortDirections.get(i);
+    }
+    return sort(table, rows, ArrayHelper.toJsArrayInteger(columns),
+        ArrayHelper.toJsArrayInteger(directions), limit);
+  }
+}
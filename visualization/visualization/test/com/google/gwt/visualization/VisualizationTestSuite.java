@@ -55,10 +55,14 @@ import com.google.gwt.visualization.client.NumberFormatTest;
 import com.google.gwt.visualization.client.OrgChartTest;
 import com.google.gwt.visualization.client.PatternFormatTest;
 import com.google.gwt.visualization.client.PieChartTest;
+import com.google.gwt.visualization.client.PrimitiveColumnTest;
 import com.google.gwt.visualization.client.PropertiesTest;
+import com.google.gwt.visualization.client.QueryClientTest;
 import com.google.gwt.visualization.client.QueryTest;
 import com.google.gwt.visualization.client.ScatterChartTest;
 import com.google.gwt.visualization.client.SelectionTest;
+import com.google.gwt.visualization.client.StreamingDataTableTest;
+import com.google.gwt.visualization.client.TableQueryTest;
 import com.google.gwt.visualization.client.TableTest;
 import com.google.gwt.visualization.client.TimeOfDayTest;
 import com.google.gwt.visualization.client.ToolbarTest;
@@ -99,6 +103,7 @@ public class VisualizationTestSuite extends GWTTestSuite {
     suite.addTestSuite(CorePieChartTest.class);
     suite.addTestSuite(CoreScatterChartTest.class);
     suite.addTestSuite(DataColumnTest.class);
+    // Intentionally omitting DataTableLoadBenchmark - run manually
     suite.addTestSuite(DataTableTest.class);
     suite.addTestSuite(DataViewTest.class);
     suite.addTestSuite(DateFormatTest.class);
@@ -118,10 +123,16 @@ public class VisualizationTestSuite extends GWTTestSuite {
     suite.addTestSuite(OrgChartTest.class);
     suite.addTestSuite(PatternFormatTest.class);
     suite.addTestSuite(PieChartTest.class);
+    // Intentionally omitting PrimitiveColumnBenchmark - run manually
+    suite.addTestSuite(PrimitiveColumnTest.class);
     suite.addTestSuite(PropertiesTest.class);
+    suite.addTestSuite(QueryClientTest.class);
     suite.addTestSuite(QueryTest.class);
     suite.addTestSuite(SelectionTest.class);
     suite.addTestSuite(ScatterChartTest.class);
+    suite.addTestSuite(StreamingDataTableTest.class);
+    // Intentionally omitting TableQueryBenchmark - run manually
+    suite.addTestSuite(TableQueryTest.class);
     suite.addTestSuite(TableTest.class);
     suite.addTestSuite(TimeOfDayTest.class);
     suite.addTestSuite(ToolbarTest.class);
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.visualization.client;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.visualization.client.AbstractDataTable.ColumnType;
+import com.google.gwt.visualization.client.visualizations.Table;
+
+import java.util.Date;
+
+/**
+ * Compares the time it takes to load a {@link DataTable} through the bulk
+ * column and packed row methods against the per-cell setters. Run it manually.
+ */
+public class DataTableLoadBenchmark extends VisualizationTest {
+  private static final int BENCHMARK_DELAY_MS = 120 * 1000;
+  private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+  private static final int[] SIZES = {1000, 10000, 100000};
+
+  private static DataTable createTable() {
+    DataTable data = DataTable.create();
+    data.addColumn(ColumnType.DATE, "Day");
+    data.addColumn(ColumnType.NUMBER, "Value");
+    data.addColumn(ColumnType.NUMBER, "Count");
+    return data;
+  }
+
+  public void testColumns() {
+    loadApi(new Runnable() {
+      public void run() {
+        for (int size : SIZES) {
+          long[] days = new long[size];
+          double[] values = new double[size];
+          int[] counts = new int[size];
+          for (int i = 0; i < size; i++) {
+            days[i] = i * DAY_MILLIS;
+            values[i] = i * 0.5;
+            counts[i] = i;
+          }
+
+          double start = Duration.currentTimeMillis();
+          DataTable perCell = createTable();
+          perCell.addRows(size);
+          for (int i = 0; i < size; i++) {
+            perCell.setValue(i, 0, new Date(days[i]));
+            perCell.setValue(i, 1, values[i]);
+            perCell.setValue(i, 2, counts[i]);
+          }
+          double perCellMillis = Duration.currentTimeMillis() - start;
+
+          start = Duration.currentTimeMillis();
+          DataTable bulk = createTable();
+          bulk.setColumnDates(0, days);
+          bulk.setColumnValues(1, values);
+          bulk.setColumnValues(2, counts);
+          double bulkMillis = Duration.currentTimeMillis() - start;
+
+          assertTables(perCell, bulk);
+          report("Columns", size, perCellMillis, bulkMillis);
+        }
+      }
+    }, true, BENCHMARK_DELAY_MS);
+  }
+
+  public void testPackedRows() {
+    loadApi(new Runnable() {
+      public void run() {
+        for (int size : SIZES) {
+          double[] packed = new double[size * 3];
+          for (int i = 0, j = 0; i < size; i++) {
+            packed[j++] = i * DAY_MILLIS;
+            packed[j++] = i * 0.5;
+            packed[j++] = i;
+          }
+
+          double start = Duration.currentTimeMillis();
+          DataTable perCell = createTable();
+          perCell.addRows(size);
+          for (int i = 0, j = 0; i < size; i++) {
+            perCell.setValue(i, 0, new Date((long) packed[j++]));
+            perCell.setValue(i, 1, packed[j++]);
+            perCell.setValue(i, 2, packed[j++]);
+          }
+          double perCellMillis = Duration.currentTimeMillis() - start;
+
+          start = Duration.currentTimeMillis();
+          DataTable bulk = createTable();
+          bulk.addRows(packed);
+          double bulkMillis = Duration.currentTimeMillis() - start;
+
+          assertTables(perCell, bulk);
+          report("Packed rows", size, perCellMillis, bulkMillis);
+        }
+      }
+    }, true, BENCHMARK_DELAY_MS);
+  }
+
+  @Override
+  protected String getVisualizationPackage() {
+    return Table.PACKAGE;
+  }
+
+  private void assertTables(DataTable expected, DataTable actual) {
+    int size = expected.getNumberOfRows();
+    assertEquals(size, actual.getNumberOfRows());
+    int last = size - 1;
+    assertEquals(expected.getValueDate(last, 0),
+        actual.getValueDate(last, 0));
+    assertEquals(expected.getValueDouble(last, 1),
+        actual.getValueDouble(last, 1));
+    assertEquals(expected.getValueInt(last, 2), actual.getValueInt(last, 2));
+  }
+
+  private void report(String name, int size, double perCellMillis,
+      double bulkMillis) {
+    System.out.println(name + " " + size + " rows: per-cell " + perCellMillis
+        + "ms, bulk " + bulkMillis + "ms");
+  }
+}
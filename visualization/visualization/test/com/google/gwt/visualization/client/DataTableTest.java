@@ -40,6 +40,50 @@ public class DataTableTest extends VisualizationTest {
      };
   }-*/;
 
+  public void testAddRowsPacked() {
+    loadApi(new Runnable() {
+      public void run() {
+        DataTable data = DataTable.create();
+        data.addColumn(ColumnType.NUMBER);
+        data.addColumn(ColumnType.DATE);
+        data.addColumn(ColumnType.BOOLEAN);
+        data.addRows(1);
+        Date date = new Date(1234567890000L);
+        double[] values = {
+            1.5, date.getTime(), 1,
+            Double.NaN, Double.NaN, 0};
+        assertEquals(2, data.addRows(values));
+        assertEquals(3, data.getNumberOfRows());
+        assertEquals(1.5, data.getValueDouble(1, 0));
+        assertEquals(date, data.getValueDate(1, 1));
+        assertTrue(data.getValueBoolean(1, 2));
+        assertTrue(data.isValueNull(2, 0));
+        assertTrue(data.isValueNull(2, 1));
+        assertFalse(data.getValueBoolean(2, 2));
+      }
+    });
+  }
+
+  public void testAddRowsPacked_invalid() {
+    loadApi(new Runnable() {
+      public void run() {
+        DataTable data = DataTable.create();
+        data.addColumn(ColumnType.NUMBER);
+        data.addColumn(ColumnType.NUMBER);
+        try {
+          data.addRows(new double[] {1, 2, 3});
+          fail();
+        } catch (IllegalArgumentException expected) {}
+        data.addColumn(ColumnType.STRING);
+        try {
+          data.addRows(new double[] {1, 2, 3});
+          fail();
+        } catch (IllegalArgumentException expected) {}
+        assertEquals(0, data.getNumberOfRows());
+      }
+    });
+  }
+
   public void testBoolean() {
     loadApi(new Runnable() {
       public void run() {
@@ -105,6 +149,43 @@ public class DataTableTest extends VisualizationTest {
     });
   }
 
+  public void testSetColumnDates() {
+    loadApi(new Runnable() {
+      public void run() {
+        DataTable data = DataTable.create();
+        data.addColumn(ColumnType.DATETIME);
+        long[] millis = {0, 1234567890000L};
+        data.setColumnDates(0, millis);
+        assertEquals(2, data.getNumberOfRows());
+        assertEquals(new Date(0), data.getValueDate(0, 0));
+        assertEquals(new Date(millis[1]), data.getValueDate(1, 0));
+      }
+    });
+  }
+
+  public void testSetColumnValues() {
+    loadApi(new Runnable() {
+      public void run() {
+        DataTable data = DataTable.create();
+        data.addColumn(ColumnType.STRING);
+        data.addColumn(ColumnType.NUMBER);
+        data.addColumn(ColumnType.NUMBER);
+        data.addRows(1);
+        data.setColumnValues(0, new String[] {"a", null, "c"});
+        data.setColumnValues(1, new double[] {0.5, Double.NaN});
+        data.setColumnValues(2, new int[] {1, 2, 3});
+        assertEquals(3, data.getNumberOfRows());
+        assertEquals("a", data.getValueString(0, 0));
+        assertTrue(data.isValueNull(1, 0));
+        assertEquals("c", data.getValueString(2, 0));
+        assertEquals(0.5, data.getValueDouble(0, 1));
+        assertTrue(data.isValueNull(1, 1));
+        assertTrue(data.isValueNull(2, 1));
+        assertEquals(3, data.getValueInt(2, 2));
+      }
+    });
+  }
+
   public void testString() {
     loadApi(new Runnable() {
       public void run() {
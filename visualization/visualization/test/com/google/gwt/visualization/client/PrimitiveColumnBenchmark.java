@@ -0,0 +1,142 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.visualization.client;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.visualization.client.AbstractDataTable.ColumnType;
+import com.google.gwt.visualization.client.visualizations.Table;
+
+/**
+ * Compares summing, taking the extremes of and copying a number column
+ * through {@link DoubleColumn} against iterating over a {@link DataColumn}.
+ * Each measurement runs a few warm-up passes first and reports the average
+ * time of the timed passes. Run it manually.
+ */
+public class PrimitiveColumnBenchmark extends VisualizationTest {
+  private static final int BENCHMARK_DELAY_MS = 120 * 1000;
+  private static final int PASSES = 5;
+  private static final int[] SIZES = {10000, 100000};
+  private static final int WARM_UP_PASSES = 2;
+
+  /**
+   * A measured operation on a column of {@code size} rows.
+   */
+  private interface Operation {
+    double run(DataTable data);
+  }
+
+  private static DataTable createTable(int size) {
+    double[] values = new double[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = (i * 7919) % 1000 + 0.5;
+    }
+    DataTable data = DataTable.create();
+    data.addColumn(ColumnType.NUMBER);
+    data.setColumnValues(0, values);
+    return data;
+  }
+
+  public void testMinMax() {
+    benchmark("Min/max", new Operation() {
+      public double run(DataTable data) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (Double value : DataColumn.doubles(data, 0)) {
+          if (value != null) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+          }
+        }
+        return max - min;
+      }
+    }, new Operation() {
+      public double run(DataTable data) {
+        DoubleColumn column = DoubleColumn.of(data, 0);
+        return column.max() - column.min();
+      }
+    });
+  }
+
+  public void testSum() {
+    benchmark("Sum", new Operation() {
+      public double run(DataTable data) {
+        double sum = 0;
+        for (Double value : DataColumn.doubles(data, 0)) {
+          if (value != null) {
+            sum += value;
+          }
+        }
+        return sum;
+      }
+    }, new Operation() {
+      public double run(DataTable data) {
+        return DoubleColumn.of(data, 0).sum();
+      }
+    });
+  }
+
+  public void testToArray() {
+    benchmark("To array", new Operation() {
+      public double run(DataTable data) {
+        DataColumn<Double> column = DataColumn.doubles(data, 0);
+        double[] values = new double[column.size()];
+        for (int i = 0; i < values.length; i++) {
+          Double value = column.get(i);
+          values[i] = value == null ? Double.NaN : value;
+        }
+        return values[values.length - 1];
+      }
+    }, new Operation() {
+      public double run(DataTable data) {
+        double[] values = DoubleColumn.of(data, 0).toArray();
+        return values[values.length - 1];
+      }
+    });
+  }
+
+  @Override
+  protected String getVisualizationPackage() {
+    return Table.PACKAGE;
+  }
+
+  private void benchmark(final String name, final Operation dataColumn,
+      final Operation primitiveColumn) {
+    loadApi(new Runnable() {
+      public void run() {
+        for (int size : SIZES) {
+          DataTable data = createTable(size);
+          assertEquals(dataColumn.run(data), primitiveColumn.run(data));
+          double dataColumnMillis = measure(dataColumn, data);
+          double primitiveColumnMillis = measure(primitiveColumn, data);
+          System.out.println(name + " " + size + " rows: DataColumn "
+              + dataColumnMillis + "ms/op, DoubleColumn "
+              + primitiveColumnMillis + "ms/op");
+        }
+      }
+    }, true, BENCHMARK_DELAY_MS);
+  }
+
+  private double measure(Operation operation, DataTable data) {
+    for (int pass = 0; pass < WARM_UP_PASSES; pass++) {
+      operation.run(data);
+    }
+    double start = Duration.currentTimeMillis();
+    for (int pass = 0; pass < PASSES; pass++) {
+      operation.run(data);
+    }
+    return (Duration.currentTimeMillis() - start) / PASSES;
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.visualization.client;
+
+import com.google.gwt.visualization.client.AbstractDataTable.ColumnType;
+import com.google.gwt.visualization.client.visualizations.Table;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Tests for DoubleColumn, IntColumn and DateColumn.
+ */
+public class PrimitiveColumnTest extends VisualizationTest {
+
+  public void testDates() {
+    loadApi(new Runnable() {
+      public void run() {
+        DataTable data = DataTable.create();
+        data.addColumn(ColumnType.DATE);
+        data.setColumnDates(0, new long[] {3000, 1000, 2000, 0});
+        data.setValueNull(3, 0);
+        DateColumn column = DateColumn.of(data, 0);
+        assertEquals(1000, column.getTime(1));
+        assertTrue(column.isNull(3));
+        assertEquals(0, column.getTime(3));
+        assertEquals(3, column.count());
+        assertEquals(1000, column.min());
+        assertEquals(3000, column.max());
+        assertEquals(2000.0, column.mean());
+        assertEquals(2000, column.percentile(50));
+        double[] values = column.toArray();
+        assertEquals(4, values.length);
+        assertEquals(3000.0, values[0]);
+        assertEquals(0.0, values[3]);
+      }
+    });
+  }
+
+  public void testDoubles() {
+    loadApi(new Runnable() {
+      public void run() {
+        DataTable data = DataTable.create();
+        data.addColumn(ColumnType.NUMBER, "value", "value");
+        data.setColumnValues(0, new double[] {4, Double.NaN, 1, 2.5, 3});
+        DoubleColumn column = DoubleColumn.of(data, "value");
+        assertEquals(5, column.size());
+        assertEquals(4, column.count());
+        assertEquals(2.5, column.get(3));
+        assertTrue(Double.isNaN(column.get(1)));
+        assertEquals(10.5, column.sum());
+        assertEquals(1.0, column.min());
+        assertEquals(4.0, column.max());
+        assertEquals(2.625, column.mean());
+        assertEquals(1.0, column.percentile(0));
+        assertEquals(2.75, column.percentile(50));
+        assertEquals(4.0, column.percentile(100));
+        double[] values = column.toArray();
+        assertEquals(5, values.length);
+        assertEquals(4.0, values[0]);
+        assertTrue(Double.isNaN(values[1]));
+        try {
+          column.percentile(101);
+          fail();
+        } catch (IllegalArgumentException expected) {}
+      }
+    });
+  }
+
+  public void testEmpty() {
+    loadApi(new Runnable() {
+      public void run() {
+        DataTable data = DataTable.create();
+        data.addColumn(ColumnType.NUMBER);
+        data.addRows(2);
+        assertEquals(0, DoubleColumn.of(data, 0).count());
+        assertTrue(Double.isNaN(DoubleColumn.of(data, 0).max()));
+        assertTrue(Double.isNaN(DoubleColumn.of(data, 0).mean()));
+        try {
+          IntColumn.of(data, 0).min();
+          fail();
+        } catch (NoSuchElementException expected) {}
+        try {
+          IntColumn.of(data, 0).percentile(50);
+          fail();
+        } catch (NoSuchElementException expected) {}
+      }
+    });
+  }
+
+  public void testIntegers() {
+    loadApi(new Runnable() {
+      public void run() {
+        DataTable data = DataTable.create();
+        data.addColumn(ColumnType.NUMBER);
+        data.setColumnValues(0, new int[] {7, -2, 5});
+        IntColumn column = IntColumn.of(data, 0);
+        assertEquals(-2, column.get(1));
+        assertEquals(10.0, column.sum());
+        assertEquals(-2, column.min());
+        assertEquals(7, column.max());
+        assertEquals(5.0, column.percentile(50));
+        int[] values = column.toArray();
+        assertEquals(3, values.length);
+        assertEquals(7, values[0]);
+        assertEquals(5, values[2]);
+      }
+    });
+  }
+
+  public void testInvalidColumn() {
+    loadApi(new Runnable() {
+      public void run() {
+        DataTable data = DataTable.create();
+        data.addColumn(ColumnType.STRING);
+        try {
+          DoubleColumn.of(data, 0);
+          fail();
+        } catch (IllegalArgumentException expected) {}
+        try {
+          DateColumn.of(data, 1);
+          fail();
+        } catch (IndexOutOfBoundsException expected) {}
+        try {
+          IntColumn.of(data, "missing");
+          fail();
+        } catch (IllegalArgumentException expected) {}
+      }
+    });
+  }
+
+  @Override
+  protected String getVisualizationPackage() {
+    return Table.PACKAGE;
+  }
+}
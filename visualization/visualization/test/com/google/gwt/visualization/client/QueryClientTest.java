@@ -0,0 +1,242 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.visualization.client;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.user.client.Timer;
+import com.google.gwt.visualization.client.AbstractDataTable.ColumnType;
+import com.google.gwt.visualization.client.Query.Callback;
+import com.google.gwt.visualization.client.visualizations.Table;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the QueryClient class. Queries are answered locally instead of
+ * by a data source.
+ */
+public class QueryClientTest extends VisualizationTest {
+
+  /**
+   * A client that records the queries it sends and lets the test answer them.
+   */
+  private static class TestClient extends QueryClient {
+    final List<Query> queries = new ArrayList<Query>();
+    final List<Callback> sent = new ArrayList<Callback>();
+
+    TestClient(int maxEntries) {
+      super(null, maxEntries, 0);
+    }
+
+    void answer(QueryResponse response) {
+      sent.remove(0).onResponse(response);
+    }
+
+    @Override
+    protected Query createQuery(String dataSource, String query) {
+      return JavaScriptObject.createObject().cast();
+    }
+
+    @Override
+    protected void sendQuery(Query request, Callback callback) {
+      queries.add(request);
+      sent.add(callback);
+    }
+  }
+
+  /**
+   * Counts the responses it receives.
+   */
+  private static class CountingCallback implements Callback {
+    int count;
+    QueryResponse last;
+
+    public void onResponse(QueryResponse response) {
+      ++count;
+      last = response;
+    }
+  }
+
+  private static DataTable createData(int value) {
+    DataTable data = DataTable.create();
+    data.addColumn(ColumnType.NUMBER, "Value");
+    data.setColumnValues(0, new int[] {value});
+    return data;
+  }
+
+  /**
+   * Creates a response holding {@code data}, or an error response if
+   * {@code data} is null.
+   */
+  private static native QueryResponse createResponse(DataTable data) /*-{
+    return {
+      getDataTable: function() {
+        return data;
+      },
+      getReasons: function() {
+        return data == null ? ['not_modified'] : [];
+      },
+      isError: function() {
+        return data == null;
+      }
+    };
+  }-*/;
+
+  public void testCache() {
+    loadApi(new Runnable() {
+      public void run() {
+        TestClient client = new TestClient(10);
+        CountingCallback first = new CountingCallback();
+        client.send("source", "select A", first);
+        assertEquals(1, client.sent.size());
+        QueryResponse response = createResponse(createData(1));
+        client.answer(response);
+        assertEquals(1, first.count);
+
+        CountingCallback second = new CountingCallback();
+        client.send("source", "select A", second);
+        assertEquals(0, client.sent.size());
+        assertEquals(1, second.count);
+        assertSame(response, second.last);
+
+        client.send("source", "select B", new CountingCallback());
+        assertEquals(1, client.sent.size());
+        assertEquals(1, client.getHitCount());
+        assertEquals(2, client.getMissCount());
+        assertEquals(1.0 / 3, client.getHitRate(), 1e-9);
+      }
+    });
+  }
+
+  public void testDeduplicatesInFlight() {
+    loadApi(new Runnable() {
+      public void run() {
+        TestClient client = new TestClient(10);
+        CountingCallback first = new CountingCallback();
+        CountingCallback second = new CountingCallback();
+        client.send("source", null, first);
+        client.send("source", null, second);
+        assertEquals(1, client.sent.size());
+        client.answer(createResponse(createData(1)));
+        assertEquals(1, first.count);
+        assertEquals(1, second.count);
+        assertSame(first.last, second.last);
+        assertEquals(1, client.getHitCount());
+      }
+    });
+  }
+
+  public void testErrorsNotCached() {
+    loadApi(new Runnable() {
+      public void run() {
+        TestClient client = new TestClient(10);
+        CountingCallback callback = new CountingCallback();
+        client.send("source", null, callback);
+        client.answer(createResponse(null));
+        assertTrue(callback.last.isError());
+        assertEquals(0, client.size());
+        client.send("source", null, callback);
+        assertEquals(1, client.sent.size());
+      }
+    });
+  }
+
+  public void testEviction() {
+    loadApi(new Runnable() {
+      public void run() {
+        TestClient client = new TestClient(2);
+        for (String query : new String[] {"a", "b", "a", "c"}) {
+          client.send("source", query, new CountingCallback());
+          if (!client.sent.isEmpty()) {
+            client.answer(createResponse(createData(1)));
+          }
+        }
+        // "b" was the least recently used entry
+        assertEquals(2, client.size());
+        assertEquals(1, client.getEvictionCount());
+        client.send("source", "b", new CountingCallback());
+        assertEquals(1, client.sent.size());
+      }
+    });
+  }
+
+  public void testPollSkipsUnchangedData() {
+    loadApi(new Runnable() {
+      public void run() {
+        final TestClient client = new TestClient(10);
+        final CountingCallback callback = new CountingCallback();
+        final QueryClient.Poll poll = client.poll("source", null, 10,
+            callback);
+        client.answer(createResponse(createData(1)));
+        assertEquals(1, callback.count);
+
+        new Timer() {
+          int ticks;
+
+          @Override
+          public void run() {
+            if (client.sent.isEmpty()) {
+              return;
+            }
+            ++ticks;
+            if (ticks > 1) {
+              // Every refresh sends the same query
+              assertSame(client.queries.get(1), client.queries.get(ticks));
+            }
+            if (ticks == 1) {
+              // Same data in a new table
+              client.answer(createResponse(createData(1)));
+              assertEquals(1, callback.count);
+              assertEquals(1, client.getSkippedRedrawCount());
+            } else if (ticks == 2) {
+              client.answer(createResponse(null));
+              assertEquals(1, callback.count);
+              assertFalse(callback.last.isError());
+              assertEquals(2, client.getSkippedRedrawCount());
+            } else {
+              client.answer(createResponse(createData(2)));
+              assertEquals(2, callback.count);
+              poll.cancel();
+              assertFalse(poll.isActive());
+              cancel();
+              finishTest();
+            }
+          }
+        }.scheduleRepeating(5);
+      }
+    }, false);
+  }
+
+  public void testSignature() {
+    loadApi(new Runnable() {
+      public void run() {
+        String signature = QueryClient.getSignature(
+            createResponse(createData(1)));
+        assertNotNull(signature);
+        assertEquals(signature,
+            QueryClient.getSignature(createResponse(createData(1))));
+        assertFalse(signature.equals(
+            QueryClient.getSignature(createResponse(createData(2)))));
+        assertNull(QueryClient.getSignature(createResponse(null)));
+      }
+    });
+  }
+
+  @Override
+  protected String getVisualizationPackage() {
+    return Table.PACKAGE;
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.visualization.client;
+
+import com.google.gwt.user.client.Timer;
+import com.google.gwt.user.client.ui.RootPanel;
+import com.google.gwt.visualization.client.AbstractDataTable.ColumnType;
+import com.google.gwt.visualization.client.visualizations.Table;
+
+/**
+ * Tests for the StreamingDataTable class.
+ */
+public class StreamingDataTableTest extends VisualizationTest {
+
+  private static DataTable createTable() {
+    DataTable data = DataTable.create();
+    data.addColumn(ColumnType.NUMBER, "Value");
+    return data;
+  }
+
+  public void testAppendPacked() {
+    loadApi(new Runnable() {
+      public void run() {
+        StreamingDataTable stream = new StreamingDataTable(createTable(), 3);
+        stream.append(new double[] {1, 2});
+        stream.append(new double[] {3, 4});
+        DataTable data = stream.getDataTable();
+        assertEquals(3, data.getNumberOfRows());
+        assertEquals(2, data.getValueInt(0, 0));
+        assertEquals(4, data.getValueInt(2, 0));
+        assertEquals(4, stream.getAppendedRowCount());
+        assertEquals(1, stream.getEvictedRowCount());
+
+        // A batch larger than the window only keeps its tail.
+        stream.append(new double[] {5, 6, 7, 8, 9});
+        assertEquals(3, data.getNumberOfRows());
+        assertEquals(7, data.getValueInt(0, 0));
+        assertEquals(9, data.getValueInt(2, 0));
+        assertEquals(9, stream.getAppendedRowCount());
+        assertEquals(6, stream.getEvictedRowCount());
+      }
+    });
+  }
+
+  public void testAppendTable() {
+    loadApi(new Runnable() {
+      public void run() {
+        StreamingDataTable stream = new StreamingDataTable(createTable(), 2);
+        DataTable batch = createTable();
+        batch.setColumnValues(0, new int[] {1, 2, 3});
+        stream.append(batch);
+        DataTable data = stream.getDataTable();
+        assertEquals(2, data.getNumberOfRows());
+        assertEquals(2, data.getValueInt(0, 0));
+        assertEquals(3, data.getValueInt(1, 0));
+
+        try {
+          stream.append(DataTable.create());
+          fail();
+        } catch (IllegalArgumentException expected) {}
+      }
+    });
+  }
+
+  public void testRedrawThrottled() {
+    loadApi(new Runnable() {
+      public void run() {
+        final StreamingDataTable stream = new StreamingDataTable(
+            createTable(), 10);
+        Table table = new Table();
+        RootPanel.get().add(table);
+        stream.bind(table, Table.Options.create());
+        stream.setRedrawInterval(200);
+        stream.append(new double[] {1});
+        stream.append(new double[] {2});
+        stream.append(new double[] {3});
+        assertTrue(stream.isRedrawPending());
+        assertEquals(0, stream.getRedrawCount());
+
+        new Timer() {
+          @Override
+          public void run() {
+            assertEquals(1, stream.getRedrawCount());
+            stream.append(new double[] {4});
+            // The next redraw waits for the interval to pass.
+            assertTrue(stream.isRedrawPending());
+            assertEquals(1, stream.getRedrawCount());
+            stream.cancel();
+            assertFalse(stream.isRedrawPending());
+            finishTest();
+          }
+        }.schedule(100);
+      }
+    }, false);
+  }
+
+  public void testWindowSize() {
+    loadApi(new Runnable() {
+      public void run() {
+        StreamingDataTable stream = new StreamingDataTable(createTable(), 5);
+        stream.append(new double[] {1, 2, 3, 4, 5});
+        stream.setWindowSize(2);
+        assertEquals(2, stream.getDataTable().getNumberOfRows());
+        assertEquals(4, stream.getDataTable().getValueInt(0, 0));
+        assertEquals(3, stream.getEvictedRowCount());
+        try {
+          stream.setWindowSize(0);
+          fail();
+        } catch (IllegalArgumentException expected) {}
+      }
+    });
+  }
+
+  @Override
+  protected String getVisualizationPackage() {
+    return Table.PACKAGE;
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.visualization.client;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.visualization.client.AbstractDataTable.ColumnType;
+import com.google.gwt.visualization.client.TableQuery.Aggregation;
+import com.google.gwt.visualization.client.TableQuery.Filter;
+import com.google.gwt.visualization.client.visualizations.Table;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares {@link TableQuery} against the same queries written in Java with
+ * the per-cell getters, on a 100k-row table. Run it manually.
+ */
+public class TableQueryBenchmark extends VisualizationTest {
+  private static final int BENCHMARK_DELAY_MS = 120 * 1000;
+  private static final int REGIONS = 50;
+  private static final int ROWS = 100000;
+  private static final int TOP = 10;
+
+  private static DataTable createTable() {
+    String[] regions = new String[ROWS];
+    double[] sales = new double[ROWS];
+    for (int i = 0; i < ROWS; i++) {
+      regions[i] = "r" + (i % REGIONS);
+      sales[i] = (i * 7919) % 100003;
+    }
+    DataTable data = DataTable.create();
+    data.addColumn(ColumnType.STRING, "Region");
+    data.addColumn(ColumnType.NUMBER, "Sales");
+    data.setColumnValues(0, regions);
+    data.setColumnValues(1, sales);
+    return data;
+  }
+
+  public void testFilterAndTop() {
+    loadApi(new Runnable() {
+      public void run() {
+        final DataTable data = createTable();
+
+        double start = Duration.currentTimeMillis();
+        List<Integer> rows = new ArrayList<Integer>();
+        for (int i = 0; i < ROWS; i++) {
+          if (data.getValueDouble(i, 1) > 1000) {
+            rows.add(i);
+          }
+        }
+        Collections.sort(rows, new Comparator<Integer>() {
+          public int compare(Integer a, Integer b) {
+            return Double.compare(data.getValueDouble(b, 1),
+                data.getValueDouble(a, 1));
+          }
+        });
+        rows = rows.subList(0, TOP);
+        double javaMillis = Duration.currentTimeMillis() - start;
+
+        start = Duration.currentTimeMillis();
+        int[] top = TableQuery.from(data)
+            .where(Filter.greaterThan(1, 1000))
+            .orderBy(1, false)
+            .limit(TOP)
+            .toRowIndexes();
+        double queryMillis = Duration.currentTimeMillis() - start;
+
+        for (int i = 0; i < TOP; i++) {
+          assertEquals(data.getValueDouble(rows.get(i), 1),
+              data.getValueDouble(top[i], 1));
+        }
+        report("Filter and top " + TOP, javaMillis, queryMillis);
+      }
+    }, true, BENCHMARK_DELAY_MS);
+  }
+
+  public void testGroupBy() {
+    loadApi(new Runnable() {
+      public void run() {
+        DataTable data = createTable();
+
+        double start = Duration.currentTimeMillis();
+        Map<String, Double> sums = new HashMap<String, Double>();
+        for (int i = 0; i < ROWS; i++) {
+          String region = data.getValueString(i, 0);
+          Double sum = sums.get(region);
+          sums.put(region, (sum == null ? 0 : sum) + data.getValueDouble(i, 1));
+        }
+        double javaMillis = Duration.currentTimeMillis() - start;
+
+        start = Duration.currentTimeMillis();
+        DataTable result = TableQuery.from(data)
+            .groupBy(0)
+            .aggregate(Aggregation.sum(1))
+            .toTable();
+        double queryMillis = Duration.currentTimeMillis() - start;
+
+        assertEquals(REGIONS, result.getNumberOfRows());
+        for (int i = 0; i < REGIONS; i++) {
+          assertEquals(sums.get(result.getValueString(i, 0)),
+              result.getValueDouble(i, 1));
+        }
+        report("Group by", javaMillis, queryMillis);
+      }
+    }, true, BENCHMARK_DELAY_MS);
+  }
+
+  @Override
+  protected String getVisualizationPackage() {
+    return Table.PACKAGE;
+  }
+
+  private void report(String name, double javaMillis, double queryMillis) {
+    System.out.println(name + " " + ROWS + " rows: Java " + javaMillis
+        + "ms, TableQuery " + queryMillis + "ms");
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2010 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.visualization.client;
+
+import com.google.gwt.visualization.client.AbstractDataTable.ColumnType;
+import com.google.gwt.visualization.client.TableQuery.Aggregation;
+import com.google.gwt.visualization.client.TableQuery.Filter;
+import com.google.gwt.visualization.client.visualizations.Table;
+
+import java.util.Arrays;
+
+/**
+ * Tests for the TableQuery class.
+ */
+public class TableQueryTest extends VisualizationTest {
+
+  private static DataTable createSales() {
+    DataTable data = DataTable.create();
+    data.addColumn(ColumnType.STRING, "Region", "region");
+    data.addColumn(ColumnType.NUMBER, "Sales", "sales");
+    data.setColumnValues(0, new String[] {"a", "b", "a", null, "c", "b"});
+    data.setColumnValues(1, new double[] {5, 1, 7, 3, Double.NaN, 9});
+    return data;
+  }
+
+  public void testAggregateWithoutGroups() {
+    loadApi(new Runnable() {
+      public void run() {
+        DataTable result = TableQuery.from(createSales())
+            .where(Filter.greaterThan(1, 100))
+            .aggregate(Aggregation.count(), Aggregation.sum(1))
+            .toTable();
+        assertEquals(1, result.getNumberOfRows());
+        assertEquals(0, result.getValueInt(0, 0));
+        assertEquals(0, result.getValueInt(0, 1));
+      }
+    });
+  }
+
+  public void testFilters() {
+    loadApi(new Runnable() {
+      public void run() {
+        DataTable data = createSales();
+        assertRows(TableQuery.from(data).where(Filter.greaterThan(1, 3)),
+            0, 2, 5);
+        assertRows(TableQuery.from(data)
+            .where(Filter.greaterThan(1, 3))
+            .where(Filter.equalTo(0, "a")), 0, 2);
+        assertRows(TableQuery.from(data).where(Filter.in(0, "a", "c")),
+            0, 2, 4);
+        assertRows(TableQuery.from(data).where(Filter.or(
+            Filter.isNull(0), Filter.between(1, 8, 9))), 3, 5);
+        assertRows(TableQuery.from(data).where(
+            Filter.not(Filter.isNotNull(1))), 4);
+        assertRows(TableQuery.from(data).where(Filter.startsWith(0, "b")),
+            1, 5);
+      }
+    });
+  }
+
+  public void testGroupBy() {
+    loadApi(new Runnable() {
+      public void run() {
+        DataTable result = TableQuery.from(createSales())
+            .where(Filter.isNotNull(0))
+            .groupBy(0)
+            .aggregate(Aggregation.sum(1), Aggregation.count(),
+                Aggregation.max(1).setLabel("Best"))
+            .orderBy(1, false)
+            .toTable();
+        assertEquals(4, result.getNumberOfColumns());
+        assertEquals("Region", result.getColumnLabel(0));
+        assertEquals("sum(Sales)", result.getColumnLabel(1));
+        assertEquals("Best", result.getColumnLabel(3));
+        assertEquals(3, result.getNumberOfRows());
+        assertEquals("a", result.getValueString(0, 0));
+        assertEquals(12, result.getValueInt(0, 1));
+        assertEquals(2, result.getValueInt(0, 2));
+        assertEquals(7, result.getValueInt(0, 3));
+        assertEquals("b", result.getValueString(1, 0));
+        assertEquals("c", result.getValueString(2, 0));
+        assertTrue(result.isValueNull(2, 3));
+
+        try {
+          TableQuery.from(createSales()).groupBy(0).toView();
+          fail();
+        } catch (IllegalStateException expected) {}
+      }
+    });
+  }
+
+  public void testOrderByAndLimit() {
+    loadApi(new Runnable() {
+      public void run() {
+        DataTable data = createSales();
+        assertRows(TableQuery.from(data).orderBy(1, false).limit(2), 5, 2);
+        assertRows(TableQuery.from(data).orderBy(0).orderBy(1, false),
+            3, 2, 0, 5, 1, 4);
+        assertRows(TableQuery.from(data).limit(0));
+      }
+    });
+  }
+
+  public void testToTable() {
+    loadApi(new Runnable() {
+      public void run() {
+        DataTable result = TableQuery.from(createSales())
+            .where(Filter.equalTo(0, "b"))
+            .select(1)
+            .toTable();
+        assertEquals(1, result.getNumberOfColumns());
+        assertEquals("sales", result.getColumnId(0));
+        assertEquals(2, result.getNumberOfRows());
+        assertEquals(1, result.getValueInt(0, 0));
+        assertEquals(9, result.getValueInt(1, 0));
+      }
+    });
+  }
+
+  public void testToView() {
+    loadApi(new Runnable() {
+      public void run() {
+        DataView view = TableQuery.from(createSales())
+            .where(Filter.lessThan(1, 6))
+            .orderBy(1)
+            .select(1, 0)
+            .toView();
+        assertEquals(3, view.getNumberOfRows());
+        assertEquals(2, view.getNumberOfColumns());
+        assertEquals(1, view.getValueInt(0, 0));
+        assertEquals("b", view.getValueString(0, 1));
+        assertEquals(3, view.getTableRowIndex(1));
+      }
+    });
+  }
+
+  @Override
+  protected String getVisualizationPackage() {
+    return Table.PACKAGE;
+  }
+
+  private void assertRows(TableQuery query, int... expected) {
+    assertEquals(Arrays.toString(expected),
+        Arrays.toString(query.toRowIndexes()));
+  }
+}